@@ -8,6 +8,7 @@ import org.workcraft.dom.references.FileReference;
 import org.workcraft.exceptions.InvalidConnectionException;
 import org.workcraft.plugins.circuit.observers.FunctionConsistencySupervisor;
 import org.workcraft.plugins.circuit.observers.IOTypeConsistencySupervisor;
+import org.workcraft.plugins.circuit.observers.NetlistIndex;
 import org.workcraft.plugins.circuit.observers.ZeroDelayConsistencySupervisor;
 import org.workcraft.plugins.circuit.references.CircuitReferenceManager;
 import org.workcraft.serialisation.NoAutoSerialisation;
@@ -22,6 +23,7 @@ import java.util.Collection;
 public class Circuit extends AbstractMathModel {
 
     private FileReference environment = null;
+    private final NetlistIndex netlistIndex;
 
     public Circuit() {
         this(null, null);
@@ -32,6 +34,12 @@ public class Circuit extends AbstractMathModel {
         new FunctionConsistencySupervisor().attach(getRoot());
         new ZeroDelayConsistencySupervisor(this).attach(getRoot());
         new IOTypeConsistencySupervisor(this).attach(getRoot());
+        netlistIndex = new NetlistIndex(this);
+        netlistIndex.attach(getRoot());
+    }
+
+    public NetlistIndex getNetlistIndex() {
+        return netlistIndex;
     }
 
     @Override
@@ -55,31 +63,31 @@ public class Circuit extends AbstractMathModel {
     }
 
     public Collection<FunctionContact> getFunctionContacts() {
-        return Hierarchy.getDescendantsOfType(getRoot(), FunctionContact.class);
+        return getDescendantsOfType(FunctionContact.class);
     }
 
     public Collection<FunctionComponent> getFunctionComponents() {
-        return Hierarchy.getDescendantsOfType(getRoot(), FunctionComponent.class);
+        return getDescendantsOfType(FunctionComponent.class);
     }
 
     public Collection<Joint> getJoints() {
-        return Hierarchy.getDescendantsOfType(getRoot(), Joint.class);
+        return getDescendantsOfType(Joint.class);
     }
 
     public Collection<Contact> getPorts() {
-        return Hierarchy.getDescendantsOfType(getRoot(), Contact.class, contact -> contact.isPort());
+        return getDescendantsOfType(Contact.class, contact -> contact.isPort());
     }
 
     public Collection<Contact> getInputPorts() {
-        return Hierarchy.getDescendantsOfType(getRoot(), Contact.class, contact -> contact.isPort() && contact.isInput());
+        return getDescendantsOfType(Contact.class, contact -> contact.isPort() && contact.isInput());
     }
 
     public Collection<Contact> getOutputPorts() {
-        return Hierarchy.getDescendantsOfType(getRoot(), Contact.class, contact -> contact.isPort() && contact.isOutput());
+        return getDescendantsOfType(Contact.class, contact -> contact.isPort() && contact.isOutput());
     }
 
     public Collection<Contact> getDrivers() {
-        return Hierarchy.getDescendantsOfType(getRoot(), Contact.class, contact -> contact.isDriver());
+        return getDescendantsOfType(Contact.class, contact -> contact.isDriver());
     }
 
     @Override
@@ -9,6 +9,7 @@ import org.workcraft.plugins.circuit.commands.*;
 import org.workcraft.plugins.circuit.interop.GenlibImporter;
 import org.workcraft.plugins.circuit.interop.VerilogExporter;
 import org.workcraft.plugins.circuit.interop.VerilogImporter;
+import org.workcraft.plugins.circuit.serialisation.FunctionCopier;
 import org.workcraft.plugins.circuit.serialisation.FunctionDeserialiser;
 import org.workcraft.plugins.circuit.serialisation.FunctionSerialiser;
 import org.workcraft.utils.ScriptableCommandUtils;
@@ -33,6 +34,7 @@ public class CircuitPlugin implements Plugin {
         pm.registerModelDescriptor(CircuitDescriptor.class);
         pm.registerXmlSerialiser(FunctionSerialiser.class);
         pm.registerXmlDeserialiser(FunctionDeserialiser.class);
+        pm.registerCustomCopier(FunctionCopier.class);
         pm.registerSettings(CircuitSettings.class);
 
         pm.registerExporter(VerilogExporter.class);
@@ -97,6 +99,11 @@ public class CircuitPlugin implements Plugin {
         ScriptableCommandUtils.registerCommand(RefinementVerificationCommand.class, "checkCircuitRefinement",
                 "check the Circuit 'work' is a refinement of its environment STG");
 
+        ScriptableCommandUtils.registerDataCommand(RandomSimulationCommand.class, "simulateCircuitRandom",
+                "check the Circuit 'work' for hazards and deadlocks by random simulation, 'data' is the step count optionally followed by a seed");
+        ScriptableCommandUtils.registerDataCommand(TraceSimulationCommand.class, "simulateCircuitTrace",
+                "check the Circuit 'work' for hazards and deadlocks along the trace 'data'");
+
         ScriptableCommandUtils.registerDataCommand(ReachAssertionVerificationCommand.class, "checkCircuitReachAssertion",
                 "check the Circuit 'work' for REACH assertion 'data'");
         ScriptableCommandUtils.registerDataCommand(SignalAssertionVerificationCommand.class, "checkCircuitSignalAssertion",
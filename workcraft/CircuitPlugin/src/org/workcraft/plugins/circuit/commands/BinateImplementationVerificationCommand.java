@@ -114,10 +114,8 @@ public class BinateImplementationVerificationCommand extends org.workcraft.comma
             for (FunctionContact outputContact : component.getFunctionOutputs()) {
                 if (outputContact.isSequential()) continue;
                 BooleanFormula formula = CircuitUtils.getDriverFormula(circuit, outputContact.getSetFunction());
-                for (BooleanVariable variable : FormulaUtils.extractOrderedVariables(formula)) {
-                    if (new BddManager().isBinate(formula, variable)) {
-                        result.add(new BinateData(outputContact, formula, variable));
-                    }
+                for (BooleanVariable variable : BddManager.getInstance().getBinateVariables(formula)) {
+                    result.add(new BinateData(outputContact, formula, variable));
                 }
             }
         }
@@ -0,0 +1,86 @@
+package org.workcraft.plugins.circuit.commands;
+
+import org.workcraft.commands.AbstractVerificationCommand;
+import org.workcraft.commands.ScriptableDataCommand;
+import org.workcraft.plugins.circuit.Circuit;
+import org.workcraft.plugins.circuit.utils.CircuitSimulationResult;
+import org.workcraft.plugins.circuit.utils.CircuitSimulator;
+import org.workcraft.tasks.ProgressMonitor;
+import org.workcraft.tasks.Result;
+import org.workcraft.types.Pair;
+import org.workcraft.utils.DialogUtils;
+import org.workcraft.utils.WorkspaceUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+public class RandomSimulationCommand extends AbstractVerificationCommand
+        implements ScriptableDataCommand<String, Pair<Integer, Long>> {
+
+    private static final int DEFAULT_STEP_COUNT = 1000;
+    private static final long DEFAULT_SEED = 0;
+
+    @Override
+    public String getDisplayName() {
+        return "Hazards and deadlocks by random simulation";
+    }
+
+    @Override
+    public boolean isApplicableTo(WorkspaceEntry we) {
+        return WorkspaceUtils.isApplicable(we, Circuit.class);
+    }
+
+    @Override
+    public boolean isVisibleInMenu() {
+        return false;
+    }
+
+    @Override
+    public void run(WorkspaceEntry we) {
+        DialogUtils.showInfo(execute(we, Pair.of(DEFAULT_STEP_COUNT, DEFAULT_SEED)), "Random simulation");
+    }
+
+    @Override
+    public void run(WorkspaceEntry we, Pair<Integer, Long> data, ProgressMonitor monitor) {
+        monitor.isFinished(Result.success(execute(we, data)));
+    }
+
+    /**
+     * Step count optionally followed by a random seed, separated by space.
+     */
+    @Override
+    public Pair<Integer, Long> deserialiseData(String data) {
+        String[] parts = data.trim().split("\\s+");
+        try {
+            int stepCount = parts[0].isEmpty() ? DEFAULT_STEP_COUNT : Integer.parseInt(parts[0]);
+            long seed = (parts.length > 1) ? Long.parseLong(parts[1]) : DEFAULT_SEED;
+            return Pair.of(stepCount, seed);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid random simulation parameters '" + data + "'.", e);
+        }
+    }
+
+    @Override
+    public String execute(WorkspaceEntry we, Pair<Integer, Long> data) {
+        Circuit circuit = WorkspaceUtils.getAs(we, Circuit.class);
+        CircuitSimulator simulator = new CircuitSimulator(circuit);
+        int stepCount = data.getFirst();
+        long seed = data.getSecond();
+        CircuitSimulationResult result = simulator.simulate(stepCount, seed);
+        StringBuilder text = new StringBuilder("Random simulation of " + result.getStepCount() + " steps in "
+                + CircuitSimulator.LANE_COUNT + " runs (seed " + seed + ")");
+        if (!result.hasViolations()) {
+            return text.append(": no hazards or deadlocks found.").toString();
+        }
+        text.append(':');
+        CircuitSimulationResult.Violation firstViolation = null;
+        for (CircuitSimulationResult.Violation violation : result.getViolations()) {
+            text.append("\n  ").append(violation);
+            if ((firstViolation == null) || (violation.getStep() < firstViolation.getStep())) {
+                firstViolation = violation;
+            }
+        }
+        text.append("\nShortest violation trace: ")
+                .append(simulator.getTrace(firstViolation.getStep(), seed, firstViolation.getLane()));
+        return text.toString();
+    }
+
+}
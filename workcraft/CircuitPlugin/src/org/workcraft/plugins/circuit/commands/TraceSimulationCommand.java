@@ -0,0 +1,70 @@
+package org.workcraft.plugins.circuit.commands;
+
+import org.workcraft.commands.AbstractVerificationCommand;
+import org.workcraft.commands.ScriptableDataCommand;
+import org.workcraft.plugins.circuit.Circuit;
+import org.workcraft.plugins.circuit.utils.CircuitSimulationResult;
+import org.workcraft.plugins.circuit.utils.CircuitSimulator;
+import org.workcraft.tasks.ProgressMonitor;
+import org.workcraft.tasks.Result;
+import org.workcraft.traces.Trace;
+import org.workcraft.utils.DialogUtils;
+import org.workcraft.utils.TraceUtils;
+import org.workcraft.utils.WorkspaceUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+public class TraceSimulationCommand extends AbstractVerificationCommand
+        implements ScriptableDataCommand<String, Trace> {
+
+    @Override
+    public String getDisplayName() {
+        return "Hazards and deadlocks along a trace";
+    }
+
+    @Override
+    public boolean isApplicableTo(WorkspaceEntry we) {
+        return WorkspaceUtils.isApplicable(we, Circuit.class);
+    }
+
+    @Override
+    public boolean isVisibleInMenu() {
+        return false;
+    }
+
+    @Override
+    public void run(WorkspaceEntry we) {
+        String data = DialogUtils.showInput("Trace to replay:", "Trace replay", "");
+        if ((data != null) && !data.trim().isEmpty()) {
+            DialogUtils.showInfo(execute(we, deserialiseData(data)), "Trace replay");
+        }
+    }
+
+    @Override
+    public void run(WorkspaceEntry we, Trace data, ProgressMonitor monitor) {
+        monitor.isFinished(Result.success(execute(we, data)));
+    }
+
+    @Override
+    public Trace deserialiseData(String data) {
+        return TraceUtils.deserialiseTrace(data);
+    }
+
+    @Override
+    public String execute(WorkspaceEntry we, Trace data) {
+        Circuit circuit = WorkspaceUtils.getAs(we, Circuit.class);
+        CircuitSimulationResult result = new CircuitSimulator(circuit).replay(data);
+        StringBuilder text = new StringBuilder("Trace replay of " + result.getStepCount() + " out of "
+                + data.size() + " events");
+        if (!result.hasViolations()) {
+            return text.append(": no hazards or deadlocks found.").toString();
+        }
+        text.append(':');
+        for (CircuitSimulationResult.Violation violation : result.getViolations()) {
+            text.append("\n  ").append(violation.getType())
+                    .append(violation.getName() == null ? "" : " '" + violation.getName() + "'")
+                    .append(" after ").append(violation.getStep()).append(" events");
+        }
+        return text.toString();
+    }
+
+}
@@ -125,7 +125,7 @@ public class GenlibUtils {
         List<BooleanVariable> firstVars = FormulaUtils.extractOrderedVariables(firstFormula);
         List<BooleanVariable> secondVars = FormulaUtils.extractOrderedVariables(secondFormula);
         if (firstVars.size() == secondVars.size()) {
-            BddManager bdd = new BddManager();
+            BddManager bdd = BddManager.getInstance();
             for (List<BooleanVariable> vars : generatePermutations(firstVars)) {
                 BooleanFormula mappedFormula = FormulaUtils.replace(firstFormula, vars, secondVars);
                 if (bdd.equal(mappedFormula, secondFormula)) {
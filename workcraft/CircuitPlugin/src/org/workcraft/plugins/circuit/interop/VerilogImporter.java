@@ -394,7 +394,7 @@ public class VerilogImporter implements Importer {
             BooleanVariable aVar = variables.get(0);
             BooleanVariable bVar = variables.get(1);
             BooleanVariable cVar = variables.get(2);
-            return new BddManager().equal(FormulaUtils.createMaj(aVar, bVar, cVar), formula);
+            return BddManager.getInstance().equal(FormulaUtils.createMaj(aVar, bVar, cVar), formula);
         } catch (ParseException e) {
             return false;
         }
@@ -0,0 +1,267 @@
+package org.workcraft.plugins.circuit.observers;
+
+import org.workcraft.dom.Node;
+import org.workcraft.dom.math.MathConnection;
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.observation.*;
+import org.workcraft.plugins.circuit.*;
+
+import java.util.*;
+
+/**
+ * Driver and driven contacts of circuit nodes, with and without zero delay components treated as transparent.
+ * Lookups are traced through joints (and zero delay buffers and inverters) on first request and then cached.
+ * A change of connectivity, I/O type of a contact, or zero delay status or function of a component only drops
+ * the cached entries of the affected nets. Nets of deleted nodes are traced before their deletion, and nets
+ * of added connections are traced from their endpoints, which were connected in the same nets before.
+ */
+public class NetlistIndex extends StateSupervisor {
+
+    private final Circuit circuit;
+    private final Map<MathNode, Contact> drivers = new HashMap<>();
+    private final Map<MathNode, Contact> transparentDrivers = new HashMap<>();
+    private final Map<MathNode, Set<Contact>> drivens = new HashMap<>();
+    private final Map<MathNode, Set<Contact>> transparentDrivens = new HashMap<>();
+
+    public NetlistIndex(Circuit circuit) {
+        this.circuit = circuit;
+    }
+
+    public synchronized Contact getDriver(MathNode node, boolean transparentZeroDelayComponents) {
+        if (node instanceof MathConnection) {
+            node = ((MathConnection) node).getFirst();
+        }
+        Map<MathNode, Contact> cache = transparentZeroDelayComponents ? transparentDrivers : drivers;
+        if (cache.containsKey(node)) {
+            return cache.get(node);
+        }
+        Contact result = traceDriver(node, transparentZeroDelayComponents);
+        cache.put(node, result);
+        return result;
+    }
+
+    /**
+     * Driven contacts of the node. The returned set is shared between calls and cannot be modified.
+     */
+    public synchronized Set<Contact> getDriven(MathNode node, boolean transparentZeroDelayComponents) {
+        if (node instanceof MathConnection) {
+            node = ((MathConnection) node).getSecond();
+        }
+        Map<MathNode, Set<Contact>> cache = transparentZeroDelayComponents ? transparentDrivens : drivens;
+        Set<Contact> result = cache.get(node);
+        if (result == null) {
+            result = Collections.unmodifiableSet(traceDriven(node, transparentZeroDelayComponents));
+            cache.put(node, result);
+        }
+        return result;
+    }
+
+    private Contact traceDriver(MathNode curNode, boolean transparentZeroDelayComponents) {
+        Contact result = null;
+        HashSet<MathNode> visited = new HashSet<>();
+        Queue<MathNode> queue = new ArrayDeque<>();
+        queue.add(curNode);
+        while (!queue.isEmpty()) {
+            if (queue.size() != 1) {
+                throw new RuntimeException("Found more than one potential driver for '"
+                        + circuit.getNodeReference(curNode) + "'!");
+            }
+            MathNode node = queue.remove();
+            if (!visited.add(node)) {
+                continue;
+            }
+            if (node instanceof Joint) {
+                queue.addAll(circuit.getPreset(node));
+            } else if (node instanceof Contact) {
+                Contact contact = (Contact) node;
+                // Support for zero delay buffers and inverters.
+                Contact zeroDelayInput = transparentZeroDelayComponents ? findZeroDelayInput(contact) : null;
+                if (zeroDelayInput != null) {
+                    queue.addAll(circuit.getPreset(zeroDelayInput));
+                } else if (contact.isDriver()) {
+                    result = contact;
+                } else {
+                    queue.addAll(circuit.getPreset(contact));
+                }
+            } else {
+                throw new RuntimeException("Unexpected node '" + circuit.getNodeReference(node)
+                        + "' in the driver trace for node '" + circuit.getNodeReference(curNode) + "'!");
+            }
+        }
+        return result;
+    }
+
+    private Set<Contact> traceDriven(MathNode curNode, boolean transparentZeroDelayComponents) {
+        Set<Contact> result = new HashSet<>();
+        HashSet<MathNode> visited = new HashSet<>();
+        Queue<MathNode> queue = new ArrayDeque<>();
+        queue.add(curNode);
+        while (!queue.isEmpty()) {
+            MathNode node = queue.remove();
+            if (!visited.add(node)) {
+                continue;
+            }
+            if (node instanceof Joint) {
+                queue.addAll(circuit.getPostset(node));
+            } else if (node instanceof Contact) {
+                Contact contact = (Contact) node;
+                // Support for zero delay buffers and inverters.
+                Contact zeroDelayOutput = transparentZeroDelayComponents ? findZeroDelayOutput(contact) : null;
+                if (zeroDelayOutput != null) {
+                    queue.addAll(circuit.getPostset(zeroDelayOutput));
+                } else if (contact.isDriven()) {
+                    result.add(contact);
+                } else {
+                    queue.addAll(circuit.getPostset(contact));
+                }
+            } else {
+                throw new RuntimeException("Unexpected node '" + circuit.getNodeReference(node)
+                        + "' in the driven trace for node '" + circuit.getNodeReference(curNode) + "'!");
+            }
+        }
+        return result;
+    }
+
+    private static Contact findZeroDelayInput(Contact contact) {
+        Node parent = contact.getParent();
+        if (contact.isOutput() && (parent instanceof FunctionComponent)) {
+            FunctionComponent component = (FunctionComponent) parent;
+            if (component.getIsZeroDelay() && (component.isBuffer() || component.isInverter())) {
+                return component.getFirstInput();
+            }
+        }
+        return null;
+    }
+
+    private static Contact findZeroDelayOutput(Contact contact) {
+        Node parent = contact.getParent();
+        if (contact.isInput() && (parent instanceof FunctionComponent)) {
+            FunctionComponent component = (FunctionComponent) parent;
+            if (component.getIsZeroDelay() && (component.isBuffer() || component.isInverter())) {
+                return component.getFirstOutput();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void handleHierarchyEvent(HierarchyEvent e) {
+        if (isEmpty()) {
+            return;
+        }
+        if (e instanceof NodesDeletingEvent) {
+            // Nodes are still connected, so their nets can be traced before deletion
+            Set<MathNode> nodes = new HashSet<>();
+            for (Node node : e.getAffectedNodes()) {
+                collectDeletedNodes(node, nodes);
+            }
+            if (e.getSender() instanceof CircuitComponent) {
+                nodes.addAll(((CircuitComponent) e.getSender()).getContacts());
+            }
+            invalidateNets(nodes);
+        } else if (e instanceof NodesAddedEvent) {
+            // Added nodes are not connected yet, only the endpoints of added connections need tracing
+            Set<MathNode> nodes = new HashSet<>();
+            for (Node node : e.getAffectedNodes()) {
+                if (node instanceof MathConnection) {
+                    nodes.add(((MathConnection) node).getFirst());
+                    nodes.add(((MathConnection) node).getSecond());
+                }
+            }
+            if (e.getSender() instanceof CircuitComponent) {
+                // New contacts may change whether the component is a buffer or inverter
+                for (Contact contact : ((CircuitComponent) e.getSender()).getContacts()) {
+                    if (!e.getAffectedNodes().contains(contact)) {
+                        nodes.add(contact);
+                    }
+                }
+            }
+            invalidateNets(nodes);
+        } else if (e instanceof NodesReparentedEvent) {
+            // Moving contacts between components and the root changes pins into ports, so start anew
+            clear();
+        }
+    }
+
+    private void collectDeletedNodes(Node node, Set<MathNode> nodes) {
+        if (node instanceof MathConnection) {
+            MathConnection connection = (MathConnection) node;
+            nodes.add(connection.getFirst());
+            nodes.add(connection.getSecond());
+        } else if ((node instanceof Joint) || (node instanceof Contact)) {
+            nodes.add((MathNode) node);
+        }
+        for (Node child : node.getChildren()) {
+            collectDeletedNodes(child, nodes);
+        }
+    }
+
+    private void removeEntries(Node node) {
+        drivers.remove(node);
+        transparentDrivers.remove(node);
+        drivens.remove(node);
+        transparentDrivens.remove(node);
+        for (Node child : node.getChildren()) {
+            removeEntries(child);
+        }
+    }
+
+    @Override
+    public synchronized void handleEvent(StateEvent e) {
+        if (isEmpty() || !(e instanceof PropertyChangedEvent)) {
+            return;
+        }
+        Object sender = e.getSender();
+        String propertyName = ((PropertyChangedEvent) e).getPropertyName();
+        if ((sender instanceof Contact) && Contact.PROPERTY_IO_TYPE.equals(propertyName)) {
+            invalidateNets(Collections.singleton((Contact) sender));
+        } else if ((sender instanceof FunctionContact)
+                && (FunctionContact.PROPERTY_SET_FUNCTION.equals(propertyName)
+                || FunctionContact.PROPERTY_RESET_FUNCTION.equals(propertyName))) {
+
+            Node parent = ((FunctionContact) sender).getParent();
+            if (parent instanceof CircuitComponent) {
+                invalidateNets(((CircuitComponent) parent).getContacts());
+            }
+        } else if ((sender instanceof FunctionComponent)
+                && FunctionComponent.PROPERTY_IS_ZERO_DELAY.equals(propertyName)) {
+
+            invalidateNets(((FunctionComponent) sender).getContacts());
+        }
+    }
+
+    /**
+     * Drops cached entries of all nodes electrically connected to the given nodes, including connections
+     * through zero delay components.
+     */
+    private void invalidateNets(Collection<? extends MathNode> nodes) {
+        Set<MathNode> visited = new HashSet<>();
+        Queue<MathNode> queue = new ArrayDeque<>(nodes);
+        while (!queue.isEmpty()) {
+            MathNode node = queue.remove();
+            if (!visited.add(node)) {
+                continue;
+            }
+            removeEntries(node);
+            queue.addAll(circuit.getPreset(node));
+            queue.addAll(circuit.getPostset(node));
+            Node parent = node.getParent();
+            if ((node instanceof Contact) && (parent instanceof FunctionComponent)
+                    && ((FunctionComponent) parent).getIsZeroDelay()) {
+                queue.addAll(((FunctionComponent) parent).getContacts());
+            }
+        }
+    }
+
+    private boolean isEmpty() {
+        return drivers.isEmpty() && transparentDrivers.isEmpty() && drivens.isEmpty() && transparentDrivens.isEmpty();
+    }
+
+    private void clear() {
+        drivers.clear();
+        transparentDrivers.clear();
+        drivens.clear();
+        transparentDrivens.clear();
+    }
+
+}
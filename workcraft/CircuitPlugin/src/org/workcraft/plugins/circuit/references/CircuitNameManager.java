@@ -122,6 +122,7 @@ public class CircuitNameManager extends DefaultNameManager {
 
     private void setSignalName(Node node, String name) {
         signalMap.put(Identifier.truncateNamespaceSeparator(name), node);
+        notifyNameChange(node);
     }
 
 }
@@ -0,0 +1,235 @@
+package org.workcraft.plugins.circuit.routing.impl;
+
+import org.workcraft.plugins.circuit.routing.basic.IndexedPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Goal-directed path search on flat primitive buffers. The buffers are allocated once per routing grid size and
+ * reused for all connections, one set of buffers per concurrently routed connection.
+ */
+public class AStarRouter extends AbstractRoutingAlgorithm {
+
+    private final ConcurrentLinkedQueue<SearchBuffers> buffersPool = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public List<Route> route(RouterTask task, CoordinatesRegistry coordinates, boolean occupyCells) {
+        try {
+            return super.route(task, coordinates, occupyCells);
+        } finally {
+            // Grid buffers are large, so they are not kept between routing phases
+            buffersPool.clear();
+        }
+    }
+
+    @Override
+    protected List<IndexedPoint> findPath(CellAnalyser analyser, IndexedPoint source, IndexedPoint destination) {
+        if ((source == null) || (destination == null)) {
+            return null;
+        }
+        SearchBuffers buffers = buffersPool.poll();
+        if (buffers == null) {
+            buffers = new SearchBuffers();
+        }
+        try {
+            return buffers.findPath(analyser, source, destination);
+        } finally {
+            buffersPool.add(buffers);
+        }
+    }
+
+    private final class SearchBuffers {
+        // Cells are touched/closed in the current search if their stamps are equal to the search generation,
+        // so the buffers do not need to be cleared between searches
+        private int generation = 0;
+        private int[] touchedStamps = new int[0];
+        private int[] closedStamps = new int[0];
+        private double[] scores = new double[0];
+        private int[] parents = new int[0];
+        private final CellHeap heap = new CellHeap();
+
+        private void prepare(int size) {
+            if (touchedStamps.length < size) {
+                touchedStamps = new int[size];
+                closedStamps = new int[size];
+                scores = new double[size];
+                parents = new int[size];
+                generation = 0;
+            }
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(touchedStamps, 0);
+                Arrays.fill(closedStamps, 0);
+                generation = 1;
+            }
+            heap.clear();
+        }
+
+        private List<IndexedPoint> findPath(CellAnalyser analyser, IndexedPoint source, IndexedPoint destination) {
+            prepare(width * height);
+            int sourceCell = getCell(source.getX(), source.getY());
+            int destinationCell = getCell(destination.getX(), destination.getY());
+            // The search goes from the destination back to the source, so that the path is built from the source
+            touch(destinationCell, 1.0, -1);
+            heap.push(1.0 + analyser.getHeuristicsCost(destination.getX(), destination.getY()), 1.0, destinationCell);
+            while (!heap.isEmpty()) {
+                int cell = heap.pop();
+                if (closedStamps[cell] == generation) {
+                    // Outdated entry of a cell whose score has been improved since
+                    continue;
+                }
+                closedStamps[cell] = generation;
+                if (cell == sourceCell) {
+                    break;
+                }
+                int x = cell / height;
+                int y = cell % height;
+                int lastCell = parents[cell] < 0 ? cell : parents[cell];
+                int lastX = lastCell / height;
+                int lastY = lastCell % height;
+                double score = scores[cell];
+                for (int[] direction : DIRECTIONS) {
+                    int dx = direction[0];
+                    int dy = direction[1];
+                    double cost = analyser.getMovementCost(lastX, lastY, x, y, dx, dy);
+                    if (Double.isFinite(cost)) {
+                        int newX = x + dx;
+                        int newY = y + dy;
+                        int newCell = getCell(newX, newY);
+                        if (closedStamps[newCell] == generation) {
+                            continue;
+                        }
+                        double newScore = score + cost;
+                        if ((touchedStamps[newCell] != generation) || (newScore < scores[newCell])) {
+                            touch(newCell, newScore, cell);
+                            heap.push(newScore + analyser.getHeuristicsCost(newX, newY), newScore, newCell);
+                        } else if ((newScore == scores[newCell]) && isBetterParent(cell, parents[newCell])) {
+                            parents[newCell] = cell;
+                        }
+                    }
+                }
+            }
+            return buildPath(sourceCell);
+        }
+
+        /**
+         * Of two parents giving the same score, the one that a plain Dijkstra search would expand first is kept,
+         * so that the found paths do not depend on the order in which the heuristic explores the cells.
+         */
+        private boolean isBetterParent(int cell, int parent) {
+            return (scores[cell] < scores[parent]) || ((scores[cell] == scores[parent]) && (cell < parent));
+        }
+
+        private void touch(int cell, double score, int parent) {
+            touchedStamps[cell] = generation;
+            scores[cell] = score;
+            parents[cell] = parent;
+        }
+
+        private List<IndexedPoint> buildPath(int sourceCell) {
+            if ((touchedStamps[sourceCell] != generation) || (parents[sourceCell] < 0)) {
+                return null;
+            }
+            List<IndexedPoint> path = new ArrayList<>();
+            for (int cell = sourceCell; cell >= 0; cell = parents[cell]) {
+                path.add(IndexedPoint.create(cell / height, cell % height));
+            }
+            return path;
+        }
+    }
+
+    private int getCell(int x, int y) {
+        return x * height + y;
+    }
+
+    /**
+     * Binary min-heap of cells ordered by their estimated total cost, then by their score (so that a cell is
+     * expanded after the cells it can be reached from at the same total cost), and then by their index, i.e. by
+     * their x and then y coordinate.
+     */
+    private static final class CellHeap {
+        private double[] keys = new double[256];
+        private double[] scores = new double[256];
+        private int[] cells = new int[256];
+        private int size = 0;
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(double key, double score, int cell) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                scores = Arrays.copyOf(scores, 2 * size);
+                cells = Arrays.copyOf(cells, 2 * size);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (!isLess(key, score, cell, parent)) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            set(i, key, score, cell);
+        }
+
+        int pop() {
+            int result = cells[0];
+            size--;
+            if (size > 0) {
+                double key = keys[size];
+                double score = scores[size];
+                int cell = cells[size];
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if ((child + 1 < size) && isLess(keys[child + 1], scores[child + 1], cells[child + 1], child)) {
+                        child++;
+                    }
+                    if (!isLess(keys[child], scores[child], cells[child], key, score, cell)) {
+                        break;
+                    }
+                    move(child, i);
+                    i = child;
+                }
+                set(i, key, score, cell);
+            }
+            return result;
+        }
+
+        private void move(int from, int to) {
+            set(to, keys[from], scores[from], cells[from]);
+        }
+
+        private void set(int i, double key, double score, int cell) {
+            keys[i] = key;
+            scores[i] = score;
+            cells[i] = cell;
+        }
+
+        private boolean isLess(double key, double score, int cell, int i) {
+            return isLess(key, score, cell, keys[i], scores[i], cells[i]);
+        }
+
+        private static boolean isLess(double key1, double score1, int cell1, double key2, double score2, int cell2) {
+            int compare = Double.compare(key1, key2);
+            if (compare == 0) {
+                compare = Double.compare(score1, score2);
+            }
+            return (compare < 0) || ((compare == 0) && (cell1 < cell2));
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package org.workcraft.plugins.circuit.routing.impl;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.workcraft.plugins.circuit.commands.CircuitLayoutSettings;
 import org.workcraft.plugins.circuit.routing.basic.CellState;
@@ -14,7 +15,9 @@ import org.workcraft.plugins.circuit.routing.basic.RouterPort;
 
 public abstract class AbstractRoutingAlgorithm {
 
-    protected CellAnalyser analyser;
+    // Movement directions in the order of their exploration, which affects the choice between equal cost paths
+    protected static final int[][] DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
     protected RouterTask task;
     protected CoordinatesRegistry coordinates;
 
@@ -23,24 +26,34 @@ public abstract class AbstractRoutingAlgorithm {
     protected int width;
     protected int height;
 
+    /**
+     * Routes the connections of the task one by one. If cells are not occupied by the found routes, then the
+     * connections do not interact and their paths are searched in parallel.
+     */
     public List<Route> route(RouterTask task, CoordinatesRegistry coordinates, boolean occupyCells) {
         this.task = task;
         this.coordinates = coordinates;
 
         width = coordinates.getXCoordinates().size();
         height = coordinates.getYCoordinates().size();
-        analyser = new CellAnalyser(coordinates);
+        // Build coordinate indices in advance, as they are built lazily otherwise
+        coordinates.getXCoords().build();
+        coordinates.getYCoords().build();
+
+        List<RouterConnection> connections = new ArrayList<>(task.getConnections());
+        List<List<IndexedPoint>> foundPaths = null;
+        if (!occupyCells) {
+            foundPaths = connections.parallelStream()
+                    .map(connection -> findPath(new CellAnalyser(coordinates), connection))
+                    .collect(Collectors.toList());
+        }
 
+        CellAnalyser analyser = new CellAnalyser(coordinates);
         List<Route> routes = new ArrayList<>();
         List<List<IndexedPoint>> paths = new ArrayList<>();
-
-        for (RouterConnection connection: task.getConnections()) {
-            IndexedPoint sourcePoint = coordinates.getIndexedCoordinate(connection.getSource().getLocation());
-            IndexedPoint destinationPoint = coordinates.getIndexedCoordinate(connection.getDestination().getLocation());
-
-            analyser.initialise(connection);
-
-            List<IndexedPoint> path = findPath(sourcePoint, destinationPoint);
+        for (int i = 0; i < connections.size(); i++) {
+            RouterConnection connection = connections.get(i);
+            List<IndexedPoint> path = foundPaths == null ? findPath(analyser, connection) : foundPaths.get(i);
             Route route = new Route(connection.getSource(), connection.getDestination());
             if (path == null) {
                 route.setRouteFound(false);
@@ -66,6 +79,13 @@ public abstract class AbstractRoutingAlgorithm {
         return routes;
     }
 
+    private List<IndexedPoint> findPath(CellAnalyser analyser, RouterConnection connection) {
+        IndexedPoint sourcePoint = coordinates.getIndexedCoordinate(connection.getSource().getLocation());
+        IndexedPoint destinationPoint = coordinates.getIndexedCoordinate(connection.getDestination().getLocation());
+        analyser.initialise(connection);
+        return findPath(analyser, sourcePoint, destinationPoint);
+    }
+
     private void markBlockedCells(Route route, CoordinatesRegistry registry) {
         RouterCells cells = registry.getRouterCells();
         for (int i = 1; i < route.getPoints().size(); i++) {
@@ -198,6 +218,12 @@ public abstract class AbstractRoutingAlgorithm {
         return usageCounter;
     }
 
-    protected abstract List<IndexedPoint> findPath(IndexedPoint source, IndexedPoint destination);
+    /**
+     * Finds the path from the destination back to the source. The method may be called concurrently for
+     * different connections, with a separate analyser for each of them.
+     *
+     * @return list of indexed points from the source to the destination, or null if there is no path
+     */
+    protected abstract List<IndexedPoint> findPath(CellAnalyser analyser, IndexedPoint source, IndexedPoint destination);
 
 }
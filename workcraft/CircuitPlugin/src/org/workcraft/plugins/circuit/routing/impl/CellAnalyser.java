@@ -151,9 +151,12 @@ public class CellAnalyser {
         return isBlocked || isPrivate;
     }
 
-    public Double getMovementCost(int lastX, int lastY, int x, int y, int dx, int dy) {
+    /**
+     * Cost of the movement, or positive infinity if the movement is not possible.
+     */
+    public double getMovementCost(int lastX, int lastY, int x, int y, int dx, int dy) {
         if (!isMovementPossible(x, y, dx, dy)) {
-            return null;
+            return Double.POSITIVE_INFINITY;
         }
 
         double cost = 0;
@@ -184,8 +187,14 @@ public class CellAnalyser {
         return cost + 1.0;
     }
 
+    /**
+     * Lower bound of the cost of reaching the source point, as each movement costs at least its distance plus one.
+     */
     public double getHeuristicsCost(int x, int y) {
-        return 0;
+        int sourceX = sourcePoint.getX();
+        int sourceY = sourcePoint.getY();
+        return coordinatesRegistry.getXCoords().getDistance(x, sourceX) + Math.abs(x - sourceX)
+                + coordinatesRegistry.getYCoords().getDistance(y, sourceY) + Math.abs(y - sourceY);
     }
 
     public void initialise(RouterConnection connection) {
@@ -8,11 +8,19 @@ import java.util.List;
 public class Router {
 
     private final CoordinatesRegistryBuilder registryBuilder = new CoordinatesRegistryBuilder();
-    private final AbstractRoutingAlgorithm algorithm = new DijkstraRouter();
+    private final AbstractRoutingAlgorithm algorithm;
     private RouterTask routerTask = null;
     private List<Route> routesFound = null;
     private CoordinatesRegistry coordPhase = null;
 
+    public Router() {
+        this(new AStarRouter());
+    }
+
+    public Router(AbstractRoutingAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
     public void routeConnections(RouterTask routerTask) {
         if (routerTask == null || routerTask.equals(this.routerTask)) {
             return;
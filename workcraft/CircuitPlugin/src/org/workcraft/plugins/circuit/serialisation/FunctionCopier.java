@@ -0,0 +1,50 @@
+package org.workcraft.plugins.circuit.serialisation;
+
+import org.workcraft.formula.BooleanFormula;
+import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.FormulaUtils;
+import org.workcraft.plugins.circuit.FunctionContact;
+import org.workcraft.serialisation.CopyContext;
+import org.workcraft.serialisation.CustomCopier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FunctionCopier implements CustomCopier<FunctionContact> {
+
+    @Override
+    public String getClassName() {
+        return FunctionContact.class.getName();
+    }
+
+    @Override
+    public FunctionContact createInstance(FunctionContact srcInstance, CopyContext context,
+            Object... constructorParameters) {
+
+        return new FunctionContact();
+    }
+
+    @Override
+    public void initInstance(FunctionContact srcInstance, FunctionContact dstInstance, CopyContext context) {
+    }
+
+    @Override
+    public void finaliseInstance(FunctionContact srcInstance, FunctionContact dstInstance, CopyContext context) {
+        dstInstance.setSetFunction(copyFormula(srcInstance.getSetFunction(), context));
+        dstInstance.setResetFunction(copyFormula(srcInstance.getResetFunction(), context));
+    }
+
+    private BooleanFormula copyFormula(BooleanFormula formula, CopyContext context) {
+        if (formula == null) {
+            return null;
+        }
+        List<BooleanVariable> variables = FormulaUtils.extractOrderedVariables(formula);
+        List<BooleanVariable> values = new ArrayList<>();
+        for (BooleanVariable variable : variables) {
+            BooleanVariable value = context.getCopy(variable);
+            values.add(value == null ? variable : value);
+        }
+        return FormulaUtils.replace(formula, variables, values);
+    }
+
+}
@@ -266,21 +266,19 @@ public class CircuitToStgConverter {
         VisualPlace succPlace = direction == SignalTransition.Direction.PLUS ? driverStg.one : driverStg.zero;
         Collection<VisualSignalTransition> transitions = direction == SignalTransition.Direction.PLUS ? driverStg.riseList : driverStg.fallList;
 
-        TreeSet<DnfClause> clauses = new TreeSet<>(
-                (arg0, arg1) -> {
-                    String st1 = StringGenerator.toString(arg0);
-                    String st2 = StringGenerator.toString(arg1);
-                    return st1.compareTo(st2);
-                });
-
-        clauses.addAll(dnf.getClauses());
+        // Clauses are ordered (and duplicates dropped) by their string representation, which is built only once
+        TreeMap<String, DnfClause> clauses = new TreeMap<>();
+        for (DnfClause clause : dnf.getClauses()) {
+            clauses.putIfAbsent(StringGenerator.toString(clause), clause);
+        }
 
         String signalRef = CircuitUtils.getSignalReference(circuit, signal);
         String signalName = NamespaceHelper.getReferenceName(signalRef);
         Signal.Type signalType = CircuitUtils.getSignalType(circuit, signal);
         String containerRef = NamespaceHelper.getParentReference(signalRef);
         VisualPage container = stg.getVisualComponentByMathReference(containerRef, VisualPage.class);
-        for (DnfClause clause : clauses) {
+        for (Map.Entry<String, DnfClause> entry : clauses.entrySet()) {
+            DnfClause clause = entry.getValue();
             // In self-looped signals the read-arcs will clash with producing/consuming arcs:
             // 1) a read-arc from a preset place is redundant (is superseded by a consuming arc);
             // 2) a read-arc from a postset place makes the transition dead.
@@ -308,7 +306,7 @@ public class CircuitToStgConverter {
 
             if (!isDeadTransition) {
                 VisualSignalTransition transition = stg.createVisualSignalTransition(signalName, signalType, direction, container);
-                transition.setLabel(StringGenerator.toString(clause));
+                transition.setLabel(entry.getKey());
                 transitions.add(transition);
                 // Create read-arcs.
                 for (VisualPlace place : placesToRead) {
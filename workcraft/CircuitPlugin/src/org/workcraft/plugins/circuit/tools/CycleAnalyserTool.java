@@ -14,6 +14,7 @@ import org.workcraft.plugins.builtin.settings.AnalysisDecorationSettings;
 import org.workcraft.plugins.circuit.*;
 import org.workcraft.plugins.circuit.serialisation.PathbreakConstraintExporter;
 import org.workcraft.plugins.circuit.utils.CircuitUtils;
+import org.workcraft.plugins.circuit.utils.CycleOracle;
 import org.workcraft.plugins.circuit.utils.CycleUtils;
 import org.workcraft.plugins.circuit.utils.ScanUtils;
 import org.workcraft.types.Pair;
@@ -216,7 +217,8 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
 
     private void updateState(final GraphEditor editor) {
         Circuit circuit = (Circuit) editor.getModel().getMathModel();
-        cycleContacts = CycleUtils.getCycledDrivers(circuit);
+        CycleOracle oracle = new CycleOracle(circuit);
+        cycleContacts = oracle.getCycledDrivers();
         // Add components to "cycle" set if they have pins on a cycle
         cycleComponents = new HashSet<>();
         for (Contact contact : cycleContacts) {
@@ -231,13 +233,13 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
                 boolean inputOnCycle = false;
                 boolean outputOnCycle = false;
                 for (Contact input : component.getInputs()) {
-                    Contact driver = CycleUtils.findUnbrokenPathDriverPin(circuit, input);
+                    Contact driver = oracle.findUnbrokenPathDriverPin(circuit, input);
                     if (driver != null) {
                         inputOnCycle |= cycleComponents.contains(driver.getParent());
                     }
                 }
                 for (Contact output : component.getOutputs()) {
-                    for (Contact driven : CycleUtils.findUnbrokenPathDrivenPins(circuit, output)) {
+                    for (Contact driven : oracle.findUnbrokenPathDrivenPins(circuit, output)) {
                         outputOnCycle |= cycleComponents.contains(driven.getParent());
                     }
                 }
@@ -251,7 +253,7 @@ public class CycleAnalyserTool extends AbstractGraphEditorTool {
         for (FunctionComponent component : circuit.getFunctionComponents()) {
             for (Contact contact : component.getInputs()) {
                 if (!contact.getPathBreaker() && cycleComponents.contains(component)) {
-                    Contact driver = CycleUtils.findUnbrokenPathDriverPin(circuit, contact);
+                    Contact driver = oracle.findUnbrokenPathDriverPin(circuit, contact);
                     if (cycleContacts.contains(driver)) {
                         cycleContacts.add(contact);
                     }
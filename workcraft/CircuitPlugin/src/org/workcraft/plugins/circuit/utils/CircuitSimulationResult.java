@@ -0,0 +1,108 @@
+package org.workcraft.plugins.circuit.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a gate-level simulation by {@link CircuitSimulator}: the number of performed steps and the
+ * violations that stopped individual simulation runs (lanes).
+ */
+public class CircuitSimulationResult {
+
+    public enum ViolationType {
+        HAZARD("hazard"),
+        DEADLOCK("deadlock"),
+        DISABLED_EVENT("disabled event");
+
+        private final String name;
+
+        ViolationType(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final class Violation {
+        private final ViolationType type;
+        private final int lane;
+        private final int step;
+        private final String name;
+
+        public Violation(ViolationType type, int lane, int step, String name) {
+            this.type = type;
+            this.lane = lane;
+            this.step = step;
+            this.name = name;
+        }
+
+        public ViolationType getType() {
+            return type;
+        }
+
+        public int getLane() {
+            return lane;
+        }
+
+        /**
+         * Number of events fired in the lane up to the violation, including the event that caused a hazard.
+         */
+        public int getStep() {
+            return step;
+        }
+
+        /**
+         * Signal of a hazard, reference of a disabled event, or null for a deadlock.
+         */
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            String result = type.toString();
+            if (name != null) {
+                result += " '" + name + "'";
+            }
+            return result + " after " + step + " steps in run " + lane;
+        }
+    }
+
+    private final List<Violation> violations = new ArrayList<>();
+    private int stepCount = 0;
+
+    public void addViolation(Violation violation) {
+        violations.add(violation);
+    }
+
+    public List<Violation> getViolations() {
+        return Collections.unmodifiableList(violations);
+    }
+
+    public List<Violation> getViolations(ViolationType type) {
+        List<Violation> result = new ArrayList<>();
+        for (Violation violation : violations) {
+            if (violation.getType() == type) {
+                result.add(violation);
+            }
+        }
+        return result;
+    }
+
+    public boolean hasViolations() {
+        return !violations.isEmpty();
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    public void setStepCount(int value) {
+        stepCount = value;
+    }
+
+}
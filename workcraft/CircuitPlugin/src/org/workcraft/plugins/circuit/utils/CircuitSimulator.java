@@ -0,0 +1,571 @@
+package org.workcraft.plugins.circuit.utils;
+
+import org.workcraft.formula.*;
+import org.workcraft.formula.visitors.BooleanVisitor;
+import org.workcraft.plugins.circuit.Circuit;
+import org.workcraft.plugins.circuit.Contact;
+import org.workcraft.plugins.circuit.FunctionComponent;
+import org.workcraft.plugins.circuit.FunctionContact;
+import org.workcraft.plugins.stg.SignalTransition;
+import org.workcraft.plugins.stg.utils.LabelParser;
+import org.workcraft.traces.Trace;
+import org.workcraft.types.Pair;
+import org.workcraft.types.Triple;
+
+import java.util.*;
+
+/**
+ * Gate-level simulation of a circuit without its conversion to an STG. Signals are the drivers of the circuit
+ * (zero delay buffers and inverters are transparent) and the level of each signal is packed into a long word,
+ * so that {@link #LANE_COUNT} independent runs (lanes) are simulated at once. Set/reset functions of the gates
+ * are compiled into postfix programs over the signal words, the excited gates are kept in a queue, and only
+ * the gates reading a fired signal are re-evaluated after each step.
+ *
+ * Input ports, outputs of environment components, and drivers without functions are toggled by the environment
+ * in the lanes where all gates are stable (fundamental mode). A hazard is reported when an excited gate gets
+ * disabled by another event, and a deadlock when no event is enabled. A lane is stopped at its first violation.
+ */
+public class CircuitSimulator {
+
+    public static final int LANE_COUNT = Long.SIZE;
+
+    // Lanes that do not pick an event after these passes over the candidates take the first enabled one
+    private static final int MAX_SELECTION_PASSES = 8;
+
+    // Operation codes of compiled programs; non-negative codes are literals (signal index and inversion bit)
+    private static final int ZERO = -1;
+    private static final int ONE = -2;
+    private static final int NOT = -3;
+    private static final int AND = -4;
+    private static final int OR = -5;
+    private static final int XOR = -6;
+    private static final int IFF = -7;
+    private static final int IMPLY = -8;
+
+    private final List<String> signalNames = new ArrayList<>();
+    private final Map<String, Integer> signalIndices = new HashMap<>();
+    private final long[] initialValues;
+    private final boolean[] isInput;
+    private final int[] inputs;
+    private final int[] gates;
+    private final int[][] setPrograms;
+    private final int[][] resetPrograms;
+    // Gates whose functions read each signal
+    private final int[][] readers;
+    private final long[] stack;
+
+    private final long[] values;
+    private final long[] excitations;
+    // Queue of gates that are excited in at least one lane
+    private final int[] queue;
+    private final int[] queuePositions;
+    private int queueSize;
+
+    // Scratch space of a step
+    private final long[] firedLanes;
+    private final int[] firedSignals;
+    private final int[] affectedGates;
+    private final int[] affectedStamps;
+    private int stamp = 0;
+
+    public CircuitSimulator(Circuit circuit) {
+        Map<Contact, Integer> driverSignals = new HashMap<>();
+        List<Contact> drivers = new ArrayList<>();
+        for (Contact driver : circuit.getDrivers()) {
+            if (!isTransparent(driver)) {
+                String signalName = CircuitUtils.getSignalReference(circuit, driver);
+                signalIndices.put(signalName, signalNames.size());
+                driverSignals.put(driver, signalNames.size());
+                signalNames.add(signalName);
+                drivers.add(driver);
+            }
+        }
+        int count = drivers.size();
+        initialValues = new long[count];
+        isInput = new boolean[count];
+        setPrograms = new int[count][];
+        resetPrograms = new int[count][];
+        List<Integer> inputList = new ArrayList<>();
+        List<Integer> gateList = new ArrayList<>();
+        List<Set<Integer>> readerSets = new ArrayList<>();
+        int maxProgramLength = 1;
+        for (int signal = 0; signal < count; signal++) {
+            readerSets.add(new LinkedHashSet<>());
+        }
+        for (int signal = 0; signal < count; signal++) {
+            Contact driver = drivers.get(signal);
+            initialValues[signal] = driver.getInitToOne() ? -1L : 0L;
+            BooleanFormula setFunction = null;
+            BooleanFormula resetFunction = null;
+            if (isGateOutput(driver)) {
+                setFunction = ((FunctionContact) driver).getSetFunction();
+                resetFunction = ((FunctionContact) driver).getResetFunction();
+            }
+            if ((setFunction == null) && (resetFunction == null)) {
+                isInput[signal] = true;
+                inputList.add(signal);
+                continue;
+            }
+            gateList.add(signal);
+            ProgramGenerator generator = new ProgramGenerator(circuit, driverSignals);
+            setPrograms[signal] = generator.generate(setFunction);
+            resetPrograms[signal] = generator.generate(resetFunction);
+            for (int literal : generator.getLiterals()) {
+                readerSets.get(literal >> 1).add(signal);
+            }
+            maxProgramLength = Math.max(maxProgramLength, generator.getMaxLength());
+        }
+        inputs = toArray(inputList);
+        gates = toArray(gateList);
+        readers = new int[count][];
+        for (int signal = 0; signal < count; signal++) {
+            readers[signal] = toArray(readerSets.get(signal));
+        }
+        stack = new long[maxProgramLength];
+
+        values = new long[count];
+        excitations = new long[count];
+        queue = new int[count];
+        queuePositions = new int[count];
+        firedLanes = new long[count];
+        firedSignals = new int[count];
+        affectedGates = new int[count];
+        affectedStamps = new int[count];
+        reset();
+    }
+
+    private static boolean isTransparent(Contact driver) {
+        if (driver.getParent() instanceof FunctionComponent) {
+            FunctionComponent component = (FunctionComponent) driver.getParent();
+            return component.getIsZeroDelay() && (component.isBuffer() || component.isInverter());
+        }
+        return false;
+    }
+
+    private static boolean isGateOutput(Contact driver) {
+        return (driver instanceof FunctionContact) && (driver.getParent() instanceof FunctionComponent)
+                && !((FunctionComponent) driver.getParent()).getIsEnvironment();
+    }
+
+    private static int[] toArray(Collection<Integer> list) {
+        int[] result = new int[list.size()];
+        int i = 0;
+        for (int value : list) {
+            result[i++] = value;
+        }
+        return result;
+    }
+
+    public List<String> getSignalNames() {
+        return Collections.unmodifiableList(signalNames);
+    }
+
+    /**
+     * Level of the signal in the first lane, which is the lane used by {@link #replay(Trace)}.
+     */
+    public boolean isHigh(String signalName) {
+        return (values[getSignalIndex(signalName)] & 1L) != 0;
+    }
+
+    public boolean isExcited(String signalName) {
+        int signal = getSignalIndex(signalName);
+        return isInput[signal] || ((excitations[signal] & 1L) != 0);
+    }
+
+    private int getSignalIndex(String signalName) {
+        Integer result = signalIndices.get(signalName);
+        if (result == null) {
+            throw new RuntimeException("Unknown signal '" + signalName + "'.");
+        }
+        return result;
+    }
+
+    /**
+     * Restore the initial state of the circuit in all lanes.
+     */
+    public void reset() {
+        System.arraycopy(initialValues, 0, values, 0, values.length);
+        Arrays.fill(queuePositions, -1);
+        queueSize = 0;
+        for (int gate : gates) {
+            excitations[gate] = getExcitation(gate);
+            updateQueue(gate);
+        }
+    }
+
+    /**
+     * Simulate up to the given number of random steps from the initial state, firing one event per lane and step.
+     */
+    public CircuitSimulationResult simulate(int stepCount, long seed) {
+        return simulate(stepCount, seed, -1, null);
+    }
+
+    /**
+     * Events fired in the lane during a random simulation with the same step count and seed. As the random
+     * choices are deterministic, this reproduces the trace of a violation reported by {@link #simulate(int, long)}
+     * when called with the step of the violation.
+     */
+    public Trace getTrace(int stepCount, long seed, int lane) {
+        Trace result = new Trace();
+        simulate(stepCount, seed, lane, result);
+        return result;
+    }
+
+    private CircuitSimulationResult simulate(int stepCount, long seed, int traceLane, Trace trace) {
+        reset();
+        CircuitSimulationResult result = new CircuitSimulationResult();
+        Random random = new Random(seed);
+        int[] candidates = new int[values.length];
+        long activeLanes = -1L;
+        int step = 0;
+        while ((step < stepCount) && (activeLanes != 0)) {
+            // Excited gates compete in their lanes, and inputs in the lanes where all gates are stable
+            int candidateCount = 0;
+            long unstableLanes = 0;
+            for (int i = 0; i < queueSize; i++) {
+                int gate = queue[i];
+                candidates[candidateCount++] = gate;
+                unstableLanes |= excitations[gate];
+            }
+            long stableLanes = activeLanes & ~unstableLanes;
+            if ((stableLanes != 0) && (inputs.length > 0)) {
+                for (int input : inputs) {
+                    candidates[candidateCount++] = input;
+                }
+            } else if (stableLanes != 0) {
+                addViolations(result, CircuitSimulationResult.ViolationType.DEADLOCK, stableLanes, step, null);
+                activeLanes &= ~stableLanes;
+                stableLanes = 0;
+                if (activeLanes == 0) {
+                    break;
+                }
+            }
+            // Random order of candidates makes the choice uniform among the enabled events of each lane
+            for (int i = candidateCount - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int candidate = candidates[i];
+                candidates[i] = candidates[j];
+                candidates[j] = candidate;
+            }
+            int firedCount = 0;
+            long remainingLanes = activeLanes;
+            for (int pass = 0; remainingLanes != 0; pass++) {
+                for (int i = 0; (i < candidateCount) && (remainingLanes != 0); i++) {
+                    int signal = candidates[i];
+                    long lanes = (isInput[signal] ? stableLanes : excitations[signal]) & remainingLanes;
+                    if ((lanes != 0) && (pass < MAX_SELECTION_PASSES)) {
+                        lanes &= random.nextLong();
+                    }
+                    if (lanes != 0) {
+                        if (firedLanes[signal] == 0) {
+                            firedSignals[firedCount++] = signal;
+                        }
+                        firedLanes[signal] |= lanes;
+                        remainingLanes &= ~lanes;
+                    }
+                }
+            }
+            if ((trace != null) && (((activeLanes >> traceLane) & 1L) != 0)) {
+                for (int i = 0; i < firedCount; i++) {
+                    int signal = firedSignals[i];
+                    if (((firedLanes[signal] >> traceLane) & 1L) != 0) {
+                        trace.add(getEventReference(signal, traceLane));
+                    }
+                }
+            }
+            step++;
+            long hazardLanes = fire(firedCount, activeLanes, step, result);
+            activeLanes &= ~hazardLanes;
+        }
+        result.setStepCount(step);
+        return result;
+    }
+
+    /**
+     * Replay the events of the trace in the first lane from the initial state, reporting all hazards along the trace
+     * and a deadlock at its end. Replay stops at the first event that is unknown or not enabled, which is reported
+     * as a violation too.
+     */
+    public CircuitSimulationResult replay(Trace trace) {
+        reset();
+        CircuitSimulationResult result = new CircuitSimulationResult();
+        int step = 0;
+        for (String ref : trace) {
+            int signal = getEnabledSignal(ref);
+            if (signal < 0) {
+                addViolations(result, CircuitSimulationResult.ViolationType.DISABLED_EVENT, 1L, step, ref);
+                break;
+            }
+            firedLanes[signal] = 1L;
+            firedSignals[0] = signal;
+            step++;
+            fire(1, 1L, step, result);
+        }
+        if ((step == trace.size()) && (inputs.length == 0) && !isExcitedGate(1L)) {
+            addViolations(result, CircuitSimulationResult.ViolationType.DEADLOCK, 1L, step, null);
+        }
+        result.setStepCount(step);
+        return result;
+    }
+
+    private int getEnabledSignal(String ref) {
+        Triple<String, SignalTransition.Direction, Integer> r = LabelParser.parseSignalTransition(ref);
+        Integer signal = (r == null) ? null : signalIndices.get(r.getFirst());
+        if (signal == null) {
+            return -1;
+        }
+        boolean isHigh = (values[signal] & 1L) != 0;
+        SignalTransition.Direction direction = r.getSecond();
+        if ((isHigh && (direction == SignalTransition.Direction.PLUS))
+                || (!isHigh && (direction == SignalTransition.Direction.MINUS))) {
+            return -1;
+        }
+        if (!isInput[signal] && ((excitations[signal] & 1L) == 0)) {
+            return -1;
+        }
+        return signal;
+    }
+
+    private boolean isExcitedGate(long lanes) {
+        for (int i = 0; i < queueSize; i++) {
+            if ((excitations[queue[i]] & lanes) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getEventReference(int signal, int lane) {
+        boolean isHigh = ((values[signal] >> lane) & 1L) != 0;
+        SignalTransition.Direction direction = isHigh ? SignalTransition.Direction.MINUS : SignalTransition.Direction.PLUS;
+        return signalNames.get(signal) + direction;
+    }
+
+    /**
+     * Toggle the fired signals in their lanes and re-evaluate the gates reading them. Returns the lanes with
+     * a hazard, i.e. where a gate that did not fire lost its excitation.
+     */
+    private long fire(int firedCount, long activeLanes, int step, CircuitSimulationResult result) {
+        stamp++;
+        int affectedCount = 0;
+        for (int i = 0; i < firedCount; i++) {
+            int signal = firedSignals[i];
+            values[signal] ^= firedLanes[signal];
+            if (!isInput[signal] && (affectedStamps[signal] != stamp)) {
+                affectedStamps[signal] = stamp;
+                affectedGates[affectedCount++] = signal;
+            }
+            for (int gate : readers[signal]) {
+                if (affectedStamps[gate] != stamp) {
+                    affectedStamps[gate] = stamp;
+                    affectedGates[affectedCount++] = gate;
+                }
+            }
+        }
+        long hazardLanes = 0;
+        for (int i = 0; i < affectedCount; i++) {
+            int gate = affectedGates[i];
+            long excitation = getExcitation(gate);
+            long lanes = excitations[gate] & ~excitation & ~firedLanes[gate] & activeLanes & ~hazardLanes;
+            if (lanes != 0) {
+                addViolations(result, CircuitSimulationResult.ViolationType.HAZARD, lanes, step, signalNames.get(gate));
+                hazardLanes |= lanes;
+            }
+            excitations[gate] = excitation;
+            updateQueue(gate);
+        }
+        for (int i = 0; i < firedCount; i++) {
+            firedLanes[firedSignals[i]] = 0;
+        }
+        return hazardLanes;
+    }
+
+    private void addViolations(CircuitSimulationResult result, CircuitSimulationResult.ViolationType type,
+            long lanes, int step, String name) {
+
+        for (int lane = 0; lane < LANE_COUNT; lane++) {
+            if (((lanes >> lane) & 1L) != 0) {
+                result.addViolation(new CircuitSimulationResult.Violation(type, lane, step, name));
+            }
+        }
+    }
+
+    private void updateQueue(int gate) {
+        int position = queuePositions[gate];
+        if ((excitations[gate] != 0) && (position < 0)) {
+            queuePositions[gate] = queueSize;
+            queue[queueSize++] = gate;
+        } else if ((excitations[gate] == 0) && (position >= 0)) {
+            int last = queue[--queueSize];
+            queue[position] = last;
+            queuePositions[last] = position;
+            queuePositions[gate] = -1;
+        }
+    }
+
+    /**
+     * Lanes where the gate is excited to rise (low with set function high) or to fall (high with reset function
+     * high). A missing set or reset function is the complement of the other one.
+     */
+    private long getExcitation(int gate) {
+        int[] setProgram = setPrograms[gate];
+        int[] resetProgram = resetPrograms[gate];
+        long setValue = (setProgram == null) ? ~evaluate(resetProgram) : evaluate(setProgram);
+        long resetValue = (resetProgram == null) ? ~setValue : evaluate(resetProgram);
+        long value = values[gate];
+        return (~value & setValue) | (value & resetValue);
+    }
+
+    private long evaluate(int[] program) {
+        int top = 0;
+        for (int code : program) {
+            switch (code) {
+            case ZERO:
+                stack[top++] = 0L;
+                break;
+            case ONE:
+                stack[top++] = -1L;
+                break;
+            case NOT:
+                stack[top - 1] = ~stack[top - 1];
+                break;
+            case AND:
+                top--;
+                stack[top - 1] &= stack[top];
+                break;
+            case OR:
+                top--;
+                stack[top - 1] |= stack[top];
+                break;
+            case XOR:
+                top--;
+                stack[top - 1] ^= stack[top];
+                break;
+            case IFF:
+                top--;
+                stack[top - 1] = ~(stack[top - 1] ^ stack[top]);
+                break;
+            case IMPLY:
+                top--;
+                stack[top - 1] = ~stack[top - 1] | stack[top];
+                break;
+            default:
+                long value = values[code >> 1];
+                stack[top++] = ((code & 1) == 0) ? value : ~value;
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * Postfix program of a gate function, where contacts are replaced by literals of the driving signals.
+     * Inputs that are not driven by a signal keep their initial level.
+     */
+    private static final class ProgramGenerator implements BooleanVisitor<Void> {
+
+        private final Circuit circuit;
+        private final Map<Contact, Integer> driverSignals;
+        private final Set<Integer> literals = new HashSet<>();
+        private List<Integer> codes;
+        private int maxLength = 0;
+
+        ProgramGenerator(Circuit circuit, Map<Contact, Integer> driverSignals) {
+            this.circuit = circuit;
+            this.driverSignals = driverSignals;
+        }
+
+        int[] generate(BooleanFormula formula) {
+            if (formula == null) {
+                return null;
+            }
+            codes = new ArrayList<>();
+            formula.accept(this);
+            maxLength = Math.max(maxLength, codes.size());
+            return toArray(codes);
+        }
+
+        Set<Integer> getLiterals() {
+            return literals;
+        }
+
+        int getMaxLength() {
+            return maxLength;
+        }
+
+        private Void visitBinary(BinaryBooleanFormula node, int code) {
+            node.getX().accept(this);
+            node.getY().accept(this);
+            codes.add(code);
+            return null;
+        }
+
+        @Override
+        public Void visit(Zero node) {
+            codes.add(ZERO);
+            return null;
+        }
+
+        @Override
+        public Void visit(One node) {
+            codes.add(ONE);
+            return null;
+        }
+
+        @Override
+        public Void visit(BooleanVariable variable) {
+            int code = ZERO;
+            if (variable instanceof Contact) {
+                Contact contact = (Contact) variable;
+                code = contact.getInitToOne() ? ONE : ZERO;
+                Integer signal = driverSignals.get(contact);
+                if (signal != null) {
+                    code = signal << 1;
+                } else {
+                    Pair<Contact, Boolean> driverAndInversion = CircuitUtils.findDriverAndInversionSkipZeroDelay(circuit, contact);
+                    signal = (driverAndInversion == null) ? null : driverSignals.get(driverAndInversion.getFirst());
+                    if (signal != null) {
+                        code = (signal << 1) | (driverAndInversion.getSecond() ? 1 : 0);
+                    }
+                }
+            }
+            if (code >= 0) {
+                literals.add(code);
+            }
+            codes.add(code);
+            return null;
+        }
+
+        @Override
+        public Void visit(Not node) {
+            node.getX().accept(this);
+            codes.add(NOT);
+            return null;
+        }
+
+        @Override
+        public Void visit(And node) {
+            return visitBinary(node, AND);
+        }
+
+        @Override
+        public Void visit(Or node) {
+            return visitBinary(node, OR);
+        }
+
+        @Override
+        public Void visit(Iff node) {
+            return visitBinary(node, IFF);
+        }
+
+        @Override
+        public Void visit(Xor node) {
+            return visitBinary(node, XOR);
+        }
+
+        @Override
+        public Void visit(Imply node) {
+            return visitBinary(node, IMPLY);
+        }
+    }
+
+}
@@ -5,7 +5,6 @@ import org.workcraft.dom.Connection;
 import org.workcraft.dom.Container;
 import org.workcraft.dom.Node;
 import org.workcraft.dom.hierarchy.NamespaceHelper;
-import org.workcraft.dom.math.MathConnection;
 import org.workcraft.dom.math.MathNode;
 import org.workcraft.dom.references.Identifier;
 import org.workcraft.dom.visual.VisualComponent;
@@ -79,56 +78,7 @@ public class CircuitUtils {
     }
 
     public static Contact findDriver(Circuit circuit, MathNode curNode, boolean transparentZeroDelayComponents) {
-        Contact result = null;
-        HashSet<MathNode> visited = new HashSet<>();
-        Queue<MathNode> queue = new LinkedList<>();
-        if (curNode instanceof MathConnection) {
-            queue.add(((MathConnection) curNode).getFirst());
-        } else {
-            queue.add(curNode);
-        }
-        while (!queue.isEmpty()) {
-            if (queue.size() != 1) {
-                throw new RuntimeException("Found more than one potential driver for '"
-                        + circuit.getNodeReference(curNode) + "'!");
-            }
-            MathNode node = queue.remove();
-            if (visited.contains(node)) {
-                continue;
-            }
-            visited.add(node);
-            if (node instanceof Joint) {
-                queue.addAll(circuit.getPreset(node));
-            } else if (node instanceof Contact) {
-                Contact contact = (Contact) node;
-                // Support for zero delay buffers and inverters.
-                Contact zeroDelayInput = transparentZeroDelayComponents ? findZeroDelayInput(contact) : null;
-                if (zeroDelayInput != null) {
-                    queue.addAll(circuit.getPreset(zeroDelayInput));
-                } else if (contact.isDriver()) {
-                    result = contact;
-                } else {
-                    // Is it necessary to check that (node == curNode) before adding preset to queue?
-                    queue.addAll(circuit.getPreset(contact));
-                }
-            } else {
-                throw new RuntimeException("Unexpected node '" + circuit.getNodeReference(node)
-                + "' in the driver trace for node '" + circuit.getNodeReference(curNode) + "'!");
-            }
-        }
-        return result;
-    }
-
-    private static Contact findZeroDelayInput(Contact contact) {
-        Contact zeroDelayInput = null;
-        Node parent = contact.getParent();
-        if (contact.isOutput() && (parent instanceof FunctionComponent)) {
-            FunctionComponent component = (FunctionComponent) parent;
-            if (component.getIsZeroDelay() && (component.isBuffer() || component.isInverter())) {
-                zeroDelayInput = component.getFirstInput();
-            }
-        }
-        return zeroDelayInput;
+        return circuit.getNetlistIndex().getDriver(curNode, transparentZeroDelayComponents);
     }
 
     public static Set<VisualContact> findDriven(VisualCircuit circuit, VisualContact contact) {
@@ -141,52 +91,7 @@ public class CircuitUtils {
     }
 
     public static Collection<Contact> findDriven(Circuit circuit, MathNode curNode, boolean transparentZeroDelayComponents) {
-        Set<Contact> result = new HashSet<>();
-        HashSet<MathNode> visited = new HashSet<>();
-        Queue<MathNode> queue = new LinkedList<>();
-        if (curNode instanceof MathConnection) {
-            queue.add(((MathConnection) curNode).getSecond());
-        } else {
-            queue.add(curNode);
-        }
-        while (!queue.isEmpty()) {
-            MathNode node = queue.remove();
-            if (visited.contains(node)) {
-                continue;
-            }
-            visited.add(node);
-            if (node instanceof Joint) {
-                queue.addAll(circuit.getPostset(node));
-            } else if (node instanceof Contact) {
-                Contact contact = (Contact) node;
-                // Support for zero delay buffers and inverters.
-                Contact zeroDelayOutput = transparentZeroDelayComponents ? findZeroDelayOutput(contact) : null;
-                if (zeroDelayOutput != null) {
-                    queue.addAll(circuit.getPostset(zeroDelayOutput));
-                } else if (contact.isDriven()) {
-                    result.add(contact);
-                } else {
-                    // Is it necessary to check that (node == curNode) before adding postset to queue?
-                    queue.addAll(circuit.getPostset(contact));
-                }
-            } else {
-                throw new RuntimeException("Unexpected node '" + circuit.getNodeReference(node)
-                + "' in the driven trace for node '" + circuit.getNodeReference(curNode) + "'!");
-            }
-        }
-        return result;
-    }
-
-    private static Contact findZeroDelayOutput(Contact contact) {
-        Contact zeroDelayOutput = null;
-        Node parent = contact.getParent();
-        if (contact.isInput() && (parent instanceof FunctionComponent)) {
-            FunctionComponent component = (FunctionComponent) parent;
-            if (component.getIsZeroDelay() && (component.isBuffer() || component.isInverter())) {
-                zeroDelayOutput = component.getFirstOutput();
-            }
-        }
-        return zeroDelayOutput;
+        return circuit.getNetlistIndex().getDriven(curNode, transparentZeroDelayComponents);
     }
 
     public static Contact findSignal(Circuit circuit, Contact contact, boolean transparentZeroDelayComponents) {
@@ -0,0 +1,515 @@
+package org.workcraft.plugins.circuit.utils;
+
+import org.workcraft.plugins.circuit.Circuit;
+import org.workcraft.plugins.circuit.Contact;
+import org.workcraft.plugins.circuit.FunctionComponent;
+
+import java.util.*;
+
+/**
+ * Cycle analysis of the driver graph of a circuit. Its vertices are output pins that are not path breakers, and
+ * each of them is connected to the unbroken path drivers of its component inputs (see
+ * {@link CycleUtils#findUnbrokenPathDriverPin}). Drivers of all input pins are traced only once on construction,
+ * so the graph can be cheaply rebuilt for new path breaker tags. In addition, a topological order of strongly
+ * connected components of the graph is maintained incrementally (after Pearce and Kelly), so that clearing
+ * a path breaker of a driver pin is checked for new cycles by a search in the affected region of the order only.
+ * The oracle is valid as long as the circuit structure does not change, and path breakers of driver pins are
+ * only cleared via {@link #tryClearPathBreaker}.
+ */
+public class CycleOracle {
+
+    private final List<FunctionComponent> components;
+    private final List<Contact> inputs = new ArrayList<>();
+    private final List<Contact> outputs = new ArrayList<>();
+    private final Map<Contact, Integer> inputIds = new HashMap<>();
+    private final Map<Contact, Integer> outputIds = new HashMap<>();
+    private final int[] inputComponents;
+    private final int[] outputComponents;
+    private final int[][] componentInputs;
+    private final int[][] componentOutputs;
+    // Driver pin of each input pin, and driven pins of each output pin, regardless of path breakers
+    private final int[] inputDrivers;
+    private final int[][] outputDrivens;
+
+    // Unbroken path drivers of each component, and components driven by each output via unbroken paths
+    private int[][] componentDrivers;
+    private int[][] drivenComponents;
+
+    // Strongly connected components: members, position in topological order, and whether they form a cycle
+    private int[] vertexSccs;
+    private final List<int[]> sccMembers = new ArrayList<>();
+    private final List<Double> sccOrds = new ArrayList<>();
+    private final List<Boolean> sccCycles = new ArrayList<>();
+    private int[] sccStamps = new int[0];
+    private int stamp = 0;
+
+    public CycleOracle(Circuit circuit) {
+        components = new ArrayList<>(circuit.getFunctionComponents());
+        int componentCount = components.size();
+        componentInputs = new int[componentCount][];
+        componentOutputs = new int[componentCount][];
+        List<Integer> inputComponentList = new ArrayList<>();
+        List<Integer> outputComponentList = new ArrayList<>();
+        for (int componentId = 0; componentId < componentCount; componentId++) {
+            FunctionComponent component = components.get(componentId);
+            componentInputs[componentId] = register(component.getInputs(), inputs, inputIds,
+                    inputComponentList, componentId);
+            componentOutputs[componentId] = register(component.getOutputs(), outputs, outputIds,
+                    outputComponentList, componentId);
+        }
+        inputComponents = inputComponentList.stream().mapToInt(Integer::intValue).toArray();
+        outputComponents = outputComponentList.stream().mapToInt(Integer::intValue).toArray();
+
+        inputDrivers = new int[inputs.size()];
+        List<List<Integer>> outputDrivenLists = new ArrayList<>();
+        for (int i = 0; i < outputs.size(); i++) {
+            outputDrivenLists.add(new ArrayList<>());
+        }
+        for (int inputId = 0; inputId < inputs.size(); inputId++) {
+            Contact driver = CircuitUtils.findDriver(circuit, inputs.get(inputId), false);
+            Integer driverId = (driver == null) ? null : outputIds.get(driver);
+            inputDrivers[inputId] = (driverId == null) ? -1 : driverId;
+            if (driverId != null) {
+                outputDrivenLists.get(driverId).add(inputId);
+            }
+        }
+        outputDrivens = new int[outputs.size()][];
+        for (int outputId = 0; outputId < outputs.size(); outputId++) {
+            outputDrivens[outputId] = toArray(outputDrivenLists.get(outputId));
+        }
+        rebuild();
+    }
+
+    private static int[] register(Collection<Contact> contacts, List<Contact> list, Map<Contact, Integer> ids,
+            List<Integer> componentList, int componentId) {
+
+        int[] result = new int[contacts.size()];
+        int i = 0;
+        for (Contact contact : contacts) {
+            int id = list.size();
+            list.add(contact);
+            ids.put(contact, id);
+            componentList.add(componentId);
+            result[i++] = id;
+        }
+        return result;
+    }
+
+    private static int[] toArray(Collection<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private boolean isZeroDelayComponent(int componentId) {
+        return components.get(componentId).getIsZeroDelay();
+    }
+
+    private boolean isPresent(int outputId) {
+        return !outputs.get(outputId).getPathBreaker();
+    }
+
+    /**
+     * Unbroken path driver of the input pin, as if the path breaker of the cleared output pin was not set.
+     */
+    private int getUnbrokenDriver(int inputId, int clearedOutputId) {
+        for (int step = 0; step <= inputs.size(); step++) {
+            int driverId = inputs.get(inputId).getPathBreaker() ? -1 : inputDrivers[inputId];
+            if ((driverId < 0) || ((driverId != clearedOutputId) && !isPresent(driverId))) {
+                return -1;
+            }
+            int componentId = outputComponents[driverId];
+            if (!isZeroDelayComponent(componentId)) {
+                return driverId;
+            }
+            if (componentInputs[componentId].length == 0) {
+                return -1;
+            }
+            inputId = componentInputs[componentId][0];
+        }
+        // Loop of zero delay components
+        return -1;
+    }
+
+    private void collectUnbrokenDriven(int outputId, int clearedOutputId, Set<Integer> visited, Set<Integer> result) {
+        if (((outputId != clearedOutputId) && !isPresent(outputId)) || !visited.add(outputId)) {
+            return;
+        }
+        for (int inputId : outputDrivens[outputId]) {
+            if (!inputs.get(inputId).getPathBreaker()) {
+                int componentId = inputComponents[inputId];
+                if (!isZeroDelayComponent(componentId)) {
+                    result.add(inputId);
+                } else if (componentOutputs[componentId].length > 0) {
+                    collectUnbrokenDriven(componentOutputs[componentId][0], clearedOutputId, visited, result);
+                }
+            }
+        }
+    }
+
+    private int[] getDrivers(int componentId, int clearedOutputId) {
+        Set<Integer> result = new LinkedHashSet<>();
+        for (int inputId : componentInputs[componentId]) {
+            int driverId = getUnbrokenDriver(inputId, clearedOutputId);
+            if (driverId >= 0) {
+                result.add(driverId);
+            }
+        }
+        return toArray(result);
+    }
+
+    /**
+     * Recalculates the driver graph for the current path breakers, and its strongly connected components.
+     */
+    public void rebuild() {
+        int componentCount = components.size();
+        componentDrivers = new int[componentCount][];
+        List<Set<Integer>> drivenComponentSets = new ArrayList<>();
+        for (int outputId = 0; outputId < outputs.size(); outputId++) {
+            drivenComponentSets.add(new LinkedHashSet<>());
+        }
+        for (int componentId = 0; componentId < componentCount; componentId++) {
+            componentDrivers[componentId] = getDrivers(componentId, -1);
+            for (int driverId : componentDrivers[componentId]) {
+                drivenComponentSets.get(driverId).add(componentId);
+            }
+        }
+        drivenComponents = new int[outputs.size()][];
+        for (int outputId = 0; outputId < outputs.size(); outputId++) {
+            drivenComponents[outputId] = toArray(drivenComponentSets.get(outputId));
+        }
+        buildSccs();
+    }
+
+    private int[] getSuccessors(int outputId) {
+        return componentDrivers[outputComponents[outputId]];
+    }
+
+    private void addScc(int[] members, double ord, boolean cycle) {
+        int sccId = sccMembers.size();
+        sccMembers.add(members);
+        sccOrds.add(ord);
+        sccCycles.add(cycle);
+        for (int member : members) {
+            vertexSccs[member] = sccId;
+        }
+    }
+
+    /**
+     * Iterative Tarjan algorithm. Components are found in reverse topological order, so their order
+     * is assigned in decreasing numbers: each edge leads from a lower to a higher order.
+     */
+    private void buildSccs() {
+        int count = outputs.size();
+        vertexSccs = new int[count];
+        Arrays.fill(vertexSccs, -1);
+        sccMembers.clear();
+        sccOrds.clear();
+        sccCycles.clear();
+        int[] indices = new int[count];
+        Arrays.fill(indices, -1);
+        int[] lowLinks = new int[count];
+        boolean[] onStack = new boolean[count];
+        int[] stack = new int[count];
+        int stackSize = 0;
+        int[] callStack = new int[count];
+        int[] edgePositions = new int[count];
+        int index = 0;
+        for (int root = 0; root < count; root++) {
+            if (!isPresent(root) || (indices[root] >= 0)) {
+                continue;
+            }
+            int callSize = 0;
+            indices[root] = lowLinks[root] = index++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[callSize] = root;
+            edgePositions[callSize++] = 0;
+            while (callSize > 0) {
+                int vertex = callStack[callSize - 1];
+                int[] successors = getSuccessors(vertex);
+                if (edgePositions[callSize - 1] < successors.length) {
+                    int successor = successors[edgePositions[callSize - 1]++];
+                    if (indices[successor] < 0) {
+                        indices[successor] = lowLinks[successor] = index++;
+                        stack[stackSize++] = successor;
+                        onStack[successor] = true;
+                        callStack[callSize] = successor;
+                        edgePositions[callSize++] = 0;
+                    } else if (onStack[successor]) {
+                        lowLinks[vertex] = Math.min(lowLinks[vertex], indices[successor]);
+                    }
+                } else {
+                    if (lowLinks[vertex] == indices[vertex]) {
+                        List<Integer> members = new ArrayList<>();
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            members.add(member);
+                        } while (member != vertex);
+                        boolean cycle = (members.size() > 1) || contains(successors, vertex);
+                        addScc(toArray(members), -sccMembers.size(), cycle);
+                    }
+                    callSize--;
+                    if (callSize > 0) {
+                        int parent = callStack[callSize - 1];
+                        lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[vertex]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double getOrd(int outputId) {
+        return sccOrds.get(vertexSccs[outputId]);
+    }
+
+    private int nextStamp() {
+        if (sccStamps.length < sccMembers.size() + 1) {
+            sccStamps = Arrays.copyOf(sccStamps, 2 * (sccMembers.size() + 1));
+        }
+        return ++stamp;
+    }
+
+    /**
+     * Strongly connected components reachable from (or reaching, if backward) the given vertices,
+     * restricted to the components within the given bounds of topological order.
+     */
+    private List<Integer> search(Collection<Integer> vertices, boolean backward, double minOrd, double maxOrd,
+            int visitedStamp) {
+
+        List<Integer> result = new ArrayList<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int vertex : vertices) {
+            visit(vertexSccs[vertex], minOrd, maxOrd, visitedStamp, result, queue);
+        }
+        while (!queue.isEmpty()) {
+            int sccId = queue.pop();
+            for (int member : sccMembers.get(sccId)) {
+                if (backward) {
+                    for (int componentId : drivenComponents[member]) {
+                        for (int outputId : componentOutputs[componentId]) {
+                            if (isPresent(outputId)) {
+                                visit(vertexSccs[outputId], minOrd, maxOrd, visitedStamp, result, queue);
+                            }
+                        }
+                    }
+                } else {
+                    for (int successor : getSuccessors(member)) {
+                        visit(vertexSccs[successor], minOrd, maxOrd, visitedStamp, result, queue);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void visit(int sccId, double minOrd, double maxOrd, int visitedStamp, List<Integer> result,
+            Deque<Integer> queue) {
+
+        double ord = sccOrds.get(sccId);
+        if ((ord >= minOrd) && (ord <= maxOrd) && (sccStamps[sccId] != visitedStamp)) {
+            sccStamps[sccId] = visitedStamp;
+            result.add(sccId);
+            queue.push(sccId);
+        }
+    }
+
+    /**
+     * Clears the path breaker of the driver pin, unless this makes any more pins cycled.
+     *
+     * @return true if the path breaker was cleared
+     */
+    public boolean tryClearPathBreaker(Contact contact) {
+        Integer outputId = outputIds.get(contact);
+        if ((outputId == null) || !contact.getPathBreaker()) {
+            return false;
+        }
+        if (isZeroDelayComponent(outputComponents[outputId])) {
+            // Clearing a zero delay pin re-routes unbroken paths through its component, so just recalculate
+            int cycledCount = getCycledDrivers().size();
+            contact.setPathBreaker(false);
+            rebuild();
+            if (getCycledDrivers().size() != cycledCount) {
+                contact.setPathBreaker(true);
+                rebuild();
+                return false;
+            }
+            return true;
+        }
+        // New cycles can only go through the output: from its drivers back to the outputs driven by it
+        int[] drivers = getDrivers(outputComponents[outputId], outputId);
+        if (contains(drivers, outputId)) {
+            return false;
+        }
+        Set<Integer> drivenInputIds = new LinkedHashSet<>();
+        collectUnbrokenDriven(outputId, outputId, new HashSet<>(), drivenInputIds);
+        Set<Integer> drivenComponentIds = new LinkedHashSet<>();
+        List<Integer> predecessors = new ArrayList<>();
+        for (int inputId : drivenInputIds) {
+            int componentId = inputComponents[inputId];
+            if (drivenComponentIds.add(componentId)) {
+                for (int predecessor : componentOutputs[componentId]) {
+                    if (isPresent(predecessor)) {
+                        predecessors.add(predecessor);
+                    }
+                }
+            }
+        }
+        double maxPredecessorOrd = Double.NEGATIVE_INFINITY;
+        for (int predecessor : predecessors) {
+            maxPredecessorOrd = Math.max(maxPredecessorOrd, getOrd(predecessor));
+        }
+        double minDriverOrd = Double.POSITIVE_INFINITY;
+        for (int driver : drivers) {
+            minDriverOrd = Math.min(minDriverOrd, getOrd(driver));
+        }
+        List<Integer> forward = Collections.emptyList();
+        if (minDriverOrd <= maxPredecessorOrd) {
+            Set<Integer> predecessorSccIds = new HashSet<>();
+            for (int predecessor : predecessors) {
+                predecessorSccIds.add(vertexSccs[predecessor]);
+            }
+            forward = search(toList(drivers), false, minDriverOrd, maxPredecessorOrd, nextStamp());
+            for (int sccId : forward) {
+                if (predecessorSccIds.contains(sccId)) {
+                    return false;
+                }
+            }
+        }
+
+        contact.setPathBreaker(false);
+        for (int componentId : drivenComponentIds) {
+            componentDrivers[componentId] = getDrivers(componentId, -1);
+        }
+        drivenComponents[outputId] = toArray(drivenComponentIds);
+        if (!insert(outputId, predecessors, forward, minDriverOrd, maxPredecessorOrd)) {
+            // Order positions are exhausted by repeated insertions between the same components
+            buildSccs();
+        }
+        return true;
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> result = new ArrayList<>(values.length);
+        for (int value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    private boolean insert(int outputId, List<Integer> predecessors, List<Integer> forward,
+            double minDriverOrd, double maxPredecessorOrd) {
+
+        double ord;
+        if (forward.isEmpty()) {
+            if (Double.isInfinite(minDriverOrd) && Double.isInfinite(maxPredecessorOrd)) {
+                ord = 0.0;
+            } else if (Double.isInfinite(minDriverOrd)) {
+                ord = maxPredecessorOrd + 1.0;
+            } else if (Double.isInfinite(maxPredecessorOrd)) {
+                ord = minDriverOrd - 1.0;
+            } else {
+                ord = getMiddle(maxPredecessorOrd, minDriverOrd);
+            }
+        } else {
+            // Move the components reaching the predecessors before the components reachable from the drivers,
+            // reusing their positions in the order
+            List<Integer> backward = search(predecessors, true, minDriverOrd, maxPredecessorOrd, nextStamp());
+            Comparator<Integer> byOrd = Comparator.comparingDouble(sccOrds::get);
+            backward.sort(byOrd);
+            forward.sort(byOrd);
+            List<Double> positions = new ArrayList<>();
+            for (int sccId : backward) {
+                positions.add(sccOrds.get(sccId));
+            }
+            for (int sccId : forward) {
+                positions.add(sccOrds.get(sccId));
+            }
+            Collections.sort(positions);
+            int position = 0;
+            for (int sccId : backward) {
+                sccOrds.set(sccId, positions.get(position++));
+            }
+            for (int sccId : forward) {
+                sccOrds.set(sccId, positions.get(position++));
+            }
+            ord = getMiddle(positions.get(backward.size() - 1), positions.get(backward.size()));
+        }
+        addScc(new int[] {outputId}, ord, false);
+        return !Double.isNaN(ord);
+    }
+
+    private static double getMiddle(double low, double high) {
+        double result = low + (high - low) / 2.0;
+        return (low < result) && (result < high) ? result : Double.NaN;
+    }
+
+    public Map<Contact, Set<Contact>> getGraph() {
+        Map<Contact, Set<Contact>> result = new HashMap<>();
+        for (int componentId = 0; componentId < components.size(); componentId++) {
+            Set<Contact> drivers = new HashSet<>();
+            for (int driverId : componentDrivers[componentId]) {
+                drivers.add(outputs.get(driverId));
+            }
+            for (int outputId : componentOutputs[componentId]) {
+                if (isPresent(outputId)) {
+                    result.put(outputs.get(outputId), drivers);
+                }
+            }
+        }
+        return result;
+    }
+
+    public Set<Contact> getCycledDrivers() {
+        Set<Contact> result = new HashSet<>();
+        for (int sccId = 0; sccId < sccMembers.size(); sccId++) {
+            if (sccCycles.get(sccId)) {
+                for (int member : sccMembers.get(sccId)) {
+                    result.add(outputs.get(member));
+                }
+            }
+        }
+        return result;
+    }
+
+    public Set<FunctionComponent> getCycledComponents() {
+        Set<FunctionComponent> result = new HashSet<>();
+        for (Contact contact : getCycledDrivers()) {
+            result.add((FunctionComponent) contact.getParent());
+        }
+        return result;
+    }
+
+    public Contact findUnbrokenPathDriverPin(Circuit circuit, Contact contact) {
+        Integer inputId = inputIds.get(contact);
+        if (inputId == null) {
+            return CycleUtils.findUnbrokenPathDriverPin(circuit, contact);
+        }
+        int driverId = getUnbrokenDriver(inputId, -1);
+        return driverId < 0 ? null : outputs.get(driverId);
+    }
+
+    public Set<Contact> findUnbrokenPathDrivenPins(Circuit circuit, Contact contact) {
+        Integer outputId = outputIds.get(contact);
+        if (outputId == null) {
+            return CycleUtils.findUnbrokenPathDrivenPins(circuit, contact);
+        }
+        Set<Integer> drivenIds = new LinkedHashSet<>();
+        collectUnbrokenDriven(outputId, -1, new HashSet<>(), drivenIds);
+        Set<Contact> result = new HashSet<>();
+        for (int drivenId : drivenIds) {
+            result.add(inputs.get(drivenId));
+        }
+        return result;
+    }
+
+}
@@ -1,6 +1,5 @@
 package org.workcraft.plugins.circuit.utils;
 
-import org.workcraft.dom.Node;
 import org.workcraft.plugins.circuit.Circuit;
 import org.workcraft.plugins.circuit.Contact;
 import org.workcraft.plugins.circuit.FunctionComponent;
@@ -22,13 +21,13 @@ public final class CycleUtils {
     }
 
     public static Collection<Contact> tagPathBreakerSelfloopPins(Circuit circuit) {
-        Map<Contact, Set<Contact>> graph = buildGraph(circuit);
+        Map<Contact, Set<Contact>> graph = new CycleOracle(circuit).getGraph();
         Set<Contact> contacts = DirectedGraphUtils.findSelfloopVertices(graph);
         return setPathBreaker(contacts, true);
     }
 
     public static Collection<Contact> tagPathBreakerAutoAppend(Circuit circuit) {
-        Map<Contact, Set<Contact>> graph = buildGraph(circuit);
+        Map<Contact, Set<Contact>> graph = new CycleOracle(circuit).getGraph();
         Set<Contact> contacts = DirectedGraphUtils.findFeedbackVertices(graph);
         return setPathBreaker(contacts, true);
     }
@@ -45,19 +44,16 @@ public final class CycleUtils {
     }
 
     public static Collection<Contact> tagPathBreakerAutoDiscard(Circuit circuit) {
+        // Path breakers are cleared one by one unless this increases the number of cycled pins
         Set<Contact> result = new HashSet<>();
+        CycleOracle oracle = new CycleOracle(circuit);
         boolean progress = true;
-        int initCount = getCycledDrivers(circuit).size();
         while (progress) {
             progress = false;
             for (Contact contact : getPathBreakerDrivers(circuit)) {
-                contact.setPathBreaker(false);
-                int curCount = getCycledDrivers(circuit).size();
-                if (curCount == initCount) {
+                if (oracle.tryClearPathBreaker(contact)) {
                     result.add(contact);
                     progress = true;
-                } else {
-                    contact.setPathBreaker(true);
                 }
             }
         }
@@ -77,39 +73,11 @@ public final class CycleUtils {
     }
 
     public static Set<Contact> getCycledDrivers(Circuit circuit) {
-        Map<Contact, Set<Contact>> graph = buildGraph(circuit);
-        return DirectedGraphUtils.findLoopedVertices(graph);
+        return new CycleOracle(circuit).getCycledDrivers();
     }
 
     public static Set<FunctionComponent> getCycledComponents(Circuit circuit) {
-        Set<FunctionComponent> result = new HashSet<>();
-        Map<Contact, Set<Contact>> graph = buildGraph(circuit);
-        for (Contact contact : DirectedGraphUtils.findLoopedVertices(graph)) {
-            Node parent = contact.getParent();
-            if (parent instanceof FunctionComponent) {
-                result.add((FunctionComponent) parent);
-            }
-        }
-        return result;
-    }
-
-    private static Map<Contact, Set<Contact>> buildGraph(Circuit circuit) {
-        Map<Contact, Set<Contact>> result = new HashMap<>();
-        for (FunctionComponent component : circuit.getFunctionComponents()) {
-            HashSet<Contact> drivers = new HashSet<>();
-            for (Contact input : component.getInputs()) {
-                Contact driver = findUnbrokenPathDriverPin(circuit, input);
-                if (driver != null) {
-                    drivers.add(driver);
-                }
-            }
-            for (Contact output : component.getOutputs()) {
-                if (!output.getPathBreaker()) {
-                    result.put(output, drivers);
-                }
-            }
-        }
-        return result;
+        return new CycleOracle(circuit).getCycledComponents();
     }
 
     public static Contact findUnbrokenPathDriverPin(Circuit circuit, Contact contact) {
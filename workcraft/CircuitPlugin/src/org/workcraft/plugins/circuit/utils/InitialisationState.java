@@ -1,58 +1,156 @@
 package org.workcraft.plugins.circuit.utils;
 
-import org.workcraft.dom.Node;
 import org.workcraft.dom.math.MathConnection;
 import org.workcraft.dom.math.MathNode;
-import org.workcraft.formula.*;
-import org.workcraft.formula.workers.BooleanWorker;
-import org.workcraft.formula.workers.CleverBooleanWorker;
+import org.workcraft.formula.BooleanFormula;
+import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.CompiledFormula;
 import org.workcraft.plugins.circuit.Circuit;
 import org.workcraft.plugins.circuit.Contact;
 import org.workcraft.plugins.circuit.FunctionComponent;
 import org.workcraft.plugins.circuit.FunctionContact;
+import org.workcraft.utils.Hierarchy;
 
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
+import java.util.*;
 
+/**
+ * Initialisation levels of circuit nodes, propagated from the force init drivers. Contacts and joints are
+ * indexed by int, and set/reset functions of component outputs are compiled once, so that the propagation
+ * is a worklist over node indices. A node gets the level of its driver, and a component output gets a level
+ * when its set/reset functions evaluate to constants on the levels of the component contacts. A connection
+ * gets the level of its first node.
+ */
 public class InitialisationState {
 
-    private static final BooleanWorker WORKER = CleverBooleanWorker.getInstance();
+    private static final byte UNKNOWN = 0;
+    private static final byte LOW = 1;
+    private static final byte HIGH = 2;
 
-    private final Set<MathNode> highSet = new HashSet<>();
-    private final Set<MathNode> lowSet = new HashSet<>();
-    private final Set<MathNode> conflictSet = new HashSet<>();
+    private final Map<MathNode, Integer> nodeIndices = new HashMap<>();
+    private final byte[] levels;
+    private final boolean[] conflicts;
+    // Nodes whose level was propagated to their outgoing connections
+    private final boolean[] propagated;
     private final Set<MathNode> problematicSet = new HashSet<>();
 
+    private final int[][] successors;
+    private final ComponentFunctions[] nodeComponents;
+
+    /**
+     * Compiled set/reset functions of the outputs of a function component, with their variables
+     * resolved to node indices.
+     */
+    private final class ComponentFunctions {
+        final int[] outputs;
+        final boolean[] forcedInits;
+        final boolean[] initToOnes;
+        final CompiledFormula[] setFunctions;
+        final CompiledFormula[] resetFunctions;
+        final int[][] setVariables;
+        final int[][] resetVariables;
+
+        ComponentFunctions(FunctionComponent component) {
+            Collection<FunctionContact> outputContacts = component.getFunctionOutputs();
+            int count = outputContacts.size();
+            outputs = new int[count];
+            forcedInits = new boolean[count];
+            initToOnes = new boolean[count];
+            setFunctions = new CompiledFormula[count];
+            resetFunctions = new CompiledFormula[count];
+            setVariables = new int[count][];
+            resetVariables = new int[count][];
+            Set<FunctionContact> contacts = new HashSet<>(component.getFunctionContacts());
+            int i = 0;
+            for (FunctionContact outputContact : outputContacts) {
+                outputs[i] = getNodeIndex(outputContact);
+                forcedInits[i] = outputContact.getForcedInit();
+                initToOnes[i] = outputContact.getInitToOne();
+                setFunctions[i] = compile(outputContact.getSetFunction());
+                setVariables[i] = getVariableIndices(setFunctions[i], contacts);
+                resetFunctions[i] = compile(outputContact.getResetFunction());
+                resetVariables[i] = getVariableIndices(resetFunctions[i], contacts);
+                i++;
+            }
+        }
+
+        private CompiledFormula compile(BooleanFormula formula) {
+            return formula == null ? null : CompiledFormula.compile(formula);
+        }
+
+        private int[] getVariableIndices(CompiledFormula function, Set<FunctionContact> contacts) {
+            if (function == null) {
+                return null;
+            }
+            // Variables that are not contacts of the component are never assigned
+            List<BooleanVariable> variables = function.getVariables();
+            int[] result = new int[variables.size()];
+            for (int i = 0; i < result.length; i++) {
+                BooleanVariable variable = variables.get(i);
+                result[i] = contacts.contains(variable) ? getNodeIndex((MathNode) variable) : -1;
+            }
+            return result;
+        }
+    }
+
     public InitialisationState(Circuit circuit) {
-        Queue<MathConnection> queue = new LinkedList<>();
+        Collection<MathConnection> connections = Hierarchy.getDescendantsOfType(circuit.getRoot(), MathConnection.class);
         for (FunctionContact contact : circuit.getFunctionContacts()) {
-            if (contact.isDriver() && contact.getForcedInit()) {
-                Set<MathNode> initSet = contact.getInitToOne() ? highSet : lowSet;
-                if (initSet.add(contact)) {
-                    queue.addAll(circuit.getConnections(contact));
-                }
+            getNodeIndex(contact);
+        }
+        for (MathConnection connection : connections) {
+            getNodeIndex(connection.getFirst());
+            getNodeIndex(connection.getSecond());
+        }
+        int count = nodeIndices.size();
+        levels = new byte[count];
+        conflicts = new boolean[count];
+        propagated = new boolean[count];
+
+        int[] successorCounts = new int[count];
+        for (MathConnection connection : connections) {
+            successorCounts[nodeIndices.get(connection.getFirst())]++;
+        }
+        successors = new int[count][];
+        for (int i = 0; i < count; i++) {
+            successors[i] = new int[successorCounts[i]];
+        }
+        for (MathConnection connection : connections) {
+            int first = nodeIndices.get(connection.getFirst());
+            successors[first][--successorCounts[first]] = nodeIndices.get(connection.getSecond());
+        }
+
+        nodeComponents = new ComponentFunctions[count];
+        for (FunctionComponent component : circuit.getFunctionComponents()) {
+            ComponentFunctions componentFunctions = new ComponentFunctions(component);
+            for (FunctionContact contact : component.getFunctionContacts()) {
+                nodeComponents[getNodeIndex(contact)] = componentFunctions;
             }
         }
 
-        while (!queue.isEmpty()) {
-            MathConnection connection = queue.remove();
-            MathNode fromNode = connection.getFirst();
-            Set<MathNode> nodeInitLevelSet = chooseNodeLevelSet(fromNode);
-            if ((nodeInitLevelSet != null) && nodeInitLevelSet.add(connection)) {
-                if (conflictSet.contains(fromNode)) {
-                    conflictSet.add(connection);
+        // Each node is added to the worklist at most once, when it gets its level
+        int[] worklist = new int[count];
+        int head = 0;
+        int tail = 0;
+        for (FunctionContact contact : circuit.getFunctionContacts()) {
+            if (contact.isDriver() && contact.getForcedInit()) {
+                int index = getNodeIndex(contact);
+                if (levels[index] == UNKNOWN) {
+                    levels[index] = contact.getInitToOne() ? HIGH : LOW;
+                    worklist[tail++] = index;
                 }
-                MathNode toNode = connection.getSecond();
-                if (nodeInitLevelSet.add(toNode)) {
-                    Node parent = toNode.getParent();
-                    if (parent instanceof FunctionComponent) {
-                        FunctionComponent component = (FunctionComponent) parent;
-                        propagateValuesToOutputs(circuit, component, queue);
+            }
+        }
+        while (head < tail) {
+            int index = worklist[head++];
+            propagated[index] = true;
+            for (int successor : successors[index]) {
+                if (levels[successor] == UNKNOWN) {
+                    levels[successor] = levels[index];
+                    ComponentFunctions componentFunctions = nodeComponents[successor];
+                    if (componentFunctions != null) {
+                        tail = propagateValuesToOutputs(componentFunctions, worklist, tail);
                     } else {
-                        Set<MathConnection> connections = circuit.getConnections(toNode);
-                        queue.addAll(connections);
+                        worklist[tail++] = successor;
                     }
                 }
             }
@@ -60,75 +158,91 @@ public class InitialisationState {
         problematicSet.addAll(ResetUtils.getProblematicPins(circuit));
     }
 
-    private void fillVariableValues(FunctionComponent component,
-            LinkedList<BooleanVariable> variables, LinkedList<BooleanFormula> values) {
-
-        for (FunctionContact contact : component.getFunctionContacts()) {
-            Set<MathNode> contactInitLevelSet = chooseNodeLevelSet(contact);
-            if (contactInitLevelSet != null) {
-                variables.add(contact);
-                values.add(contactInitLevelSet == highSet ? One.getInstance() : Zero.getInstance());
-            }
+    private int getNodeIndex(MathNode node) {
+        Integer result = nodeIndices.get(node);
+        if (result == null) {
+            result = nodeIndices.size();
+            nodeIndices.put(node, result);
         }
+        return result;
     }
 
-    private void propagateValuesToOutputs(Circuit circuit, FunctionComponent component, Queue<MathConnection> queue) {
+    private int propagateValuesToOutputs(ComponentFunctions componentFunctions, int[] worklist, int tail) {
         boolean progress = true;
         while (progress) {
             progress = false;
-            LinkedList<BooleanVariable> variables = new LinkedList<>();
-            LinkedList<BooleanFormula> values = new LinkedList<>();
-            fillVariableValues(component, variables, values);
-            for (FunctionContact outputPin : component.getFunctionOutputs()) {
-                Set<MathNode> outputInitLevelSet = chooseFunctionLevelSet(outputPin, variables, values);
-                if ((outputInitLevelSet != null) && outputInitLevelSet.add(outputPin)) {
+            for (int i = 0; i < componentFunctions.outputs.length; i++) {
+                int output = componentFunctions.outputs[i];
+                if (levels[output] != UNKNOWN) {
+                    continue;
+                }
+                byte level = evaluateLevel(componentFunctions, i);
+                if (level != UNKNOWN) {
+                    levels[output] = level;
                     progress = true;
-                    if (!outputPin.getForcedInit() && ((outputInitLevelSet == highSet) != outputPin.getInitToOne())) {
-                        conflictSet.add(outputPin);
+                    if (!componentFunctions.forcedInits[i] && ((level == HIGH) != componentFunctions.initToOnes[i])) {
+                        conflicts[output] = true;
                     }
-                    queue.addAll(circuit.getConnections(outputPin));
+                    worklist[tail++] = output;
                 }
             }
         }
+        return tail;
     }
 
-    private Set<MathNode> chooseNodeLevelSet(MathNode node) {
-        if (highSet.contains(node)) {
-            return highSet;
+    private byte evaluateLevel(ComponentFunctions componentFunctions, int i) {
+        if (componentFunctions.forcedInits[i]) {
+            return componentFunctions.initToOnes[i] ? HIGH : LOW;
+        }
+        Boolean setValue = evaluate(componentFunctions.setFunctions[i], componentFunctions.setVariables[i]);
+        if (setValue == null) {
+            return UNKNOWN;
         }
-        if (lowSet.contains(node)) {
-            return lowSet;
+        CompiledFormula resetFunction = componentFunctions.resetFunctions[i];
+        if (resetFunction == null) {
+            return setValue ? HIGH : LOW;
         }
-        return null;
+        Boolean resetValue = evaluate(resetFunction, componentFunctions.resetVariables[i]);
+        if ((resetValue == null) || (resetValue == setValue)) {
+            return UNKNOWN;
+        }
+        return setValue ? HIGH : LOW;
     }
 
-    private Set<MathNode> chooseFunctionLevelSet(FunctionContact contact,
-            LinkedList<BooleanVariable> variables, LinkedList<BooleanFormula> values) {
-
-        if (contact.getForcedInit()) {
-            return contact.getInitToOne() ? highSet : lowSet;
+    private Boolean evaluate(CompiledFormula function, int[] variables) {
+        if (function == null) {
+            return null;
         }
-        BooleanFormula setFunction = FormulaUtils.replace(contact.getSetFunction(), variables, values, WORKER);
-        BooleanFormula resetFunction = FormulaUtils.replace(contact.getResetFunction(), variables, values, WORKER);
-        if (ResetUtils.isEvaluatedHigh(setFunction, resetFunction)) {
-            return highSet;
-        }
-        if (ResetUtils.isEvaluatedLow(setFunction, resetFunction)) {
-            return lowSet;
+        return function.evaluate(i -> {
+            int index = variables[i];
+            return (index < 0) || (levels[index] == UNKNOWN) ? null : levels[index] == HIGH;
+        });
+    }
+
+    private byte getLevel(MathNode node) {
+        if (node instanceof MathConnection) {
+            Integer index = nodeIndices.get(((MathConnection) node).getFirst());
+            return (index != null) && propagated[index] ? levels[index] : UNKNOWN;
         }
-        return null;
+        Integer index = nodeIndices.get(node);
+        return index == null ? UNKNOWN : levels[index];
     }
 
     public boolean isHigh(MathNode node) {
-        return highSet.contains(node);
+        return getLevel(node) == HIGH;
     }
 
     public boolean isLow(MathNode node) {
-        return lowSet.contains(node);
+        return getLevel(node) == LOW;
     }
 
     public boolean isConflict(MathNode node) {
-        return conflictSet.contains(node);
+        if (node instanceof MathConnection) {
+            Integer index = nodeIndices.get(((MathConnection) node).getFirst());
+            return (index != null) && propagated[index] && conflicts[index];
+        }
+        Integer index = nodeIndices.get(node);
+        return (index != null) && conflicts[index];
     }
 
     public boolean isProblematic(MathNode node) {
@@ -5,7 +5,6 @@ import org.workcraft.dom.references.Identifier;
 import org.workcraft.exceptions.InvalidConnectionException;
 import org.workcraft.formula.*;
 import org.workcraft.formula.workers.BooleanWorker;
-import org.workcraft.formula.workers.CleverBooleanWorker;
 import org.workcraft.formula.workers.DumbBooleanWorker;
 import org.workcraft.plugins.circuit.*;
 import org.workcraft.plugins.circuit.genlib.Gate;
@@ -21,7 +20,6 @@ import java.util.stream.Collectors;
 public final class ResetUtils {
 
     private static final BooleanWorker DUMB_WORKER = DumbBooleanWorker.getInstance();
-    private static final BooleanWorker CLEVER_WORKER = CleverBooleanWorker.getInstance();
 
     private ResetUtils() {
     }
@@ -41,25 +39,21 @@ public final class ResetUtils {
     public static Set<Contact> getProblematicPins(Circuit circuit) {
         HashSet<Contact> result = new HashSet<>();
         for (FunctionComponent component : circuit.getFunctionComponents()) {
+            // Drivers of the component contacts and their initial values do not depend on the output
+            Map<BooleanVariable, Contact> drivers = new HashMap<>();
+            Map<BooleanVariable, Boolean> values = new HashMap<>();
+            for (FunctionContact contact : component.getFunctionContacts()) {
+                Pair<Contact, Boolean> pair = CircuitUtils.findDriverAndInversionSkipZeroDelay(circuit, contact);
+                if ((pair != null) && (pair.getFirst() != null)) {
+                    Contact driver = pair.getFirst();
+                    boolean inverting = pair.getSecond();
+                    drivers.put(contact, driver);
+                    values.put(contact, driver.getInitToOne() != inverting);
+                }
+            }
             for (FunctionContact outputContact : component.getFunctionOutputs()) {
-                if (!outputContact.getForcedInit()) {
-                    LinkedList<BooleanVariable> variables = new LinkedList<>();
-                    LinkedList<BooleanFormula> values = new LinkedList<>();
-                    for (FunctionContact contact : component.getFunctionContacts()) {
-                        Pair<Contact, Boolean> pair = CircuitUtils.findDriverAndInversionSkipZeroDelay(circuit, contact);
-                        if (pair != null) {
-                            Contact driver = pair.getFirst();
-                            if ((driver != null) && (driver != outputContact)) {
-                                variables.add(contact);
-                                boolean inverting = pair.getSecond();
-                                BooleanFormula value = (driver.getInitToOne() == inverting) ? Zero.getInstance() : One.getInstance();
-                                values.add(value);
-                            }
-                        }
-                    }
-                    if (isProblematicPin(outputContact, variables, values)) {
-                        result.add(outputContact);
-                    }
+                if (isProblematicPin(outputContact, drivers, values)) {
+                    result.add(outputContact);
                 }
             }
         }
@@ -67,17 +61,36 @@ public final class ResetUtils {
     }
 
     private static boolean isProblematicPin(FunctionContact contact,
-            LinkedList<BooleanVariable> variables, LinkedList<BooleanFormula> values) {
+            Map<BooleanVariable, Contact> drivers, Map<BooleanVariable, Boolean> values) {
 
         if (contact.getForcedInit()) {
             return false;
         }
-        BooleanFormula setFunction = FormulaUtils.replace(contact.getSetFunction(), variables, values, CLEVER_WORKER);
-        BooleanFormula resetFunction = FormulaUtils.replace(contact.getResetFunction(), variables, values, CLEVER_WORKER);
-        if (isEvaluatedHigh(setFunction, resetFunction) && contact.getInitToOne()) {
+        // Contacts driven by the output itself are left unassigned
+        Boolean setValue = evaluate(contact.getSetFunction(), contact, drivers, values);
+        Boolean resetValue = evaluate(contact.getResetFunction(), contact, drivers, values);
+        boolean isCombinational = contact.getResetFunction() == null;
+        boolean isEvaluatedHigh = (setValue == Boolean.TRUE) && (isCombinational || (resetValue == Boolean.FALSE));
+        if (isEvaluatedHigh && contact.getInitToOne()) {
             return false;
         }
-        return !isEvaluatedLow(setFunction, resetFunction) || contact.getInitToOne();
+        boolean isEvaluatedLow = (setValue == Boolean.FALSE) && (isCombinational || (resetValue == Boolean.TRUE));
+        return !isEvaluatedLow || contact.getInitToOne();
+    }
+
+    private static Boolean evaluate(BooleanFormula formula, Contact outputContact,
+            Map<BooleanVariable, Contact> drivers, Map<BooleanVariable, Boolean> values) {
+
+        if (formula == null) {
+            return null;
+        }
+        CompiledFormula function = CompiledFormula.compile(formula);
+        List<BooleanVariable> variables = function.getVariables();
+        return function.evaluate(i -> {
+            BooleanVariable variable = variables.get(i);
+            Contact driver = drivers.get(variable);
+            return (driver == null) || (driver == outputContact) ? null : values.get(variable);
+        });
     }
 
     public static Set<Contact> tagForceInitSequentialPins(Circuit circuit) {
@@ -91,15 +104,6 @@ public final class ResetUtils {
         return setForceInit(contacts, true);
     }
 
-    public static boolean isEvaluatedHigh(BooleanFormula setFunction, BooleanFormula resetFunction) {
-        return One.getInstance().equals(setFunction) && ((resetFunction == null) || Zero.getInstance().equals(resetFunction));
-    }
-
-
-    public static boolean isEvaluatedLow(BooleanFormula setFunction, BooleanFormula resetFunction) {
-        return Zero.getInstance().equals(setFunction) && ((resetFunction == null) || One.getInstance().equals(resetFunction));
-    }
-
     public static Set<Contact> tagForceInitAutoAppend(Circuit circuit) {
         Set<Contact> contacts = new HashSet<>();
         for (FunctionComponent component : circuit.getFunctionComponents()) {
@@ -0,0 +1,81 @@
+package org.workcraft.plugins.circuit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.Framework;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.exceptions.SerialisationException;
+import org.workcraft.serialisation.ModelCopier;
+import org.workcraft.utils.PackageUtils;
+import org.workcraft.utils.WorkUtils;
+import org.workcraft.workspace.ModelEntry;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+class CloneModelTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+    }
+
+    @Test
+    void testVmeTmCircuitClone() throws DeserialisationException, SerialisationException, IOException {
+        String workName = PackageUtils.getPackagePath(getClass(), "vme-tm.circuit.work");
+        testClone(workName);
+    }
+
+    @Test
+    void testVmeStgClone() throws DeserialisationException, SerialisationException, IOException {
+        String workName = PackageUtils.getPackagePath(getClass(), "vme.stg.work");
+        testClone(workName);
+    }
+
+    private void testClone(String workName) throws DeserialisationException, SerialisationException, IOException {
+        final Framework framework = Framework.getInstance();
+        final ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        URL srcUrl = classLoader.getResource(workName);
+        WorkspaceEntry srcWe = framework.loadWork(srcUrl.getFile());
+        ModelEntry srcMe = srcWe.getModelEntry();
+        // Use the copier directly, as cloning silently falls back to XML round-trip
+        ModelCopier copier = new ModelCopier(framework.getPluginManager());
+        ModelEntry dstMe = new ModelEntry(srcMe.getDescriptor(), copier.copy(srcMe.getModel()));
+        dstMe.setStamp(srcMe.getStamp());
+
+        Assertions.assertNotSame(srcMe.getModel(), dstMe.getModel());
+        Assertions.assertNotSame(srcMe.getMathModel(), dstMe.getMathModel());
+        // The clone must be saved exactly as the original
+        Assertions.assertEquals(getEntries(srcMe), getEntries(dstMe));
+        framework.closeWork(srcWe);
+    }
+
+    private Map<String, String> getEntries(ModelEntry me) throws SerialisationException, IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        WorkUtils.saveModel(me, null, os);
+        Map<String, String> result = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(os.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int count;
+                while ((count = zis.read(buffer)) > 0) {
+                    bos.write(buffer, 0, count);
+                }
+                result.put(entry.getName(), bos.toString("UTF-8"));
+            }
+        }
+        return result;
+    }
+
+}
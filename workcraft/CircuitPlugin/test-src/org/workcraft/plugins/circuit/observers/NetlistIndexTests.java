@@ -0,0 +1,76 @@
+package org.workcraft.plugins.circuit.observers;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.Framework;
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.plugins.circuit.*;
+import org.workcraft.plugins.circuit.commands.ContractJointTransformationCommand;
+import org.workcraft.plugins.circuit.commands.DetachJointTransformationCommand;
+import org.workcraft.plugins.circuit.commands.DissolveJointTransformationCommand;
+import org.workcraft.utils.Hierarchy;
+import org.workcraft.utils.PackageUtils;
+import org.workcraft.utils.WorkspaceUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+class NetlistIndexTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+    }
+
+    @Test
+    void testVmeTmIndexUpdate() throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        String workName = PackageUtils.getPackagePath(CircuitSettings.class, "vme-tm.circuit.work");
+        URL url = ClassLoader.getSystemClassLoader().getResource(workName);
+        WorkspaceEntry we = framework.loadWork(url.getFile());
+        Circuit circuit = WorkspaceUtils.getAs(we, Circuit.class);
+        checkIndex(circuit);
+
+        new DissolveJointTransformationCommand().execute(we);
+        checkIndex(circuit);
+
+        new DetachJointTransformationCommand().execute(we);
+        checkIndex(circuit);
+
+        VisualCircuit visualCircuit = WorkspaceUtils.getAs(we, VisualCircuit.class);
+        visualCircuit.remove(visualCircuit.getVisualComponentByMathReference("lds", VisualContact.class));
+        checkIndex(circuit);
+
+        new ContractJointTransformationCommand().execute(we);
+        checkIndex(circuit);
+
+        for (FunctionComponent component : circuit.getFunctionComponents()) {
+            if (component.getIsZeroDelay()) {
+                component.setIsZeroDelay(false);
+                checkIndex(circuit);
+            }
+        }
+
+        framework.closeWork(we);
+    }
+
+    private void checkIndex(Circuit circuit) {
+        // A fresh index traces all nodes anew, while the index of the circuit is updated by events
+        NetlistIndex expectedIndex = new NetlistIndex(circuit);
+        NetlistIndex index = circuit.getNetlistIndex();
+        List<MathNode> nodes = new ArrayList<>(circuit.getJoints());
+        nodes.addAll(Hierarchy.getDescendantsOfType(circuit.getRoot(), Contact.class));
+        for (MathNode node : nodes) {
+            for (boolean transparent : new boolean[] {false, true}) {
+                Assertions.assertEquals(expectedIndex.getDriver(node, transparent), index.getDriver(node, transparent));
+                Assertions.assertEquals(expectedIndex.getDriven(node, transparent), index.getDriven(node, transparent));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.workcraft.plugins.circuit.routing;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.Framework;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.plugins.circuit.CircuitSettings;
+import org.workcraft.plugins.circuit.VisualCircuit;
+import org.workcraft.plugins.circuit.commands.CircuitLayoutCommand;
+import org.workcraft.plugins.circuit.routing.impl.DijkstraRouter;
+import org.workcraft.plugins.circuit.routing.impl.Route;
+import org.workcraft.plugins.circuit.routing.impl.Router;
+import org.workcraft.utils.BackendUtils;
+import org.workcraft.utils.PackageUtils;
+import org.workcraft.utils.WorkspaceUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.net.URL;
+import java.util.List;
+
+class RouterTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+        CircuitSettings.setGateLibrary(BackendUtils.getTemplateLibraryPath("workcraft.lib"));
+    }
+
+    @Test
+    void testBufferRoutes() throws DeserialisationException {
+        testRoutes(PackageUtils.getPackagePath(CircuitSettings.class, "buffer-tm.circuit.work"));
+    }
+
+    @Test
+    void testCelementRoutes() throws DeserialisationException {
+        testRoutes(PackageUtils.getPackagePath(CircuitSettings.class, "celement-tm.circuit.work"));
+    }
+
+    @Test
+    void testVmeRoutes() throws DeserialisationException {
+        testRoutes(PackageUtils.getPackagePath(CircuitSettings.class, "vme-tm.circuit.work"));
+    }
+
+    private void testRoutes(String workName) throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        final ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        URL url = classLoader.getResource(workName);
+
+        WorkspaceEntry we = framework.loadWork(url.getFile());
+        new CircuitLayoutCommand().execute(we);
+        VisualCircuit circuit = WorkspaceUtils.getAs(we, VisualCircuit.class);
+
+        Router referenceRouter = new Router(new DijkstraRouter());
+        referenceRouter.routeConnections(new RouterClient().registerObstacles(circuit));
+        Router router = new Router();
+        router.routeConnections(new RouterClient().registerObstacles(circuit));
+
+        List<Route> expected = referenceRouter.getRoutingResult();
+        List<Route> actual = router.getRoutingResult();
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).isRouteFound(), actual.get(i).isRouteFound());
+            Assertions.assertEquals(expected.get(i).getPoints(), actual.get(i).getPoints());
+        }
+
+        framework.closeWork(we);
+    }
+
+}
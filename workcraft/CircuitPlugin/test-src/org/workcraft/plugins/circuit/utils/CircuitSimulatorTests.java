@@ -0,0 +1,93 @@
+package org.workcraft.plugins.circuit.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.Framework;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.plugins.circuit.Circuit;
+import org.workcraft.plugins.circuit.CircuitSettings;
+import org.workcraft.traces.Trace;
+import org.workcraft.utils.PackageUtils;
+import org.workcraft.utils.TraceUtils;
+import org.workcraft.utils.WorkspaceUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.net.URL;
+import java.util.List;
+
+class CircuitSimulatorTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+    }
+
+    @Test
+    void testAbcdTmRandomSimulation() throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        WorkspaceEntry we = loadWork("abcd-tm.circuit.work");
+        CircuitSimulator simulator = new CircuitSimulator(WorkspaceUtils.getAs(we, Circuit.class));
+
+        CircuitSimulationResult result = simulator.simulate(10000, 0);
+        Assertions.assertEquals(10000, result.getStepCount());
+        Assertions.assertFalse(result.hasViolations());
+        framework.closeWork(we);
+    }
+
+    @Test
+    void testAbcdBadTmRandomSimulation() throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        WorkspaceEntry we = loadWork("abcd-bad-tm.circuit.work");
+        CircuitSimulator simulator = new CircuitSimulator(WorkspaceUtils.getAs(we, Circuit.class));
+
+        CircuitSimulationResult result = simulator.simulate(10000, 0);
+        List<CircuitSimulationResult.Violation> hazards = result.getViolations(CircuitSimulationResult.ViolationType.HAZARD);
+        Assertions.assertEquals(CircuitSimulator.LANE_COUNT, hazards.size());
+
+        // Trace of a random run is reproduced from its seed and replays to the same hazard
+        CircuitSimulationResult.Violation hazard = hazards.get(0);
+        Trace trace = simulator.getTrace(hazard.getStep(), 0, hazard.getLane());
+        Assertions.assertEquals(hazard.getStep(), trace.size());
+        CircuitSimulationResult replayResult = simulator.replay(trace);
+        Assertions.assertEquals(trace.size(), replayResult.getStepCount());
+        CircuitSimulationResult.Violation replayHazard = replayResult.getViolations().get(0);
+        Assertions.assertEquals(CircuitSimulationResult.ViolationType.HAZARD, replayHazard.getType());
+        Assertions.assertEquals(hazard.getName(), replayHazard.getName());
+        Assertions.assertEquals(hazard.getStep(), replayHazard.getStep());
+        framework.closeWork(we);
+    }
+
+    @Test
+    void testCelementTmReplay() throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        WorkspaceEntry we = loadWork("celement-tm.circuit.work");
+        CircuitSimulator simulator = new CircuitSimulator(WorkspaceUtils.getAs(we, Circuit.class));
+
+        CircuitSimulationResult result = simulator.replay(TraceUtils.deserialiseTrace("in1+, in2+, out+, in1-"));
+        Assertions.assertEquals(4, result.getStepCount());
+        Assertions.assertFalse(result.hasViolations());
+        Assertions.assertTrue(simulator.isHigh("out"));
+        Assertions.assertFalse(simulator.isExcited("out"));
+
+        // Withdrawn input disables the excited output
+        result = simulator.replay(TraceUtils.deserialiseTrace("in1+, in2+, in1-"));
+        Assertions.assertEquals(CircuitSimulationResult.ViolationType.HAZARD, result.getViolations().get(0).getType());
+        Assertions.assertEquals("out", result.getViolations().get(0).getName());
+
+        // Output is not excited in the initial state
+        result = simulator.replay(TraceUtils.deserialiseTrace("out+, in1+"));
+        Assertions.assertEquals(0, result.getStepCount());
+        Assertions.assertEquals(CircuitSimulationResult.ViolationType.DISABLED_EVENT, result.getViolations().get(0).getType());
+        framework.closeWork(we);
+    }
+
+    private WorkspaceEntry loadWork(String fileName) throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        final ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        URL url = classLoader.getResource(PackageUtils.getPackagePath(CircuitSettings.class, fileName));
+        return framework.loadWork(url.getFile());
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.workcraft.plugins.circuit.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.Framework;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.plugins.circuit.Circuit;
+import org.workcraft.plugins.circuit.CircuitSettings;
+import org.workcraft.plugins.circuit.Contact;
+import org.workcraft.plugins.circuit.FunctionComponent;
+import org.workcraft.utils.DirectedGraphUtils;
+import org.workcraft.utils.PackageUtils;
+import org.workcraft.utils.WorkspaceUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.net.URL;
+import java.util.*;
+
+class CycleOracleTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+    }
+
+    @Test
+    void testAbcdTmAutoDiscard() throws DeserialisationException {
+        testAutoDiscard("abcd-tm.circuit.work");
+    }
+
+    @Test
+    void testCelementTmAutoDiscard() throws DeserialisationException {
+        testAutoDiscard("celement-tm.circuit.work");
+    }
+
+    @Test
+    void testChargeTmAutoDiscard() throws DeserialisationException {
+        testAutoDiscard("charge-tm.circuit.work");
+    }
+
+    @Test
+    void testCycleTmAutoDiscard() throws DeserialisationException {
+        testAutoDiscard("cycle-tm.circuit.work");
+    }
+
+    @Test
+    void testDlatchTmAutoDiscard() throws DeserialisationException {
+        testAutoDiscard("dlatch-tm.circuit.work");
+    }
+
+    @Test
+    void testVmeTmAutoDiscard() throws DeserialisationException {
+        testAutoDiscard("vme-tm.circuit.work");
+    }
+
+    private void testAutoDiscard(String name) throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        String workName = PackageUtils.getPackagePath(CircuitSettings.class, name);
+        URL url = ClassLoader.getSystemClassLoader().getResource(workName);
+        WorkspaceEntry we = framework.loadWork(url.getFile());
+        Circuit circuit = WorkspaceUtils.getAs(we, Circuit.class);
+
+        tagAllOutputs(circuit);
+        Set<Contact> expected = referenceAutoDiscard(circuit);
+        Set<Contact> expectedCycled = referenceCycledDrivers(circuit);
+
+        tagAllOutputs(circuit);
+        Assertions.assertEquals(expected, CycleUtils.tagPathBreakerAutoDiscard(circuit));
+        Assertions.assertEquals(expectedCycled, CycleUtils.getCycledDrivers(circuit));
+
+        framework.closeWork(we);
+    }
+
+    private void tagAllOutputs(Circuit circuit) {
+        for (FunctionComponent component : circuit.getFunctionComponents()) {
+            for (Contact contact : component.getOutputs()) {
+                contact.setPathBreaker(true);
+            }
+        }
+    }
+
+    private Set<Contact> getPathBreakerDrivers(Circuit circuit) {
+        Set<Contact> result = new HashSet<>();
+        for (FunctionComponent component : circuit.getFunctionComponents()) {
+            for (Contact contact : component.getOutputs()) {
+                if (contact.getPathBreaker()) {
+                    result.add(contact);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Set<Contact> referenceAutoDiscard(Circuit circuit) {
+        Set<Contact> result = new HashSet<>();
+        boolean progress = true;
+        int initCount = referenceCycledDrivers(circuit).size();
+        while (progress) {
+            progress = false;
+            for (Contact contact : getPathBreakerDrivers(circuit)) {
+                contact.setPathBreaker(false);
+                if (referenceCycledDrivers(circuit).size() == initCount) {
+                    result.add(contact);
+                    progress = true;
+                } else {
+                    contact.setPathBreaker(true);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Set<Contact> referenceCycledDrivers(Circuit circuit) {
+        Map<Contact, Set<Contact>> graph = new HashMap<>();
+        for (FunctionComponent component : circuit.getFunctionComponents()) {
+            Set<Contact> drivers = new HashSet<>();
+            for (Contact input : component.getInputs()) {
+                Contact driver = CycleUtils.findUnbrokenPathDriverPin(circuit, input);
+                if (driver != null) {
+                    drivers.add(driver);
+                }
+            }
+            for (Contact output : component.getOutputs()) {
+                if (!output.getPathBreaker()) {
+                    graph.put(output, drivers);
+                }
+            }
+        }
+        return DirectedGraphUtils.findLoopedVertices(graph);
+    }
+
+}
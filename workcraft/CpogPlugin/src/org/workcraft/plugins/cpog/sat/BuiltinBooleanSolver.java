@@ -0,0 +1,148 @@
+package org.workcraft.plugins.cpog.sat;
+
+import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.FreeVariable;
+import org.workcraft.formula.Literal;
+import org.workcraft.formula.cnf.Cnf;
+import org.workcraft.formula.cnf.CnfClause;
+import org.workcraft.plugins.cpog.CpogSettings;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-process counterpart of {@link ConsoleBooleanSolver}. The solver keeps its clauses and learnt clauses, so
+ * a search can add clauses and solve under assumptions repeatedly without restarting from scratch.
+ */
+public class BuiltinBooleanSolver {
+
+    private static final String ZERO_LABEL = "0";
+    private static final String ONE_LABEL = "1";
+
+    private final IncrementalSatSolver solver;
+    private final Map<BooleanVariable, Integer> numbers = new HashMap<>();
+
+    public BuiltinBooleanSolver() {
+        this(CpogSettings.getPortfolioSize());
+    }
+
+    /**
+     * @param portfolioSize number of differently configured solvers that are run in parallel
+     */
+    public BuiltinBooleanSolver(int portfolioSize) {
+        solver = portfolioSize > 1 ? new PortfolioSatSolver(portfolioSize) : new CdclSatSolver();
+        addClause(new CnfClause(new Literal(Literal.ZERO.getVariable(), true)));
+        addClause(new CnfClause(Literal.ONE));
+    }
+
+    public void addClauses(Cnf cnf) {
+        for (CnfClause clause : cnf.getClauses()) {
+            addClause(clause);
+        }
+    }
+
+    public void addClause(CnfClause clause) {
+        int[] literals = new int[clause.getLiterals().size()];
+        int i = 0;
+        for (Literal literal : clause.getLiterals()) {
+            literals[i++] = getNumber(literal);
+        }
+        solver.addClause(literals);
+    }
+
+    private void addClause(CnfClause clause, int guard) {
+        int[] literals = new int[clause.getLiterals().size() + 1];
+        int i = 0;
+        for (Literal literal : clause.getLiterals()) {
+            literals[i++] = getNumber(literal);
+        }
+        literals[i] = guard;
+        solver.addClause(literals);
+    }
+
+    /**
+     * Values of the labelled variables that satisfy the added clauses and the assumptions, or null if there
+     * are none.
+     */
+    public BooleanSolution solve(Literal... assumptions) {
+        int[] literals = new int[assumptions.length];
+        for (int i = 0; i < assumptions.length; i++) {
+            literals[i] = getNumber(assumptions[i]);
+        }
+        return solve(literals);
+    }
+
+    private BooleanSolution solve(int[] literals) {
+        if (!solver.solve(literals)) {
+            return null;
+        }
+        Map<BooleanVariable, Boolean> results = new HashMap<>();
+        for (Map.Entry<BooleanVariable, Integer> entry : numbers.entrySet()) {
+            BooleanVariable variable = entry.getKey();
+            String label = variable.getLabel();
+            if (!label.isEmpty() && !ZERO_LABEL.equals(label) && !ONE_LABEL.equals(label)) {
+                results.put(variable, solver.getValue(entry.getValue()));
+            }
+        }
+        return new SolutionReader.BooleanSolutionImplementation(results);
+    }
+
+    /**
+     * Solves the clauses of the task. They are guarded by a fresh activation variable and disabled after the call,
+     * so the solver can be reused for the other tasks of a session, keeping the clauses learnt from this one.
+     * The task body is only parsed if the task was not created from a {@link Cnf}.
+     */
+    public BooleanSolution solve(CnfTask task) {
+        Cnf cnf = task.getCnf();
+        int activation = solver.newVariable();
+        for (CnfClause clause : (cnf == null ? parse(task) : cnf).getClauses()) {
+            addClause(clause, -activation);
+        }
+        BooleanSolution result = solve(new int[] {activation});
+        solver.addClause(-activation);
+        return result;
+    }
+
+    private int getNumber(Literal literal) {
+        int number = numbers.computeIfAbsent(literal.getVariable(), variable -> solver.newVariable());
+        return literal.getNegation() ? -number : number;
+    }
+
+    private static Cnf parse(CnfTask task) {
+        Map<Integer, BooleanVariable> variables = new HashMap<>();
+        for (Map.Entry<Integer, String> entry : SolutionReader.extractCnfMapping(task.getBody()).entrySet()) {
+            String label = entry.getValue();
+            BooleanVariable variable;
+            if (ZERO_LABEL.equals(label)) {
+                variable = Literal.ZERO.getVariable();
+            } else if (ONE_LABEL.equals(label)) {
+                variable = Literal.ONE.getVariable();
+            } else {
+                variable = task.getVars().get(label);
+                if (variable == null) {
+                    throw new RuntimeException("No variable for solution:" + label);
+                }
+            }
+            variables.put(entry.getKey(), variable);
+        }
+        Cnf result = new Cnf();
+        CnfClause clause = new CnfClause();
+        for (String line : task.getBody().split("\n")) {
+            if (line.isEmpty() || (line.charAt(0) == 'c') || (line.charAt(0) == 'p')) {
+                continue;
+            }
+            for (String token : line.trim().split("\\s+")) {
+                int number = Integer.parseInt(token);
+                if (number == 0) {
+                    result.addClauses(clause);
+                    clause = new CnfClause();
+                } else {
+                    BooleanVariable variable = variables.computeIfAbsent(Math.abs(number), n -> new FreeVariable(""));
+                    clause.add(new Literal(variable, number < 0));
+                }
+            }
+        }
+        return result;
+    }
+
+}
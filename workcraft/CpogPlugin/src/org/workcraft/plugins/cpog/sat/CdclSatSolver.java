@@ -0,0 +1,608 @@
+package org.workcraft.plugins.cpog.sat;
+
+import java.util.*;
+
+/**
+ * Conflict-driven clause learning solver in the style of MiniSat: two watched literals, VSIDS branching with
+ * phase saving, Luby restarts and activity-based reduction of learnt clauses. Learnt clauses are implied by the
+ * problem clauses alone (assumptions are decisions), so they are kept between calls to {@link #solve(int...)}.
+ */
+public class CdclSatSolver implements IncrementalSatSolver {
+
+    public static final class Configuration {
+        private final long seed;
+        private final double randomFrequency;
+        private final boolean initialPhase;
+        private final int restartBase;
+        private final double variableDecay;
+
+        public Configuration(long seed, double randomFrequency, boolean initialPhase, int restartBase,
+                double variableDecay) {
+
+            this.seed = seed;
+            this.randomFrequency = randomFrequency;
+            this.initialPhase = initialPhase;
+            this.restartBase = restartBase;
+            this.variableDecay = variableDecay;
+        }
+
+        public static Configuration getDefault() {
+            return new Configuration(0, 0.0, false, 100, 0.95);
+        }
+
+        /**
+         * Configurations of portfolio members, which differ in branching and restart policies.
+         */
+        public static Configuration getPortfolioMember(int index) {
+            if (index == 0) {
+                return getDefault();
+            }
+            return new Configuration(index, 0.01 * (1 + index % 3), index % 2 == 1,
+                    index % 3 == 1 ? 50 : 200, index % 2 == 0 ? 0.9 : 0.95);
+        }
+    }
+
+    private static final int UNDEFINED = -1;
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+
+    static final int UNKNOWN = 0;
+    static final int SATISFIABLE = 1;
+    static final int UNSATISFIABLE = 2;
+
+    private static final double CLAUSE_DECAY = 0.999;
+    private static final double RESCALE_LIMIT = 1e100;
+
+    private static final class Clause {
+        final int[] literals;
+        final boolean learnt;
+        double activity = 0.0;
+        boolean removed = false;
+
+        Clause(int[] literals, boolean learnt) {
+            this.literals = literals;
+            this.learnt = learnt;
+        }
+    }
+
+    private final Configuration configuration;
+    private final Random random;
+
+    private int variableCount = 0;
+    private int[] assigns = new int[0];
+    private int[] levels = new int[0];
+    private Clause[] reasons = new Clause[0];
+    private double[] activities = new double[0];
+    private boolean[] phases = new boolean[0];
+    private boolean[] seen = new boolean[0];
+    private final List<List<Clause>> watches = new ArrayList<>();
+
+    private int[] trail = new int[0];
+    private int trailSize = 0;
+    private int[] trailLimits = new int[0];
+    private int decisionLevel = 0;
+    private int propagationHead = 0;
+
+    private int[] heap = new int[0];
+    private int[] heapIndices = new int[0];
+    private int heapSize = 0;
+
+    private final List<Clause> clauses = new ArrayList<>();
+    private final List<Clause> learnts = new ArrayList<>();
+    private double variableIncrement = 1.0;
+    private double clauseIncrement = 1.0;
+    private double maxLearnts = 0.0;
+    private long conflictCount = 0;
+    private boolean ok = true;
+    private boolean[] model = null;
+    private volatile boolean interrupted = false;
+
+    public CdclSatSolver() {
+        this(Configuration.getDefault());
+    }
+
+    public CdclSatSolver(Configuration configuration) {
+        this.configuration = configuration;
+        this.random = new Random(configuration.seed);
+    }
+
+    @Override
+    public int newVariable() {
+        int variable = variableCount++;
+        if (variableCount > assigns.length) {
+            int capacity = Math.max(16, 2 * variableCount);
+            assigns = Arrays.copyOf(assigns, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            activities = Arrays.copyOf(activities, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            heapIndices = Arrays.copyOf(heapIndices, capacity);
+        }
+        assigns[variable] = UNDEFINED;
+        phases[variable] = configuration.initialPhase;
+        heapIndices[variable] = -1;
+        watches.add(new ArrayList<>());
+        watches.add(new ArrayList<>());
+        heapInsert(variable);
+        return variableCount;
+    }
+
+    @Override
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    public long getConflictCount() {
+        return conflictCount;
+    }
+
+    public int getLearntCount() {
+        return learnts.size();
+    }
+
+    @Override
+    public void addClause(int... literals) {
+        cancelUntil(0);
+        if (!ok) {
+            return;
+        }
+        int[] clauseLiterals = new int[literals.length];
+        int size = 0;
+        for (int literal : toInternal(literals)) {
+            int value = getLiteralValue(literal);
+            if ((value == TRUE) || contains(clauseLiterals, size, literal ^ 1)) {
+                // Satisfied at the top level or tautology
+                return;
+            }
+            if ((value == UNDEFINED) && !contains(clauseLiterals, size, literal)) {
+                clauseLiterals[size++] = literal;
+            }
+        }
+        if (size == 0) {
+            ok = false;
+        } else if (size == 1) {
+            enqueue(clauseLiterals[0], null);
+            ok = propagate() == null;
+        } else {
+            Clause clause = new Clause(Arrays.copyOf(clauseLiterals, size), false);
+            clauses.add(clause);
+            attach(clause);
+        }
+    }
+
+    @Override
+    public boolean solve(int... assumptions) {
+        interrupted = false;
+        int status = solveLimited(assumptions);
+        if (status == UNKNOWN) {
+            throw new RuntimeException("SAT solver was interrupted");
+        }
+        return status == SATISFIABLE;
+    }
+
+    @Override
+    public boolean getValue(int variable) {
+        if ((model == null) || (variable < 1) || (variable > model.length)) {
+            throw new RuntimeException("No model for variable: " + variable);
+        }
+        return model[variable - 1];
+    }
+
+    /**
+     * Stops the running call to {@link #solve(int...)}, which then reports the unknown status.
+     */
+    public void interrupt() {
+        interrupted = true;
+    }
+
+    void clearInterrupt() {
+        interrupted = false;
+    }
+
+    int solveLimited(int[] assumptions) {
+        model = null;
+        if (!ok) {
+            return UNSATISFIABLE;
+        }
+        int[] internalAssumptions = toInternal(assumptions);
+        maxLearnts = Math.max(maxLearnts, clauses.size() / 3.0 + 1000);
+        int status = UNKNOWN;
+        for (int restart = 0; (status == UNKNOWN) && !interrupted; restart++) {
+            status = search(configuration.restartBase * luby(restart), internalAssumptions);
+            maxLearnts *= 1.05;
+        }
+        if (status == SATISFIABLE) {
+            model = new boolean[variableCount];
+            for (int variable = 0; variable < variableCount; variable++) {
+                model[variable] = assigns[variable] == TRUE;
+            }
+        }
+        cancelUntil(0);
+        return status;
+    }
+
+    private int search(long conflictLimit, int[] assumptions) {
+        long conflicts = 0;
+        while (!interrupted) {
+            Clause conflict = propagate();
+            if (conflict != null) {
+                conflicts++;
+                conflictCount++;
+                if (decisionLevel == 0) {
+                    ok = false;
+                    return UNSATISFIABLE;
+                }
+                int[] learnt = analyze(conflict);
+                cancelUntil(getBacktrackLevel(learnt));
+                if (learnt.length == 1) {
+                    enqueue(learnt[0], null);
+                } else {
+                    Clause clause = new Clause(learnt, true);
+                    learnts.add(clause);
+                    attach(clause);
+                    bumpClause(clause);
+                    enqueue(learnt[0], clause);
+                }
+                variableIncrement /= configuration.variableDecay;
+                clauseIncrement /= CLAUSE_DECAY;
+            } else {
+                if (conflicts >= conflictLimit) {
+                    cancelUntil(0);
+                    return UNKNOWN;
+                }
+                if (learnts.size() - trailSize >= maxLearnts) {
+                    reduceLearnts();
+                }
+                int next = -1;
+                while (decisionLevel < assumptions.length) {
+                    int assumption = assumptions[decisionLevel];
+                    int value = getLiteralValue(assumption);
+                    if (value == TRUE) {
+                        newDecisionLevel();
+                    } else if (value == FALSE) {
+                        return UNSATISFIABLE;
+                    } else {
+                        next = assumption;
+                        break;
+                    }
+                }
+                if (next < 0) {
+                    next = pickBranchLiteral();
+                    if (next < 0) {
+                        return SATISFIABLE;
+                    }
+                }
+                newDecisionLevel();
+                enqueue(next, null);
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private int[] toInternal(int[] literals) {
+        int[] result = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            int literal = literals[i];
+            if (literal == 0) {
+                throw new RuntimeException("Literal 0 is not allowed");
+            }
+            int variable = Math.abs(literal) - 1;
+            while (variable >= variableCount) {
+                newVariable();
+            }
+            result[i] = 2 * variable + (literal < 0 ? 1 : 0);
+        }
+        return result;
+    }
+
+    private static boolean contains(int[] literals, int size, int literal) {
+        for (int i = 0; i < size; i++) {
+            if (literals[i] == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int getLiteralValue(int literal) {
+        int value = assigns[literal >> 1];
+        return value == UNDEFINED ? UNDEFINED : value ^ (literal & 1);
+    }
+
+    private void enqueue(int literal, Clause reason) {
+        int variable = literal >> 1;
+        assigns[variable] = (literal & 1) == 0 ? TRUE : FALSE;
+        levels[variable] = decisionLevel;
+        reasons[variable] = reason;
+        trail[trailSize++] = literal;
+    }
+
+    private void newDecisionLevel() {
+        // Assumptions that are already satisfied open empty levels, so there can be more levels than variables
+        if (decisionLevel == trailLimits.length) {
+            trailLimits = Arrays.copyOf(trailLimits, Math.max(16, 2 * decisionLevel));
+        }
+        trailLimits[decisionLevel++] = trailSize;
+    }
+
+    private void cancelUntil(int level) {
+        if (decisionLevel > level) {
+            for (int i = trailSize - 1; i >= trailLimits[level]; i--) {
+                int variable = trail[i] >> 1;
+                phases[variable] = assigns[variable] == TRUE;
+                assigns[variable] = UNDEFINED;
+                reasons[variable] = null;
+                if (heapIndices[variable] < 0) {
+                    heapInsert(variable);
+                }
+            }
+            trailSize = trailLimits[level];
+            propagationHead = trailSize;
+            decisionLevel = level;
+        }
+    }
+
+    private void attach(Clause clause) {
+        watches.get(clause.literals[0]).add(clause);
+        watches.get(clause.literals[1]).add(clause);
+    }
+
+    /**
+     * Propagates the enqueued literals and returns the conflicting clause, or null if there is no conflict.
+     * Each clause is watched by its first two literals.
+     */
+    private Clause propagate() {
+        while (propagationHead < trailSize) {
+            int falseLiteral = trail[propagationHead++] ^ 1;
+            List<Clause> watchers = watches.get(falseLiteral);
+            int count = watchers.size();
+            int j = 0;
+            for (int i = 0; i < count; i++) {
+                Clause clause = watchers.get(i);
+                if (clause.removed) {
+                    continue;
+                }
+                int[] literals = clause.literals;
+                if (literals[0] == falseLiteral) {
+                    literals[0] = literals[1];
+                    literals[1] = falseLiteral;
+                }
+                if (getLiteralValue(literals[0]) != TRUE) {
+                    boolean moved = false;
+                    for (int k = 2; k < literals.length; k++) {
+                        if (getLiteralValue(literals[k]) != FALSE) {
+                            literals[1] = literals[k];
+                            literals[k] = falseLiteral;
+                            watches.get(literals[1]).add(clause);
+                            moved = true;
+                            break;
+                        }
+                    }
+                    if (moved) {
+                        continue;
+                    }
+                    if (getLiteralValue(literals[0]) == FALSE) {
+                        while (i < count) {
+                            watchers.set(j++, watchers.get(i++));
+                        }
+                        watchers.subList(j, count).clear();
+                        propagationHead = trailSize;
+                        return clause;
+                    }
+                    enqueue(literals[0], clause);
+                }
+                watchers.set(j++, clause);
+            }
+            watchers.subList(j, count).clear();
+        }
+        return null;
+    }
+
+    /**
+     * First unique implication point analysis. The asserting literal is the first one of the learnt clause.
+     */
+    private int[] analyze(Clause conflict) {
+        List<Integer> learnt = new ArrayList<>();
+        learnt.add(-1);
+        int pathCount = 0;
+        int literal = -1;
+        int index = trailSize - 1;
+        Clause clause = conflict;
+        do {
+            if (clause.learnt) {
+                bumpClause(clause);
+            }
+            int[] literals = clause.literals;
+            for (int i = literal < 0 ? 0 : 1; i < literals.length; i++) {
+                int variable = literals[i] >> 1;
+                if (!seen[variable] && (levels[variable] > 0)) {
+                    seen[variable] = true;
+                    bumpVariable(variable);
+                    if (levels[variable] >= decisionLevel) {
+                        pathCount++;
+                    } else {
+                        learnt.add(literals[i]);
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            literal = trail[index--];
+            clause = reasons[literal >> 1];
+            seen[literal >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        learnt.set(0, literal ^ 1);
+
+        int[] result = new int[learnt.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = learnt.get(i);
+            seen[result[i] >> 1] = false;
+        }
+        return result;
+    }
+
+    /**
+     * Highest decision level of the non-asserting literals, which are reordered for the second literal to be
+     * watched at that level.
+     */
+    private int getBacktrackLevel(int[] learnt) {
+        if (learnt.length == 1) {
+            return 0;
+        }
+        int maxIndex = 1;
+        for (int i = 2; i < learnt.length; i++) {
+            if (levels[learnt[i] >> 1] > levels[learnt[maxIndex] >> 1]) {
+                maxIndex = i;
+            }
+        }
+        int literal = learnt[maxIndex];
+        learnt[maxIndex] = learnt[1];
+        learnt[1] = literal;
+        return levels[literal >> 1];
+    }
+
+    private int pickBranchLiteral() {
+        int next = -1;
+        if ((configuration.randomFrequency > 0) && (heapSize > 0)
+                && (random.nextDouble() < configuration.randomFrequency)) {
+
+            int variable = heap[random.nextInt(heapSize)];
+            if (assigns[variable] == UNDEFINED) {
+                next = variable;
+            }
+        }
+        while ((next < 0) && (heapSize > 0)) {
+            int variable = heapRemoveMax();
+            if (assigns[variable] == UNDEFINED) {
+                next = variable;
+            }
+        }
+        return next < 0 ? -1 : 2 * next + (phases[next] ? 0 : 1);
+    }
+
+    private void reduceLearnts() {
+        learnts.sort(Comparator.comparingDouble(clause -> clause.activity));
+        double limit = clauseIncrement / learnts.size();
+        List<Clause> kept = new ArrayList<>();
+        int half = learnts.size() / 2;
+        for (int i = 0; i < learnts.size(); i++) {
+            Clause clause = learnts.get(i);
+            boolean removable = (clause.literals.length > 2) && !isLocked(clause)
+                    && ((i < half) || (clause.activity < limit));
+            if (removable) {
+                clause.removed = true;
+            } else {
+                kept.add(clause);
+            }
+        }
+        learnts.clear();
+        learnts.addAll(kept);
+    }
+
+    private boolean isLocked(Clause clause) {
+        int variable = clause.literals[0] >> 1;
+        return (reasons[variable] == clause) && (getLiteralValue(clause.literals[0]) == TRUE);
+    }
+
+    private void bumpVariable(int variable) {
+        activities[variable] += variableIncrement;
+        if (activities[variable] > RESCALE_LIMIT) {
+            for (int i = 0; i < variableCount; i++) {
+                activities[i] /= RESCALE_LIMIT;
+            }
+            variableIncrement /= RESCALE_LIMIT;
+        }
+        if (heapIndices[variable] >= 0) {
+            heapUp(heapIndices[variable]);
+        }
+    }
+
+    private void bumpClause(Clause clause) {
+        clause.activity += clauseIncrement;
+        if (clause.activity > RESCALE_LIMIT) {
+            for (Clause learnt : learnts) {
+                learnt.activity /= RESCALE_LIMIT;
+            }
+            clauseIncrement /= RESCALE_LIMIT;
+        }
+    }
+
+    private static int luby(int index) {
+        // Finite subsequence that contains the index and its size
+        int size = 1;
+        int sequence = 0;
+        while (size < index + 1) {
+            sequence++;
+            size = 2 * size + 1;
+        }
+        int result = 1;
+        while (size - 1 != index) {
+            size = (size - 1) >> 1;
+            sequence--;
+            index = index % size;
+        }
+        for (int i = 0; i < sequence; i++) {
+            result *= 2;
+        }
+        return result;
+    }
+
+    private void heapInsert(int variable) {
+        heapIndices[variable] = heapSize;
+        heap[heapSize++] = variable;
+        heapUp(heapSize - 1);
+    }
+
+    private int heapRemoveMax() {
+        int result = heap[0];
+        heapIndices[result] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndices[heap[0]] = 0;
+            heapDown(0);
+        }
+        return result;
+    }
+
+    private void heapUp(int index) {
+        int variable = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >> 1;
+            int parent = heap[parentIndex];
+            if (activities[parent] >= activities[variable]) {
+                break;
+            }
+            heap[index] = parent;
+            heapIndices[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = variable;
+        heapIndices[variable] = index;
+    }
+
+    private void heapDown(int index) {
+        int variable = heap[index];
+        while (2 * index + 1 < heapSize) {
+            int childIndex = 2 * index + 1;
+            if ((childIndex + 1 < heapSize) && (activities[heap[childIndex + 1]] > activities[heap[childIndex]])) {
+                childIndex++;
+            }
+            int child = heap[childIndex];
+            if (activities[child] <= activities[variable]) {
+                break;
+            }
+            heap[index] = child;
+            heapIndices[child] = index;
+            index = childIndex;
+        }
+        heap[index] = variable;
+        heapIndices[variable] = index;
+    }
+
+}
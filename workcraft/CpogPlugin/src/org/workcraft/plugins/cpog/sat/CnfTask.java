@@ -1,22 +1,43 @@
 package org.workcraft.plugins.cpog.sat;
 
 import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.cnf.Cnf;
 
 import java.util.Map;
 
 public class CnfTask {
 
-    private final String body;
+    private final Cnf cnf;
+    private String body;
     private final Map<String, BooleanVariable> vars;
 
     public CnfTask(String body, Map<String, BooleanVariable> vars) {
+        this.cnf = null;
         this.body = body;
         this.vars = vars;
     }
 
+    /**
+     * Task whose DIMACS body is only printed when requested, so that the built-in solver can take the clauses
+     * directly.
+     */
+    public CnfTask(Cnf cnf, Map<String, BooleanVariable> vars) {
+        this.cnf = cnf;
+        this.body = null;
+        this.vars = vars;
+    }
+
+    public Cnf getCnf() {
+        return cnf;
+    }
+
     public String getBody() {
+        if (body == null) {
+            body = MiniSatCnfPrinter.print(cnf);
+        }
         return body;
     }
+
     public Map<String, BooleanVariable> getVars() {
         return vars;
     }
@@ -4,7 +4,16 @@ import org.workcraft.plugins.cpog.CpogSettings;
 
 public class ConsoleBooleanSolver {
 
+    // Built-in solver is kept for the lifetime of this object, so that its learnt clauses are reused by later tasks
+    private BuiltinBooleanSolver builtinSolver = null;
+
     public BooleanSolution solve(CnfTask task) {
+        if (CpogSettings.getSatSolver() == CpogSettings.SatSolver.BUILTIN) {
+            if (builtinSolver == null) {
+                builtinSolver = new BuiltinBooleanSolver();
+            }
+            return builtinSolver.solve(task);
+        }
         String cnf = task.getBody();
         String solution = solve(cnf);
         return SolutionReader.readSolution(task, solution);
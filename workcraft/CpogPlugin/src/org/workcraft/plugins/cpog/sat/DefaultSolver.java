@@ -6,6 +6,8 @@ import org.workcraft.plugins.cpog.encoding.Encoding;
 public class DefaultSolver<T> {
     private final SatProblemGenerator<? extends T> problemGenerator;
     private final CnfGenerator<? super T> cnfConverter;
+    // SAT solver session shared by the encodings of this solver
+    private final ConsoleBooleanSolver satSolver = new ConsoleBooleanSolver();
 
     public DefaultSolver(SatProblemGenerator<? extends T> problemGenerator,
             CnfGenerator<? super T> simpleCnfTaskProvider) {
@@ -20,7 +22,7 @@ public class DefaultSolver<T> {
     public Encoding solve(String[] scenarios, BooleanVariable[] variables, int derivedVars) {
         OptimisationTask<? extends T> task = problemGenerator.getFormula(scenarios, variables, derivedVars);
 
-        BooleanSolution solution = new ConsoleBooleanSolver().solve(cnfConverter.getCnf(task.getTask()));
+        BooleanSolution solution = satSolver.solve(cnfConverter.getCnf(task.getTask()));
         return SolutionPrettifier.prettifySolution(task, solution);
     }
 }
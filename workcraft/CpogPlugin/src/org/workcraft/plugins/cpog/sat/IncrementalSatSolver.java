@@ -0,0 +1,26 @@
+package org.workcraft.plugins.cpog.sat;
+
+/**
+ * SAT solver that keeps its state between calls. Variables are numbered from 1 and literals are given as in
+ * DIMACS format, i.e. a negative number is the negation of the variable. Clauses can be added between calls to
+ * {@link #solve(int...)}, and the assumptions only hold for the call they are passed to.
+ */
+public interface IncrementalSatSolver {
+
+    int newVariable();
+
+    int getVariableCount();
+
+    void addClause(int... literals);
+
+    /**
+     * @return true if the clauses are satisfiable under the given assumptions, false otherwise
+     */
+    boolean solve(int... assumptions);
+
+    /**
+     * Value of the variable in the model found by the last successful call to {@link #solve(int...)}.
+     */
+    boolean getValue(int variable);
+
+}
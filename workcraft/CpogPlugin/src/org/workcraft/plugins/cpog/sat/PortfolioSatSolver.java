@@ -0,0 +1,104 @@
+package org.workcraft.plugins.cpog.sat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Runs several differently configured {@link CdclSatSolver} instances on the same clauses in separate threads.
+ * The first solver to decide the problem wins and the others are interrupted. Every solver keeps its own learnt
+ * clauses between calls.
+ */
+public class PortfolioSatSolver implements IncrementalSatSolver {
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sat-portfolio");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<CdclSatSolver> solvers = new ArrayList<>();
+    private CdclSatSolver winner = null;
+
+    public PortfolioSatSolver(int size) {
+        for (int i = 0; i < Math.max(1, size); i++) {
+            solvers.add(new CdclSatSolver(CdclSatSolver.Configuration.getPortfolioMember(i)));
+        }
+    }
+
+    @Override
+    public int newVariable() {
+        int result = 0;
+        for (CdclSatSolver solver : solvers) {
+            result = solver.newVariable();
+        }
+        return result;
+    }
+
+    @Override
+    public int getVariableCount() {
+        return solvers.get(0).getVariableCount();
+    }
+
+    @Override
+    public void addClause(int... literals) {
+        for (CdclSatSolver solver : solvers) {
+            solver.addClause(literals);
+        }
+    }
+
+    @Override
+    public boolean solve(int... assumptions) {
+        winner = null;
+        if (solvers.size() == 1) {
+            winner = solvers.get(0);
+            return winner.solve(assumptions);
+        }
+        CompletionService<Integer> completionService = new ExecutorCompletionService<>(EXECUTOR);
+        Map<Future<Integer>, CdclSatSolver> futureToSolver = new HashMap<>();
+        for (CdclSatSolver solver : solvers) {
+            solver.clearInterrupt();
+            futureToSolver.put(completionService.submit(() -> solver.solveLimited(assumptions)), solver);
+        }
+        int status = CdclSatSolver.UNKNOWN;
+        try {
+            for (int i = 0; (i < solvers.size()) && (status == CdclSatSolver.UNKNOWN); i++) {
+                Future<Integer> future = completionService.take();
+                status = future.get();
+                winner = futureToSolver.get(future);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (CdclSatSolver solver : solvers) {
+                solver.interrupt();
+            }
+            // All solvers must be back at the top level before the next clauses are added
+            for (Future<Integer> future : futureToSolver.keySet()) {
+                try {
+                    future.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    // Outcome of the interrupted solvers is of no interest
+                }
+            }
+        }
+        if (status == CdclSatSolver.UNKNOWN) {
+            winner = null;
+            throw new RuntimeException("SAT solver was interrupted");
+        }
+        return status == CdclSatSolver.SATISFIABLE;
+    }
+
+    @Override
+    public boolean getValue(int variable) {
+        if (winner == null) {
+            throw new RuntimeException("No model for variable: " + variable);
+        }
+        return winner.getValue(variable);
+    }
+
+}
@@ -27,7 +27,7 @@ public class SimpleCnfTaskProvider implements CnfGenerator<Cnf> {
         }
         cnf.getClauses().add(or(not(Literal.ZERO)));
         cnf.getClauses().add(or(Literal.ONE));
-        return new CnfTask(MiniSatCnfPrinter.print(cnf), vars);
+        return new CnfTask(cnf, vars);
     }
 
 }
@@ -9,7 +9,7 @@ import java.util.*;
 
 public class SolutionReader {
 
-    private static Map<Integer, String> extractCnfMapping(String cnf) {
+    static Map<Integer, String> extractCnfMapping(String cnf) {
         HashMap<Integer, String> map = new HashMap<>();
 
         BufferedReader reader = new BufferedReader(new StringReader(cnf));
@@ -33,10 +33,10 @@ public class SolutionReader {
         return map;
     }
 
-    private static final class BooleanSolutionImplementation implements BooleanSolution {
+    static final class BooleanSolutionImplementation implements BooleanSolution {
         private final Map<BooleanVariable, Boolean> results;
 
-        private BooleanSolutionImplementation(Map<BooleanVariable, Boolean> results) {
+        BooleanSolutionImplementation(Map<BooleanVariable, Boolean> results) {
             this.results = results;
         }
 
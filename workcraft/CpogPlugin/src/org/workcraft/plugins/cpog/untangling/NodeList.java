@@ -4,10 +4,7 @@ import org.jbpt.petri.Node;
 import org.jbpt.petri.Place;
 import org.workcraft.plugins.cpog.untangling.UntanglingNode.NodeType;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.*;
 
 public class NodeList extends ArrayList<UntanglingNode> {
 
@@ -48,25 +45,30 @@ public class NodeList extends ArrayList<UntanglingNode> {
     }
 
     /** Rename with a " _n " the node with same names but different *
-     *  id, in order to be coherent with partial order notation    **/
+     *  id, in order to be coherent with partial order notation.    *
+     *  Positions of the nodes are indexed by their current names,  *
+     *  so only the nodes that are renamed get visited.            **/
     public void rename() {
+        HashMap<String, TreeSet<Integer>> nameToPositionsMap = new HashMap<>();
         for (int i = 0; i < this.size(); i++) {
-            int k = 1;
-            for (int j = i + 1; j < this.size(); j++) {
-                // get names of the nodes
-                String formerNodeName = this.get(i).getLabel();
-                String latterNodeName = this.get(j).getLabel();
+            nameToPositionsMap.computeIfAbsent(this.get(i).getLabel(), name -> new TreeSet<>()).add(i);
+        }
 
-                if (formerNodeName.equals(latterNodeName)) {
-                    // append a number at the end representing
-                    // the number of times that node occurs
-                    String replaceName = latterNodeName.concat("_" + (k + 1));
-                    k++;
-                    this.get(j).setLabel(replaceName);
-                }
+        for (int i = 0; i < this.size(); i++) {
+            String formerNodeName = this.get(i).getLabel();
+            NavigableSet<Integer> latterPositions = nameToPositionsMap.get(formerNodeName).tailSet(i, false);
+            List<Integer> positions = new ArrayList<>(latterPositions);
+            latterPositions.clear();
+            int k = 1;
+            for (int j : positions) {
+                // append a number at the end representing
+                // the number of times that node occurs
+                String replaceName = formerNodeName.concat("_" + (k + 1));
+                k++;
+                this.get(j).setLabel(replaceName);
+                nameToPositionsMap.computeIfAbsent(replaceName, name -> new TreeSet<>()).add(j);
             }
         }
-
     }
 
 }
@@ -11,23 +11,22 @@ import org.jbpt.petri.untangling.UntanglingSetup;
 import org.workcraft.plugins.cpog.commands.PetriToCpogParameters;
 import org.workcraft.utils.LogUtils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class Untanglings {
 
     private final NetSystem sys;
-    private final LinkedList<Place> p;
-    private final LinkedList<Transition> t;
+    private final Map<String, Place> p;
+    private final Map<String, Transition> t;
     private final UntanglingSetup setup;
     private ReductionBasedRepresentativeUntangling untangling;
     private final ArrayList<PartialOrder> partialOrders;
 
     public Untanglings(PetriToCpogParameters settings) {
         this.sys = new NetSystem();
-        this.p = new LinkedList<>();
-        this.t = new LinkedList<>();
+        this.p = new HashMap<>();
+        this.t = new HashMap<>();
         this.setup = new UntanglingSetup();
         this.partialOrders = new ArrayList<>();
 
@@ -50,91 +49,53 @@ public class Untanglings {
 
     /** adds place inside the conversion system **/
     public boolean addPlace(String placeName) {
-        if (p.add(new Place(placeName))) {
-            return true;
-        }
-        return false;
+        // the first place with a given name is the one to be connected
+        p.putIfAbsent(placeName, new Place(placeName));
+        return true;
     }
 
     /** adds token inside a place inside the conversion system **/
     public boolean insertTokens(String placeName, int tokens) {
-
-        for (Place place : p) {
-            if (place.getLabel().equals(placeName)) {
-                sys.putTokens(place, tokens);
-
-                // debug printing: tokens inserted inside the place
-                // System.out.println(place.getLabel() + " = " + tokens);
-
-                return true;
-            }
+        Place place = p.get(placeName);
+        if (place == null) {
+            return false;
         }
-
-        return false;
+        sys.putTokens(place, tokens);
+        return true;
     }
 
     /** adds transition inside the conversion system **/
     public boolean addTransition(String transitionName) {
-        if (t.add(new Transition(transitionName))) {
-            return true;
-        }
-        return false;
+        t.putIfAbsent(transitionName, new Transition(transitionName));
+        return true;
     }
 
     /** adds a connection from a place to a transition **/
     public boolean placeToTransition(String node1, String node2) {
-
-        for (Place place : p) {
-
-            // checking existence of the place
-            if (!place.getName().equals(node1)) continue;
-
-            // checking existence of the transition
-            for (Transition transition : t) {
-
-                if (!transition.getName().equals(node2)) continue;
-
-                // adding arc to the system
-                sys.addFlow(place, transition);
-
-                // debug: printing connection added
-                // System.out.println(place.getName() + " -> " + transition.getName());
-
-                return true;
-            }
-        }
+        Place place = p.get(node1);
+        Transition transition = t.get(node2);
 
         // if the two nodes are not present the connection
         // is not inserted
-        return false;
+        if ((place == null) || (transition == null)) {
+            return false;
+        }
+        sys.addFlow(place, transition);
+        return true;
     }
 
     /** adds a connection from a transition to a place  **/
     public boolean transitionToPlace(String node1, String node2) {
-
-        for (Transition transition : t) {
-
-            // checking existence of the place
-            if (!transition.getName().equals(node1)) continue;
-
-            // checking existence of the transition
-            for (Place place : p) {
-                if (!place.getName().equals(node2)) continue;
-
-                // adding arc to the system
-                sys.addFlow(transition, place);
-
-                // debug: printing connection added
-                // System.out.println(transition.getName() + " -> " + place.getName());
-
-                return true;
-
-            }
-        }
+        Transition transition = t.get(node1);
+        Place place = p.get(node2);
 
         // if the two nodes are not present the connection
         // is not inserted
-        return false;
+        if ((transition == null) || (place == null)) {
+            return false;
+        }
+        sys.addFlow(transition, place);
+        return true;
     }
 
     /** converts the Petri net introduced into multiple *
@@ -163,51 +124,60 @@ public class Untanglings {
     }
 
     /** converts the set of processes that compose the *
-     *  untangling into a set of partial order graph  **/
+     *  untangling into a set of partial order graph   *
+     *  (processes are independent and converted in    *
+     *  parallel)                                      **/
     public ArrayList<PartialOrder> getPartialOrders(PetriToCpogParameters settings) {
+        List<IProcess<BPNode, Condition, Event, Flow, Node, Place, Transition, Marking>> processes
+                = new ArrayList<>(untangling.getProcesses());
 
-        for (IProcess<BPNode, Condition, Event, Flow, Node, Place, Transition, Marking> pi : untangling.getProcesses()) {
-
-            PartialOrder process = new PartialOrder();
-            NodeList places = new NodeList();
-            HashMap<Integer, UntanglingNode> idToPlacesMap = new HashMap<>();
-            NodeList transitions = new NodeList();
-            HashMap<Integer, UntanglingNode> idToTransitionsMap = new HashMap<>();
+        partialOrders.addAll(processes.parallelStream()
+                .map(pi -> getPartialOrder(pi, settings))
+                .collect(Collectors.toList()));
 
-            // adding places into the places map
-            for (Place place : pi.getOccurrenceNet().getPlaces()) {
-                UntanglingNode untanglingNode = places.addNode(place);
-                idToPlacesMap.put(untanglingNode.getId(), untanglingNode);
-            }
+        return partialOrders;
+    }
 
-            // adding transitions into the transitions map
-            for (Transition transition : pi.getOccurrenceNet().getTransitions()) {
-                UntanglingNode untanglingNode = transitions.addNode(transition);
-                idToTransitionsMap.put(untanglingNode.getId(), untanglingNode);
-            }
+    /** converts a process of the untangling into a partial order graph **/
+    private PartialOrder getPartialOrder(IProcess<BPNode, Condition, Event, Flow, Node, Place, Transition, Marking> pi,
+            PetriToCpogParameters settings) {
 
-            // sorting and renaming transitions
-            transitions.sort();
-            transitions.rename();
+        PartialOrder process = new PartialOrder();
+        NodeList places = new NodeList();
+        HashMap<Integer, UntanglingNode> idToPlacesMap = new HashMap<>();
+        NodeList transitions = new NodeList();
+        HashMap<Integer, UntanglingNode> idToTransitionsMap = new HashMap<>();
 
-            // sorting and renaming places
-            if (!settings.isRemoveNodes()) {
-                places.sort();
-                places.rename();
-            }
+        // adding places into the places map
+        for (Place place : pi.getOccurrenceNet().getPlaces()) {
+            UntanglingNode untanglingNode = places.addNode(place);
+            idToPlacesMap.put(untanglingNode.getId(), untanglingNode);
+        }
 
-            // connecting transitions while skipping the places
-            if (settings.isRemoveNodes()) {
-                connectTransitionsOnly(pi, process, idToTransitionsMap);
-            } else {
-                // places need to be present
-                connectTransitionsAndPlaces(pi, process, idToPlacesMap, idToTransitionsMap);
-            }
-            partialOrders.add(process);
+        // adding transitions into the transitions map
+        for (Transition transition : pi.getOccurrenceNet().getTransitions()) {
+            UntanglingNode untanglingNode = transitions.addNode(transition);
+            idToTransitionsMap.put(untanglingNode.getId(), untanglingNode);
         }
 
-        return partialOrders;
+        // sorting and renaming transitions
+        transitions.sort();
+        transitions.rename();
 
+        // sorting and renaming places
+        if (!settings.isRemoveNodes()) {
+            places.sort();
+            places.rename();
+        }
+
+        // connecting transitions while skipping the places
+        if (settings.isRemoveNodes()) {
+            connectTransitionsOnly(pi, process, idToTransitionsMap);
+        } else {
+            // places need to be present
+            connectTransitionsAndPlaces(pi, process, idToPlacesMap, idToTransitionsMap);
+        }
+        return process;
     }
 
     /** Connects nodes and transitions in order to build the partial order **/
@@ -238,28 +208,28 @@ public class Untanglings {
         }
     }
 
-    /** Connect transitions in order to build a partial order. Places are skipped **/
+    /** Connect transitions in order to build a partial order. Places are skipped. *
+     *  Edges are indexed by the label of their source, so that each transition   *
+     *  to place edge is joined with the edges leaving that place in linear time  **/
     private void connectTransitionsOnly(
             IProcess<BPNode, Condition, Event, Flow, Node, Place, Transition, Marking> pi,
             PartialOrder process, HashMap<Integer, UntanglingNode> idToTransitionMap) {
 
-        for (Flow edge1 : pi.getOccurrenceNet().getEdges()) {
-            if (!(edge1.getSource() instanceof Transition)) continue;
-            for (Flow edge2 : pi.getOccurrenceNet().getEdges()) {
-
-                String sourceName = edge2.getSource().getLabel();
-                String targetName = edge1.getTarget().getLabel();
-
-                if (!sourceName.equals(targetName)) continue;
+        Collection<Flow> edges = pi.getOccurrenceNet().getEdges();
+        Map<String, List<Flow>> sourceLabelToEdgesMap = new HashMap<>();
+        for (Flow edge : edges) {
+            sourceLabelToEdgesMap.computeIfAbsent(edge.getSource().getLabel(), label -> new ArrayList<>()).add(edge);
+        }
 
+        for (Flow edge1 : edges) {
+            if (!(edge1.getSource() instanceof Transition)) continue;
+            String targetName = edge1.getTarget().getLabel();
+            for (Flow edge2 : sourceLabelToEdgesMap.getOrDefault(targetName, Collections.emptyList())) {
                 Node source = edge1.getSource();
                 Node target = edge2.getTarget();
                 UntanglingEdge connection = connectNodes(source, target,
                         idToTransitionMap, idToTransitionMap);
 
-                // debug printing : connection
-                // System.out.println(connection.getFirst().getLabel() + " -> " + connection.getSecond().getLabel());
-
                 process.add(connection);
             }
         }
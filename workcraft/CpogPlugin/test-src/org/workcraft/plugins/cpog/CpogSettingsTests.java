@@ -32,11 +32,16 @@ class CpogSettingsTests {
         Assertions.assertEquals(Config.toString(CpogSettings.getSatSolver()),
                 framework.getConfigVar(prefix + ".satSolver", false));
 
+        Assertions.assertEquals(CpogSettings.SatSolver.CLASP, CpogSettings.getSatSolver());
+
         Assertions.assertEquals(Config.toString(CpogSettings.getClaspCommand()),
                 framework.getConfigVar(prefix + ".claspCommand", false));
 
         Assertions.assertEquals(Config.toString(CpogSettings.getMinisatCommand()),
                 framework.getConfigVar(prefix + ".minisatCommand", false));
+
+        Assertions.assertEquals(Config.toString(CpogSettings.getPortfolioSize()),
+                framework.getConfigVar(prefix + ".portfolioSize", false));
     }
 
 }
@@ -0,0 +1,144 @@
+package org.workcraft.plugins.cpog.sat;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.formula.BooleanFormula;
+import org.workcraft.formula.BooleanVariable;
+import org.workcraft.formula.FreeVariable;
+import org.workcraft.formula.Literal;
+import org.workcraft.formula.cnf.Cnf;
+import org.workcraft.formula.cnf.CnfClause;
+import org.workcraft.plugins.cpog.CpogSettings;
+import org.workcraft.plugins.cpog.encoding.onehot.OneHotNumberProvider;
+
+import java.util.Arrays;
+
+class BuiltinSolverTests extends SolverTests {
+
+    @BeforeAll
+    static void setSatSolver() {
+        CpogSettings.setSatSolver(CpogSettings.SatSolver.BUILTIN);
+    }
+
+    @Override
+    protected LegacySolver<BooleanFormula> createSolver() {
+        return new LegacySolver<>(
+                new Optimiser<>(new OneHotNumberProvider()),
+                new CleverCnfGenerator());
+    }
+
+    // Pigeonhole principle: each of n + 1 pigeons is in one of n holes, and no hole has two pigeons
+    private static void addPigeonholeClauses(IncrementalSatSolver solver, int holeCount, int selector) {
+        int pigeonCount = holeCount + 1;
+        for (int pigeon = 0; pigeon < pigeonCount; pigeon++) {
+            int[] clause = new int[holeCount + 1];
+            for (int hole = 0; hole < holeCount; hole++) {
+                clause[hole] = pigeon * holeCount + hole + 1;
+            }
+            clause[holeCount] = -selector;
+            solver.addClause(clause);
+        }
+        for (int hole = 0; hole < holeCount; hole++) {
+            for (int i = 0; i < pigeonCount; i++) {
+                for (int j = i + 1; j < pigeonCount; j++) {
+                    solver.addClause(-(i * holeCount + hole + 1), -(j * holeCount + hole + 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testIncrementalSolver() {
+        CdclSatSolver solver = new CdclSatSolver();
+        int holeCount = 6;
+        int selector = (holeCount + 1) * holeCount + 1;
+        addPigeonholeClauses(solver, holeCount, selector);
+        Assertions.assertTrue(solver.solve());
+        Assertions.assertFalse(solver.getValue(selector));
+
+        // Learnt clauses are kept, so the repeated query needs fewer conflicts
+        Assertions.assertFalse(solver.solve(selector));
+        long conflictCount = solver.getConflictCount();
+        Assertions.assertTrue(solver.getLearntCount() > 0);
+        Assertions.assertFalse(solver.solve(selector));
+        Assertions.assertTrue(solver.getConflictCount() - conflictCount < conflictCount);
+
+        // Clauses added between calls
+        solver.addClause(1);
+        solver.addClause(-2);
+        Assertions.assertTrue(solver.solve(-selector, 3));
+        Assertions.assertTrue(solver.getValue(1));
+        Assertions.assertFalse(solver.getValue(2));
+        Assertions.assertTrue(solver.getValue(3));
+        Assertions.assertFalse(solver.solve(selector));
+        solver.addClause(selector);
+        Assertions.assertFalse(solver.solve());
+    }
+
+    @Test
+    void testRepeatedAssumptions() {
+        // Each satisfied assumption opens a decision level, so there are more levels than variables
+        CdclSatSolver solver = new CdclSatSolver();
+        solver.addClause(1, 2);
+        int[] assumptions = new int[40];
+        Arrays.fill(assumptions, -1);
+        Assertions.assertTrue(solver.solve(assumptions));
+        Assertions.assertFalse(solver.getValue(1));
+        Assertions.assertTrue(solver.getValue(2));
+    }
+
+    @Test
+    void testPortfolioSolver() {
+        PortfolioSatSolver solver = new PortfolioSatSolver(3);
+        int holeCount = 6;
+        int selector = (holeCount + 1) * holeCount + 1;
+        addPigeonholeClauses(solver, holeCount, selector);
+        Assertions.assertFalse(solver.solve(selector));
+        Assertions.assertTrue(solver.solve(-selector, 1));
+        Assertions.assertTrue(solver.getValue(1));
+        Assertions.assertFalse(solver.getValue(selector));
+    }
+
+    @Test
+    void testBooleanSolver() {
+        BooleanVariable aVar = new FreeVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        Cnf cnf = new Cnf(new CnfClause(new Literal(aVar), new Literal(bVar)),
+                new CnfClause(new Literal(aVar, true), Literal.ZERO));
+
+        BuiltinBooleanSolver solver = new BuiltinBooleanSolver(1);
+        solver.addClauses(cnf);
+        BooleanSolution solution = solver.solve();
+        Assertions.assertFalse(solution.getSolution(aVar));
+        Assertions.assertTrue(solution.getSolution(bVar));
+        Assertions.assertNull(solver.solve(new Literal(bVar, true)));
+
+        // Textual tasks are parsed back into clauses
+        CnfTask task = new SimpleCnfTaskProvider().getCnf(cnf);
+        CnfTask textTask = new CnfTask(task.getBody(), task.getVars());
+        BooleanSolution textSolution = new BuiltinBooleanSolver(2).solve(textTask);
+        Assertions.assertFalse(textSolution.getSolution(aVar));
+        Assertions.assertTrue(textSolution.getSolution(bVar));
+    }
+
+    @Test
+    void testSessionSolver() {
+        BooleanVariable aVar = new FreeVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        SimpleCnfTaskProvider taskProvider = new SimpleCnfTaskProvider();
+        CnfTask unsatisfiableTask = taskProvider.getCnf(new Cnf(new CnfClause(new Literal(aVar)),
+                new CnfClause(new Literal(aVar, true))));
+        CnfTask satisfiableTask = taskProvider.getCnf(new Cnf(new CnfClause(new Literal(aVar, true)),
+                new CnfClause(new Literal(aVar), new Literal(bVar))));
+
+        // Clauses of a task do not constrain the next tasks of the same session
+        BuiltinBooleanSolver solver = new BuiltinBooleanSolver(1);
+        Assertions.assertNull(solver.solve(unsatisfiableTask));
+        BooleanSolution solution = solver.solve(satisfiableTask);
+        Assertions.assertFalse(solution.getSolution(aVar));
+        Assertions.assertTrue(solution.getSolution(bVar));
+        Assertions.assertNull(solver.solve(unsatisfiableTask));
+    }
+
+}
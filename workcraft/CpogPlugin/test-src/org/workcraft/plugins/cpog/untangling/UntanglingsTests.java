@@ -0,0 +1,90 @@
+package org.workcraft.plugins.cpog.untangling;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.plugins.cpog.commands.PetriToCpogParameters;
+
+import java.util.*;
+
+class UntanglingsTests {
+
+    // Choice between t1 and t2 followed by t3
+    private Untanglings buildChoice(PetriToCpogParameters settings) {
+        Untanglings untangling = new Untanglings(settings);
+        for (String place : Arrays.asList("p0", "p1", "p2")) {
+            Assertions.assertTrue(untangling.addPlace(place));
+        }
+        for (String transition : Arrays.asList("t1", "t2", "t3")) {
+            Assertions.assertTrue(untangling.addTransition(transition));
+        }
+        Assertions.assertTrue(untangling.placeToTransition("p0", "t1"));
+        Assertions.assertTrue(untangling.placeToTransition("p0", "t2"));
+        Assertions.assertTrue(untangling.transitionToPlace("t1", "p1"));
+        Assertions.assertTrue(untangling.transitionToPlace("t2", "p1"));
+        Assertions.assertTrue(untangling.placeToTransition("p1", "t3"));
+        Assertions.assertTrue(untangling.transitionToPlace("t3", "p2"));
+        Assertions.assertTrue(untangling.insertTokens("p0", 1));
+
+        Assertions.assertFalse(untangling.placeToTransition("p0", "t4"));
+        Assertions.assertFalse(untangling.transitionToPlace("t4", "p0"));
+        Assertions.assertFalse(untangling.insertTokens("p4", 1));
+        return untangling;
+    }
+
+    private Set<String> getEdgeNames(PartialOrder partialOrder) {
+        Set<String> result = new HashSet<>();
+        for (UntanglingEdge edge : partialOrder) {
+            result.add(edge.getFirst().getLabel() + "->" + edge.getSecond().getLabel());
+        }
+        return result;
+    }
+
+    @Test
+    void testTransitionsOnly() {
+        PetriToCpogParameters settings = new PetriToCpogParameters();
+        settings.setRemoveNodes(true);
+        Untanglings untangling = buildChoice(settings);
+        Assertions.assertTrue(untangling.startConversion());
+
+        Set<Set<String>> processes = new HashSet<>();
+        for (PartialOrder partialOrder : untangling.getPartialOrders(settings)) {
+            processes.add(getEdgeNames(partialOrder));
+        }
+        Set<Set<String>> expected = new HashSet<>();
+        expected.add(Collections.singleton("t1->t3"));
+        expected.add(Collections.singleton("t2->t3"));
+        Assertions.assertEquals(expected, processes);
+    }
+
+    @Test
+    void testTransitionsAndPlaces() {
+        PetriToCpogParameters settings = new PetriToCpogParameters();
+        Untanglings untangling = buildChoice(settings);
+        Assertions.assertTrue(untangling.startConversion());
+
+        Set<Set<String>> processes = new HashSet<>();
+        for (PartialOrder partialOrder : untangling.getPartialOrders(settings)) {
+            processes.add(getEdgeNames(partialOrder));
+        }
+        Set<Set<String>> expected = new HashSet<>();
+        expected.add(new HashSet<>(Arrays.asList("p0->t1", "t1->p1", "p1->t3", "t3->p2")));
+        expected.add(new HashSet<>(Arrays.asList("p0->t2", "t2->p1", "p1->t3", "t3->p2")));
+        Assertions.assertEquals(expected, processes);
+    }
+
+    @Test
+    void testRename() {
+        NodeList nodes = new NodeList();
+        List<String> labels = Arrays.asList("a", "b", "a", "a_2", "a", "b");
+        for (int i = 0; i < labels.size(); i++) {
+            nodes.add(new UntanglingNode(i, labels.get(i), UntanglingNode.NodeType.TRANSITION));
+        }
+        nodes.rename();
+        List<String> names = new ArrayList<>();
+        for (UntanglingNode node : nodes) {
+            names.add(node.getLabel());
+        }
+        Assertions.assertEquals(Arrays.asList("a", "b", "a_2", "a_2_2", "a_3", "b_2"), names);
+    }
+
+}
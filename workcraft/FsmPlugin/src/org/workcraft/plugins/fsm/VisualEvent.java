@@ -65,6 +65,7 @@ public class VisualEvent extends VisualConnection {
     protected void cacheLabelRenderedText(String text, Font font, Positioning positioning, Point2D offset) {
         if (labelRenderedText.isDifferent(text, font, positioning, offset)) {
             labelRenderedText = new RenderedText(text, font, positioning, offset);
+            boundingBoxChanged();
         }
     }
 
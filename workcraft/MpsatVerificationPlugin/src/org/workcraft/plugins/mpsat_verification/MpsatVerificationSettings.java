@@ -21,6 +21,7 @@ public class MpsatVerificationSettings extends AbstractToolSettings {
     private static final String keySolutionMode = prefix + ".solutionMode";
     private static final String keyArgs = prefix + ".args";
     private static final String keyAdvancedMode = prefix + ".advancedMode";
+    private static final String keyConcurrentCheckCount = prefix + ".concurrentCheckCount";
     private static final String keyPrintStdout = prefix + ".printStdout";
     private static final String keyPrintStderr = prefix + ".printStderr";
     private static final String keyDebugReach = prefix + ".debugReach";
@@ -34,6 +35,7 @@ public class MpsatVerificationSettings extends AbstractToolSettings {
     private static final SolutionMode defaultSolutionMode = SolutionMode.MINIMUM_COST;
     private static final String defaultArgs = "";
     private static final Boolean defaultAdvancedMode = false;
+    private static final int defaultConcurrentCheckCount = 1;
     private static final Boolean defaultPrintStdout = true;
     private static final Boolean defaultPrintStderr = true;
     private static final Boolean defaultDebugReach = false;
@@ -47,6 +49,7 @@ public class MpsatVerificationSettings extends AbstractToolSettings {
     private static SolutionMode solutionMode = defaultSolutionMode;
     private static String args = defaultArgs;
     private static Boolean advancedMode = defaultAdvancedMode;
+    private static int concurrentCheckCount = defaultConcurrentCheckCount;
     private static Boolean printStdout = defaultPrintStdout;
     private static Boolean printStderr = defaultPrintStderr;
     private static Boolean debugReach = defaultDebugReach;
@@ -81,6 +84,11 @@ public class MpsatVerificationSettings extends AbstractToolSettings {
                 MpsatVerificationSettings::setAdvancedMode,
                 MpsatVerificationSettings::getAdvancedMode));
 
+        properties.add(new PropertyDeclaration<>(Integer.class,
+                "Number of concurrent checks on shared unfolding (1 for sequential)",
+                MpsatVerificationSettings::setConcurrentCheckCount,
+                MpsatVerificationSettings::getConcurrentCheckCount));
+
         properties.add(new PropertyDeclaration<>(Boolean.class,
                 "Output stdout",
                 MpsatVerificationSettings::setPrintStdout,
@@ -129,6 +137,7 @@ public class MpsatVerificationSettings extends AbstractToolSettings {
         setSolutionMode(config.getEnum(keySolutionMode, SolutionMode.class, defaultSolutionMode));
         setArgs(config.getString(keyArgs, defaultArgs));
         setAdvancedMode(config.getBoolean(keyAdvancedMode, defaultAdvancedMode));
+        setConcurrentCheckCount(config.getInt(keyConcurrentCheckCount, defaultConcurrentCheckCount));
         setPrintStdout(config.getBoolean(keyPrintStdout, defaultPrintStdout));
         setPrintStderr(config.getBoolean(keyPrintStderr, defaultPrintStderr));
         setDebugReach(config.getBoolean(keyDebugReach, defaultDebugReach));
@@ -145,6 +154,7 @@ public class MpsatVerificationSettings extends AbstractToolSettings {
         config.setEnum(keySolutionMode, getSolutionMode());
         config.set(keyArgs, getArgs());
         config.setBoolean(keyAdvancedMode, getAdvancedMode());
+        config.setInt(keyConcurrentCheckCount, getConcurrentCheckCount());
         config.setBoolean(keyPrintStdout, getPrintStdout());
         config.setBoolean(keyPrintStderr, getPrintStderr());
         config.setBoolean(keyDebugReach, getDebugReach());
@@ -203,6 +213,14 @@ public class MpsatVerificationSettings extends AbstractToolSettings {
         advancedMode = value;
     }
 
+    public static int getConcurrentCheckCount() {
+        return concurrentCheckCount;
+    }
+
+    public static void setConcurrentCheckCount(int value) {
+        concurrentCheckCount = value;
+    }
+
     public static Boolean getPrintStdout() {
         return printStdout;
     }
@@ -1,6 +1,7 @@
 package org.workcraft.plugins.mpsat_verification.tasks;
 
 import org.workcraft.Framework;
+import org.workcraft.plugins.mpsat_verification.MpsatVerificationSettings;
 import org.workcraft.plugins.mpsat_verification.presets.VerificationParameters;
 import org.workcraft.plugins.mpsat_verification.utils.MpsatUtils;
 import org.workcraft.plugins.petri.PetriModel;
@@ -14,11 +15,17 @@ import org.workcraft.workspace.WorkspaceEntry;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CombinedChainTask implements Task<CombinedChainOutput> {
 
     private static final String STG_FILE_EXTENSION = StgFormat.getInstance().getExtension();
     private static final String NET_FILE_NAME = StgUtils.SPEC_FILE_PREFIX + STG_FILE_EXTENSION;
+    private static final String PROPERTY_DIRECTORY_PREFIX = "property-";
 
     private final WorkspaceEntry we;
     private final List<VerificationParameters> verificationParametersList;
@@ -91,6 +98,12 @@ public class CombinedChainTask implements Task<CombinedChainOutput> {
     private Result<? extends CombinedChainOutput> verifyPropertyList(CombinedChainOutput payload,
             ProgressMonitor<? super CombinedChainOutput> monitor, File directory) {
 
+        // Concurrent checks are not possible if MPSat parameters are edited interactively before each call
+        int threadCount = Math.min(MpsatVerificationSettings.getConcurrentCheckCount(), verificationParametersList.size());
+        if ((threadCount > 1) && !MpsatVerificationSettings.getAdvancedMode()) {
+            return verifyPropertyListConcurrently(payload, monitor, directory, threadCount);
+        }
+
         File unfoldingFile = payload.getMpsatResult().getPayload().getUnfoldingFile();
         File netFile = new File(directory, NET_FILE_NAME);
         ArrayList<Result<? extends MpsatOutput>> mpsatResultList = new ArrayList<>(verificationParametersList.size());
@@ -102,14 +115,77 @@ public class CombinedChainTask implements Task<CombinedChainOutput> {
             mpsatResultList.add(mpsatResult);
 
             // Return results at the first failure or property violation
-            boolean inversePredicate = verificationParameters.isInversePredicate();
-            if (!mpsatResult.isSuccess() || (mpsatResult.getPayload().hasSolutions() == inversePredicate)) {
+            if (isFailureOrViolation(mpsatResult, verificationParameters)) {
                 return new Result<>(mpsatResult.getOutcome(), payload.applyMpsatResultList(mpsatResultList));
             }
         }
         return Result.success(payload.applyMpsatResultList(mpsatResultList));
     }
 
+    private Result<? extends CombinedChainOutput> verifyPropertyListConcurrently(CombinedChainOutput payload,
+            ProgressMonitor<? super CombinedChainOutput> monitor, File directory, int threadCount) {
+
+        File unfoldingFile = payload.getMpsatResult().getPayload().getUnfoldingFile();
+        File netFile = new File(directory, NET_FILE_NAME);
+        int count = verificationParametersList.size();
+        // Index of the first property whose check failed or found a violation (checks after it are cancelled)
+        AtomicInteger stopIndex = new AtomicInteger(count);
+        List<Future<Result<? extends MpsatOutput>>> futures = new ArrayList<>(count);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int index = 0; index < count; index++) {
+                int taskIndex = index;
+                VerificationParameters verificationParameters = verificationParametersList.get(index);
+                // Each check gets its own directory, so solution and assertion files do not clash
+                File taskDirectory = new File(directory, PROPERTY_DIRECTORY_PREFIX + index);
+                if (!taskDirectory.mkdir()) {
+                    return Result.exception("Cannot create directory " + taskDirectory.getAbsolutePath());
+                }
+                MpsatTask mpsatTask = new MpsatTask(unfoldingFile, netFile, verificationParameters, taskDirectory);
+                SubtaskMonitor<Object> subtaskMonitor = new SubtaskMonitor<Object>(monitor) {
+                    @Override
+                    public boolean isCancelRequested() {
+                        return super.isCancelRequested() || (stopIndex.get() < taskIndex);
+                    }
+                };
+                futures.add(executor.submit(() -> {
+                    if (subtaskMonitor.isCancelRequested()) {
+                        return Result.cancel();
+                    }
+                    Result<? extends MpsatOutput> mpsatResult = Framework.getInstance().getTaskManager().execute(
+                            mpsatTask, "Running verification [MPSat]", subtaskMonitor);
+
+                    if (isFailureOrViolation(mpsatResult, verificationParameters)) {
+                        stopIndex.accumulateAndGet(taskIndex, Math::min);
+                    }
+                    return mpsatResult;
+                }));
+            }
+            // Collect results in the original order, so the output is the same as for sequential checks
+            ArrayList<Result<? extends MpsatOutput>> mpsatResultList = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                Result<? extends MpsatOutput> mpsatResult = futures.get(index).get();
+                mpsatResultList.add(mpsatResult);
+                if (isFailureOrViolation(mpsatResult, verificationParametersList.get(index))) {
+                    return new Result<>(mpsatResult.getOutcome(), payload.applyMpsatResultList(mpsatResultList));
+                }
+            }
+            return Result.success(payload.applyMpsatResultList(mpsatResultList));
+        } catch (InterruptedException | ExecutionException e) {
+            return Result.exception(e);
+        } finally {
+            stopIndex.set(-1);
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean isFailureOrViolation(Result<? extends MpsatOutput> mpsatResult,
+            VerificationParameters verificationParameters) {
+
+        boolean inversePredicate = verificationParameters.isInversePredicate();
+        return !mpsatResult.isSuccess() || (mpsatResult.getPayload().hasSolutions() == inversePredicate);
+    }
+
     private Result<? extends CombinedChainOutput> runExtraTask(CombinedChainOutput payload,
             ProgressMonitor<? super CombinedChainOutput> monitor) {
 
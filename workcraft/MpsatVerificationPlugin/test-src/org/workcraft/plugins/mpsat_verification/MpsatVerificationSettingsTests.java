@@ -35,6 +35,9 @@ class MpsatVerificationSettingsTests {
         Assertions.assertEquals(Config.toString(MpsatVerificationSettings.getAdvancedMode()),
                 framework.getConfigVar(prefix + ".advancedMode", false));
 
+        Assertions.assertEquals(Config.toString(MpsatVerificationSettings.getConcurrentCheckCount()),
+                framework.getConfigVar(prefix + ".concurrentCheckCount", false));
+
         Assertions.assertEquals(Config.toString(MpsatVerificationSettings.getPrintStdout()),
                 framework.getConfigVar(prefix + ".printStdout", false));
 
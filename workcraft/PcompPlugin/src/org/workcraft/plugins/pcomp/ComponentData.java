@@ -11,6 +11,9 @@ import java.util.Set;
 
 public class ComponentData {
 
+    private static final String FILE_ELEMENT_NAME = "file";
+    private static final String PLACES_ELEMENT_NAME = "places";
+    private static final String TRANSITIONS_ELEMENT_NAME = "transitions";
     private static final String MAP_ELEMENT_NAME = "map";
     private static final String SRC_ELEMENT_NAME = "src";
     private static final String DST_ELEMENT_NAME = "dst";
@@ -37,6 +40,37 @@ public class ComponentData {
         }
     }
 
+    public ComponentData(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public void addPlace(String src, String dst) {
+        src2dstPlaceMap.put(src, dst);
+    }
+
+    public void addTransition(String src, String dst) {
+        dst2srcTransitionMap.put(dst, src);
+    }
+
+    public void write(Element element) {
+        Element fileElement = XmlUtils.createChildElement(FILE_ELEMENT_NAME, element);
+        fileElement.setTextContent(fileName);
+        Element placesElement = XmlUtils.createChildElement(PLACES_ELEMENT_NAME, element);
+        for (Entry<String, String> entry : src2dstPlaceMap.entrySet()) {
+            writeMap(placesElement, entry.getKey(), entry.getValue());
+        }
+        Element transitionsElement = XmlUtils.createChildElement(TRANSITIONS_ELEMENT_NAME, element);
+        for (Entry<String, String> entry : dst2srcTransitionMap.entrySet()) {
+            writeMap(transitionsElement, entry.getValue(), entry.getKey());
+        }
+    }
+
+    private void writeMap(Element parent, String src, String dst) {
+        Element element = XmlUtils.createChildElement(MAP_ELEMENT_NAME, parent);
+        XmlUtils.createChildElement(SRC_ELEMENT_NAME, element).setTextContent(src);
+        XmlUtils.createChildElement(DST_ELEMENT_NAME, element).setTextContent(dst);
+    }
+
     public String getFileName() {
         return fileName;
     }
@@ -18,14 +18,17 @@ import java.util.Set;
 
 public class CompositionData {
 
+    private static final String COMPOSITION_ELEMENT_NAME = "composition";
     private static final String STG_ELEMENT_NAME = "STG";
     private static final String FILE_ELEMENT_NAME = "file";
     private static final String PLACES_ELEMENT_NAME = "places";
     private static final String TRANSITIONS_ELEMENT_NAME = "transitions";
 
-
     private final LinkedHashMap<String, ComponentData> fileToComponent = new LinkedHashMap<>();
 
+    public CompositionData() {
+    }
+
     public CompositionData(File file) throws FileNotFoundException {
         this(new FileInputStream(file));
     }
@@ -58,6 +61,19 @@ public class CompositionData {
         }
     }
 
+    public void addComponentData(ComponentData componentData) {
+        fileToComponent.put(componentData.getFileName(), componentData);
+    }
+
+    public void write(OutputStream os) {
+        Document doc = XmlUtils.createDocument();
+        Element root = XmlUtils.createChildElement(COMPOSITION_ELEMENT_NAME, doc);
+        for (ComponentData componentData : fileToComponent.values()) {
+            componentData.write(XmlUtils.createChildElement(STG_ELEMENT_NAME, root));
+        }
+        XmlUtils.writeDocument(doc, os);
+    }
+
     public ComponentData getComponentData(File file) {
         return getComponentData(file.getAbsolutePath());
     }
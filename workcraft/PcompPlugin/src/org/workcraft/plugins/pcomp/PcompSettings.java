@@ -20,18 +20,21 @@ public class PcompSettings extends AbstractToolSettings {
     private static final String keyPrintStdout = prefix + ".printStdout";
     private static final String keyPrintStderr = prefix + ".printStderr";
     private static final String keySharedSignalMode = prefix + ".sharedSignalMode";
+    private static final String keyBuiltInComposition = prefix + ".builtInComposition";
 
     private static final String defaultCommand = BackendUtils.getToolPath("UnfoldingTools", "pcomp");
     private static final String defaultArgs = "";
     private static final Boolean defaultPrintStdout = true;
     private static final Boolean defaultPrintStderr = true;
     private static final PcompParameters.SharedSignalMode defaultSharedSignalMode = PcompParameters.SharedSignalMode.OUTPUT;
+    private static final Boolean defaultBuiltInComposition = false;
 
     private static String command = defaultCommand;
     private static String args = defaultArgs;
     private static Boolean printStdout = defaultPrintStdout;
     private static Boolean printStderr = defaultPrintStderr;
     private static PcompParameters.SharedSignalMode sharedSignalMode = defaultSharedSignalMode;
+    private static Boolean builtInComposition = defaultBuiltInComposition;
 
     static {
         properties.add(new PropertyDeclaration<>(String.class,
@@ -59,6 +62,11 @@ public class PcompSettings extends AbstractToolSettings {
                 PcompSettings::setSharedSignalMode,
                 PcompSettings::getSharedSignalMode));
 
+        properties.add(new PropertyDeclaration<>(Boolean.class,
+                "Use built-in composition instead of PComp where possible",
+                PcompSettings::setBuiltInComposition,
+                PcompSettings::getBuiltInComposition));
+
     }
 
     @Override
@@ -73,6 +81,7 @@ public class PcompSettings extends AbstractToolSettings {
         setPrintStdout(config.getBoolean(keyPrintStdout, defaultPrintStdout));
         setPrintStderr(config.getBoolean(keyPrintStderr, defaultPrintStderr));
         setSharedSignalMode(config.getEnum(keySharedSignalMode, PcompParameters.SharedSignalMode.class, defaultSharedSignalMode));
+        setBuiltInComposition(config.getBoolean(keyBuiltInComposition, defaultBuiltInComposition));
     }
 
     @Override
@@ -82,6 +91,7 @@ public class PcompSettings extends AbstractToolSettings {
         config.setBoolean(keyPrintStdout, getPrintStdout());
         config.setBoolean(keyPrintStderr, getPrintStderr());
         config.setEnum(keySharedSignalMode, getSharedSignalMode());
+        config.setBoolean(keyBuiltInComposition, getBuiltInComposition());
     }
 
     @Override
@@ -129,4 +139,12 @@ public class PcompSettings extends AbstractToolSettings {
         return sharedSignalMode;
     }
 
+    public static Boolean getBuiltInComposition() {
+        return builtInComposition;
+    }
+
+    public static void setBuiltInComposition(Boolean value) {
+        builtInComposition = value;
+    }
+
 }
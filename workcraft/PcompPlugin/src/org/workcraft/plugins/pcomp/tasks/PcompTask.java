@@ -1,13 +1,23 @@
 package org.workcraft.plugins.pcomp.tasks;
 
+import org.workcraft.exceptions.SerialisationException;
+import org.workcraft.plugins.pcomp.CompositionData;
 import org.workcraft.plugins.pcomp.PcompSettings;
+import org.workcraft.plugins.pcomp.utils.StgComposer;
+import org.workcraft.plugins.stg.Stg;
+import org.workcraft.plugins.stg.StgModel;
+import org.workcraft.plugins.stg.interop.StgExporter;
+import org.workcraft.plugins.stg.utils.StgUtils;
 import org.workcraft.tasks.*;
+import org.workcraft.types.Pair;
 import org.workcraft.utils.ExecutableUtils;
 import org.workcraft.utils.TextUtils;
 
-import java.io.File;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public class PcompTask implements Task<PcompOutput> {
 
@@ -39,6 +49,10 @@ public class PcompTask implements Task<PcompOutput> {
 
     @Override
     public Result<? extends PcompOutput> run(ProgressMonitor<? super PcompOutput> monitor) {
+        if (PcompSettings.getBuiltInComposition() && StgComposer.isSupported(parameters)) {
+            return runBuiltInComposition();
+        }
+
         ArrayList<String> command = new ArrayList<>();
 
         // Name of the executable
@@ -104,4 +118,35 @@ public class PcompTask implements Task<PcompOutput> {
         return Result.exception(result.getCause());
     }
 
+    private Result<? extends PcompOutput> runBuiltInComposition() {
+        File outputFile = new File(directory, outputFileName);
+        outputFile.deleteOnExit();
+        File detailFile = new File(directory, detailFileName);
+        detailFile.deleteOnExit();
+        try {
+            List<StgModel> stgs = new ArrayList<>();
+            List<String> fileNames = new ArrayList<>();
+            for (File inputFile : inputFiles) {
+                if (inputFile != null) {
+                    stgs.add(StgUtils.importStg(inputFile));
+                    fileNames.add(inputFile.getAbsolutePath());
+                }
+            }
+            Pair<Stg, CompositionData> composition = new StgComposer(parameters).compose(stgs, fileNames);
+            try (OutputStream os = new FileOutputStream(outputFile)) {
+                new StgExporter().export(composition.getFirst(), os);
+            }
+            try (OutputStream os = new FileOutputStream(detailFile)) {
+                composition.getSecond().write(os);
+            }
+        } catch (RuntimeException | IOException | SerialisationException e) {
+            // Report the problem as the stderr of a failed PComp run, so result handling stays the same
+            byte[] stderr = String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8);
+            ExternalProcessOutput output = new ExternalProcessOutput(2, new byte[0], stderr);
+            return Result.failure(new PcompOutput(output, inputFiles, outputFile, detailFile));
+        }
+        ExternalProcessOutput output = new ExternalProcessOutput(0);
+        return Result.success(new PcompOutput(output, inputFiles, outputFile, detailFile));
+    }
+
 }
@@ -0,0 +1,276 @@
+package org.workcraft.plugins.pcomp.utils;
+
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.exceptions.InvalidConnectionException;
+import org.workcraft.plugins.pcomp.ComponentData;
+import org.workcraft.plugins.pcomp.CompositionData;
+import org.workcraft.plugins.pcomp.tasks.PcompParameters;
+import org.workcraft.plugins.petri.Place;
+import org.workcraft.plugins.stg.*;
+import org.workcraft.plugins.stg.utils.LabelParser;
+import org.workcraft.types.Pair;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel composition of STGs built in-process, as an alternative to running the external PComp tool.
+ * Transitions of input and output signals are synchronised on equal signal and direction across all
+ * components that have the signal, while places are kept as a disjoint union. Internal signals and dummies
+ * are local to their components and are renamed on a name clash. The node mapping between components and
+ * the composition is collected in the same form as the PComp detail file.
+ */
+public class StgComposer {
+
+    private static final String PLACE_NAME_PREFIX = "p";
+
+    private final PcompParameters parameters;
+
+    private static final class Product {
+        final List<Integer> components = new ArrayList<>();
+        final List<SignalTransition> transitions = new ArrayList<>();
+        final Set<MathNode> preset = new LinkedHashSet<>();
+        final Set<MathNode> postset = new LinkedHashSet<>();
+    }
+
+    public StgComposer(PcompParameters parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * Conversion of shared signals to dummies and improved composition are left to the external tool.
+     */
+    public static boolean isSupported(PcompParameters parameters) {
+        return (parameters.getSharedSignalMode() != PcompParameters.SharedSignalMode.DUMMY)
+                && !parameters.isImprovedComposition();
+    }
+
+    public Pair<Stg, CompositionData> compose(List<? extends StgModel> stgs, List<String> fileNames) {
+        if (!isSupported(parameters)) {
+            throw new RuntimeException("Unsupported parameters of built-in parallel composition.");
+        }
+        int count = stgs.size();
+        Set<String> usedNames = new HashSet<>();
+        Map<String, Signal.Type> signalTypes = getSharedSignalTypes(stgs);
+        usedNames.addAll(signalTypes.keySet());
+
+        // Internal signals are local to their components, so they are renamed if their names are taken
+        List<Map<String, String>> signalRenames = new ArrayList<>();
+        for (StgModel stg : stgs) {
+            Map<String, String> renames = new HashMap<>();
+            for (String signal : new TreeSet<>(stg.getSignalReferences(Signal.Type.INTERNAL))) {
+                String newSignal = getUniqueName(signal, usedNames);
+                renames.put(signal, newSignal);
+                signalTypes.put(newSignal, Signal.Type.INTERNAL);
+            }
+            signalRenames.add(renames);
+        }
+
+        // Group signal transitions of each component by the composition event they participate in
+        Map<String, Pair<String, SignalTransition.Direction>> events = new TreeMap<>();
+        Map<String, List<Integer>> signalComponents = new HashMap<>();
+        List<Map<String, List<SignalTransition>>> componentEventTransitions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StgModel stg = stgs.get(i);
+            Map<String, String> renames = signalRenames.get(i);
+            Map<String, List<SignalTransition>> eventTransitions = new HashMap<>();
+            for (SignalTransition transition : sortByReference(stg, stg.getSignalTransitions())) {
+                String signal = stg.getSignalReference(transition);
+                signal = renames.getOrDefault(signal, signal);
+                SignalTransition.Direction direction = transition.getDirection();
+                String event = signal + direction;
+                events.put(event, Pair.of(signal, direction));
+                eventTransitions.computeIfAbsent(event, key -> new ArrayList<>()).add(transition);
+                List<Integer> components = signalComponents.computeIfAbsent(signal, key -> new ArrayList<>());
+                if (!components.contains(i)) {
+                    components.add(i);
+                }
+            }
+            componentEventTransitions.add(eventTransitions);
+        }
+
+        // Products of synchronised transitions are independent of each other and are computed in parallel
+        List<List<Product>> eventProducts = events.values().parallelStream()
+                .map(event -> getProducts(stgs, signalComponents.get(event.getFirst()),
+                        componentEventTransitions, event.getFirst() + event.getSecond()))
+                .collect(Collectors.toList());
+
+        Stg result = new Stg();
+        CompositionData compositionData = new CompositionData();
+        List<ComponentData> componentDatas = new ArrayList<>();
+        for (String fileName : fileNames) {
+            ComponentData componentData = new ComponentData(fileName);
+            componentDatas.add(componentData);
+            compositionData.addComponentData(componentData);
+        }
+
+        Map<MathNode, MathNode> nodeMap = new HashMap<>();
+        composePlaces(stgs, result, componentDatas, nodeMap, usedNames);
+        composeDummies(stgs, result, componentDatas, nodeMap, usedNames);
+
+        int eventIndex = 0;
+        for (Pair<String, SignalTransition.Direction> event : events.values()) {
+            String signal = event.getFirst();
+            SignalTransition.Direction direction = event.getSecond();
+            Signal.Type type = signalTypes.get(signal);
+            for (Product product : eventProducts.get(eventIndex)) {
+                SignalTransition transition = result.createSignalTransition(signal, direction, null);
+                transition.setSignalType(type);
+                transition.setDirection(direction);
+                String ref = result.getNodeReference(transition);
+                for (int j = 0; j < product.components.size(); j++) {
+                    int i = product.components.get(j);
+                    String srcRef = stgs.get(i).getNodeReference(product.transitions.get(j));
+                    componentDatas.get(i).addTransition(srcRef, ref);
+                }
+                for (MathNode place : product.preset) {
+                    connect(result, nodeMap.get(place), transition);
+                }
+                for (MathNode place : product.postset) {
+                    connect(result, transition, nodeMap.get(place));
+                }
+            }
+            eventIndex++;
+        }
+        return Pair.of(result, compositionData);
+    }
+
+    private Map<String, Signal.Type> getSharedSignalTypes(List<? extends StgModel> stgs) {
+        Map<String, Integer> useCounts = new HashMap<>();
+        Map<String, Integer> outputCounts = new HashMap<>();
+        for (StgModel stg : stgs) {
+            for (String signal : stg.getSignalReferences(Signal.Type.INPUT)) {
+                useCounts.merge(signal, 1, Integer::sum);
+            }
+            for (String signal : stg.getSignalReferences(Signal.Type.OUTPUT)) {
+                useCounts.merge(signal, 1, Integer::sum);
+                outputCounts.merge(signal, 1, Integer::sum);
+            }
+        }
+        Map<String, Signal.Type> result = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : useCounts.entrySet()) {
+            String signal = entry.getKey();
+            int outputCount = outputCounts.getOrDefault(signal, 0);
+            if ((outputCount > 1) && !parameters.isSharedOutputs()) {
+                throw new RuntimeException("Signal '" + signal + "' is an output of more than one component.");
+            }
+            Signal.Type type = Signal.Type.INPUT;
+            if (outputCount > 0) {
+                boolean isShared = entry.getValue() > 1;
+                boolean isInternal = parameters.getSharedSignalMode() == PcompParameters.SharedSignalMode.INTERNAL;
+                type = isShared && isInternal ? Signal.Type.INTERNAL : Signal.Type.OUTPUT;
+            }
+            result.put(signal, type);
+        }
+        return result;
+    }
+
+    private List<Product> getProducts(List<? extends StgModel> stgs, List<Integer> components,
+            List<Map<String, List<SignalTransition>>> componentEventTransitions, String event) {
+
+        List<Product> result = Collections.singletonList(new Product());
+        for (int i : components) {
+            StgModel stg = stgs.get(i);
+            List<SignalTransition> transitions = componentEventTransitions.get(i)
+                    .getOrDefault(event, Collections.emptyList());
+
+            List<Product> products = new ArrayList<>();
+            for (Product product : result) {
+                for (SignalTransition transition : transitions) {
+                    Product newProduct = new Product();
+                    newProduct.components.addAll(product.components);
+                    newProduct.components.add(i);
+                    newProduct.transitions.addAll(product.transitions);
+                    newProduct.transitions.add(transition);
+                    newProduct.preset.addAll(product.preset);
+                    newProduct.preset.addAll(stg.getPreset(transition));
+                    newProduct.postset.addAll(product.postset);
+                    newProduct.postset.addAll(stg.getPostset(transition));
+                    products.add(newProduct);
+                }
+            }
+            result = products;
+        }
+        return result;
+    }
+
+    private void composePlaces(List<? extends StgModel> stgs, Stg result, List<ComponentData> componentDatas,
+            Map<MathNode, MathNode> nodeMap, Set<String> usedNames) {
+
+        // Names of explicit places are kept where possible, implicit places become explicit
+        for (boolean implicit : new boolean[] {false, true}) {
+            for (int i = 0; i < stgs.size(); i++) {
+                StgModel stg = stgs.get(i);
+                for (Place place : sortByReference(stg, stg.getPlaces())) {
+                    StgPlace stgPlace = (place instanceof StgPlace) ? (StgPlace) place : null;
+                    if (((stgPlace != null) && stgPlace.isImplicit()) != implicit) {
+                        continue;
+                    }
+                    String srcRef = stg.getNodeReference(place);
+                    String ref = getUniqueName(implicit ? PLACE_NAME_PREFIX : srcRef, usedNames);
+                    StgPlace newPlace = result.createPlace(ref, null);
+                    newPlace.setCapacity(place.getCapacity());
+                    newPlace.setTokens(place.getTokens());
+                    if (stgPlace != null) {
+                        newPlace.setMutex(stgPlace.isMutex());
+                        newPlace.setMutexProtocol(stgPlace.getMutexProtocol());
+                    }
+                    componentDatas.get(i).addPlace(srcRef, result.getNodeReference(newPlace));
+                    nodeMap.put(place, newPlace);
+                }
+            }
+        }
+    }
+
+    private void composeDummies(List<? extends StgModel> stgs, Stg result, List<ComponentData> componentDatas,
+            Map<MathNode, MathNode> nodeMap, Set<String> usedNames) {
+
+        for (int i = 0; i < stgs.size(); i++) {
+            StgModel stg = stgs.get(i);
+            Map<String, String> renames = new HashMap<>();
+            for (DummyTransition dummy : sortByReference(stg, stg.getDummyTransitions())) {
+                String srcRef = stg.getNodeReference(dummy);
+                Pair<String, Integer> r = LabelParser.parseDummyTransition(srcRef);
+                String name = (r == null) ? srcRef : r.getFirst();
+                String newName = renames.computeIfAbsent(name, key -> getUniqueName(key, usedNames));
+                DummyTransition newDummy = result.createDummyTransition(newName, null);
+                componentDatas.get(i).addTransition(srcRef, result.getNodeReference(newDummy));
+                for (MathNode place : stg.getPreset(dummy)) {
+                    connect(result, nodeMap.get(place), newDummy);
+                }
+                for (MathNode place : stg.getPostset(dummy)) {
+                    connect(result, newDummy, nodeMap.get(place));
+                }
+            }
+        }
+    }
+
+    private static <T extends MathNode> List<T> sortByReference(StgModel stg, Collection<T> nodes) {
+        Map<T, String> refs = new HashMap<>();
+        for (T node : nodes) {
+            refs.put(node, stg.getNodeReference(node));
+        }
+        List<T> result = new ArrayList<>(nodes);
+        result.sort(Comparator.comparing(refs::get));
+        return result;
+    }
+
+    private static String getUniqueName(String name, Set<String> usedNames) {
+        String result = name;
+        int suffix = 0;
+        while (usedNames.contains(result)) {
+            result = name + "_" + suffix++;
+        }
+        usedNames.add(result);
+        return result;
+    }
+
+    private static void connect(Stg stg, MathNode first, MathNode second) {
+        try {
+            stg.connect(first, second);
+        } catch (InvalidConnectionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
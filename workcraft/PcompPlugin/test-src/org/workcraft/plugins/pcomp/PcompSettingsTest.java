@@ -34,6 +34,9 @@ class PcompSettingsTest {
 
         Assertions.assertEquals(Config.toString(PcompSettings.getSharedSignalMode()),
                 framework.getConfigVar(prefix + ".sharedSignalMode", false));
+
+        Assertions.assertEquals(Config.toString(PcompSettings.getBuiltInComposition()),
+                framework.getConfigVar(prefix + ".builtInComposition", false));
     }
 
 }
@@ -0,0 +1,117 @@
+package org.workcraft.plugins.pcomp.utils;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.Framework;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.plugins.pcomp.ComponentData;
+import org.workcraft.plugins.pcomp.CompositionData;
+import org.workcraft.plugins.pcomp.PcompSettings;
+import org.workcraft.plugins.pcomp.commands.ParallelCompositionCommand;
+import org.workcraft.plugins.pcomp.tasks.PcompParameters;
+import org.workcraft.plugins.petri.Place;
+import org.workcraft.plugins.stg.*;
+import org.workcraft.plugins.stg.utils.LabelParser;
+import org.workcraft.types.Pair;
+import org.workcraft.utils.PackageUtils;
+import org.workcraft.utils.WorkspaceUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.util.*;
+
+class StgComposerTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+        PcompSettings.setBuiltInComposition(true);
+    }
+
+    @AfterAll
+    static void cleanup() {
+        PcompSettings.setBuiltInComposition(false);
+    }
+
+    @Test
+    void testCycleAndChargeCommand() {
+        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        URL cycleUrl = classLoader.getResource(PackageUtils.getPackagePath(PcompSettings.class, "cycle-mutex.stg.work"));
+        URL chargeUrl = classLoader.getResource(PackageUtils.getPackagePath(PcompSettings.class, "charge.stg.work"));
+
+        ParallelCompositionCommand command = new ParallelCompositionCommand();
+        String data = cycleUrl.getFile() + " " + chargeUrl.getFile();
+        Pair<Collection<WorkspaceEntry>, PcompParameters> dataOriginal = command.deserialiseData(data);
+        Pair<Collection<WorkspaceEntry>, PcompParameters> dataModified = Pair.of(dataOriginal.getFirst(),
+                new PcompParameters(PcompParameters.SharedSignalMode.INTERNAL, false, false));
+
+        WorkspaceEntry we = command.execute(null, dataModified);
+
+        Stg stg = WorkspaceUtils.getAs(we, Stg.class);
+        Set<String> inputRefs = stg.getSignalNames(Signal.Type.INPUT, null);
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("uv_san", "oc_san", "zc_san", "gp_ack", "gn_ack")), inputRefs);
+        Assertions.assertEquals(10, stg.getSignalTransitions(Signal.Type.INPUT).size());
+
+        Set<String> outputRefs = stg.getSignalNames(Signal.Type.OUTPUT, null);
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("uv_ctrl", "oc_ctrl", "zc_ctrl", "gp", "gn")), outputRefs);
+        Assertions.assertEquals(10, stg.getSignalTransitions(Signal.Type.OUTPUT).size());
+
+        Set<String> internalRefs = stg.getSignalNames(Signal.Type.INTERNAL, null);
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("chrg_req", "chrg_ack", "me_r1", "me_r2")), internalRefs);
+        Assertions.assertEquals(8, stg.getSignalTransitions(Signal.Type.INTERNAL).size());
+    }
+
+    @Test
+    void testCycleAndChargeCompositionData() throws DeserialisationException {
+        final Framework framework = Framework.getInstance();
+        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        List<WorkspaceEntry> wes = new ArrayList<>();
+        List<StgModel> stgs = new ArrayList<>();
+        List<String> fileNames = new ArrayList<>();
+        for (String name : Arrays.asList("cycle-mutex.stg.work", "charge.stg.work")) {
+            URL url = classLoader.getResource(PackageUtils.getPackagePath(PcompSettings.class, name));
+            WorkspaceEntry we = framework.loadWork(url.getFile());
+            wes.add(we);
+            stgs.add(WorkspaceUtils.getAs(we, Stg.class));
+            fileNames.add(url.getFile());
+        }
+
+        PcompParameters parameters = new PcompParameters(PcompParameters.SharedSignalMode.OUTPUT, true, false);
+        Pair<Stg, CompositionData> composition = new StgComposer(parameters).compose(stgs, fileNames);
+        Stg stg = composition.getFirst();
+
+        // Detail file is read back into the same mapping
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        composition.getSecond().write(out);
+        CompositionData compositionData = new CompositionData(new ByteArrayInputStream(out.toByteArray()));
+        Assertions.assertEquals(new HashSet<>(fileNames), compositionData.getFileNames());
+
+        for (int i = 0; i < stgs.size(); i++) {
+            StgModel componentStg = stgs.get(i);
+            ComponentData componentData = compositionData.getComponentData(fileNames.get(i));
+            Assertions.assertEquals(componentStg.getPlaces().size(), componentData.getSrcPlaces().size());
+            for (String srcPlace : componentData.getSrcPlaces()) {
+                Place place = (Place) componentStg.getNodeByReference(srcPlace);
+                Place dstPlace = (Place) stg.getNodeByReference(componentData.getDstPlace(srcPlace));
+                Assertions.assertEquals(place.getTokens(), dstPlace.getTokens());
+            }
+            for (String dstTransition : componentData.getDstTransitions()) {
+                String srcTransition = componentData.getSrcTransition(dstTransition);
+                Assertions.assertEquals(LabelParser.parseSignalTransition(srcTransition).getFirst(),
+                        LabelParser.parseSignalTransition(dstTransition).getFirst());
+                Assertions.assertEquals(LabelParser.parseSignalTransition(srcTransition).getSecond(),
+                        LabelParser.parseSignalTransition(dstTransition).getSecond());
+            }
+        }
+
+        for (WorkspaceEntry we : wes) {
+            framework.closeWork(we);
+        }
+    }
+
+}
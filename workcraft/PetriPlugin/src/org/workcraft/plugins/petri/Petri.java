@@ -8,7 +8,6 @@ import org.workcraft.dom.math.MathNode;
 import org.workcraft.exceptions.InvalidConnectionException;
 import org.workcraft.serialisation.References;
 import org.workcraft.types.MultiSet;
-import org.workcraft.utils.Hierarchy;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -50,17 +49,17 @@ public class Petri extends AbstractMathModel implements PetriModel {
 
     @Override
     public final Collection<Place> getPlaces() {
-        return Hierarchy.getDescendantsOfType(getRoot(), Place.class);
+        return getDescendantsOfType(Place.class);
     }
 
     @Override
     public final Collection<Transition> getTransitions() {
-        return Hierarchy.getDescendantsOfType(getRoot(), Transition.class);
+        return getDescendantsOfType(Transition.class);
     }
 
     @Override
     public final Collection<MathConnection> getConnections() {
-        return Hierarchy.getDescendantsOfType(getRoot(), MathConnection.class);
+        return getDescendantsOfType(MathConnection.class);
     }
 
     @Override
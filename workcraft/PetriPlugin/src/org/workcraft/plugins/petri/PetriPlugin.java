@@ -6,6 +6,7 @@ import org.workcraft.plugins.CompatibilityManager;
 import org.workcraft.plugins.Plugin;
 import org.workcraft.plugins.PluginManager;
 import org.workcraft.plugins.petri.commands.*;
+import org.workcraft.plugins.petri.serialization.ReadArcCopier;
 import org.workcraft.plugins.petri.serialization.ReadArcDeserialiser;
 import org.workcraft.plugins.petri.serialization.ReadArcSerialiser;
 import org.workcraft.utils.ScriptableCommandUtils;
@@ -31,6 +32,7 @@ public class PetriPlugin implements Plugin {
 
         pm.registerXmlSerialiser(ReadArcSerialiser.class);
         pm.registerXmlDeserialiser(ReadArcDeserialiser.class);
+        pm.registerCustomCopier(ReadArcCopier.class);
 
         ScriptableCommandUtils.registerCommand(ContractTransitionTransformationCommand.class, "transformPetriContractTransition",
                 "transform the Petri net 'work' by contracting a selected transition");
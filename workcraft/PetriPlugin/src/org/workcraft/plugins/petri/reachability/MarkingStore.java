@@ -0,0 +1,214 @@
+package org.workcraft.plugins.petri.reachability;
+
+import java.util.Arrays;
+
+/**
+ * Hash-consed set of markings packed into fixed-width bit vectors. Each place takes just enough bits for
+ * the token limit, and the markings are kept in flat arrays of an open-addressing hash table, so a state
+ * costs a few words of memory instead of an object graph. Together with each marking the store records the
+ * state it was first reached from and the fired transition, which is enough to reconstruct a trace to it.
+ *
+ * The table is split into segments with their own locks, so that several threads can add states at once.
+ */
+public class MarkingStore {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_COUNT - 1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int placeCount;
+    private final int tokenLimit;
+    private final int bitsPerPlace;
+    private final int wordCount;
+    private final long tokenMask;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public MarkingStore(int placeCount, int tokenLimit) {
+        if (tokenLimit < 1) {
+            throw new IllegalArgumentException("Token limit must be positive.");
+        }
+        this.placeCount = placeCount;
+        this.tokenLimit = tokenLimit;
+        bitsPerPlace = 32 - Integer.numberOfLeadingZeros(tokenLimit);
+        tokenMask = (1L << bitsPerPlace) - 1;
+        wordCount = Math.max(1, (placeCount * bitsPerPlace + 63) / 64);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    public int getTokenLimit() {
+        return tokenLimit;
+    }
+
+    /**
+     * Number of long words taken by a packed marking.
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Packs the marking into the given words (starting at the offset).
+     *
+     * @return false if some place exceeds the token limit and the marking cannot be packed
+     */
+    public boolean pack(int[] marking, long[] dst, int offset) {
+        Arrays.fill(dst, offset, offset + wordCount, 0L);
+        int bit = 0;
+        for (int placeId = 0; placeId < placeCount; placeId++) {
+            int tokens = marking[placeId];
+            if ((tokens < 0) || (tokens > tokenLimit)) {
+                return false;
+            }
+            int word = offset + (bit >>> 6);
+            int shift = bit & 63;
+            dst[word] |= (long) tokens << shift;
+            if (shift + bitsPerPlace > 64) {
+                dst[word + 1] |= (long) tokens >>> (64 - shift);
+            }
+            bit += bitsPerPlace;
+        }
+        return true;
+    }
+
+    public void unpack(long[] src, int offset, int[] marking) {
+        int bit = 0;
+        for (int placeId = 0; placeId < placeCount; placeId++) {
+            int word = offset + (bit >>> 6);
+            int shift = bit & 63;
+            long value = src[word] >>> shift;
+            if (shift + bitsPerPlace > 64) {
+                value |= src[word + 1] << (64 - shift);
+            }
+            marking[placeId] = (int) (value & tokenMask);
+            bit += bitsPerPlace;
+        }
+    }
+
+    /**
+     * Adds the packed marking (starting at the offset) unless it is already in the store.
+     *
+     * @return id of the new state, or -(id + 1) if the marking has been added before
+     */
+    public int add(long[] packed, int offset, int parentId, int transitionId) {
+        int hash = hash(packed, offset);
+        int segmentIndex = hash & SEGMENT_MASK;
+        int localId = segments[segmentIndex].add(packed, offset, hash >>> SEGMENT_BITS, parentId, transitionId);
+        if (localId < 0) {
+            return -(((-localId - 1) << SEGMENT_BITS | segmentIndex) + 1);
+        }
+        return localId << SEGMENT_BITS | segmentIndex;
+    }
+
+    public int getParentId(int stateId) {
+        return segments[stateId & SEGMENT_MASK].getParentId(stateId >>> SEGMENT_BITS);
+    }
+
+    public int getTransitionId(int stateId) {
+        return segments[stateId & SEGMENT_MASK].getTransitionId(stateId >>> SEGMENT_BITS);
+    }
+
+    public void getPacked(int stateId, long[] dst, int offset) {
+        segments[stateId & SEGMENT_MASK].getPacked(stateId >>> SEGMENT_BITS, dst, offset);
+    }
+
+    public int size() {
+        int result = 0;
+        for (Segment segment : segments) {
+            result += segment.size();
+        }
+        return result;
+    }
+
+    private int hash(long[] packed, int offset) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = offset; i < offset + wordCount; i++) {
+            h = (h ^ packed[i]) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private final class Segment {
+        // Open-addressing table of local ids + 1 (0 stands for an empty slot)
+        private int[] table = new int[INITIAL_CAPACITY * 2];
+        private int[] hashes = new int[INITIAL_CAPACITY];
+        private long[] words = new long[INITIAL_CAPACITY * wordCount];
+        private int[] parentIds = new int[INITIAL_CAPACITY];
+        private int[] transitionIds = new int[INITIAL_CAPACITY];
+        private int count = 0;
+
+        synchronized int add(long[] packed, int offset, int hash, int parentId, int transitionId) {
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            while (table[slot] != 0) {
+                int localId = table[slot] - 1;
+                if ((hashes[localId] == hash) && equals(localId, packed, offset)) {
+                    return -(localId + 1);
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (count == hashes.length) {
+                grow();
+                return add(packed, offset, hash, parentId, transitionId);
+            }
+            int localId = count++;
+            System.arraycopy(packed, offset, words, localId * wordCount, wordCount);
+            hashes[localId] = hash;
+            parentIds[localId] = parentId;
+            transitionIds[localId] = transitionId;
+            table[slot] = localId + 1;
+            return localId;
+        }
+
+        private boolean equals(int localId, long[] packed, int offset) {
+            int base = localId * wordCount;
+            for (int i = 0; i < wordCount; i++) {
+                if (words[base + i] != packed[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void grow() {
+            int capacity = hashes.length * 2;
+            if ((capacity > (Integer.MAX_VALUE >>> SEGMENT_BITS)) || ((long) capacity * wordCount > Integer.MAX_VALUE)) {
+                throw new OutOfMemoryError("Marking store capacity exceeded.");
+            }
+            hashes = Arrays.copyOf(hashes, capacity);
+            words = Arrays.copyOf(words, capacity * wordCount);
+            parentIds = Arrays.copyOf(parentIds, capacity);
+            transitionIds = Arrays.copyOf(transitionIds, capacity);
+            // Keep the load factor of the table at most 1/2
+            table = new int[capacity * 2];
+            int mask = table.length - 1;
+            for (int localId = 0; localId < count; localId++) {
+                int slot = hashes[localId] & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = localId + 1;
+            }
+        }
+
+        synchronized int getParentId(int localId) {
+            return parentIds[localId];
+        }
+
+        synchronized int getTransitionId(int localId) {
+            return transitionIds[localId];
+        }
+
+        synchronized void getPacked(int localId, long[] dst, int offset) {
+            System.arraycopy(words, localId * wordCount, dst, offset, wordCount);
+        }
+
+        synchronized int size() {
+            return count;
+        }
+    }
+
+}
@@ -0,0 +1,324 @@
+package org.workcraft.plugins.petri.reachability;
+
+import org.workcraft.plugins.petri.PetriModel;
+import org.workcraft.plugins.petri.Transition;
+import org.workcraft.plugins.petri.utils.CompiledNet;
+import org.workcraft.traces.Solution;
+import org.workcraft.traces.Trace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Explicit-state reachability analysis of a Petri net (or STG) without calling external tools. The state space
+ * is explored breadth-first, so a found trace is one of the shortest. The states of each BFS level are expanded
+ * in parallel by a fork-join pool (idle workers steal the remaining parts of the level from busy ones), and the
+ * reached markings are kept in a {@link MarkingStore}.
+ *
+ * The checks follow the conventions of MPSat output: the result is a list of solutions that is empty if the
+ * property holds, and each solution has a trace of transition references that can be played back in the
+ * simulation tool. The result is null if the exploration is inconclusive because of the state or token limits.
+ */
+public class ReachabilityExplorer {
+
+    public static final int DEFAULT_TOKEN_LIMIT = 255;
+    public static final int DEFAULT_STATE_LIMIT = 10_000_000;
+
+    // Levels smaller than this are expanded in the calling thread, and parallel tasks are split down to this size
+    private static final int SPLIT_THRESHOLD = 256;
+
+    private final PetriModel net;
+    private final CompiledNet compiledNet;
+    private int tokenLimit = DEFAULT_TOKEN_LIMIT;
+    private int stateLimit = DEFAULT_STATE_LIMIT;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private int stateCount = 0;
+
+    /**
+     * Compiles the structure of the net, which must not change while the explorer is in use. The checks start
+     * from the current marking of the model, but never change it.
+     */
+    public ReachabilityExplorer(PetriModel net) {
+        this.net = net;
+        compiledNet = new CompiledNet(net);
+    }
+
+    /**
+     * Compiled net whose place and transition ids are used by the marking predicates.
+     */
+    public CompiledNet getCompiledNet() {
+        return compiledNet;
+    }
+
+    public void setTokenLimit(int value) {
+        tokenLimit = value;
+    }
+
+    public void setStateLimit(int value) {
+        stateLimit = value;
+    }
+
+    public void setThreadCount(int value) {
+        threadCount = value;
+    }
+
+    /**
+     * Number of states reached by the last check.
+     */
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public List<Solution> checkDeadlock() {
+        return check(cn -> cn.getEnabledCount() == 0, tokenLimit);
+    }
+
+    /**
+     * Looks for a marking where some place has more than the given number of tokens.
+     */
+    public List<Solution> checkBoundedness(int bound) {
+        Predicate<CompiledNet> predicate = cn -> {
+            for (int placeId = 0; placeId < cn.getPlaceCount(); placeId++) {
+                if (cn.getTokens(placeId) > bound) {
+                    return true;
+                }
+            }
+            return false;
+        };
+        // Markings exceeding the bound by one token are reached before any marking exceeding it by more
+        return check(predicate, Math.max(tokenLimit, bound + 1));
+    }
+
+    /**
+     * Looks for a marking satisfying the predicate. The predicate is evaluated for a compiled net in that
+     * marking (so it can query the tokens and enabled transitions), and it must not change its marking.
+     * It may be called from several threads at once.
+     */
+    public List<Solution> checkReachability(Predicate<CompiledNet> predicate) {
+        return check(predicate, tokenLimit);
+    }
+
+    private List<Solution> check(Predicate<CompiledNet> predicate, int limit) {
+        compiledNet.readMarking();
+        int initialMax = 0;
+        for (int placeId = 0; placeId < compiledNet.getPlaceCount(); placeId++) {
+            initialMax = Math.max(initialMax, compiledNet.getTokens(placeId));
+        }
+        MarkingStore store = new MarkingStore(compiledNet.getPlaceCount(), Math.max(1, Math.max(limit, initialMax)));
+        Exploration exploration = new Exploration(store, predicate);
+        exploration.run();
+        stateCount = store.size();
+        Goal goal = exploration.getGoal();
+        if (goal != null) {
+            Trace trace = getTrace(store, goal.parentId);
+            if (goal.transitionId >= 0) {
+                trace.add(net.getNodeReference(compiledNet.getTransition(goal.transitionId)));
+            }
+            return Collections.singletonList(new Solution(trace));
+        }
+        if (exploration.isInconclusive()) {
+            return null;
+        }
+        return new ArrayList<>();
+    }
+
+    private Trace getTrace(MarkingStore store, int stateId) {
+        List<String> refs = new ArrayList<>();
+        for (int id = stateId; (id >= 0) && (store.getParentId(id) >= 0); id = store.getParentId(id)) {
+            Transition transition = compiledNet.getTransition(store.getTransitionId(id));
+            refs.add(net.getNodeReference(transition));
+        }
+        Collections.reverse(refs);
+        Trace result = new Trace();
+        result.addAll(refs);
+        return result;
+    }
+
+    /**
+     * Marking satisfying the predicate, given by the state it is reached from and the fired transition
+     * (both are -1 for the initial marking). The marking itself may be not in the store if it exceeds
+     * the token limit.
+     */
+    private static final class Goal {
+        private final int parentId;
+        private final int transitionId;
+
+        Goal(int parentId, int transitionId) {
+            this.parentId = parentId;
+            this.transitionId = transitionId;
+        }
+    }
+
+    /**
+     * States of a BFS level: their ids and packed markings.
+     */
+    private static final class Level {
+        private int[] ids;
+        private long[] words;
+        private int count;
+
+        Level(int capacity, int wordCount) {
+            ids = new int[Math.max(1, capacity)];
+            words = new long[Math.max(1, capacity) * wordCount];
+        }
+
+        void add(int id, long[] packed, int offset, int wordCount) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                words = Arrays.copyOf(words, count * 2 * wordCount);
+            }
+            ids[count] = id;
+            System.arraycopy(packed, offset, words, count * wordCount, wordCount);
+            count++;
+        }
+
+        void addAll(Level other, int wordCount) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.ids[i], other.words, i * wordCount, wordCount);
+            }
+        }
+    }
+
+    private final class Exploration {
+        private final MarkingStore store;
+        private final Predicate<CompiledNet> predicate;
+        private final int wordCount;
+        private final AtomicReference<Goal> goal = new AtomicReference<>();
+        private final AtomicBoolean inconclusive = new AtomicBoolean(false);
+        private final AtomicInteger addedCount = new AtomicInteger(1);
+        private final ThreadLocal<Worker> workers;
+
+        Exploration(MarkingStore store, Predicate<CompiledNet> predicate) {
+            this.store = store;
+            this.predicate = predicate;
+            wordCount = store.getWordCount();
+            workers = ThreadLocal.withInitial(() -> new Worker(new CompiledNet(compiledNet), wordCount));
+        }
+
+        Goal getGoal() {
+            return goal.get();
+        }
+
+        boolean isInconclusive() {
+            return inconclusive.get();
+        }
+
+        private boolean isDone() {
+            return (goal.get() != null) || inconclusive.get();
+        }
+
+        void run() {
+            Worker worker = workers.get();
+            CompiledNet cn = worker.compiledNet;
+            if (predicate.test(cn)) {
+                goal.set(new Goal(-1, -1));
+                return;
+            }
+            cn.getMarking(worker.marking);
+            if (!store.pack(worker.marking, worker.packed, 0)) {
+                inconclusive.set(true);
+                return;
+            }
+            int initialId = store.add(worker.packed, 0, -1, -1);
+            Level level = new Level(1, wordCount);
+            level.add(initialId, worker.packed, 0, wordCount);
+            ForkJoinPool pool = threadCount > 1 ? new ForkJoinPool(threadCount) : null;
+            try {
+                while ((level.count > 0) && !isDone()) {
+                    if ((pool == null) || (level.count < SPLIT_THRESHOLD)) {
+                        level = expand(level, 0, level.count);
+                    } else {
+                        level = pool.invoke(new ExpandTask(level, 0, level.count));
+                    }
+                }
+            } finally {
+                if (pool != null) {
+                    pool.shutdownNow();
+                }
+            }
+        }
+
+        private Level expand(Level level, int from, int to) {
+            Worker worker = workers.get();
+            CompiledNet cn = worker.compiledNet;
+            Level result = new Level(to - from, wordCount);
+            for (int i = from; (i < to) && !isDone(); i++) {
+                store.unpack(level.words, i * wordCount, worker.marking);
+                cn.setMarking(worker.marking);
+                int parentId = level.ids[i];
+                for (int t = cn.nextEnabled(0); t >= 0; t = cn.nextEnabled(t + 1)) {
+                    cn.fire(t);
+                    cn.getMarking(worker.marking);
+                    if (!store.pack(worker.marking, worker.packed, 0)) {
+                        if (predicate.test(cn)) {
+                            goal.compareAndSet(null, new Goal(parentId, t));
+                        } else {
+                            inconclusive.set(true);
+                        }
+                        return result;
+                    }
+                    int id = store.add(worker.packed, 0, parentId, t);
+                    if (id >= 0) {
+                        if (predicate.test(cn)) {
+                            goal.compareAndSet(null, new Goal(parentId, t));
+                            return result;
+                        }
+                        if (addedCount.incrementAndGet() > stateLimit) {
+                            inconclusive.set(true);
+                        }
+                        result.add(id, worker.packed, 0, wordCount);
+                    }
+                    cn.unfire(t);
+                }
+            }
+            return result;
+        }
+
+        private final class ExpandTask extends RecursiveTask<Level> {
+            private final Level level;
+            private final int from;
+            private final int to;
+
+            ExpandTask(Level level, int from, int to) {
+                this.level = level;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected Level compute() {
+                if (to - from <= SPLIT_THRESHOLD) {
+                    return expand(level, from, to);
+                }
+                int middle = (from + to) >>> 1;
+                ExpandTask left = new ExpandTask(level, from, middle);
+                left.fork();
+                Level result = new ExpandTask(level, middle, to).compute();
+                Level leftResult = left.join();
+                leftResult.addAll(result, wordCount);
+                return leftResult;
+            }
+        }
+    }
+
+    private static final class Worker {
+        private final CompiledNet compiledNet;
+        private final int[] marking;
+        private final long[] packed;
+
+        Worker(CompiledNet compiledNet, int wordCount) {
+            this.compiledNet = compiledNet;
+            marking = new int[compiledNet.getPlaceCount()];
+            packed = new long[wordCount];
+        }
+    }
+
+}
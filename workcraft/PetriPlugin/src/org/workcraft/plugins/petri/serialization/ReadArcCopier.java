@@ -0,0 +1,33 @@
+package org.workcraft.plugins.petri.serialization;
+
+import org.workcraft.plugins.petri.VisualReadArc;
+import org.workcraft.serialisation.CopyContext;
+import org.workcraft.serialisation.CustomCopier;
+
+public class ReadArcCopier implements CustomCopier<VisualReadArc> {
+
+    @Override
+    public String getClassName() {
+        return VisualReadArc.class.getName();
+    }
+
+    @Override
+    public VisualReadArc createInstance(VisualReadArc srcInstance, CopyContext context,
+            Object... constructorParameters) {
+
+        return new VisualReadArc();
+    }
+
+    @Override
+    public void initInstance(VisualReadArc srcInstance, VisualReadArc dstInstance, CopyContext context) {
+    }
+
+    @Override
+    public void finaliseInstance(VisualReadArc srcInstance, VisualReadArc dstInstance, CopyContext context) {
+        dstInstance.setDependencies(
+                context.getCopy(srcInstance.getMathConsumingArc()),
+                context.getCopy(srcInstance.getMathProducingArc())
+        );
+    }
+
+}
@@ -0,0 +1,353 @@
+package org.workcraft.plugins.petri.utils;
+
+import org.workcraft.dom.math.MathConnection;
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.plugins.petri.PetriModel;
+import org.workcraft.plugins.petri.Place;
+import org.workcraft.plugins.petri.Transition;
+
+import java.util.*;
+
+/**
+ * Integer-indexed snapshot of a Petri net for the token game. Places and transitions get dense ids, the arcs
+ * are stored as compressed sparse rows, and the set of enabled transitions is updated incrementally on each
+ * (un)firing. Firing does not touch the model -- its marking is only updated by {@link #writeMarking()}.
+ */
+public class CompiledNet {
+
+    private final PetriModel net;
+    private final ArrayList<Place> places;
+    private final ArrayList<Transition> transitions;
+    private final HashMap<Place, Integer> placeToId;
+    private final HashMap<Transition, Integer> transitionToId;
+
+    // Preset arcs of transition t are in [presetStarts[t], presetStarts[t + 1]), and similar for postset arcs
+    private final int[] presetStarts;
+    private final int[] presetPlaces;
+    private final int[] presetWeights;
+    private final int[] postsetStarts;
+    private final int[] postsetPlaces;
+    private final int[] postsetWeights;
+
+    // Transitions consuming tokens from place p are in [consumerStarts[p], consumerStarts[p + 1])
+    private final int[] consumerStarts;
+    private final int[] consumerTransitions;
+    private final int[] consumerWeights;
+
+    private final int[] marking;
+    // Number of preset places of each transition that do not have enough tokens for it to fire
+    private final int[] deficits;
+    private final BitSet enabled;
+    private int enabledCount;
+
+    public CompiledNet(PetriModel net) {
+        this.net = net;
+        places = new ArrayList<>(net.getPlaces());
+        transitions = new ArrayList<>(net.getTransitions());
+        placeToId = new HashMap<>();
+        transitionToId = new HashMap<>();
+        for (int placeId = 0; placeId < places.size(); placeId++) {
+            placeToId.put(places.get(placeId), placeId);
+        }
+        for (int transitionId = 0; transitionId < transitions.size(); transitionId++) {
+            transitionToId.put(transitions.get(transitionId), transitionId);
+        }
+
+        int transitionCount = transitions.size();
+        int placeCount = places.size();
+        List<Map<Integer, Integer>> presets = new ArrayList<>(transitionCount);
+        List<Map<Integer, Integer>> postsets = new ArrayList<>(transitionCount);
+        int presetArcCount = 0;
+        int postsetArcCount = 0;
+        int[] consumerCounts = new int[placeCount];
+        for (Transition transition : transitions) {
+            // Multiple connections between the same place and transition add up to the arc weight
+            Map<Integer, Integer> preset = new LinkedHashMap<>();
+            Map<Integer, Integer> postset = new LinkedHashMap<>();
+            for (MathConnection connection : net.getConnections(transition)) {
+                if (connection.getSecond() == transition) {
+                    Integer placeId = placeToId.get(connection.getFirst());
+                    if (placeId != null) {
+                        preset.merge(placeId, 1, Integer::sum);
+                    }
+                }
+                if (connection.getFirst() == transition) {
+                    Integer placeId = placeToId.get(connection.getSecond());
+                    if (placeId != null) {
+                        postset.merge(placeId, 1, Integer::sum);
+                    }
+                }
+            }
+            for (int placeId : preset.keySet()) {
+                consumerCounts[placeId]++;
+            }
+            presets.add(preset);
+            postsets.add(postset);
+            presetArcCount += preset.size();
+            postsetArcCount += postset.size();
+        }
+
+        presetStarts = new int[transitionCount + 1];
+        presetPlaces = new int[presetArcCount];
+        presetWeights = new int[presetArcCount];
+        fillRows(presets, presetStarts, presetPlaces, presetWeights);
+
+        postsetStarts = new int[transitionCount + 1];
+        postsetPlaces = new int[postsetArcCount];
+        postsetWeights = new int[postsetArcCount];
+        fillRows(postsets, postsetStarts, postsetPlaces, postsetWeights);
+
+        consumerStarts = new int[placeCount + 1];
+        for (int placeId = 0; placeId < placeCount; placeId++) {
+            consumerStarts[placeId + 1] = consumerStarts[placeId] + consumerCounts[placeId];
+        }
+        consumerTransitions = new int[presetArcCount];
+        consumerWeights = new int[presetArcCount];
+        int[] consumerFill = Arrays.copyOf(consumerStarts, placeCount);
+        for (int transitionId = 0; transitionId < transitionCount; transitionId++) {
+            for (int arc = presetStarts[transitionId]; arc < presetStarts[transitionId + 1]; arc++) {
+                int index = consumerFill[presetPlaces[arc]]++;
+                consumerTransitions[index] = transitionId;
+                consumerWeights[index] = presetWeights[arc];
+            }
+        }
+
+        marking = new int[placeCount];
+        deficits = new int[transitionCount];
+        enabled = new BitSet(transitionCount);
+        readMarking();
+    }
+
+    /**
+     * Creates a copy that shares the (immutable) structure of the other net, but has its own marking.
+     * Unlike the main constructor it does not access the model, so it is safe to call from worker threads.
+     */
+    public CompiledNet(CompiledNet other) {
+        net = other.net;
+        places = other.places;
+        transitions = other.transitions;
+        placeToId = other.placeToId;
+        transitionToId = other.transitionToId;
+        presetStarts = other.presetStarts;
+        presetPlaces = other.presetPlaces;
+        presetWeights = other.presetWeights;
+        postsetStarts = other.postsetStarts;
+        postsetPlaces = other.postsetPlaces;
+        postsetWeights = other.postsetWeights;
+        consumerStarts = other.consumerStarts;
+        consumerTransitions = other.consumerTransitions;
+        consumerWeights = other.consumerWeights;
+        marking = Arrays.copyOf(other.marking, other.marking.length);
+        deficits = Arrays.copyOf(other.deficits, other.deficits.length);
+        enabled = (BitSet) other.enabled.clone();
+        enabledCount = other.enabledCount;
+    }
+
+    private static void fillRows(List<Map<Integer, Integer>> rows, int[] starts, int[] columns, int[] weights) {
+        int index = 0;
+        for (int row = 0; row < rows.size(); row++) {
+            starts[row] = index;
+            for (Map.Entry<Integer, Integer> entry : rows.get(row).entrySet()) {
+                columns[index] = entry.getKey();
+                weights[index] = entry.getValue();
+                index++;
+            }
+        }
+        starts[rows.size()] = index;
+    }
+
+    public PetriModel getNet() {
+        return net;
+    }
+
+    public int getPlaceCount() {
+        return places.size();
+    }
+
+    public int getTransitionCount() {
+        return transitions.size();
+    }
+
+    public Place getPlace(int placeId) {
+        return places.get(placeId);
+    }
+
+    public Transition getTransition(int transitionId) {
+        return transitions.get(transitionId);
+    }
+
+    public int getPlaceId(MathNode node) {
+        Integer result = placeToId.get(node);
+        return result == null ? -1 : result;
+    }
+
+    public int getTransitionId(MathNode node) {
+        Integer result = transitionToId.get(node);
+        return result == null ? -1 : result;
+    }
+
+    public int[] getPresetPlaces(int transitionId) {
+        return Arrays.copyOfRange(presetPlaces, presetStarts[transitionId], presetStarts[transitionId + 1]);
+    }
+
+    public int[] getPostsetPlaces(int transitionId) {
+        return Arrays.copyOfRange(postsetPlaces, postsetStarts[transitionId], postsetStarts[transitionId + 1]);
+    }
+
+    public int getTokens(int placeId) {
+        return marking[placeId];
+    }
+
+    public int[] getMarking() {
+        return Arrays.copyOf(marking, marking.length);
+    }
+
+    /**
+     * Copies the marking (indexed by place ids) into the given array without allocation.
+     */
+    public void getMarking(int[] dst) {
+        System.arraycopy(marking, 0, dst, 0, marking.length);
+    }
+
+    public void setMarking(int[] src) {
+        if (src.length != marking.length) {
+            throw new IllegalArgumentException("Marking size " + src.length + " does not match "
+                    + marking.length + " places.");
+        }
+        System.arraycopy(src, 0, marking, 0, marking.length);
+        updateEnabledness();
+    }
+
+    /**
+     * Reads the current marking from the places of the model.
+     */
+    public void readMarking() {
+        for (int placeId = 0; placeId < marking.length; placeId++) {
+            marking[placeId] = places.get(placeId).getTokens();
+        }
+        updateEnabledness();
+    }
+
+    /**
+     * Writes the marking to the places of the model. Only the places whose number of tokens
+     * differs are updated, so property change events are sent just for them.
+     */
+    public void writeMarking() {
+        for (int placeId = 0; placeId < marking.length; placeId++) {
+            places.get(placeId).setTokens(marking[placeId]);
+        }
+    }
+
+    private void updateEnabledness() {
+        enabled.clear();
+        enabledCount = 0;
+        for (int transitionId = 0; transitionId < deficits.length; transitionId++) {
+            int deficit = 0;
+            for (int arc = presetStarts[transitionId]; arc < presetStarts[transitionId + 1]; arc++) {
+                if (marking[presetPlaces[arc]] < presetWeights[arc]) {
+                    deficit++;
+                }
+            }
+            deficits[transitionId] = deficit;
+            if (deficit == 0) {
+                enabled.set(transitionId);
+                enabledCount++;
+            }
+        }
+    }
+
+    public boolean isEnabled(int transitionId) {
+        return enabled.get(transitionId);
+    }
+
+    public int getEnabledCount() {
+        return enabledCount;
+    }
+
+    /**
+     * Returns the id of the first enabled transition starting from the given id (inclusive), or -1 if none.
+     * Use it for iterating the enabled transitions without allocation.
+     */
+    public int nextEnabled(int fromTransitionId) {
+        return enabled.nextSetBit(fromTransitionId);
+    }
+
+    public Set<Transition> getEnabledTransitions() {
+        Set<Transition> result = new HashSet<>();
+        for (int transitionId = enabled.nextSetBit(0); transitionId >= 0; transitionId = enabled.nextSetBit(transitionId + 1)) {
+            result.add(transitions.get(transitionId));
+        }
+        return result;
+    }
+
+    /**
+     * Fires the transition if it is enabled (first consuming and then producing tokens).
+     *
+     * @return true if the transition was fired, false if it is not enabled
+     */
+    public boolean fire(int transitionId) {
+        if (!enabled.get(transitionId)) {
+            return false;
+        }
+        for (int arc = presetStarts[transitionId]; arc < presetStarts[transitionId + 1]; arc++) {
+            changeTokens(presetPlaces[arc], -presetWeights[arc]);
+        }
+        for (int arc = postsetStarts[transitionId]; arc < postsetStarts[transitionId + 1]; arc++) {
+            changeTokens(postsetPlaces[arc], postsetWeights[arc]);
+        }
+        return true;
+    }
+
+    public boolean isUnfireEnabled(int transitionId) {
+        for (int arc = postsetStarts[transitionId]; arc < postsetStarts[transitionId + 1]; arc++) {
+            if (marking[postsetPlaces[arc]] < postsetWeights[arc]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reverts firing of the transition if it is unfire-enabled (first consuming and then producing tokens).
+     *
+     * @return true if the transition was unfired, false if it is not unfire-enabled
+     */
+    public boolean unfire(int transitionId) {
+        if (!isUnfireEnabled(transitionId)) {
+            return false;
+        }
+        for (int arc = postsetStarts[transitionId]; arc < postsetStarts[transitionId + 1]; arc++) {
+            changeTokens(postsetPlaces[arc], -postsetWeights[arc]);
+        }
+        for (int arc = presetStarts[transitionId]; arc < presetStarts[transitionId + 1]; arc++) {
+            changeTokens(presetPlaces[arc], presetWeights[arc]);
+        }
+        return true;
+    }
+
+    private void changeTokens(int placeId, int delta) {
+        int oldTokens = marking[placeId];
+        int newTokens = oldTokens + delta;
+        marking[placeId] = newTokens;
+        for (int index = consumerStarts[placeId]; index < consumerStarts[placeId + 1]; index++) {
+            int weight = consumerWeights[index];
+            boolean wasSufficient = oldTokens >= weight;
+            boolean isSufficient = newTokens >= weight;
+            if (wasSufficient != isSufficient) {
+                int transitionId = consumerTransitions[index];
+                if (isSufficient) {
+                    if (--deficits[transitionId] == 0) {
+                        enabled.set(transitionId);
+                        enabledCount++;
+                    }
+                } else {
+                    if (deficits[transitionId]++ == 0) {
+                        enabled.clear(transitionId);
+                        enabledCount--;
+                    }
+                }
+            }
+        }
+    }
+
+}
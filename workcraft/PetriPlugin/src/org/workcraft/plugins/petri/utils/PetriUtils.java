@@ -1,6 +1,5 @@
 package org.workcraft.plugins.petri.utils;
 
-import org.workcraft.dom.Node;
 import org.workcraft.dom.math.MathModel;
 import org.workcraft.dom.visual.VisualModel;
 import org.workcraft.plugins.petri.PetriModel;
@@ -40,34 +39,35 @@ public final class PetriUtils {
     }
 
     public static boolean fireTrace(PetriModel net, Trace trace) {
+        CompiledNet compiledNet = new CompiledNet(net);
+        boolean result = fireTrace(compiledNet, trace);
+        compiledNet.writeMarking();
+        return result;
+    }
+
+    /**
+     * Fires the trace in the compiled net without changing the marking of its model.
+     */
+    public static boolean fireTrace(CompiledNet compiledNet, Trace trace) {
+        PetriModel net = compiledNet.getNet();
         for (String ref: trace) {
             if (ref != null) {
-                Node node = net.getNodeByReference(ref);
-                if (node instanceof Transition) {
-                    Transition transition = (Transition) node;
-                    if (net.isEnabled(transition)) {
-                        net.fire(transition);
-                    } else {
-                        LogUtils.logError("Trace transition '" + ref + "' is not enabled.");
-                        return false;
-                    }
-                } else {
+                int transitionId = compiledNet.getTransitionId(net.getNodeByReference(ref));
+                if (transitionId < 0) {
                     LogUtils.logError("Trace transition '" + ref + "' cannot be found.");
                     return false;
                 }
+                if (!compiledNet.fire(transitionId)) {
+                    LogUtils.logError("Trace transition '" + ref + "' is not enabled.");
+                    return false;
+                }
             }
         }
         return true;
     }
 
     public static Set<Transition> getEnabledTransitions(PetriModel net) {
-        Set<Transition> result = new HashSet<>();
-        for (Transition transition: net.getTransitions()) {
-            if (net.isEnabled(transition)) {
-                result.add(transition);
-            }
-        }
-        return result;
+        return new CompiledNet(net).getEnabledTransitions();
     }
 
     public static boolean checkSoundness(PetriModel stg, boolean ask) {
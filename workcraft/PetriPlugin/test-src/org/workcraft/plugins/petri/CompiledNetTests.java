@@ -0,0 +1,105 @@
+package org.workcraft.plugins.petri;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.exceptions.InvalidConnectionException;
+import org.workcraft.plugins.petri.utils.CompiledNet;
+import org.workcraft.plugins.petri.utils.PetriUtils;
+import org.workcraft.utils.TraceUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+class CompiledNetTests {
+
+    @Test
+    void testFireUnfire() throws InvalidConnectionException {
+        // p0 -> t0 -> p1 -> t1 -> p0, with a double arc p1 -> t1 and a self-loop p2 <-> t1
+        Petri petri = new Petri();
+        Place p0 = petri.createPlace("p0", null);
+        Place p1 = petri.createPlace("p1", null);
+        Place p2 = petri.createPlace("p2", null);
+        Transition t0 = petri.createTransition("t0", null);
+        Transition t1 = petri.createTransition("t1", null);
+        petri.connect(p0, t0);
+        petri.connect(t0, p1);
+        petri.connect(p1, t1);
+        petri.connect(p1, t1);
+        petri.connect(t1, p0);
+        petri.connect(p2, t1);
+        petri.connect(t1, p2);
+        p0.setTokens(2);
+        p2.setTokens(1);
+
+        CompiledNet compiledNet = new CompiledNet(petri);
+        int t0Id = compiledNet.getTransitionId(t0);
+        int t1Id = compiledNet.getTransitionId(t1);
+        int p0Id = compiledNet.getPlaceId(p0);
+        int p1Id = compiledNet.getPlaceId(p1);
+        int p2Id = compiledNet.getPlaceId(p2);
+        assertSameEnabledness(petri, compiledNet);
+        Assertions.assertEquals(1, compiledNet.getEnabledCount());
+        Assertions.assertFalse(compiledNet.fire(t1Id));
+
+        Assertions.assertTrue(compiledNet.fire(t0Id));
+        Assertions.assertFalse(compiledNet.isEnabled(t1Id));
+        Assertions.assertTrue(compiledNet.fire(t0Id));
+        Assertions.assertTrue(compiledNet.isEnabled(t1Id));
+        Assertions.assertFalse(compiledNet.isEnabled(t0Id));
+        Assertions.assertEquals(0, compiledNet.getTokens(p0Id));
+        Assertions.assertEquals(2, compiledNet.getTokens(p1Id));
+
+        // The model is not changed until the marking is written back
+        Assertions.assertEquals(2, p0.getTokens());
+        Assertions.assertEquals(0, p1.getTokens());
+
+        Assertions.assertTrue(compiledNet.fire(t1Id));
+        Assertions.assertEquals(1, compiledNet.getTokens(p0Id));
+        Assertions.assertEquals(0, compiledNet.getTokens(p1Id));
+        Assertions.assertEquals(1, compiledNet.getTokens(p2Id));
+
+        Assertions.assertTrue(compiledNet.unfire(t1Id));
+        Assertions.assertEquals(0, compiledNet.getTokens(p0Id));
+        Assertions.assertEquals(2, compiledNet.getTokens(p1Id));
+        Assertions.assertFalse(compiledNet.unfire(t1Id));
+
+        compiledNet.writeMarking();
+        Assertions.assertEquals(0, p0.getTokens());
+        Assertions.assertEquals(2, p1.getTokens());
+        Assertions.assertEquals(1, p2.getTokens());
+        assertSameEnabledness(petri, compiledNet);
+    }
+
+    @Test
+    void testFireTrace() throws InvalidConnectionException {
+        Petri petri = new Petri();
+        Place p0 = petri.createPlace("p0", null);
+        Place p1 = petri.createPlace("p1", null);
+        Transition t0 = petri.createTransition("t0", null);
+        Transition t1 = petri.createTransition("t1", null);
+        petri.connect(p0, t0);
+        petri.connect(t0, p1);
+        petri.connect(p1, t1);
+        petri.connect(t1, p0);
+        p0.setTokens(1);
+
+        Assertions.assertTrue(PetriUtils.fireTrace(petri, TraceUtils.deserialiseTrace("t0, t1, t0")));
+        Assertions.assertEquals(0, p0.getTokens());
+        Assertions.assertEquals(1, p1.getTokens());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(t1)), PetriUtils.getEnabledTransitions(petri));
+
+        // Marking is left at the point of failure
+        Assertions.assertFalse(PetriUtils.fireTrace(petri, TraceUtils.deserialiseTrace("t1, t1")));
+        Assertions.assertEquals(1, p0.getTokens());
+        Assertions.assertEquals(0, p1.getTokens());
+    }
+
+    private void assertSameEnabledness(Petri petri, CompiledNet compiledNet) {
+        for (Transition transition : petri.getTransitions()) {
+            int transitionId = compiledNet.getTransitionId(transition);
+            Assertions.assertEquals(petri.isEnabled(transition), compiledNet.isEnabled(transitionId));
+            Assertions.assertEquals(petri.isUnfireEnabled(transition), compiledNet.isUnfireEnabled(transitionId));
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.workcraft.plugins.petri;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.exceptions.InvalidConnectionException;
+import org.workcraft.plugins.petri.reachability.MarkingStore;
+import org.workcraft.plugins.petri.reachability.ReachabilityExplorer;
+import org.workcraft.plugins.petri.utils.CompiledNet;
+import org.workcraft.plugins.petri.utils.PetriUtils;
+import org.workcraft.traces.Solution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ReachabilityExplorerTests {
+
+    @Test
+    void testMarkingStore() {
+        MarkingStore store = new MarkingStore(5, 100);
+        long[] packed = new long[store.getWordCount()];
+        int[] marking = {0, 100, 3, 64, 1};
+        Assertions.assertTrue(store.pack(marking, packed, 0));
+        int id = store.add(packed, 0, -1, -1);
+        Assertions.assertTrue(id >= 0);
+        Assertions.assertEquals(-(id + 1), store.add(packed, 0, 7, 7));
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertEquals(-1, store.getParentId(id));
+
+        int[] unpacked = new int[5];
+        store.getPacked(id, packed, 0);
+        store.unpack(packed, 0, unpacked);
+        Assertions.assertArrayEquals(marking, unpacked);
+
+        Assertions.assertFalse(store.pack(new int[] {0, 101, 0, 0, 0}, packed, 0));
+    }
+
+    @Test
+    void testDeadlock() throws InvalidConnectionException {
+        // p0 -> t0 -> p1 -> t1 -> p2 (dead end), and a choice p1 -> t2 -> p0
+        Petri petri = new Petri();
+        Place p0 = petri.createPlace("p0", null);
+        Place p1 = petri.createPlace("p1", null);
+        Place p2 = petri.createPlace("p2", null);
+        Transition t0 = petri.createTransition("t0", null);
+        Transition t1 = petri.createTransition("t1", null);
+        Transition t2 = petri.createTransition("t2", null);
+        petri.connect(p0, t0);
+        petri.connect(t0, p1);
+        petri.connect(p1, t1);
+        petri.connect(t1, p2);
+        petri.connect(p1, t2);
+        petri.connect(t2, p0);
+        p0.setTokens(1);
+
+        ReachabilityExplorer explorer = new ReachabilityExplorer(petri);
+        List<Solution> solutions = explorer.checkDeadlock();
+        Assertions.assertEquals(1, solutions.size());
+        Assertions.assertEquals("t0, t1", solutions.get(0).getMainTrace().toString());
+        Assertions.assertEquals(3, explorer.getStateCount());
+
+        // Checks must not change the model, and the trace can be replayed on it
+        Assertions.assertEquals(1, p0.getTokens());
+        Assertions.assertTrue(PetriUtils.fireTrace(petri, solutions.get(0).getMainTrace()));
+        Assertions.assertTrue(PetriUtils.getEnabledTransitions(petri).isEmpty());
+
+        // Exploration starts from the current marking
+        Assertions.assertTrue(explorer.checkDeadlock().get(0).getMainTrace().isEmpty());
+        Assertions.assertTrue(explorer.checkBoundedness(1).isEmpty());
+    }
+
+    @Test
+    void testBoundedness() throws InvalidConnectionException {
+        // t0 keeps adding tokens to p1
+        Petri petri = new Petri();
+        Place p0 = petri.createPlace("p0", null);
+        Place p1 = petri.createPlace("p1", null);
+        Transition t0 = petri.createTransition("t0", null);
+        petri.connect(p0, t0);
+        petri.connect(t0, p0);
+        petri.connect(t0, p1);
+        petri.connect(t0, p1);
+        p0.setTokens(1);
+
+        ReachabilityExplorer explorer = new ReachabilityExplorer(petri);
+        List<Solution> solutions = explorer.checkBoundedness(3);
+        Assertions.assertEquals(1, solutions.size());
+        Assertions.assertEquals("t0, t0", solutions.get(0).getMainTrace().toString());
+
+        // Unbounded net cannot be explored completely
+        explorer.setTokenLimit(10);
+        Assertions.assertNull(explorer.checkDeadlock());
+        explorer.setTokenLimit(ReachabilityExplorer.DEFAULT_TOKEN_LIMIT);
+        explorer.setStateLimit(5);
+        Assertions.assertNull(explorer.checkDeadlock());
+    }
+
+    @Test
+    void testParallelExploration() throws InvalidConnectionException {
+        // Independent cycles of two places each give 2^n reachable markings without deadlocks
+        int n = 12;
+        Petri petri = new Petri();
+        List<Place> firstPlaces = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Place p0 = petri.createPlace("p" + i + "_0", null);
+            Place p1 = petri.createPlace("p" + i + "_1", null);
+            Transition t0 = petri.createTransition("t" + i + "_0", null);
+            Transition t1 = petri.createTransition("t" + i + "_1", null);
+            petri.connect(p0, t0);
+            petri.connect(t0, p1);
+            petri.connect(p1, t1);
+            petri.connect(t1, p0);
+            p0.setTokens(1);
+            firstPlaces.add(p0);
+        }
+
+        ReachabilityExplorer explorer = new ReachabilityExplorer(petri);
+        for (int threadCount : new int[] {1, 4}) {
+            explorer.setThreadCount(threadCount);
+            Assertions.assertTrue(explorer.checkDeadlock().isEmpty());
+            Assertions.assertEquals(1 << n, explorer.getStateCount());
+        }
+
+        // Marking with all the second places marked is reached by the shortest trace of n transitions
+        CompiledNet compiledNet = explorer.getCompiledNet();
+        int[] firstPlaceIds = firstPlaces.stream().mapToInt(compiledNet::getPlaceId).toArray();
+        explorer.setThreadCount(4);
+        List<Solution> solutions = explorer.checkReachability(cn -> {
+            for (int placeId : firstPlaceIds) {
+                if (cn.getTokens(placeId) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        Assertions.assertEquals(1, solutions.size());
+        Assertions.assertEquals(n, solutions.get(0).getMainTrace().size());
+    }
+
+}
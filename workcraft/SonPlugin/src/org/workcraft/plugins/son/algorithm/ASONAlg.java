@@ -1,10 +1,13 @@
 package org.workcraft.plugins.son.algorithm;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.workcraft.dom.Node;
 import org.workcraft.plugins.son.ONGroup;
@@ -42,8 +45,9 @@ public class ASONAlg extends RelationAlgorithm {
             }
         }
 
+        Collection<Node> preset = new HashSet<>(getPrePNSet(t));
         for (Node n : marking) {
-            if (!getPrePNSet(t).contains(n)) {
+            if (!preset.contains(n)) {
                 result.add((PlaceNode) n);
             }
         }
@@ -51,11 +55,18 @@ public class ASONAlg extends RelationAlgorithm {
         return result;
     }
 
+    /**
+     * Breadth-first exploration of the markings reachable from the initial marking of the group. Each
+     * marking is expanded once, as the markings found so far are kept in a hash set of their bit sets.
+     */
     public List<Marking> getReachableMarkings(ONGroup group) throws UnboundedException {
         List<Marking> result = new ArrayList<>();
-        Collection<Marking> search = new ArrayList<>();
-
-        Map<TransitionNode, ArrayList<Marking>> visited = new HashMap<>();
+        Collection<TransitionNode> transitions = group.getTransitionNodes();
+        Map<PlaceNode, Integer> nodeToIdMap = new HashMap<>();
+        for (Condition c : group.getConditions()) {
+            nodeToIdMap.put(c, nodeToIdMap.size());
+        }
+        Set<BitSet> visited = new HashSet<>();
 
         Marking initial = new Marking();
         for (Condition c : getONInitial(group)) {
@@ -63,38 +74,24 @@ public class ASONAlg extends RelationAlgorithm {
         }
 
         result.add(initial);
+        visited.add(initial.toBitSet(nodeToIdMap));
+        List<Marking> search = new ArrayList<>();
         search.add(initial);
 
-        boolean hasEnabled = true;
-        while (hasEnabled) {
-            Collection<Marking> newMarkings = new ArrayList<>();
-
+        while (!search.isEmpty()) {
+            List<Marking> newMarkings = new ArrayList<>();
             for (Marking marking : search) {
-                for (TransitionNode t : group.getTransitionNodes()) {
-                    if (!visited(visited, t, marking) && isEnabled(marking, t)) {
+                for (TransitionNode t : transitions) {
+                    if (isEnabled(marking, t)) {
                         Marking newMarking = fire(marking, t);
-                        if (!contains(result, newMarking) && !contains(newMarkings, newMarking)) {
+                        if (visited.add(newMarking.toBitSet(nodeToIdMap))) {
                             newMarkings.add(newMarking);
                         }
                     }
-                    if (visited.containsKey(t)) {
-                        ArrayList<Marking> markings = visited.get(t);
-                        markings.add(marking);
-                        visited.put(t, markings);
-                    } else {
-                        ArrayList<Marking> markings = new ArrayList<>();
-                        markings.add(marking);
-                        visited.put(t, markings);
-                    }
                 }
             }
-
-            if (newMarkings.isEmpty()) {
-                hasEnabled = false;
-            } else {
-                search = newMarkings;
-                result.addAll(newMarkings);
-            }
+            result.addAll(newMarkings);
+            search = newMarkings;
         }
 
         return result;
@@ -108,15 +105,5 @@ public class ASONAlg extends RelationAlgorithm {
         }
         return false;
     }
-    private boolean visited(Map<TransitionNode, ArrayList<Marking>> visited, TransitionNode t, Marking marking) {
-        if (visited.containsKey(t)) {
-            for (Marking ref : visited.get(t)) {
-                if (ref.equals(marking)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
 
 }
@@ -2,12 +2,15 @@ package org.workcraft.plugins.son.algorithm;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.JOptionPane;
 
@@ -30,6 +33,8 @@ public class BSONAlg extends RelationAlgorithm {
     private final SON net;
     private static Marking dfsResult = new Marking();
     private final Map<Condition, String> phaseCutErr = new HashMap<>();
+    private Map<ONGroup, List<Marking>> reachableMarkings = null;
+    private Map<Condition, Collection<Phase>> allPhases = null;
 
     public BSONAlg(SON net) {
         super(net);
@@ -180,52 +185,52 @@ public class BSONAlg extends RelationAlgorithm {
         }
     }
 
+    /**
+     * get reachable markings of the lower groups with conflicts. The groups are independent,
+     * so they are explored concurrently, and the result is computed once for this net.
+     */
     public Map<ONGroup, List<Marking>> getReachableMarking() {
-        Map<ONGroup, List<Marking>> result = new HashMap<>();
-
-        ASONAlg alg = new ASONAlg(net);
-        Collection<ONGroup> lowerGroups = getLowerGroups(net.getGroups());
-        boolean b = false;
-
-        for (ONGroup group : lowerGroups) {
-            for (Condition c : group.getConditions()) {
-                if (hasPreConflictEvents(c) || hasPostConflictEvents(c)) {
-                    try {
-                        result.put(group, alg.getReachableMarkings(group));
-                    } catch (UnboundedException e) {
-                        b = true;
+        if (reachableMarkings == null) {
+            ASONAlg alg = new ASONAlg(net);
+            List<ONGroup> conflictGroups = new ArrayList<>();
+            for (ONGroup group : getLowerGroups(net.getGroups())) {
+                for (Condition c : group.getConditions()) {
+                    if (hasPreConflictEvents(c) || hasPostConflictEvents(c)) {
+                        conflictGroups.add(group);
+                        break;
                     }
-                    break;
                 }
             }
-            if (b) {
-                errMsg("Fail to get phase: occurrence net is unsafe " + net.getNodeReference(group));
+
+            Map<ONGroup, List<Marking>> result = new ConcurrentHashMap<>();
+            Set<ONGroup> unsafeGroups = ConcurrentHashMap.newKeySet();
+            conflictGroups.parallelStream().forEach(group -> {
+                try {
+                    result.put(group, alg.getReachableMarkings(group));
+                } catch (UnboundedException e) {
+                    unsafeGroups.add(group);
+                }
+            });
+
+            for (ONGroup group : conflictGroups) {
+                if (unsafeGroups.contains(group)) {
+                    errMsg("Fail to get phase: occurrence net is unsafe " + net.getNodeReference(group));
+                }
             }
+            reachableMarkings = new HashMap<>(result);
         }
-
-        return result;
+        return new HashMap<>(reachableMarkings);
     }
 
     /**
      * get the phase collection for all upper-level conditions.
-     * @throws UnboundedException
+     * The phases are computed once for this net and returned as a read-only map.
      */
     public Map<Condition, Collection<Phase>> getAllPhases() {
-        Map<Condition, Collection<Phase>> result = new HashMap<>();
-
-        //if reachable markings are not provided, get markings.
-        Map<ONGroup, List<Marking>> allMarkings = new HashMap<>();
-
-        allMarkings.putAll(getReachableMarking());
-
-        Collection<ONGroup> upperGroups = getUpperGroups(net.getGroups());
-
-        for (ONGroup group : upperGroups) {
-            for (Condition c : group.getConditions()) {
-                result.put(c, getPhases(c, allMarkings));
-            }
+        if (allPhases == null) {
+            allPhases = Collections.unmodifiableMap(getAllPhases(getReachableMarking()));
         }
-        return result;
+        return allPhases;
     }
 
     public Map<Condition, Collection<Phase>> getAllPhases(Map<ONGroup, List<Marking>> allMarkings) {
@@ -114,6 +114,7 @@ public class VisualSONConnection extends VisualConnection {
 
         if (timeRenderedText.isDifferent(time, TIME_FONT, Positioning.CENTER, new Point2D.Double())) {
             timeRenderedText = new RenderedText(time, TIME_FONT, Positioning.CENTER, new Point2D.Double());
+            boundingBoxChanged();
         }
     }
 
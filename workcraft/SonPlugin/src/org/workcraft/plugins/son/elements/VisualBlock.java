@@ -105,6 +105,7 @@ public class VisualBlock extends VisualPage implements VisualTransitionNode {
 
         if (durationRenderedText.isDifferent(duration, timeFont, durationLabelPositioning, offset)) {
             durationRenderedText = new RenderedText(duration, timeFont, durationLabelPositioning, offset);
+            boundingBoxChanged();
         }
     }
 
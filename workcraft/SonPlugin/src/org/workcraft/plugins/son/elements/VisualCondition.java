@@ -94,6 +94,7 @@ public class VisualCondition extends VisualPlaceNode {
 
         if (startTimeRenderedText.isDifferent(start, timeFont, startTimePositioning, offset)) {
             startTimeRenderedText = new RenderedText(start, timeFont, startTimePositioning, offset);
+            boundingBoxChanged();
         }
     }
 
@@ -115,6 +116,7 @@ public class VisualCondition extends VisualPlaceNode {
 
         if (endTimeRenderedText.isDifferent(end, timeFont, endTimePositioning, offset)) {
             endTimeRenderedText = new RenderedText(end, timeFont, endTimePositioning, offset);
+            boundingBoxChanged();
         }
     }
 
@@ -110,6 +110,7 @@ public class VisualPlaceNode extends VisualComponent {
 
         if (errorRenderedText.isDifferent(error, errorFont, errLabelPositioning, offset)) {
             errorRenderedText = new RenderedText(error, errorFont, errLabelPositioning, offset);
+            boundingBoxChanged();
         }
     }
 
@@ -135,6 +136,7 @@ public class VisualPlaceNode extends VisualComponent {
 
         if (durationRenderedText.isDifferent(duration, timeFont, durationLabelPositioning, offset)) {
             durationRenderedText = new RenderedText(duration, timeFont, durationLabelPositioning, offset);
+            boundingBoxChanged();
         }
     }
 
@@ -1,6 +1,8 @@
 package org.workcraft.plugins.son.util;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Map;
 
 import org.workcraft.dom.Node;
 import org.workcraft.plugins.son.elements.PlaceNode;
@@ -24,4 +26,33 @@ public class Marking extends ArrayList<PlaceNode> {
         return true;
     }
 
+    /**
+     * Hash code that does not depend on the order of the marked nodes, as in equals.
+     */
+    @Override
+    public int hashCode() {
+        int result = 0;
+        for (Node node : this) {
+            result += node.hashCode();
+        }
+        return result;
+    }
+
+    /**
+     * Compact representation of the marking as the set of ids of the marked nodes. Nodes without an id are
+     * given the next free one, so that markings encoded with the same map are equal iff their bit sets are.
+     */
+    public BitSet toBitSet(Map<PlaceNode, Integer> nodeToIdMap) {
+        BitSet result = new BitSet(nodeToIdMap.size());
+        for (PlaceNode node : this) {
+            Integer id = nodeToIdMap.get(node);
+            if (id == null) {
+                id = nodeToIdMap.size();
+                nodeToIdMap.put(node, id);
+            }
+            result.set(id);
+        }
+        return result;
+    }
+
 }
@@ -0,0 +1,163 @@
+package org.workcraft.plugins.son.algorithm;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.workcraft.exceptions.InvalidConnectionException;
+import org.workcraft.plugins.son.ONGroup;
+import org.workcraft.plugins.son.SON;
+import org.workcraft.plugins.son.connections.SONConnection.Semantics;
+import org.workcraft.plugins.son.elements.Condition;
+import org.workcraft.plugins.son.elements.Event;
+import org.workcraft.plugins.son.elements.PlaceNode;
+import org.workcraft.plugins.son.exception.UnboundedException;
+import org.workcraft.plugins.son.util.Marking;
+import org.workcraft.plugins.son.util.Phase;
+
+import java.util.*;
+
+class PhaseTests {
+
+    private SON net;
+    // Lower group with a choice: c0 -> c1 | c2
+    private ONGroup choiceGroup;
+    private Condition c0;
+    private Condition c1;
+    private Condition c2;
+    // Lower group with a choice and a concurrent branch: d0 -> d1 | d2, and x0 -> x1
+    private ONGroup concurrentGroup;
+    private Condition d0;
+    private Condition d1;
+    private Condition d2;
+    private Condition x0;
+    private Condition x1;
+    // Upper group: u0 -> u1
+    private Condition u0;
+    private Condition u1;
+
+    @BeforeEach
+    void createNet() throws InvalidConnectionException {
+        net = new SON();
+
+        choiceGroup = createGroup();
+        c0 = net.createCondition("c0", choiceGroup);
+        c1 = net.createCondition("c1", choiceGroup);
+        c2 = net.createCondition("c2", choiceGroup);
+        connectEvent(choiceGroup, c0, c1);
+        connectEvent(choiceGroup, c0, c2);
+
+        concurrentGroup = createGroup();
+        d0 = net.createCondition("d0", concurrentGroup);
+        d1 = net.createCondition("d1", concurrentGroup);
+        d2 = net.createCondition("d2", concurrentGroup);
+        x0 = net.createCondition("x0", concurrentGroup);
+        x1 = net.createCondition("x1", concurrentGroup);
+        connectEvent(concurrentGroup, d0, d1);
+        connectEvent(concurrentGroup, d0, d2);
+        connectEvent(concurrentGroup, x0, x1);
+
+        ONGroup upperGroup = createGroup();
+        u0 = net.createCondition("u0", upperGroup);
+        u1 = net.createCondition("u1", upperGroup);
+        connectEvent(upperGroup, u0, u1);
+
+        for (Condition c : Arrays.asList(c0, d0, x0)) {
+            net.connect(c, u0, Semantics.BHVLINE);
+        }
+        for (Condition c : Arrays.asList(c1, c2, d1, d2, x1)) {
+            net.connect(c, u1, Semantics.BHVLINE);
+        }
+    }
+
+    private ONGroup createGroup() {
+        ONGroup group = new ONGroup();
+        net.getRoot().add(group);
+        return group;
+    }
+
+    private void connectEvent(ONGroup group, Condition pre, Condition post) throws InvalidConnectionException {
+        Event event = new Event();
+        group.add(event);
+        net.connect(pre, event, Semantics.PNLINE);
+        net.connect(event, post, Semantics.PNLINE);
+    }
+
+    private static Marking createMarking(PlaceNode... nodes) {
+        Marking result = new Marking();
+        result.addAll(Arrays.asList(nodes));
+        return result;
+    }
+
+    private static Phase createPhase(Condition... conditions) {
+        Phase result = new Phase();
+        result.addAll(Arrays.asList(conditions));
+        return result;
+    }
+
+    @Test
+    void testMarkingEquality() {
+        Marking marking = createMarking(d0, x0);
+        Marking reversedMarking = createMarking(x0, d0);
+        Assertions.assertEquals(marking, reversedMarking);
+        Assertions.assertEquals(marking.hashCode(), reversedMarking.hashCode());
+        Assertions.assertNotEquals(marking, createMarking(d0, x1));
+
+        // Nodes without an id get the next free one, so equal markings have equal bit sets
+        Map<PlaceNode, Integer> nodeToIdMap = new HashMap<>();
+        nodeToIdMap.put(d0, 0);
+        BitSet bitSet = marking.toBitSet(nodeToIdMap);
+        Assertions.assertEquals(2, nodeToIdMap.size());
+        Assertions.assertEquals(bitSet, reversedMarking.toBitSet(nodeToIdMap));
+        Assertions.assertNotEquals(bitSet, createMarking(d0, x1).toBitSet(nodeToIdMap));
+        Assertions.assertEquals(3, nodeToIdMap.size());
+    }
+
+    @Test
+    void testReachableMarkings() throws UnboundedException {
+        ASONAlg alg = new ASONAlg(net);
+        List<Marking> choiceMarkings = alg.getReachableMarkings(choiceGroup);
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(createMarking(c0), createMarking(c1), createMarking(c2))),
+                new HashSet<>(choiceMarkings));
+        Assertions.assertEquals(createMarking(c0), choiceMarkings.get(0));
+
+        // Markings reached by interleaving the concurrent events are only reported once
+        List<Marking> concurrentMarkings = alg.getReachableMarkings(concurrentGroup);
+        Set<Marking> expected = new HashSet<>();
+        for (Condition d : Arrays.asList(d0, d1, d2)) {
+            for (Condition x : Arrays.asList(x0, x1)) {
+                expected.add(createMarking(d, x));
+            }
+        }
+        Assertions.assertEquals(expected.size(), concurrentMarkings.size());
+        Assertions.assertEquals(expected, new HashSet<>(concurrentMarkings));
+    }
+
+    @Test
+    void testGroupMarkings() throws UnboundedException {
+        BSONAlg alg = new BSONAlg(net);
+        Map<ONGroup, List<Marking>> markings = alg.getReachableMarking();
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(choiceGroup, concurrentGroup)), markings.keySet());
+        // Groups explored in parallel get the same markings as explored one at a time
+        ASONAlg asonAlg = new ASONAlg(net);
+        Assertions.assertEquals(asonAlg.getReachableMarkings(choiceGroup), markings.get(choiceGroup));
+        Assertions.assertEquals(new HashSet<>(asonAlg.getReachableMarkings(concurrentGroup)),
+                new HashSet<>(markings.get(concurrentGroup)));
+    }
+
+    @Test
+    void testPhases() {
+        BSONAlg alg = new BSONAlg(net);
+        Map<Condition, Collection<Phase>> phases = alg.getAllPhases();
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(u0, u1)), phases.keySet());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(createPhase(c0), createPhase(d0, x0))),
+                new HashSet<>(phases.get(u0)));
+        Assertions.assertTrue(phases.get(u1).contains(createPhase(c1)));
+        Assertions.assertTrue(phases.get(u1).contains(createPhase(c2)));
+
+        // Phases are computed once and cannot be modified by the callers
+        Assertions.assertSame(phases, alg.getAllPhases());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> phases.remove(u0));
+        Assertions.assertEquals(phases, alg.getAllPhases(alg.getReachableMarking()));
+    }
+
+}
@@ -117,37 +117,37 @@ public class Stg extends AbstractMathModel implements StgModel {
 
     @Override
     public final Collection<SignalTransition> getSignalTransitions() {
-        return Hierarchy.getDescendantsOfType(getRoot(), SignalTransition.class);
+        return getDescendantsOfType(SignalTransition.class);
     }
 
     @Override
     public final Collection<StgPlace> getPlaces() {
-        return Hierarchy.getDescendantsOfType(getRoot(), StgPlace.class);
+        return getDescendantsOfType(StgPlace.class);
     }
 
     @Override
     public final Collection<StgPlace> getMutexPlaces() {
-        return Hierarchy.getDescendantsOfType(getRoot(), StgPlace.class, StgPlace::isMutex);
+        return getDescendantsOfType(StgPlace.class, StgPlace::isMutex);
     }
 
     @Override
     public final Collection<MathConnection> getConnections() {
-        return Hierarchy.getDescendantsOfType(getRoot(), MathConnection.class);
+        return getDescendantsOfType(MathConnection.class);
     }
 
     @Override
     public final Collection<Transition> getTransitions() {
-        return Hierarchy.getDescendantsOfType(getRoot(), Transition.class);
+        return getDescendantsOfType(Transition.class);
     }
 
     @Override
     public Collection<DummyTransition> getDummyTransitions() {
-        return Hierarchy.getDescendantsOfType(getRoot(), DummyTransition.class);
+        return getDescendantsOfType(DummyTransition.class);
     }
 
     @Override
     public Collection<SignalTransition> getSignalTransitions(final Signal.Type type) {
-        return Hierarchy.getDescendantsOfType(getRoot(), SignalTransition.class,
+        return getDescendantsOfType(SignalTransition.class,
                 transition -> (transition.getSignalType() == type) || (type == null));
     }
 
@@ -10,6 +10,7 @@ import org.workcraft.plugins.stg.interop.LpnExporter;
 import org.workcraft.plugins.stg.interop.LpnImporter;
 import org.workcraft.plugins.stg.interop.StgExporter;
 import org.workcraft.plugins.stg.interop.StgImporter;
+import org.workcraft.plugins.stg.serialisation.ImplicitPlaceArcCopier;
 import org.workcraft.plugins.stg.serialisation.ImplicitPlaceArcDeserialiser;
 import org.workcraft.plugins.stg.serialisation.ImplicitPlaceArcSerialiser;
 import org.workcraft.utils.ScriptableCommandUtils;
@@ -36,6 +37,7 @@ public class StgPlugin implements Plugin {
 
         pm.registerXmlSerialiser(ImplicitPlaceArcSerialiser.class);
         pm.registerXmlDeserialiser(ImplicitPlaceArcDeserialiser.class);
+        pm.registerCustomCopier(ImplicitPlaceArcCopier.class);
 
         pm.registerExporter(StgExporter.class);
         pm.registerImporter(StgImporter.class);
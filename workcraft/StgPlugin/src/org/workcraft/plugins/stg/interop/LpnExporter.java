@@ -1,7 +1,11 @@
 package org.workcraft.plugins.stg.interop;
 
+import org.workcraft.dom.Model;
 import org.workcraft.interop.AbstractSerialiseExporter;
 import org.workcraft.plugins.stg.serialisation.LpnSerialiser;
+import org.workcraft.tasks.ProgressMonitor;
+
+import java.io.OutputStream;
 
 public class LpnExporter extends AbstractSerialiseExporter {
 
@@ -17,4 +21,9 @@ public class LpnExporter extends AbstractSerialiseExporter {
         return serialiser;
     }
 
+    @Override
+    public void export(Model model, OutputStream out, ProgressMonitor<?> monitor) {
+        getSerialiser().serialise(model, out, monitor);
+    }
+
 }
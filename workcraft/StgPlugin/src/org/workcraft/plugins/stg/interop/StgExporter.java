@@ -1,8 +1,12 @@
 package org.workcraft.plugins.stg.interop;
 
+import org.workcraft.dom.Model;
 import org.workcraft.interop.AbstractSerialiseExporter;
 import org.workcraft.interop.Format;
 import org.workcraft.plugins.stg.serialisation.AstgSerialiser;
+import org.workcraft.tasks.ProgressMonitor;
+
+import java.io.OutputStream;
 
 public class StgExporter extends AbstractSerialiseExporter {
 
@@ -18,4 +22,9 @@ public class StgExporter extends AbstractSerialiseExporter {
         return serialiser;
     }
 
+    @Override
+    public void export(Model model, OutputStream out, ProgressMonitor<?> monitor) {
+        getSerialiser().serialise(model, out, monitor);
+    }
+
 }
@@ -40,6 +40,7 @@ public class StgNameManager extends DefaultNameManager {
 
     public void setInstanceNumber(Node node, int number) {
         instancedNameManager.assign(node, number);
+        notifyNameChange(node);
     }
 
     private void renameSignalTransition(SignalTransition t, String signalName) {
@@ -71,6 +72,7 @@ public class StgNameManager extends DefaultNameManager {
             instancedNameManager.assign(st, Pair.of(signalName + direction, instance), forceInstance);
             st.setDirection(direction);
             renameSignalTransition(st, signalName);
+            notifyNameChange(st);
         }
     }
 
@@ -83,6 +85,7 @@ public class StgNameManager extends DefaultNameManager {
         if (!dummyTransitions.get(dummyName).isEmpty() || isUnusedName(dummyName) || renameOccupantIfDifferent(dt, dummyName)) {
             instancedNameManager.assign(dt, r, forceInstance);
             renameDummyTransition(dt, dummyName);
+            notifyNameChange(dt);
         }
     }
 
@@ -180,6 +183,7 @@ public class StgNameManager extends DefaultNameManager {
         super.remove(node);
         if (instancedNameManager.getInstance(node) != null) {
             instancedNameManager.remove(node);
+            notifyNameChange(node);
         }
     }
 
@@ -1,6 +1,7 @@
 package org.workcraft.plugins.stg.references;
 
 import org.workcraft.dom.Node;
+import org.workcraft.dom.hierarchy.NamespaceProvider;
 import org.workcraft.dom.references.HierarchyReferenceManager;
 import org.workcraft.plugins.stg.NamedTransition;
 import org.workcraft.plugins.stg.StgPlace;
@@ -23,12 +24,21 @@ public class StgReferenceManager extends HierarchyReferenceManager {
         super.setExistingReference(node);
     }
 
+    @Override
+    public String getNodeReference(NamespaceProvider provider, Node node) {
+        // Implicit places are unnamed, but a place may become implicit without losing its cached reference
+        if ((node instanceof StgPlace) && ((StgPlace) node).isImplicit()) {
+            return null;
+        }
+        return super.getNodeReference(provider, node);
+    }
+
     @Override
     public StgNameManager getNameManager(Node node) {
         return (StgNameManager) super.getNameManager(node);
     }
 
-    public int getInstanceNumber(NamedTransition namedTransition) {
+    public synchronized int getInstanceNumber(NamedTransition namedTransition) {
         StgNameManager mgr = getNameManager(namedTransition);
         int result = 0;
         if (mgr.isNamed(namedTransition)) {
@@ -37,18 +47,18 @@ public class StgReferenceManager extends HierarchyReferenceManager {
         return result;
     }
 
-    public void setInstanceNumber(NamedTransition namedTransition, int number) {
+    public synchronized void setInstanceNumber(NamedTransition namedTransition, int number) {
         StgNameManager mgr = getNameManager(namedTransition);
         mgr.setInstanceNumber(namedTransition, number);
     }
 
-    public void setDefaultNameIfUnnamed(Node node) {
+    public synchronized void setDefaultNameIfUnnamed(Node node) {
         StgNameManager mgr = getNameManager(node);
         mgr.setDefaultNameIfUnnamed(node);
     }
 
     @Override
-    public void setName(Node node, String name, boolean force) {
+    public synchronized void setName(Node node, String name, boolean force) {
         StgNameManager mgr = getNameManager(node);
         mgr.setName(node, name, force);
     }
@@ -6,6 +6,7 @@ import org.workcraft.plugins.stg.interop.StgFormat;
 import org.workcraft.plugins.stg.serialisation.SerialiserUtils.Style;
 import org.workcraft.serialisation.ModelSerialiser;
 import org.workcraft.serialisation.ReferenceProducer;
+import org.workcraft.tasks.ProgressMonitor;
 
 import java.io.OutputStream;
 import java.util.UUID;
@@ -14,10 +15,14 @@ public class AstgSerialiser implements ModelSerialiser {
 
     @Override
     public ReferenceProducer serialise(Model model, OutputStream out, ReferenceProducer refs) {
-        SerialiserUtils.writeModel(model, out, Style.STG, false);
+        serialise(model, out, (ProgressMonitor<?>) null);
         return refs;
     }
 
+    public void serialise(Model model, OutputStream out, ProgressMonitor<?> monitor) {
+        SerialiserUtils.writeModel(model, out, Style.STG, false, monitor);
+    }
+
     @Override
     public boolean isApplicableTo(Model model) {
         return model instanceof PetriModel;
@@ -0,0 +1,37 @@
+package org.workcraft.plugins.stg.serialisation;
+
+import org.workcraft.plugins.stg.VisualImplicitPlaceArc;
+import org.workcraft.serialisation.CopyContext;
+import org.workcraft.serialisation.CustomCopier;
+
+public class ImplicitPlaceArcCopier implements CustomCopier<VisualImplicitPlaceArc> {
+
+    @Override
+    public String getClassName() {
+        return VisualImplicitPlaceArc.class.getName();
+    }
+
+    @Override
+    public VisualImplicitPlaceArc createInstance(VisualImplicitPlaceArc srcInstance, CopyContext context,
+            Object... constructorParameters) {
+
+        return new VisualImplicitPlaceArc();
+    }
+
+    @Override
+    public void initInstance(VisualImplicitPlaceArc srcInstance, VisualImplicitPlaceArc dstInstance,
+            CopyContext context) {
+    }
+
+    @Override
+    public void finaliseInstance(VisualImplicitPlaceArc srcInstance, VisualImplicitPlaceArc dstInstance,
+            CopyContext context) {
+
+        dstInstance.setImplicitPlaceArcDependencies(
+                context.getCopy(srcInstance.getRefCon1()),
+                context.getCopy(srcInstance.getRefCon2()),
+                context.getCopy(srcInstance.getImplicitPlace())
+        );
+    }
+
+}
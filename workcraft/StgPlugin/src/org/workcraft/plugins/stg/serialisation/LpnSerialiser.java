@@ -10,15 +10,20 @@ import org.workcraft.plugins.stg.interop.LpnFormat;
 import org.workcraft.plugins.stg.serialisation.SerialiserUtils.Style;
 import org.workcraft.serialisation.ModelSerialiser;
 import org.workcraft.serialisation.ReferenceProducer;
+import org.workcraft.tasks.ProgressMonitor;
 
 public class LpnSerialiser implements ModelSerialiser {
 
     @Override
     public ReferenceProducer serialise(Model model, OutputStream out, ReferenceProducer refs) {
-        SerialiserUtils.writeModel(model, out, Style.LPN, true);
+        serialise(model, out, (ProgressMonitor<?>) null);
         return refs;
     }
 
+    public void serialise(Model model, OutputStream out, ProgressMonitor<?> monitor) {
+        SerialiserUtils.writeModel(model, out, Style.LPN, true, monitor);
+    }
+
     @Override
     public boolean isApplicableTo(Model model) {
         return (model instanceof StgModel) || (model instanceof PetriModel);
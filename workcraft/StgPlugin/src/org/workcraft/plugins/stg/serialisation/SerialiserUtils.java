@@ -2,7 +2,6 @@ package org.workcraft.plugins.stg.serialisation;
 
 import org.workcraft.Info;
 import org.workcraft.dom.Model;
-import org.workcraft.dom.Node;
 import org.workcraft.dom.math.MathModel;
 import org.workcraft.dom.math.MathNode;
 import org.workcraft.exceptions.ArgumentException;
@@ -12,10 +11,10 @@ import org.workcraft.plugins.petri.Place;
 import org.workcraft.plugins.petri.Transition;
 import org.workcraft.plugins.stg.*;
 import org.workcraft.plugins.stg.utils.StgUtils;
+import org.workcraft.tasks.ProgressMonitor;
 import org.workcraft.utils.ExportUtils;
 
-import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.*;
 import java.util.*;
 
 public class SerialiserUtils {
@@ -31,26 +30,38 @@ public class SerialiserUtils {
     private static final String KEYWORD_CAPACITY = ".capacity";
     private static final String KEYWORD_END = ".end";
 
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_STEP = 1000;
+
     public enum Style { STG, LPN }
 
     public static void writeModel(Model model, OutputStream out, Style style, boolean needsInitialState) {
+        writeModel(model, out, style, needsInitialState, null);
+    }
+
+    public static void writeModel(Model model, OutputStream out, Style style, boolean needsInitialState,
+            ProgressMonitor<?> monitor) {
+
         if (!(model instanceof PetriModel)) {
             throw new ArgumentException("Model class not supported: " + model.getClass().getName());
         }
         PetriModel petri = (PetriModel) model;
 
-        PrintWriter writer = new PrintWriter(out);
+        PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out), BUFFER_SIZE));
         writeIntro(writer, petri, style);
         if (petri instanceof StgModel) {
             StgModel stg = (StgModel) petri;
-            writeSignalDeclarations(writer, stg);
+            Map<Signal.Type, List<String>> signals = getSortedSignalReferences(stg);
+            writeSignalDeclarations(writer, stg, signals);
             if (needsInitialState) {
-                writeInitialState(writer, stg, style);
+                writeInitialState(writer, stg, signals, style);
             }
             boolean needsInstanceNumbers = (style == Style.LPN) && hasInstanceNumbers(petri);
-            writeStg(writer, stg, needsInstanceNumbers);
+            ReferenceTable refs = new ReferenceTable(stg, needsInstanceNumbers);
+            writeStg(writer, stg, refs, new Progress(refs.size(), monitor));
         } else {
-            writePetri(writer, petri);
+            ReferenceTable refs = new ReferenceTable(petri, false);
+            writePetri(writer, petri, refs, new Progress(refs.size(), monitor));
         }
         writer.write(KEYWORD_END + "\n");
         writer.close();
@@ -65,24 +76,28 @@ public class SerialiserUtils {
         writer.write(keyword + " " + title + "\n");
     }
 
-    private static void writeInitialState(PrintWriter writer, StgModel stg, Style style) {
+    private static void writeInitialState(PrintWriter writer, StgModel stg, Map<Signal.Type, List<String>> signals,
+            Style style) {
+
         Map<String, Boolean> initialState = StgUtils.getInitialState(stg, 1000);
         if (!initialState.isEmpty()) {
             switch (style) {
             case STG:
-                writeInitialStateStg(writer, stg, initialState);
+                writeInitialStateStg(writer, signals, initialState);
                 break;
             case LPN:
-                writeInitialStateLpn(writer, stg, initialState);
+                writeInitialStateLpn(writer, signals, initialState);
                 break;
             }
         }
     }
 
-    private static void writeInitialStateLpn(PrintWriter writer, StgModel stg, Map<String, Boolean> initialState) {
+    private static void writeInitialStateLpn(PrintWriter writer, Map<Signal.Type, List<String>> signals,
+            Map<String, Boolean> initialState) {
+
         writer.write("#@.init_state [");
         for (final Signal.Type type : Signal.Type.values()) {
-            for (String signal : sort(stg.getSignalReferences(type))) {
+            for (String signal : signals.get(type)) {
                 Boolean signalState = initialState.get(signal);
                 if ((signalState == null) || !signalState) {
                     writer.write("0");
@@ -94,10 +109,12 @@ public class SerialiserUtils {
         writer.write("]\n");
     }
 
-    private static void writeInitialStateStg(PrintWriter writer, StgModel stg, Map<String, Boolean> initialState) {
+    private static void writeInitialStateStg(PrintWriter writer, Map<Signal.Type, List<String>> signals,
+            Map<String, Boolean> initialState) {
+
         writer.write(".initial state");
         for (final Signal.Type type : Signal.Type.values()) {
-            for (String signal : sort(stg.getSignalReferences(type))) {
+            for (String signal : signals.get(type)) {
                 Boolean signalState = initialState.get(signal);
                 writer.write(" ");
                 if ((signalState == null) || !signalState) {
@@ -121,18 +138,6 @@ public class SerialiserUtils {
         return false;
     }
 
-    private static String getReference(MathModel model, Node node, boolean needInstanceNumbers) {
-        String result = model.getNodeReference(node);
-        if (needInstanceNumbers && (model instanceof StgModel) && (node instanceof NamedTransition)) {
-            NamedTransition nt = (NamedTransition) node;
-            StgModel stg = (StgModel) model;
-            if (stg.getInstanceNumber(nt) == 0) {
-                result += "/0";
-            }
-        }
-        return result;
-    }
-
     private static void writeSignalDeclaration(PrintWriter out, List<String> signals, String declarationKeyword) {
         if (!signals.isEmpty()) {
             out.write(declarationKeyword);
@@ -144,61 +149,65 @@ public class SerialiserUtils {
         }
     }
 
-    private static Iterable<MathNode> sortNodes(Collection<? extends MathNode> nodes, final MathModel model) {
-        List<MathNode> result = new ArrayList<>(nodes);
-        result.sort(Comparator.comparing(model::getNodeReference));
-        return result;
-    }
-
-    private static void writeGraphEntry(PrintWriter out, MathModel model, MathNode node, boolean needInstanceNumbers) {
+    private static void writeGraphEntry(PrintWriter out, MathModel model, ReferenceTable refs, int id) {
+        MathNode node = refs.getNode(id);
         if ((node instanceof StgPlace) && ((StgPlace) node).isImplicit()) {
             return;
         }
-        String nodeRef = getReference(model, node, needInstanceNumbers);
-        out.write(nodeRef);
-        Set<MathNode> postset = model.getPostset(node);
-        for (MathNode succNode : sortNodes(postset, model)) {
-            String succNodeRef = getReference(model, succNode, needInstanceNumbers);
-            if (succNode instanceof StgPlace) {
-                StgPlace succPlace = (StgPlace) succNode;
-                if (succPlace.isImplicit()) {
-                    Collection<MathNode> succPostset = model.getPostset(succNode);
-                    if (succPostset.size() > 1) {
-                        throw new FormatException("Implicit place cannot have more than one node in postset");
-                    }
-                    Node succTransition = succPostset.iterator().next();
-                    String succTransitionRef = getReference(model, succTransition, needInstanceNumbers);
-                    out.write(" " + succTransitionRef);
-                } else {
-                    out.write(" " + succNodeRef);
+        out.write(refs.getName(id));
+        for (int succId : refs.sort(model.getPostset(node))) {
+            MathNode succNode = refs.getNode(succId);
+            if ((succNode instanceof StgPlace) && ((StgPlace) succNode).isImplicit()) {
+                Collection<MathNode> succPostset = model.getPostset(succNode);
+                if (succPostset.size() > 1) {
+                    throw new FormatException("Implicit place cannot have more than one node in postset");
                 }
-            } else {
-                out.write(" " + succNodeRef);
+                MathNode succTransition = succPostset.iterator().next();
+                succId = refs.getId(succTransition);
             }
+            out.write(' ');
+            out.write(refs.getName(succId));
         }
-        out.write("\n");
+        out.write('\n');
     }
 
+    private static Map<Signal.Type, List<String>> getSortedSignalReferences(StgModel stg) {
+        Map<Signal.Type, Set<String>> signals = new EnumMap<>(Signal.Type.class);
+        for (Signal.Type type : Signal.Type.values()) {
+            signals.put(type, new HashSet<>());
+        }
+        for (SignalTransition st : stg.getSignalTransitions()) {
+            signals.get(st.getSignalType()).add(stg.getSignalReference(st));
+        }
+        Map<Signal.Type, List<String>> result = new EnumMap<>(Signal.Type.class);
+        for (Signal.Type type : Signal.Type.values()) {
+            result.put(type, sort(signals.get(type)));
+        }
+        return result;
+    }
 
-    private static void writeSignalDeclarations(PrintWriter out, StgModel stg) {
-        writeSignalDeclaration(out, sort(stg.getSignalReferences(Signal.Type.INPUT)), KEYWORD_INPUTS);
-        writeSignalDeclaration(out, sort(stg.getSignalReferences(Signal.Type.OUTPUT)), KEYWORD_OUTPUTS);
-        writeSignalDeclaration(out, sort(stg.getSignalReferences(Signal.Type.INTERNAL)), KEYWORD_INTERNAL);
+    private static void writeSignalDeclarations(PrintWriter out, StgModel stg, Map<Signal.Type, List<String>> signals) {
+        writeSignalDeclaration(out, signals.get(Signal.Type.INPUT), KEYWORD_INPUTS);
+        writeSignalDeclaration(out, signals.get(Signal.Type.OUTPUT), KEYWORD_OUTPUTS);
+        writeSignalDeclaration(out, signals.get(Signal.Type.INTERNAL), KEYWORD_INTERNAL);
         writeSignalDeclaration(out, sort(stg.getDummyReferences()), KEYWORD_DUMMY);
     }
 
-    private static void writeStg(PrintWriter out, StgModel stg, boolean needInstanceNumbers) {
+    private static void writeStg(PrintWriter out, StgModel stg, ReferenceTable refs, Progress progress) {
         out.write(KEYWORD_GRAPH + "\n");
-        for (MathNode node : sortNodes(stg.getSignalTransitions(), stg)) {
-            writeGraphEntry(out, stg, node, needInstanceNumbers);
+        for (int id : refs.sort(stg.getSignalTransitions())) {
+            writeGraphEntry(out, stg, refs, id);
+            progress.advance();
         }
-        for (MathNode node : sortNodes(stg.getDummyTransitions(), stg)) {
-            writeGraphEntry(out, stg, node, needInstanceNumbers);
+        for (int id : refs.sort(stg.getDummyTransitions())) {
+            writeGraphEntry(out, stg, refs, id);
+            progress.advance();
         }
-        for (MathNode node : sortNodes(stg.getPlaces(), stg)) {
-            writeGraphEntry(out, stg, node, needInstanceNumbers);
+        for (int id : refs.sort(stg.getPlaces())) {
+            writeGraphEntry(out, stg, refs, id);
+            progress.advance();
         }
-        writeMarking(out, stg, stg.getPlaces(), needInstanceNumbers);
+        writeMarking(out, stg, refs, stg.getPlaces());
     }
 
     private static List<String> sort(Collection<String> refs) {
@@ -207,23 +216,19 @@ public class SerialiserUtils {
         return result;
     }
 
-    private static void writeMarking(PrintWriter out, MathModel model, Collection<? extends Place> places, boolean needInstanceNumbers) {
+    private static void writeMarking(PrintWriter out, MathModel model, ReferenceTable refs,
+            Collection<? extends Place> places) {
+
         ArrayList<String> markingEntries = new ArrayList<>();
         for (Place p: places) {
             final int tokens = p.getTokens();
             final String reference;
-            if (p instanceof StgPlace) {
-                if (((StgPlace) p).isImplicit()) {
-                    MathNode predNode = model.getPreset(p).iterator().next();
-                    String predRef = getReference(model, predNode, needInstanceNumbers);
-                    MathNode succNode = model.getPostset(p).iterator().next();
-                    String succRef = getReference(model, succNode, needInstanceNumbers);
-                    reference = "<" + predRef + "," + succRef + ">";
-                } else {
-                    reference = getReference(model, p, needInstanceNumbers);
-                }
+            if ((p instanceof StgPlace) && ((StgPlace) p).isImplicit()) {
+                MathNode predNode = model.getPreset(p).iterator().next();
+                MathNode succNode = model.getPostset(p).iterator().next();
+                reference = "<" + refs.getName(predNode) + "," + refs.getName(succNode) + ">";
             } else {
-                reference = getReference(model, p, needInstanceNumbers);
+                reference = refs.getName(p);
             }
             if (tokens == 1) {
                 markingEntries.add(reference);
@@ -246,8 +251,7 @@ public class SerialiserUtils {
         StringBuilder capacity = new StringBuilder();
         for (Place p : places) {
             if (p.getCapacity() != 1) {
-                String placeRef = getReference(model, p, needInstanceNumbers);
-                capacity.append(" ").append(placeRef).append("=").append(p.getCapacity());
+                capacity.append(" ").append(refs.getName(p)).append("=").append(p.getCapacity());
             }
         }
         if (capacity.length() > 0) {
@@ -255,21 +259,142 @@ public class SerialiserUtils {
         }
     }
 
-    private static void writePetri(PrintWriter out, PetriModel petriModel) {
+    private static void writePetri(PrintWriter out, PetriModel petriModel, ReferenceTable refs, Progress progress) {
         LinkedList<String> transitions = new LinkedList<>();
         for (Transition t : petriModel.getTransitions()) {
-            String transitionRef = petriModel.getNodeReference(t);
-            transitions.add(transitionRef);
+            transitions.add(refs.getName(t));
         }
         writeSignalDeclaration(out, transitions, KEYWORD_DUMMY);
         out.write(KEYWORD_GRAPH + "\n");
         for (Transition t : petriModel.getTransitions()) {
-            writeGraphEntry(out, petriModel, t, false);
+            writeGraphEntry(out, petriModel, refs, refs.getId(t));
+            progress.advance();
         }
         for (Place p : petriModel.getPlaces()) {
-            writeGraphEntry(out, petriModel, p, false);
+            writeGraphEntry(out, petriModel, refs, refs.getId(p));
+            progress.advance();
+        }
+        writeMarking(out, petriModel, refs, petriModel.getPlaces());
+    }
+
+    /**
+     * Names of the model nodes as written to the file, calculated once per export. Nodes get dense ids, and also
+     * ranks in the order of their references, so that node collections are sorted by primitive keys instead of
+     * repeatedly building and comparing references.
+     */
+    private static final class ReferenceTable {
+        private final MathModel model;
+        private final boolean needInstanceNumbers;
+        private final Map<MathNode, Integer> ids = new HashMap<>();
+        private final List<MathNode> nodes = new ArrayList<>();
+        private final List<String> references = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private int[] ranks = new int[0];
+        private int[] rankIds = new int[0];
+
+        ReferenceTable(PetriModel model, boolean needInstanceNumbers) {
+            this.model = model;
+            this.needInstanceNumbers = needInstanceNumbers;
+            for (Transition transition : model.getTransitions()) {
+                getId(transition);
+            }
+            for (Place place : model.getPlaces()) {
+                getId(place);
+            }
+        }
+
+        int size() {
+            return nodes.size();
+        }
+
+        int getId(MathNode node) {
+            Integer id = ids.get(node);
+            if (id == null) {
+                id = nodes.size();
+                ids.put(node, id);
+                nodes.add(node);
+                String reference = model.getNodeReference(node);
+                references.add(reference);
+                names.add(getName(node, reference));
+            }
+            return id;
+        }
+
+        private String getName(MathNode node, String reference) {
+            if (needInstanceNumbers && (model instanceof StgModel) && (node instanceof NamedTransition)) {
+                if (((StgModel) model).getInstanceNumber((NamedTransition) node) == 0) {
+                    return reference + "/0";
+                }
+            }
+            return reference;
+        }
+
+        MathNode getNode(int id) {
+            return nodes.get(id);
+        }
+
+        String getName(int id) {
+            return names.get(id);
+        }
+
+        String getName(MathNode node) {
+            return names.get(getId(node));
+        }
+
+        /**
+         * Ids of the nodes in the order of their references.
+         */
+        int[] sort(Collection<? extends MathNode> collection) {
+            int[] result = new int[collection.size()];
+            int i = 0;
+            for (MathNode node : collection) {
+                result[i++] = getId(node);
+            }
+            if (ranks.length < nodes.size()) {
+                updateRanks();
+            }
+            for (i = 0; i < result.length; i++) {
+                result[i] = ranks[result[i]];
+            }
+            Arrays.sort(result);
+            for (i = 0; i < result.length; i++) {
+                result[i] = rankIds[result[i]];
+            }
+            return result;
+        }
+
+        private void updateRanks() {
+            int count = nodes.size();
+            Integer[] order = new Integer[count];
+            for (int id = 0; id < count; id++) {
+                order[id] = id;
+            }
+            Arrays.sort(order, Comparator.comparing(references::get));
+            ranks = new int[count];
+            rankIds = new int[count];
+            for (int rank = 0; rank < count; rank++) {
+                ranks[order[rank]] = rank;
+                rankIds[rank] = order[rank];
+            }
+        }
+    }
+
+    private static final class Progress {
+        private final int count;
+        private final ProgressMonitor<?> monitor;
+        private int done = 0;
+
+        Progress(int count, ProgressMonitor<?> monitor) {
+            this.count = count;
+            this.monitor = monitor;
+        }
+
+        void advance() {
+            done++;
+            if ((monitor != null) && ((done % PROGRESS_STEP == 0) || (done == count))) {
+                monitor.progressUpdate((double) done / count);
+            }
         }
-        writeMarking(out, petriModel, petriModel.getPlaces(), false);
     }
 
 }
@@ -0,0 +1,98 @@
+package org.workcraft.plugins.stg;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.BatchRunner;
+import org.workcraft.Framework;
+import org.workcraft.utils.PackageUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class BatchTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+    }
+
+    private List<File> getWorkFiles(String... workNames) {
+        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        List<File> result = new ArrayList<>();
+        for (String workName : workNames) {
+            URL url = classLoader.getResource(PackageUtils.getPackagePath(getClass(), workName));
+            result.add(new File(url.getFile()));
+        }
+        return result;
+    }
+
+    @Test
+    void testCommandBatch() throws IOException {
+        Framework framework = Framework.getInstance();
+        int workCount = framework.getWorkspace().getWorks().size();
+        List<File> files = getWorkFiles("vme.stg.work", "celement.stg.work", "buck.stg.work", "choice9.stg.work");
+        BatchRunner batchRunner = new BatchRunner("StgStatisticsCommand", 2, 0);
+        List<BatchRunner.Outcome> outcomes = batchRunner.run(files);
+        Assertions.assertEquals(files.size(), outcomes.size());
+        for (int i = 0; i < files.size(); i++) {
+            BatchRunner.Outcome outcome = outcomes.get(i);
+            Assertions.assertEquals(files.get(i), outcome.getFile());
+            Assertions.assertEquals(BatchRunner.Status.SUCCESS, outcome.getStatus());
+            Assertions.assertTrue(outcome.getResult().startsWith("Signal Transition Graph analysis:"));
+        }
+        // Works of the batch are loaded into isolated workspaces
+        Assertions.assertEquals(workCount, framework.getWorkspace().getWorks().size());
+    }
+
+    @Test
+    void testScriptBatch() throws IOException {
+        List<File> files = getWorkFiles("vme.stg.work", "celement.stg.work");
+        files.add(new File(files.get(0).getParentFile(), "missing.stg.work"));
+        String script = "var name = work.getTitle(); name + ' ' + args[0].endsWith(name + '.work');";
+        BatchRunner batchRunner = new BatchRunner(script, 2, 0);
+        List<BatchRunner.Outcome> outcomes = batchRunner.run(files);
+        Assertions.assertEquals(BatchRunner.Status.SUCCESS, outcomes.get(0).getStatus());
+        Assertions.assertEquals("vme.stg true", outcomes.get(0).getResult());
+        Assertions.assertEquals(BatchRunner.Status.SUCCESS, outcomes.get(1).getStatus());
+        Assertions.assertEquals("celement.stg true", outcomes.get(1).getResult());
+        Assertions.assertEquals(BatchRunner.Status.FAILURE, outcomes.get(2).getStatus());
+
+        StringWriter writer = new StringWriter();
+        BatchRunner.writeResults(Arrays.asList(outcomes.get(0)), writer);
+        String[] lines = writer.toString().split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[1].endsWith(",success," + outcomes.get(0).getTime() + ",\"vme.stg true\""));
+    }
+
+    @Test
+    void testTimeoutBatch() throws IOException {
+        List<File> files = getWorkFiles("vme.stg.work");
+        BatchRunner batchRunner = new BatchRunner("java.lang.Thread.sleep(10000);", 1, 100);
+        List<BatchRunner.Outcome> outcomes = batchRunner.run(files);
+        Assertions.assertEquals(BatchRunner.Status.TIMEOUT, outcomes.get(0).getStatus());
+        Assertions.assertTrue(outcomes.get(0).getTime() < 10000);
+    }
+
+    @Test
+    void testTimeoutBatchAbandon() throws IOException {
+        List<File> files = getWorkFiles("vme.stg.work", "celement.stg.work");
+        // Busy loop that ignores the interrupt, so that the timed out jobs keep running
+        String script = "var t = java.lang.System.currentTimeMillis();"
+                + " while (java.lang.System.currentTimeMillis() - t < 30000) { }";
+        BatchRunner batchRunner = new BatchRunner(script, 1, 100);
+        long startTime = System.currentTimeMillis();
+        List<BatchRunner.Outcome> outcomes = batchRunner.run(files);
+        Assertions.assertEquals(BatchRunner.Status.TIMEOUT, outcomes.get(0).getStatus());
+        Assertions.assertEquals(BatchRunner.Status.TIMEOUT, outcomes.get(1).getStatus());
+        // The single worker abandons each stuck job instead of waiting for it to exit
+        Assertions.assertTrue(System.currentTimeMillis() - startTime < 10000);
+    }
+
+}
@@ -3,10 +3,14 @@ package org.workcraft.plugins.stg;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.workcraft.dom.math.MathGroup;
+import org.workcraft.dom.math.PageNode;
 import org.workcraft.observation.NodesAddedEvent;
 import org.workcraft.plugins.stg.references.StgReferenceManager;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
 
 class StgReferenceManagerTests {
 
@@ -56,4 +60,59 @@ class StgReferenceManagerTests {
         Assertions.assertEquals("sig", transition2.getSignalName());
     }
 
+    @Test
+    void testReferenceCache() {
+        Stg stg = new Stg();
+        StgReferenceManager mgr = stg.getReferenceManager();
+        PageNode page = new PageNode();
+        stg.add(page);
+        stg.setName(page, "page");
+        StgPlace place = stg.createPlace("p", page);
+        SignalTransition transition = stg.createSignalTransition("x", page);
+
+        mgr.resetCacheCounters();
+        Assertions.assertEquals("page.p", stg.getNodeReference(place));
+        Assertions.assertEquals("page.p", stg.getNodeReference(place));
+        Assertions.assertSame(place, stg.getNodeByReference("page.p"));
+        Assertions.assertSame(place, stg.getNodeByReference("page.p"));
+        Assertions.assertEquals(2, mgr.getCacheHitCount());
+        Assertions.assertEquals(2, mgr.getCacheMissCount());
+
+        // Renaming of a node and its namespace provider invalidates the cached references
+        stg.setName(place, "q");
+        Assertions.assertEquals("page.q", stg.getNodeReference(place));
+        Assertions.assertNull(stg.getNodeByReference("page.p"));
+        Assertions.assertEquals("page.x~", stg.getNodeReference(transition));
+        stg.setDirection(transition, SignalTransition.Direction.PLUS);
+        Assertions.assertEquals("page.x+", stg.getNodeReference(transition));
+        stg.setName(page, "top");
+        Assertions.assertEquals("top.q", stg.getNodeReference(place));
+        Assertions.assertSame(transition, stg.getNodeByReference("top.x+"));
+
+        // Reparenting and deletion invalidate the cached references too
+        stg.reparent(stg.getRoot(), stg, page, Collections.singletonList(place));
+        Assertions.assertEquals("q", stg.getNodeReference(place));
+        Assertions.assertNull(stg.getNodeByReference("top.q"));
+        stg.remove(transition);
+        Assertions.assertNull(stg.getNodeByReference("top.x+"));
+    }
+
+    @Test
+    void testConcurrentReferences() {
+        Stg stg = new Stg();
+        StgReferenceManager mgr = stg.getReferenceManager();
+        List<StgPlace> places = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            places.add(stg.createPlace("p" + i, null));
+        }
+        mgr.resetCacheCounters();
+        // References are queried from several threads without external locking
+        IntStream.range(0, 10000).parallel().forEach(i -> {
+            StgPlace place = places.get(i % places.size());
+            Assertions.assertEquals("p" + (i % places.size()), stg.getNodeReference(place));
+        });
+        Assertions.assertEquals(10000, mgr.getCacheHitCount() + mgr.getCacheMissCount());
+        Assertions.assertEquals(places.size(), mgr.getCacheMissCount());
+    }
+
 }
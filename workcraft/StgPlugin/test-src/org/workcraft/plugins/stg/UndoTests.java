@@ -0,0 +1,158 @@
+package org.workcraft.plugins.stg;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.Framework;
+import org.workcraft.dom.Node;
+import org.workcraft.dom.math.MathConnection;
+import org.workcraft.dom.math.MathModel;
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.dom.visual.VisualComponent;
+import org.workcraft.dom.visual.VisualModel;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.exceptions.InvalidConnectionException;
+import org.workcraft.utils.Hierarchy;
+import org.workcraft.utils.PackageUtils;
+import org.workcraft.workspace.ModelEntry;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.awt.geom.Point2D;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+class UndoTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+    }
+
+    private WorkspaceEntry loadWork(String workName) throws DeserialisationException {
+        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        URL url = classLoader.getResource(PackageUtils.getPackagePath(getClass(), workName));
+        return Framework.getInstance().loadWork(url.getFile());
+    }
+
+    /**
+     * Model as a set of node references, connections, markings and positions that does not depend on the order of nodes.
+     */
+    private static Set<String> getSnapshot(WorkspaceEntry we) {
+        VisualModel visualModel = we.getModelEntry().getVisualModel();
+        MathModel mathModel = visualModel.getMathModel();
+        Set<String> result = new TreeSet<>();
+        for (MathNode node : Hierarchy.getDescendantsOfType(mathModel.getRoot(), MathNode.class)) {
+            if (node instanceof MathConnection) {
+                MathConnection connection = (MathConnection) node;
+                result.add(mathModel.getNodeReference(connection.getFirst())
+                        + " -> " + mathModel.getNodeReference(connection.getSecond()));
+            } else if (node instanceof StgPlace) {
+                result.add(mathModel.getNodeReference(node) + " = " + ((StgPlace) node).getTokens());
+            } else {
+                result.add(mathModel.getNodeReference(node));
+            }
+        }
+        for (VisualComponent component : Hierarchy.getDescendantsOfType(visualModel.getRoot(), VisualComponent.class)) {
+            result.add(mathModel.getNodeReference(component.getReferencedComponent()) + " @ " + component.getPosition());
+        }
+        return result;
+    }
+
+    private static List<VisualComponent> getComponents(WorkspaceEntry we) {
+        VisualModel visualModel = we.getModelEntry().getVisualModel();
+        return new ArrayList<>(Hierarchy.getDescendantsOfType(visualModel.getRoot(), VisualComponent.class));
+    }
+
+    @Test
+    void testDeleteUndo() throws DeserialisationException {
+        WorkspaceEntry we = loadWork("vme.stg.work");
+        ModelEntry me = we.getModelEntry();
+        Set<String> srcSnapshot = getSnapshot(we);
+
+        VisualModel visualModel = me.getVisualModel();
+        List<VisualComponent> components = getComponents(we);
+        visualModel.select(components.get(0));
+        visualModel.addToSelection(components.get(components.size() - 1));
+        we.delete();
+        Set<String> dstSnapshot = getSnapshot(we);
+        Assertions.assertNotEquals(srcSnapshot, dstSnapshot);
+
+        // Deleted nodes and their connections are put back under their names without reloading the model
+        for (int i = 0; i < 2; i++) {
+            we.undo();
+            Assertions.assertSame(me, we.getModelEntry());
+            Assertions.assertEquals(srcSnapshot, getSnapshot(we));
+            Assertions.assertFalse(we.isChanged());
+            we.redo();
+            Assertions.assertSame(me, we.getModelEntry());
+            Assertions.assertEquals(dstSnapshot, getSnapshot(we));
+            Assertions.assertTrue(we.isChanged());
+        }
+        Framework.getInstance().closeWork(we);
+    }
+
+    @Test
+    void testAddMoveUndo() throws DeserialisationException, InvalidConnectionException {
+        WorkspaceEntry we = loadWork("vme.stg.work");
+        ModelEntry me = we.getModelEntry();
+        VisualStg visualStg = (VisualStg) me.getVisualModel();
+        Set<String> srcSnapshot = getSnapshot(we);
+
+        we.saveMemento();
+        VisualComponent component = getComponents(we).get(0);
+        VisualStgPlace place = visualStg.createVisualPlace(null);
+        place.setPosition(new Point2D.Double(100.0, 100.0));
+        visualStg.connect(place, component);
+        Set<String> addSnapshot = getSnapshot(we);
+
+        we.saveMemento();
+        component.setPosition(new Point2D.Double(-100.0, -100.0));
+        Set<String> moveSnapshot = getSnapshot(we);
+
+        we.undo();
+        Assertions.assertEquals(addSnapshot, getSnapshot(we));
+        we.undo();
+        Assertions.assertEquals(srcSnapshot, getSnapshot(we));
+        we.redo();
+        Assertions.assertEquals(addSnapshot, getSnapshot(we));
+        we.redo();
+        Assertions.assertEquals(moveSnapshot, getSnapshot(we));
+        Assertions.assertSame(me, we.getModelEntry());
+
+        // Moving a node back and forth is cancelled in place
+        we.captureMemento();
+        component.setPosition(new Point2D.Double(50.0, 50.0));
+        we.cancelMemento();
+        Assertions.assertSame(me, we.getModelEntry());
+        Assertions.assertEquals(moveSnapshot, getSnapshot(we));
+        Framework.getInstance().closeWork(we);
+    }
+
+    @Test
+    void testRenameUndo() throws DeserialisationException {
+        WorkspaceEntry we = loadWork("vme.stg.work");
+        ModelEntry me = we.getModelEntry();
+        Set<String> srcSnapshot = getSnapshot(we);
+
+        // Renaming does not send a state event, but it still must not be lost on undo
+        we.saveMemento();
+        Node node = getComponents(we).get(0).getReferencedComponent();
+        me.getMathModel().setName(node, "renamed");
+        me.getVisualModel().select(getComponents(we).get(1));
+        we.delete();
+        Set<String> dstSnapshot = getSnapshot(we);
+
+        we.undo();
+        we.undo();
+        Assertions.assertEquals(srcSnapshot, getSnapshot(we));
+        we.redo();
+        we.redo();
+        Assertions.assertEquals(dstSnapshot, getSnapshot(we));
+        Framework.getInstance().closeWork(we);
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.workcraft.plugins.stg.serialisation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.workcraft.Framework;
+import org.workcraft.Info;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.plugins.stg.Stg;
+import org.workcraft.tasks.BasicProgressMonitor;
+import org.workcraft.utils.PackageUtils;
+import org.workcraft.utils.WorkspaceUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+
+class SerialiserUtilsTests {
+
+    @BeforeAll
+    static void init() {
+        final Framework framework = Framework.getInstance();
+        framework.init();
+    }
+
+    @Test
+    void testVmeStgWrite() throws DeserialisationException {
+        Framework framework = Framework.getInstance();
+        String workName = PackageUtils.getPackagePath(Stg.class, "vme.stg.work");
+        URL url = ClassLoader.getSystemClassLoader().getResource(workName);
+        WorkspaceEntry we = framework.loadWork(url.getFile());
+        Stg stg = WorkspaceUtils.getAs(we, Stg.class);
+
+        String expected = Info.getGeneratedByText("# STG file ", "\n") +
+                ".model Untitled\n" +
+                ".inputs dsr dsw ldtack\n" +
+                ".outputs d dtack lds\n" +
+                ".graph\n" +
+                "d+ dtack+\n" +
+                "d+/1 lds+/1\n" +
+                "d- p4 p5\n" +
+                "d-/1 dtack+/1\n" +
+                "dsr+ lds+\n" +
+                "dsr- d-\n" +
+                "dsw+ d+/1\n" +
+                "dsw- p4 p5\n" +
+                "dtack+ dsr-\n" +
+                "dtack+/1 dsw-\n" +
+                "dtack- p1\n" +
+                "lds+ ldtack+\n" +
+                "lds+/1 ldtack+/1\n" +
+                "lds- ldtack-\n" +
+                "ldtack+ d+\n" +
+                "ldtack+/1 d-/1\n" +
+                "ldtack- p3\n" +
+                "p1 dsr+ dsw+\n" +
+                "p3 lds+ lds+/1\n" +
+                "p4 lds-\n" +
+                "p5 dtack-\n" +
+                ".marking {p1 p3}\n" +
+                ".end\n";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        double[] completion = {0.0};
+        SerialiserUtils.writeModel(stg, out, SerialiserUtils.Style.STG, false, new BasicProgressMonitor<Object>() {
+            @Override
+            public void progressUpdate(double value) {
+                Assertions.assertTrue(value > completion[0]);
+                completion[0] = value;
+            }
+        });
+        Assertions.assertEquals(expected, out.toString());
+        Assertions.assertEquals(1.0, completion[0]);
+
+        framework.closeWork(we);
+    }
+
+}
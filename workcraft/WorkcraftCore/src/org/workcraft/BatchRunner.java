@@ -0,0 +1,249 @@
+package org.workcraft;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Undefined;
+import org.mozilla.javascript.WrappedException;
+import org.workcraft.commands.ScriptableCommand;
+import org.workcraft.utils.CommandUtils;
+import org.workcraft.utils.LogUtils;
+import org.workcraft.workspace.WorkspaceEntry;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs a script or a scriptable command on each of the given model files, on a pool of worker threads.
+ * Every file is processed in an isolated workspace and JavaScript scope of the {@link Framework}, so plugins
+ * and JavaScript initialisation are shared between all files. The script is compiled once and executed with
+ * the loaded work in the variable 'work' and the file path in 'args'. A command is found by its class name, as
+ * in executeCommand, and applied to the loaded work. A file that is not processed within the timeout is
+ * reported as such and its job is interrupted. The worker waits a short while for the interrupted job to exit
+ * before it continues with the next file. A job that ignores the interrupt is abandoned in its daemon thread,
+ * so it cannot block the batch, but it may still run alongside the following files.
+ */
+public class BatchRunner {
+
+    private static final String WORK_VARIABLE = "work";
+    private static final String RESULTS_HEADER = "file,status,time,result";
+    private static final long ABANDON_DELAY = 1000;
+
+    public enum Status {
+        SUCCESS("success"),
+        FAILURE("failure"),
+        TIMEOUT("timeout");
+
+        private final String name;
+
+        Status(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final class Outcome {
+        private final File file;
+        private final Status status;
+        private final long time;
+        private final String result;
+
+        public Outcome(File file, Status status, long time, String result) {
+            this.file = file;
+            this.status = status;
+            this.time = time;
+            this.result = result;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Processing time in milliseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * Returned value of the script or command, or the error message of a failure.
+         */
+        public String getResult() {
+            return result;
+        }
+    }
+
+    private final String target;
+    private final int jobCount;
+    private final long timeout;
+    private ScriptableCommand<?> command = null;
+    private Script script = null;
+
+    /**
+     * @param target script file, command class name, or raw script
+     * @param jobCount number of files processed concurrently
+     * @param timeout time limit for processing of a file in milliseconds (0 for no limit)
+     */
+    public BatchRunner(String target, int jobCount, long timeout) {
+        this.target = target;
+        this.jobCount = Math.max(1, jobCount);
+        this.timeout = Math.max(0, timeout);
+    }
+
+    public List<Outcome> run(List<File> files) throws IOException {
+        prepare();
+        ExecutorService executor = Executors.newFixedThreadPool(jobCount, runnable -> {
+            Thread thread = new Thread(runnable, "batch-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (File file : files) {
+            futures.add(executor.submit(() -> process(file)));
+        }
+        List<Outcome> result = new ArrayList<>();
+        try {
+            for (Future<Outcome> future : futures) {
+                result.add(future.get());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
+    private void prepare() throws IOException {
+        Framework framework = Framework.getInstance();
+        for (ScriptableCommand<?> candidate : CommandUtils.getCommands(ScriptableCommand.class)) {
+            Class<?> cls = candidate.getClass();
+            if (target.equals(cls.getSimpleName()) || target.equals(cls.getName())) {
+                command = candidate;
+                return;
+            }
+        }
+        File scriptFile = framework.getFileByAbsoluteOrRelativePath(target);
+        if ((scriptFile != null) && scriptFile.isFile() && scriptFile.canRead()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(scriptFile), StandardCharsets.UTF_8))) {
+                script = framework.compileJavaScript(reader, scriptFile.getPath());
+            }
+        } else {
+            script = framework.compileJavaScript(new BufferedReader(new StringReader(target)), "<batch>");
+        }
+    }
+
+    /**
+     * Processes the file in a separate thread, which is interrupted if it does not finish in time.
+     */
+    private Outcome process(File file) {
+        long startTime = System.currentTimeMillis();
+        Outcome[] outcome = new Outcome[1];
+        Thread thread = new Thread(() -> outcome[0] = processIsolated(file, startTime), "batch-job");
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            thread.join(timeout);
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            thread.interrupt();
+            long time = System.currentTimeMillis() - startTime;
+            LogUtils.logError("Processing of '" + file.getPath() + "' timed out");
+            // Give the interrupted job a chance to exit, and abandon it if it ignores the interrupt
+            try {
+                thread.join(ABANDON_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                LogUtils.logWarning("Job for '" + file.getPath() + "' does not respond to interrupt and is abandoned");
+            }
+            return new Outcome(file, Status.TIMEOUT, time, "Timed out after " + time + " ms");
+        }
+        return outcome[0];
+    }
+
+    private Outcome processIsolated(File file, long startTime) {
+        Framework framework = Framework.getInstance();
+        framework.startIsolation();
+        try {
+            WorkspaceEntry we = framework.loadWork(file);
+            if (we == null) {
+                throw new RuntimeException("Cannot load work from file '" + file.getPath() + "'");
+            }
+            Object value;
+            if (command != null) {
+                value = CommandUtils.execute(we, command.getClass().getName());
+            } else {
+                framework.setArgs(Collections.singletonList(file.getPath()));
+                framework.setJavaScriptProperty(WORK_VARIABLE, we, framework.getJavaScriptGlobalScope(), false);
+                value = framework.execJavaScript(script);
+            }
+            long time = System.currentTimeMillis() - startTime;
+            return new Outcome(file, Status.SUCCESS, time, valueToString(value));
+        } catch (Throwable e) {
+            Throwable cause = e instanceof WrappedException ? ((WrappedException) e).getWrappedException() : e;
+            String message = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+            LogUtils.logError("Processing of '" + file.getPath() + "' failed: " + message);
+            return new Outcome(file, Status.FAILURE, System.currentTimeMillis() - startTime, message);
+        } finally {
+            framework.stopIsolation();
+        }
+    }
+
+    private static String valueToString(Object value) {
+        if ((value == null) || (value instanceof Undefined)) {
+            return "";
+        }
+        Context.enter();
+        try {
+            return Context.toString(value);
+        } finally {
+            Context.exit();
+        }
+    }
+
+    /**
+     * Writes the outcomes as comma-separated values, one line per file.
+     */
+    public static void writeResults(List<Outcome> outcomes, Writer writer) throws IOException {
+        writer.write(RESULTS_HEADER + "\n");
+        for (Outcome outcome : outcomes) {
+            writer.write(quote(outcome.getFile().getPath()) + ","
+                    + outcome.getStatus() + ","
+                    + outcome.getTime() + ","
+                    + quote(outcome.getResult()) + "\n");
+        }
+        writer.flush();
+    }
+
+    public static void writeResults(List<Outcome> outcomes, File file) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writeResults(outcomes, writer);
+        }
+    }
+
+    private static String quote(String text) {
+        if (text == null) {
+            return "";
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+}
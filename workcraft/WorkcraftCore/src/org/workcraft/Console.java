@@ -19,6 +19,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class Console {
@@ -77,6 +78,10 @@ public class Console {
 
         execScriptParameter(options.getScript(), options.getPaths());
 
+        if (options.getBatch() != null) {
+            execBatch(options);
+        }
+
         // Wait for external requests via socket port
         if (port != null) {
             new Thread(() -> processExternalRequests(port)).start();
@@ -173,6 +178,33 @@ public class Console {
         }
     }
 
+    @SuppressWarnings("PMD.DoNotTerminateVM")
+    private static void execBatch(Options options) {
+        Framework framework = Framework.getInstance();
+        List<File> files = options.getPaths().stream()
+                .map(framework::getFileByAbsoluteOrRelativePath)
+                .collect(Collectors.toList());
+
+        int jobCount = options.getJobs() == null ? Runtime.getRuntime().availableProcessors() : options.getJobs();
+        long timeout = options.getTimeout() == null ? 0 : options.getTimeout() * 1000L;
+        LogUtils.logMessage("Processing " + files.size() + " files in " + jobCount + " jobs...");
+        BatchRunner batchRunner = new BatchRunner(options.getBatch(), jobCount, timeout);
+        try {
+            List<BatchRunner.Outcome> outcomes = batchRunner.run(files);
+            File resultsFile = options.getResults();
+            if (resultsFile == null) {
+                BatchRunner.writeResults(outcomes, new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            } else {
+                BatchRunner.writeResults(outcomes, framework.getFileByAbsoluteOrRelativePath(resultsFile.getPath()));
+            }
+            boolean success = outcomes.stream().allMatch(o -> o.getStatus() == BatchRunner.Status.SUCCESS);
+            System.exit(success ? 0 : 1);
+        } catch (IOException | RhinoException e) {
+            LogUtils.logError(e.getMessage());
+            System.exit(1);
+        }
+    }
+
     @SuppressWarnings("PMD.DoNotTerminateVM")
     private static void processShutdownRequest() {
         try {
@@ -128,9 +128,11 @@ public final class Framework {
 
         @Override
         public Void run(Context cx) {
-            Object scriptable = Context.javaToJS(args, systemScope);
-            ScriptableObject.putProperty(systemScope, ARGS_VARIABLE, scriptable);
-            systemScope.setAttributes(ARGS_VARIABLE, ScriptableObject.READONLY);
+            // Arguments of an isolated thread are kept in its own scope
+            ScriptableObject scope = isolatedScope.get() == null ? systemScope : isolatedScope.get();
+            Object scriptable = Context.javaToJS(args, scope);
+            ScriptableObject.putProperty(scope, ARGS_VARIABLE, scriptable);
+            scope.setAttributes(ARGS_VARIABLE, ScriptableObject.READONLY);
             return null;
         }
     }
@@ -180,6 +182,9 @@ public final class Framework {
     private Config config;
     private ScriptableObject systemScope;
     private ScriptableObject globalScope;
+    // Workspace and JavaScript scope of threads that run isolated jobs (and of the threads they start)
+    private final ThreadLocal<Workspace> isolatedWorkspace = new InheritableThreadLocal<>();
+    private final ThreadLocal<ScriptableObject> isolatedScope = new InheritableThreadLocal<>();
 
     private boolean inGuiMode = false;
     private boolean shutdownRequested = false;
@@ -312,7 +317,32 @@ public final class Framework {
     }
 
     public ScriptableObject getJavaScriptGlobalScope() {
-        return globalScope;
+        ScriptableObject scope = isolatedScope.get();
+        return scope == null ? globalScope : scope;
+    }
+
+    /**
+     * Give the current thread (and the threads it starts) a private workspace and JavaScript scope, so that
+     * concurrent jobs do not see each other's works and variables. The plugins and the JavaScript functions
+     * registered in the global scope are shared, so the scope of the thread is layered on top of it.
+     */
+    public void startIsolation() {
+        isolatedWorkspace.set(new Workspace());
+        isolatedScope.set((ScriptableObject) contextFactory.call(cx -> {
+            ScriptableObject scope = (ScriptableObject) cx.newObject(globalScope);
+            scope.setPrototype(globalScope);
+            scope.setParentScope(null);
+            return scope;
+        }));
+    }
+
+    public void stopIsolation() {
+        isolatedWorkspace.remove();
+        isolatedScope.remove();
+    }
+
+    public boolean isIsolated() {
+        return isolatedWorkspace.get() != null;
     }
 
     public void registerJavaScriptFunction(String function, String description) {
@@ -386,11 +416,11 @@ public final class Framework {
     }
 
     public Object execJavaScript(Script script) {
-        return execJavaScript(script, globalScope);
+        return execJavaScript(script, getJavaScriptGlobalScope());
     }
 
     public Object execJavaScript(String script) {
-        return execJavaScript(script, globalScope);
+        return execJavaScript(script, getJavaScriptGlobalScope());
     }
 
     private Object execJavaScript(Script script, Scriptable scope) {
@@ -433,7 +463,7 @@ public final class Framework {
 
     public void execJavaScriptFile(File file) throws IOException {
         String script = FileUtils.readAllText(file);
-        execJavaScript(script, globalScope);
+        execJavaScript(script, getJavaScriptGlobalScope());
     }
 
     public Script compileJavaScript(BufferedReader source, String sourceName) {
@@ -514,7 +544,8 @@ public final class Framework {
     }
 
     public Workspace getWorkspace() {
-        return workspace;
+        Workspace result = isolatedWorkspace.get();
+        return result == null ? workspace : result;
     }
 
     public boolean isInGuiMode() {
@@ -728,13 +759,13 @@ public final class Framework {
     public void saveWork(WorkspaceEntry we, File file) throws SerialisationException {
         if (we == null) return;
         Path<String> wsFrom = we.getWorkspacePath();
-        Path<String> wsTo = workspace.getPath(file);
+        Path<String> wsTo = getWorkspace().getPath(file);
         if (wsTo == null) {
-            wsTo = workspace.tempMountExternalFile(file);
+            wsTo = getWorkspace().tempMountExternalFile(file);
         }
         if (wsFrom != wsTo) {
             try {
-                workspace.moveEntry(wsFrom, wsTo);
+                getWorkspace().moveEntry(wsFrom, wsTo);
             } catch (IOException e) {
                 LogUtils.logError(e.getMessage());
             }
@@ -785,7 +816,7 @@ public final class Framework {
     }
 
     public void loadWorkspace(File file) throws DeserialisationException {
-        workspace.load(file);
+        getWorkspace().load(file);
     }
 
     public Config getConfig() {
@@ -14,6 +14,10 @@ public class Options {
     private static final String DIR_OPTION = "-dir:";
     private static final String EXEC_OPTION = "-exec:";
     private static final String PORT_OPTION = "-port:";
+    private static final String BATCH_OPTION = "-batch:";
+    private static final String JOBS_OPTION = "-jobs:";
+    private static final String TIMEOUT_OPTION = "-timeout:";
+    private static final String RESULTS_OPTION = "-results:";
     private static final String NOGUI_OPTION = "-nogui";
     private static final String NOCONFIG_OPTION = "-noconfig";
     private static final String VERSION_OPTION = "-version";
@@ -24,6 +28,11 @@ public class Options {
             "  " + DIR_OPTION + "<PATH>     pass working directory\n" +
             "  " + EXEC_OPTION + "<SCRIPT>  JavaScript file or one-liner to execute on startup\n" +
             "  " + PORT_OPTION + "<PORT>    reuse running instance on PORT to open FILES\n" +
+            "  " + BATCH_OPTION + "<SCRIPT> run JavaScript file, one-liner or command class on each of FILES\n" +
+            "                   in console mode (the work is available as 'work') and exit\n" +
+            "  " + JOBS_OPTION + "<N>       number of FILES processed concurrently in batch mode\n" +
+            "  " + TIMEOUT_OPTION + "<SEC>  time limit for processing of each file in batch mode\n" +
+            "  " + RESULTS_OPTION + "<PATH> write batch results to PATH as comma-separated values\n" +
             "  " + NOGUI_OPTION + "          run in console mode\n" +
             "  " + NOCONFIG_OPTION + "       use default settings without overwriting user config\n" +
             "  " + VERSION_OPTION + "        report the version information and exit\n" +
@@ -34,6 +43,10 @@ public class Options {
     private final File directory;
     private final String script;
     private final Integer port;
+    private final String batch;
+    private final Integer jobs;
+    private final Integer timeout;
+    private final File results;
     private final boolean noGuiFlag;
     private final boolean noConfigFlag;
     private final boolean helpFlag;
@@ -51,6 +64,10 @@ public class Options {
         directory = getOptionLastValue(args, DIR_OPTION, File::new);
         script = getOptionLastValue(args, EXEC_OPTION);
         port = getOptionLastValue(args, PORT_OPTION, Integer::valueOf);
+        batch = getOptionLastValue(args, BATCH_OPTION);
+        jobs = getOptionLastValue(args, JOBS_OPTION, Integer::valueOf);
+        timeout = getOptionLastValue(args, TIMEOUT_OPTION, Integer::valueOf);
+        results = getOptionLastValue(args, RESULTS_OPTION, File::new);
         noGuiFlag = args.contains(NOGUI_OPTION);
         noConfigFlag = args.contains(NOCONFIG_OPTION);
         helpFlag = args.contains(HELP_OPTION);
@@ -87,8 +104,24 @@ public class Options {
         return port;
     }
 
+    public String getBatch() {
+        return batch;
+    }
+
+    public Integer getJobs() {
+        return jobs;
+    }
+
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public File getResults() {
+        return results;
+    }
+
     public boolean hasNoGuiFlag() {
-        return noGuiFlag;
+        return noGuiFlag || (batch != null);
     }
 
     public boolean hasNoConfigFlag() {
@@ -4,6 +4,7 @@ import org.workcraft.annotations.Annotations;
 import org.workcraft.dom.hierarchy.NamespaceProvider;
 import org.workcraft.dom.references.HierarchyReferenceManager;
 import org.workcraft.dom.references.ReferenceManager;
+import org.workcraft.dom.visual.NodeHelper;
 import org.workcraft.types.Func;
 
 import java.util.*;
@@ -16,6 +17,7 @@ public abstract class AbstractModel<N extends Node, C extends Connection> implem
     private final Container root;
     private final ReferenceManager mgr;
     private final NodeContextTracker<N, C> nodeContextTracker = new NodeContextTracker<>();
+    private final NodeTypeTracker nodeTypeTracker = new NodeTypeTracker();
     public final boolean generatedRoot;
 
     private String title = "";
@@ -38,6 +40,7 @@ public abstract class AbstractModel<N extends Node, C extends Connection> implem
             this.mgr = createDefaultReferenceManager();
         }
         this.nodeContextTracker.attach(getRoot());
+        this.nodeTypeTracker.attach(getRoot());
         this.mgr.attach(getRoot());
     }
 
@@ -187,6 +190,17 @@ public abstract class AbstractModel<N extends Node, C extends Connection> implem
         return result;
     }
 
+    /**
+     * Returns a read-only live view of the model nodes of the given type (the root is not included).
+     */
+    public <T> Collection<T> getDescendantsOfType(Class<T> type) {
+        return nodeTypeTracker.getDescendantsOfType(type);
+    }
+
+    public <T> Collection<T> getDescendantsOfType(Class<T> type, Func<T, Boolean> filter) {
+        return NodeHelper.filterByType(getDescendantsOfType(type), type, filter);
+    }
+
     @Override
     public N getNodeByReference(String reference) {
         return getNodeByReference(null, reference);
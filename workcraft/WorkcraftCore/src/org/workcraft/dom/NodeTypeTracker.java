@@ -0,0 +1,130 @@
+package org.workcraft.dom;
+
+import org.workcraft.observation.*;
+import org.workcraft.utils.Hierarchy;
+
+import java.util.*;
+
+/**
+ * Index of the root descendants by their class. The index for a class is built on the first request
+ * and then kept up to date by the hierarchy events, so subsequent requests do not traverse the model.
+ * Requests return read-only live views of the index, which are only accessed under the lock of the tracker.
+ * A view is iterated over a snapshot of the index, taken once per modification of the model, so the nodes
+ * can be queried from several threads and iterated while the model is modified. The nodes are iterated in
+ * the order of {@link Hierarchy#getDescendantsOfType(Node, Class)}.
+ */
+public class NodeTypeTracker extends HierarchySupervisor {
+
+    private final HashMap<Class<?>, NodeIndex<?>> typeToIndex = new HashMap<>();
+
+    private final class NodeIndex<T> extends AbstractCollection<T> {
+        private final Class<T> type;
+        private final LinkedHashSet<Node> nodes = new LinkedHashSet<>();
+        private boolean ordered = false;
+        private List<T> snapshot = null;
+
+        NodeIndex(Class<T> type) {
+            this.type = type;
+        }
+
+        private void nodeAdded(Node node) {
+            if (!ordered) {
+                return;
+            }
+            Collection<T> descendants = Hierarchy.getDescendantsOfType(node, type);
+            boolean isInstance = type.isInstance(node);
+            // Only a leaf node appended to the root goes to the end of the hierarchy order
+            if (!descendants.isEmpty() || (isInstance && (node.getParent() != getRoot()))) {
+                ordered = false;
+            } else if (isInstance) {
+                nodes.add(node);
+                snapshot = null;
+            }
+        }
+
+        private void nodeRemoved(Node node) {
+            if (ordered && nodes.remove(node)) {
+                snapshot = null;
+            }
+            for (Node childNode : node.getChildren()) {
+                nodeRemoved(childNode);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void update() {
+            if (!ordered) {
+                nodes.clear();
+                Node root = getRoot();
+                if (root != null) {
+                    nodes.addAll((Collection<? extends Node>) Hierarchy.getDescendantsOfType(root, type));
+                }
+                ordered = true;
+                snapshot = null;
+            }
+            if (snapshot == null) {
+                snapshot = Collections.unmodifiableList(new ArrayList<>((Collection<T>) nodes));
+            }
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            synchronized (NodeTypeTracker.this) {
+                update();
+                return snapshot.iterator();
+            }
+        }
+
+        @Override
+        public int size() {
+            synchronized (NodeTypeTracker.this) {
+                update();
+                return nodes.size();
+            }
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            synchronized (NodeTypeTracker.this) {
+                update();
+                return nodes.contains(o);
+            }
+        }
+    }
+
+    private boolean isInHierarchy(Node node) {
+        return Hierarchy.getTopParent(node) == getRoot();
+    }
+
+    /**
+     * Returns a read-only live view of the root descendants of the given type (the root itself is not included).
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Collection<T> getDescendantsOfType(Class<T> type) {
+        return (Collection<T>) typeToIndex.computeIfAbsent(type, NodeIndex::new);
+    }
+
+    @Override
+    public synchronized void handleEvent(HierarchyEvent e) {
+        if (typeToIndex.isEmpty()) {
+            return;
+        }
+        if (e instanceof NodesAddedEvent) {
+            for (Node n : e.getAffectedNodes()) {
+                if (isInHierarchy(n)) {
+                    for (NodeIndex<?> index : typeToIndex.values()) {
+                        index.nodeAdded(n);
+                    }
+                }
+            }
+        } else if ((e instanceof NodesDeletedEvent) || (e instanceof NodesReparentingEvent)) {
+            // Reparented nodes are added back by the NodesAddedEvent of their new parent (if it is in this model)
+            for (Node n : e.getAffectedNodes()) {
+                for (NodeIndex<?> index : typeToIndex.values()) {
+                    index.nodeRemoved(n);
+                }
+            }
+        }
+    }
+
+}
@@ -10,11 +10,26 @@ import org.workcraft.utils.DialogUtils;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class DefaultNameManager implements NameManager {
 
     private final Map<String, Integer> prefixCount = new HashMap<>();
     private final TwoWayMap<String, Node> nodes = new TwoWayMap<>();
+    private Consumer<Node> nameChangeListener = null;
+
+    /**
+     * Listener that is called with every node whose name is changed or removed.
+     */
+    public void setNameChangeListener(Consumer<Node> listener) {
+        nameChangeListener = listener;
+    }
+
+    protected void notifyNameChange(Node node) {
+        if (nameChangeListener != null) {
+            nameChangeListener.accept(node);
+        }
+    }
 
     @Override
     public String getPrefix(Node node) {
@@ -56,6 +71,7 @@ public class DefaultNameManager implements NameManager {
         if (isUnusedName(name)) {
             nodes.removeValue(node);
             nodes.put(name, node);
+            notifyNameChange(node);
         } else {
             String msg = "Name '" + name + "' is already taken by another node.";
             if (force) {
@@ -95,6 +111,7 @@ public class DefaultNameManager implements NameManager {
     public void remove(Node node) {
         if (nodes.getKey(node) != null) {
             nodes.removeValue(node);
+            notifyNameChange(node);
         }
     }
 
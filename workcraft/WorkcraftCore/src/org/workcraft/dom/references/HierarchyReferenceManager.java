@@ -8,11 +8,19 @@ import org.workcraft.observation.HierarchyEvent;
 import org.workcraft.observation.HierarchySupervisor;
 import org.workcraft.observation.NodesAddedEvent;
 import org.workcraft.observation.NodesDeletedEvent;
+import org.workcraft.observation.NodesReparentedEvent;
+import org.workcraft.observation.NodesReparentingEvent;
 import org.workcraft.serialisation.References;
 import org.workcraft.utils.Hierarchy;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class HierarchyReferenceManager extends HierarchySupervisor implements ReferenceManager {
 
@@ -23,6 +31,18 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
     private NamespaceProvider topProvider; // namespace provided by root
     private References refs;
 
+    // Bidirectional cache of absolute references, invalidated for the renamed, reparented and deleted nodes
+    // and their descendants. Only references that resolve back to their node are cached in the reverse map.
+    // Cache hits are served without locking, while cache misses and all modifications are synchronised on
+    // the manager, so that references can be queried from several threads (e.g. by concurrent analyses).
+    private final Map<Node, String> nodeReferences = new ConcurrentHashMap<>();
+    private final Map<String, Node> referenceNodes = new ConcurrentHashMap<>();
+    private volatile boolean isCacheEnabled = true;
+    private volatile boolean isNameChangeTracked = true;
+    private final List<Consumer<Node>> nameChangeListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    private final AtomicLong cacheMissCount = new AtomicLong();
+
     public HierarchyReferenceManager() {
         this(null);
     }
@@ -31,7 +51,7 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
         this.refs = refs;
     }
 
-    public NamespaceProvider getNamespaceProvider(Node node) {
+    public synchronized NamespaceProvider getNamespaceProvider(Node node) {
         NamespaceProvider provider = node2namespace.get(node);
         if (provider == null) {
             Node container = node.getParent();
@@ -47,7 +67,7 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
         setNamespaceProvider(nodes, this, provider);
     }
 
-    public void setNamespaceProvider(Collection<Node> nodes,
+    public synchronized void setNamespaceProvider(Collection<Node> nodes,
             HierarchyReferenceManager srcRefManager, NamespaceProvider dstProvider) {
 
         if (dstProvider == null) {
@@ -60,7 +80,9 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
 
                 // Clear cached data in the local and the source reference manager.
                 node2namespace.remove(node);
-                srcRefManager.node2namespace.remove(node);
+                srcRefManager.removeNamespaceProvider(node);
+                invalidateReferences(node);
+                srcRefManager.invalidateReferences(node);
 
                 // Do not assign name if it was not assigned in the first place (e.g. for an implicit place).
                 if ((name != null) && ((dstProvider != srcProvider) || (node2namespace != srcRefManager.node2namespace))) {
@@ -80,8 +102,12 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
         }
     }
 
+    private synchronized void removeNamespaceProvider(Node node) {
+        node2namespace.remove(node);
+    }
+
     @Override
-    public void attach(Node root) {
+    public synchronized void attach(Node root) {
         // Root must be a namespace provider.
         topProvider = (NamespaceProvider) root;
         if (refs != null) {
@@ -93,18 +119,51 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
         super.attach(root);
     }
 
-    public NameManager getNameManager(NamespaceProvider provider) {
+    public synchronized NameManager getNameManager(NamespaceProvider provider) {
         if (provider == null) {
             provider = topProvider;
         }
         NameManager man = managers.get(provider);
         if (man == null) {
             man = createNameManager();
+            if (man instanceof DefaultNameManager) {
+                ((DefaultNameManager) man).setNameChangeListener(this::nameChanged);
+            } else {
+                // Renaming cannot be tracked in a custom name manager
+                isCacheEnabled = false;
+                isNameChangeTracked = false;
+                clearReferenceCache();
+            }
             managers.put(provider, man);
         }
         return man;
     }
 
+    private void nameChanged(Node node) {
+        invalidateReferences(node);
+        for (Consumer<Node> listener : nameChangeListeners) {
+            listener.accept(node);
+        }
+    }
+
+    /**
+     * Adds a listener that is called with every node whose name is changed or removed.
+     */
+    public void addNameChangeListener(Consumer<Node> listener) {
+        nameChangeListeners.add(listener);
+    }
+
+    public void removeNameChangeListener(Consumer<Node> listener) {
+        nameChangeListeners.remove(listener);
+    }
+
+    /**
+     * Whether all name changes are reported to the listeners, which is not the case with a custom name manager.
+     */
+    public boolean isNameChangeTracked() {
+        return isNameChangeTracked;
+    }
+
     public NameManager getNameManager(Node node) {
         return getNameManager(getNamespaceProvider(node));
     }
@@ -126,6 +185,38 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
         if (provider == null) {
             provider = topProvider;
         }
+        if (reference.isEmpty() || reference.equals(NamespaceHelper.getHierarchySeparator())) {
+            return provider;
+        }
+        if (isCacheEnabled && (provider == topProvider)) {
+            Node result = referenceNodes.get(reference);
+            if (result != null) {
+                cacheHitCount.incrementAndGet();
+                return result;
+            }
+        }
+        return findAndCacheNodeByReference(provider, reference);
+    }
+
+    private synchronized Node findAndCacheNodeByReference(NamespaceProvider provider, String reference) {
+        if (!isCacheEnabled || (provider != topProvider)) {
+            return findNodeByReference(provider, reference);
+        }
+        // Another thread may have cached the node while this one was waiting for the lock
+        Node result = referenceNodes.get(reference);
+        if (result != null) {
+            cacheHitCount.incrementAndGet();
+            return result;
+        }
+        cacheMissCount.incrementAndGet();
+        result = findNodeByReference(provider, reference);
+        if ((result != null) && reference.equals(getCachedNodeReference(result))) {
+            referenceNodes.put(reference, result);
+        }
+        return result;
+    }
+
+    private Node findNodeByReference(NamespaceProvider provider, String reference) {
         if (reference.isEmpty() || reference.equals(NamespaceHelper.getHierarchySeparator())) {
             return provider;
         }
@@ -134,7 +225,7 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
         NameManager man = getNameManager(provider);
         Node node = man.getNode(head);
         if (node instanceof NamespaceProvider) {
-            return getNodeByReference((NamespaceProvider) node, tail);
+            return findNodeByReference((NamespaceProvider) node, tail);
         }
         return node;
     }
@@ -147,6 +238,42 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
         if (provider == null) {
             provider = topProvider;
         }
+        if (isCacheEnabled && (provider == topProvider)) {
+            String result = nodeReferences.get(node);
+            if (result != null) {
+                cacheHitCount.incrementAndGet();
+                return result;
+            }
+        }
+        return buildAndCacheNodeReference(provider, node);
+    }
+
+    private synchronized String buildAndCacheNodeReference(NamespaceProvider provider, Node node) {
+        if (!isCacheEnabled || (provider != topProvider)) {
+            return buildNodeReference(provider, node);
+        }
+        String result = nodeReferences.get(node);
+        if (result != null) {
+            cacheHitCount.incrementAndGet();
+            return result;
+        }
+        cacheMissCount.incrementAndGet();
+        return getCachedNodeReference(node);
+    }
+
+    private String getCachedNodeReference(Node node) {
+        String result = nodeReferences.get(node);
+        if (result == null) {
+            result = buildNodeReference(topProvider, node);
+            // Nodes outside the hierarchy have empty reference
+            if ((result != null) && !result.isEmpty()) {
+                nodeReferences.put(node, result);
+            }
+        }
+        return result;
+    }
+
+    private String buildNodeReference(NamespaceProvider provider, Node node) {
         NamespaceProvider component = null;
         String result = "";
         do {
@@ -163,7 +290,14 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
     }
 
     @Override
-    public void handleEvent(HierarchyEvent e) {
+    public synchronized void handleEvent(HierarchyEvent e) {
+        if ((e instanceof NodesDeletedEvent) || (e instanceof NodesReparentingEvent)
+                || (e instanceof NodesReparentedEvent)) {
+            for (Node node : e.getAffectedNodes()) {
+                invalidateReferences(node);
+            }
+        }
+
         if (e instanceof NodesAddedEvent) {
             for (Node node : e.getAffectedNodes()) {
                 if (node.getParent() != null) {
@@ -198,19 +332,57 @@ public class HierarchyReferenceManager extends HierarchySupervisor implements Re
         setName(node, name, true);
     }
 
-    public void setName(Node node, String name, boolean force) {
+    public synchronized void setName(Node node, String name, boolean force) {
         NameManager mgr = getNameManager(node);
         mgr.setName(node, name, force);
     }
 
-    public String getName(Node node) {
+    public synchronized String getName(Node node) {
         NameManager mgr = getNameManager(node);
         return mgr.getName(node);
     }
 
-    public void setDefaultName(MathNode node) {
+    public synchronized void setDefaultName(MathNode node) {
         NameManager nameManager = getNameManager(node);
         nameManager.setDefaultName(node);
     }
 
+    /**
+     * Drop the cached references of the node and its descendants, as they are built from the node name.
+     */
+    public synchronized void invalidateReferences(Node node) {
+        if (nodeReferences.isEmpty()) {
+            return;
+        }
+        removeCachedReference(node);
+        for (Node descendant : Hierarchy.getDescendantsOfType(node, Node.class)) {
+            removeCachedReference(descendant);
+        }
+    }
+
+    private void removeCachedReference(Node node) {
+        String reference = nodeReferences.remove(node);
+        if (reference != null) {
+            referenceNodes.remove(reference);
+        }
+    }
+
+    public synchronized void clearReferenceCache() {
+        nodeReferences.clear();
+        referenceNodes.clear();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    public long getCacheMissCount() {
+        return cacheMissCount.get();
+    }
+
+    public void resetCacheCounters() {
+        cacheHitCount.set(0);
+        cacheMissCount.set(0);
+    }
+
 }
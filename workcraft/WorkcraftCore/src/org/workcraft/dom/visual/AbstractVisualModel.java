@@ -66,6 +66,7 @@ public abstract class AbstractVisualModel extends AbstractModel<VisualNode, Visu
         new DefaultHangingConnectionRemover(this).attach(getRoot());
         new DefaultMathNodeRemover().attach(getRoot());
         new DefaultReplicaRemover(this).attach(getRoot());
+        new SpatialIndexTracker(this).attach(getRoot());
 
         new StateSupervisor() {
             @Override
@@ -1,8 +1,10 @@
 package org.workcraft.dom.visual;
 
 import java.awt.Graphics2D;
+import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
+import java.util.Collection;
 
 import org.workcraft.dom.Node;
 import org.workcraft.dom.visual.connections.VisualConnection;
@@ -63,30 +65,34 @@ final class DrawMan {
     private void drawNode(final Decoration decoration, Node node) {
         if (node instanceof Drawable) {
             Drawable drawableNode = (Drawable) node;
-            drawableNode.draw(new DrawRequest() {
-                @Override
-                public Decoration getDecoration() {
-                    return decoration;
-                }
-                @Override
-                public Graphics2D getGraphics() {
-                    return graphics;
-                }
-                @Override
-                public VisualModel getModel() {
-                    return model;
-                }
-            });
+            drawableNode.draw(createDrawRequest(decoration));
         }
     }
 
+    private DrawRequest createDrawRequest(final Decoration decoration) {
+        return new DrawRequest() {
+            @Override
+            public Decoration getDecoration() {
+                return decoration;
+            }
+            @Override
+            public Graphics2D getGraphics() {
+                return graphics;
+            }
+            @Override
+            public VisualModel getModel() {
+                return model;
+            }
+        };
+    }
+
     private void drawChildren(final Decoration decoration, Node node) {
         // A collapsed node does not draw its contents, unless we are inside this node
         boolean isCollapsed = (node instanceof Collapsible) && ((Collapsible) node).getIsCollapsed();
         boolean isInsideCollapsed = isCollapsed && ((Collapsible) node).isCurrentLevelInside();
         if (isInsideCollapsed || !isCollapsed) {
             // Copy the collection of children nodes before drawing in order to avoid concurrent modification exception
-            ArrayList<Node> children = new ArrayList<>(node.getChildren());
+            Collection<Node> children = getVisibleChildren(decoration, node);
             // First draw nodes
             for (Node childNode : children) {
                 if (!(childNode instanceof VisualConnection)) {
@@ -102,4 +108,14 @@ final class DrawMan {
         }
     }
 
+    private Collection<Node> getVisibleChildren(Decoration decoration, Node node) {
+        // Children of large containers are culled by the clip area, which is in the local space of the node here
+        SpatialIndex index = SpatialIndexTracker.getIndex(node);
+        Shape clip = graphics.getClip();
+        if ((index != null) && (clip != null)) {
+            return index.query(clip.getBounds2D(), createDrawRequest(decoration));
+        }
+        return new ArrayList<>(node.getChildren());
+    }
+
 }
@@ -7,7 +7,6 @@ import org.workcraft.dom.visual.connections.VisualConnection;
 import org.workcraft.types.Func;
 import org.workcraft.types.Func2;
 import org.workcraft.utils.Geometry;
-import org.workcraft.utils.Hierarchy;
 
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
@@ -39,7 +38,7 @@ public class HitMan {
                 Math.abs(p1.getX() - p2.getX()),
                 Math.abs(p1.getY() - p2.getY()));
 
-        for (VisualNode node : Hierarchy.getChildrenOfType(container, VisualNode.class)) {
+        for (VisualNode node : getChildrenOfType(container, rect, VisualNode.class)) {
             if (node.isHidden()) continue;
             if (p1.getX() <= p2.getX()) {
                 if (TouchableHelper.insideRectangle(node, rect)) {
@@ -84,7 +83,7 @@ public class HitMan {
     public static Node hitFirstChild(Point2D point, Node parentNode, Func<Node, Boolean> filter) {
         Node result = null;
         Point2D pointInLocalSpace = transformToChildSpace(point, parentNode);
-        for (Node childNode : getHitableChildrenInReverseOrder(parentNode)) {
+        for (Node childNode : getHitableChildrenInReverseOrder(parentNode, pointInLocalSpace)) {
             if (filter.eval(childNode)) {
                 Node branchNode = hitBranch(pointInLocalSpace, childNode);
                 if (filter.eval(branchNode)) {
@@ -114,7 +113,7 @@ public class HitMan {
             }
         }
         Point2D pointInLocalSpace = transformToChildSpace(point, node);
-        for (Node childNode : getHitableChildrenInReverseOrder(node)) {
+        for (Node childNode : getHitableChildrenInReverseOrder(node, pointInLocalSpace)) {
             if (isBranchHit(pointInLocalSpace, childNode)) {
                 return true;
             }
@@ -154,7 +153,7 @@ public class HitMan {
     private static Node hitDeepest(Point2D point, Node node, final Func2<Point2D, Node, Boolean> filter) {
         Point2D pointInLocalSpace = transformToChildSpace(point, node);
         //Iterable<Node> filteredChildren = getFilteredChildren(pointInLocalSpace, node);
-        for (Node childNode : node.getChildren()) {
+        for (Node childNode : getChildren(node, pointInLocalSpace)) {
             Node result = hitDeepest(pointInLocalSpace, childNode, filter);
             if (result != null) {
                 return result;
@@ -172,14 +171,37 @@ public class HitMan {
         return point;
     }
 
-    private static Collection<Node> getHitableChildrenInReverseOrder(Node parentNode) {
+    /**
+     * Children of the node that may contain the given point (in the local space of the node). For large containers
+     * these are the candidates found in the spatial index, otherwise all the children.
+     */
+    private static Collection<Node> getChildren(Node node, Point2D point) {
+        return getChildren(node, new Rectangle2D.Double(point.getX(), point.getY(), 0.0, 0.0));
+    }
+
+    private static Collection<Node> getChildren(Node node, Rectangle2D rect) {
+        SpatialIndex index = SpatialIndexTracker.getIndex(node);
+        return index == null ? node.getChildren() : index.query(rect);
+    }
+
+    private static <T> Collection<T> getChildrenOfType(Node node, Rectangle2D rect, Class<T> type) {
+        ArrayList<T> result = new ArrayList<>();
+        for (Node childNode : getChildren(node, rect)) {
+            if (type.isInstance(childNode)) {
+                result.add(type.cast(childNode));
+            }
+        }
+        return result;
+    }
+
+    private static Collection<Node> getHitableChildrenInReverseOrder(Node parentNode, Point2D point) {
         if (parentNode instanceof Collapsible) {
             Collapsible collapsible = (Collapsible) parentNode;
             if (collapsible.getIsCollapsed() && !collapsible.isCurrentLevelInside()) {
                 return Collections.EMPTY_LIST;
             }
         }
-        final ArrayList<Node> result = new ArrayList<>(parentNode.getChildren());
+        final ArrayList<Node> result = new ArrayList<>(getChildren(parentNode, point));
         Collections.reverse(result);
         return result;
     }
@@ -0,0 +1,295 @@
+package org.workcraft.dom.visual;
+
+import org.workcraft.dom.Node;
+import org.workcraft.plugins.builtin.settings.VisualCommonSettings;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.*;
+
+/**
+ * Uniform grid of the extents of direct children of a container, in the local coordinates of the container.
+ * The extent of a child covers its bounding box and the extents of its own children, so that both drawing
+ * and hit-testing of the whole branch can be culled by it. Entries are recalculated lazily on query after
+ * they are invalidated, see {@link SpatialIndexTracker}. Bounding boxes of nodes include their rendered name
+ * and label, so the rendered text is cached before calculating extents for drawing, and all entries are
+ * invalidated when the settings of names and labels change.
+ */
+final class SpatialIndex {
+
+    // Containers with fewer children are scanned directly, as the index would not pay off
+    static final int MIN_CHILD_COUNT = 64;
+
+    // Extents are padded to cover hit-test thresholds, arrow heads and decorations drawn around nodes
+    static final double MARGIN = 1.0;
+
+    private static final double CELL_SIZE = 4.0;
+    private static final long MAX_CELL_COUNT = 256;
+
+    private final Node container;
+    private final Map<Node, Rectangle2D> extents = new HashMap<>();
+    private final Map<Long, List<Node>> cells = new HashMap<>();
+    // Nodes that are too large for the grid, and nodes without extent (always candidates)
+    private final Set<Node> largeNodes = new HashSet<>();
+    private final Set<Node> unboundedNodes = new HashSet<>();
+    private final Set<Node> dirtyNodes = new HashSet<>();
+    // Nodes whose extents were calculated without a draw request, and so possibly without their rendered text
+    private final Set<Node> unpreparedNodes = new HashSet<>();
+    private List<Object> textSettings = null;
+    private final Map<Node, Integer> order = new HashMap<>();
+    private boolean structureChanged = true;
+
+    SpatialIndex(Node container) {
+        this.container = container;
+    }
+
+    synchronized void invalidate(Node node) {
+        dirtyNodes.add(node);
+    }
+
+    synchronized void invalidateAll() {
+        structureChanged = true;
+        dirtyNodes.addAll(extents.keySet());
+        dirtyNodes.addAll(unboundedNodes);
+    }
+
+    synchronized void add(Node node) {
+        structureChanged = true;
+        dirtyNodes.add(node);
+    }
+
+    synchronized void remove(Node node) {
+        structureChanged = true;
+        dirtyNodes.remove(node);
+        unpreparedNodes.remove(node);
+        removeEntry(node);
+    }
+
+    /**
+     * Children of the container whose extent intersects the rectangle, in the order of children.
+     */
+    synchronized List<Node> query(Rectangle2D rect) {
+        return query(rect, null);
+    }
+
+    /**
+     * Children of the container whose extent intersects the rectangle, in the order of children. If the draw
+     * request is given, the rendered text of the invalidated nodes is cached before their extents are calculated.
+     */
+    synchronized List<Node> query(Rectangle2D rect, DrawRequest request) {
+        refresh(request);
+        Set<Node> candidates = new HashSet<>(unboundedNodes);
+        for (Node node : largeNodes) {
+            if (intersects(extents.get(node), rect)) {
+                candidates.add(node);
+            }
+        }
+        long xMin = getCell(rect.getMinX());
+        long xMax = getCell(rect.getMaxX());
+        long yMin = getCell(rect.getMinY());
+        long yMax = getCell(rect.getMaxY());
+        // Counted in doubles, as the rectangle may be unbounded
+        if (((double) xMax - xMin + 1) * ((double) yMax - yMin + 1) > cells.size()) {
+            for (List<Node> nodes : cells.values()) {
+                addIntersecting(nodes, rect, candidates);
+            }
+        } else {
+            for (long x = xMin; x <= xMax; x++) {
+                for (long y = yMin; y <= yMax; y++) {
+                    List<Node> nodes = cells.get(getKey(x, y));
+                    if (nodes != null) {
+                        addIntersecting(nodes, rect, candidates);
+                    }
+                }
+            }
+        }
+        List<Node> result = new ArrayList<>(candidates.size());
+        for (Node node : candidates) {
+            if (order.containsKey(node)) {
+                result.add(node);
+            }
+        }
+        result.sort(Comparator.comparingInt(order::get));
+        return result;
+    }
+
+    synchronized int size() {
+        return order.size();
+    }
+
+    private void addIntersecting(List<Node> nodes, Rectangle2D rect, Set<Node> candidates) {
+        for (Node node : nodes) {
+            if (intersects(extents.get(node), rect)) {
+                candidates.add(node);
+            }
+        }
+    }
+
+    // Unlike Rectangle2D.intersects, closed intervals are used, so that a point can be queried as an empty rectangle
+    private static boolean intersects(Rectangle2D rect1, Rectangle2D rect2) {
+        return (rect1.getMinX() <= rect2.getMaxX()) && (rect2.getMinX() <= rect1.getMaxX())
+                && (rect1.getMinY() <= rect2.getMaxY()) && (rect2.getMinY() <= rect1.getMaxY());
+    }
+
+    private void refresh(DrawRequest request) {
+        List<Object> currentTextSettings = getTextSettings();
+        if (!currentTextSettings.equals(textSettings)) {
+            invalidateAll();
+            textSettings = currentTextSettings;
+        }
+        Collection<Node> children = container.getChildren();
+        if (structureChanged || (children.size() != order.size())) {
+            // Resynchronise with the children, which also catches changes made without notification
+            order.clear();
+            for (Node node : children) {
+                order.put(node, order.size());
+            }
+            for (Node node : new ArrayList<>(extents.keySet())) {
+                if (!order.containsKey(node)) {
+                    removeEntry(node);
+                }
+            }
+            for (Node node : new ArrayList<>(unboundedNodes)) {
+                if (!order.containsKey(node)) {
+                    unboundedNodes.remove(node);
+                }
+            }
+            unpreparedNodes.retainAll(order.keySet());
+            for (Node node : children) {
+                if (!extents.containsKey(node) && !unboundedNodes.contains(node)) {
+                    dirtyNodes.add(node);
+                }
+            }
+            structureChanged = false;
+        }
+        if (request != null) {
+            dirtyNodes.addAll(unpreparedNodes);
+            unpreparedNodes.clear();
+            // Recaching the text may invalidate the nodes again, so they are iterated over a copy
+            for (Node node : new ArrayList<>(dirtyNodes)) {
+                if (order.containsKey(node)) {
+                    cacheRenderedText(node, request);
+                }
+            }
+        }
+        for (Node node : dirtyNodes) {
+            if (order.containsKey(node)) {
+                removeEntry(node);
+                addEntry(node, getExtent(node));
+                if (request == null) {
+                    unpreparedNodes.add(node);
+                }
+            }
+        }
+        dirtyNodes.clear();
+    }
+
+    private static void cacheRenderedText(Node node, DrawRequest request) {
+        if (node instanceof VisualComponent) {
+            ((VisualComponent) node).cacheRenderedText(request);
+        } else if (node instanceof VisualReplica) {
+            ((VisualReplica) node).cacheRenderedText(request);
+        }
+        for (Node child : node.getChildren()) {
+            cacheRenderedText(child, request);
+        }
+    }
+
+    private static List<Object> getTextSettings() {
+        return Arrays.asList(VisualCommonSettings.getLabelVisibility(), VisualCommonSettings.getLabelFontSize(),
+                VisualCommonSettings.getNameVisibility(), VisualCommonSettings.getNameFontSize(),
+                VisualCommonSettings.getShowAbsolutePaths(), VisualCommonSettings.getNodeSize());
+    }
+
+    private void addEntry(Node node, Rectangle2D extent) {
+        if (extent == null) {
+            unboundedNodes.add(node);
+            return;
+        }
+        extent = BoundingBoxHelper.expand(extent, MARGIN, MARGIN, MARGIN, MARGIN);
+        extents.put(node, extent);
+        long xMin = getCell(extent.getMinX());
+        long xMax = getCell(extent.getMaxX());
+        long yMin = getCell(extent.getMinY());
+        long yMax = getCell(extent.getMaxY());
+        if ((xMax - xMin + 1) * (yMax - yMin + 1) > MAX_CELL_COUNT) {
+            largeNodes.add(node);
+            return;
+        }
+        for (long x = xMin; x <= xMax; x++) {
+            for (long y = yMin; y <= yMax; y++) {
+                cells.computeIfAbsent(getKey(x, y), key -> new ArrayList<>()).add(node);
+            }
+        }
+    }
+
+    private void removeEntry(Node node) {
+        unboundedNodes.remove(node);
+        Rectangle2D extent = extents.remove(node);
+        if ((extent == null) || largeNodes.remove(node)) {
+            return;
+        }
+        long xMin = getCell(extent.getMinX());
+        long xMax = getCell(extent.getMaxX());
+        long yMin = getCell(extent.getMinY());
+        long yMax = getCell(extent.getMaxY());
+        for (long x = xMin; x <= xMax; x++) {
+            for (long y = yMin; y <= yMax; y++) {
+                Long key = getKey(x, y);
+                List<Node> nodes = cells.get(key);
+                if (nodes != null) {
+                    nodes.remove(node);
+                    if (nodes.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long getCell(double value) {
+        return (long) Math.floor(value / CELL_SIZE);
+    }
+
+    private static long getKey(long x, long y) {
+        return (x << 32) ^ (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Bounding box of the node together with the extents of its children, in the parent coordinates of the node.
+     * Null if the branch has no bounding box at all, or its bounding box is not finite.
+     */
+    static Rectangle2D getExtent(Node node) {
+        Rectangle2D result = null;
+        if (node instanceof Touchable) {
+            result = ((Touchable) node).getBoundingBox();
+            if (result == null) {
+                return null;
+            }
+        }
+        Rectangle2D childrenExtent = null;
+        for (Node child : node.getChildren()) {
+            Rectangle2D childExtent = getExtent(child);
+            // Only leaves that are neither drawn nor touched can be safely ignored
+            if ((childExtent == null) && ((child instanceof Drawable) || !child.getChildren().isEmpty())) {
+                return null;
+            }
+            childrenExtent = BoundingBoxHelper.union(childrenExtent, childExtent);
+        }
+        if ((childrenExtent != null) && (node instanceof Movable)) {
+            AffineTransform transform = ((Movable) node).getTransform();
+            childrenExtent = transform.createTransformedShape(childrenExtent).getBounds2D();
+        }
+        result = BoundingBoxHelper.union(result, childrenExtent);
+        if ((result == null) || !isFinite(result)) {
+            return null;
+        }
+        return result;
+    }
+
+    private static boolean isFinite(Rectangle2D rect) {
+        return Double.isFinite(rect.getMinX()) && Double.isFinite(rect.getMaxX())
+                && Double.isFinite(rect.getMinY()) && Double.isFinite(rect.getMaxY());
+    }
+
+}
@@ -0,0 +1,171 @@
+package org.workcraft.dom.visual;
+
+import org.workcraft.dom.Node;
+import org.workcraft.dom.visual.connections.VisualConnection;
+import org.workcraft.observation.*;
+import org.workcraft.utils.Hierarchy;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains spatial indices of large containers of a visual model. Transform and property changes of a node
+ * invalidate its entry and the entries of its ancestors and adjacent connections; hierarchy changes add and
+ * remove entries. State events of nodes outside the model (e.g. forwarded from the math model) may affect
+ * any node, and invalidate all entries. Nodes whose bounding box changes without a state event, such as on
+ * recaching of their rendered text, are invalidated by {@link #invalidateNode(Node)}.
+ */
+final class SpatialIndexTracker extends StateSupervisor {
+
+    // Trackers are held by the root observers, so the registry must not keep them or their roots alive
+    private static final Map<Node, WeakReference<SpatialIndexTracker>> trackers
+            = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AbstractVisualModel model;
+    // Lookups do not lock the map, so that nodes can be invalidated while an index is being refreshed
+    private final Map<Node, SpatialIndex> indices = new ConcurrentHashMap<>();
+
+    SpatialIndexTracker(AbstractVisualModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public void attach(Node root, boolean sendRootAddedEvent) {
+        super.attach(root, sendRootAddedEvent);
+        trackers.put(root, new WeakReference<>(this));
+    }
+
+    @Override
+    public void detach() {
+        trackers.remove(getRoot());
+        super.detach();
+        synchronized (indices) {
+            indices.clear();
+        }
+    }
+
+    /**
+     * Index of children of the container, or null if the container is too small to be indexed or
+     * it does not belong to a visual model.
+     */
+    static SpatialIndex getIndex(Node container) {
+        if ((container == null) || (container.getChildren().size() < SpatialIndex.MIN_CHILD_COUNT)) {
+            return null;
+        }
+        SpatialIndexTracker tracker = getTracker(container);
+        return tracker == null ? null : tracker.getOrCreateIndex(container);
+    }
+
+    /**
+     * Invalidates the entries of the node and its ancestors, as its bounding box changed without a state event.
+     */
+    static void invalidateNode(Node node) {
+        SpatialIndexTracker tracker = getTracker(node);
+        if ((tracker != null) && !tracker.indices.isEmpty()) {
+            tracker.invalidateAncestors(node);
+        }
+    }
+
+    private static SpatialIndexTracker getTracker(Node node) {
+        WeakReference<SpatialIndexTracker> reference = trackers.get(Hierarchy.getTopParent(node));
+        return reference == null ? null : reference.get();
+    }
+
+    private SpatialIndex getOrCreateIndex(Node container) {
+        synchronized (indices) {
+            return indices.computeIfAbsent(container, SpatialIndex::new);
+        }
+    }
+
+    @Override
+    public void handleHierarchyEvent(HierarchyEvent e) {
+        synchronized (indices) {
+            if (e instanceof NodesAddedEvent) {
+                Node parent = (Node) e.getSender();
+                for (Node node : e.getAffectedNodes()) {
+                    nodeAdded(parent, node);
+                }
+            } else if (e instanceof NodesDeletedEvent) {
+                for (Node node : e.getAffectedNodes()) {
+                    nodeRemoved((Node) e.getSender(), node);
+                }
+            } else if (e instanceof NodesReparentedEvent) {
+                // Nodes are added to the new parent with a separate event
+                for (Node node : e.getAffectedNodes()) {
+                    nodeRemoved(((NodesReparentedEvent) e).getOldParent(), node);
+                }
+            }
+        }
+    }
+
+    private void nodeAdded(Node parent, Node node) {
+        // Root of the model is added and removed without a parent
+        SpatialIndex index = parent == null ? null : indices.get(parent);
+        if (index != null) {
+            index.add(node);
+        }
+        invalidateAncestors(parent);
+    }
+
+    private void nodeRemoved(Node parent, Node node) {
+        SpatialIndex index = parent == null ? null : indices.get(parent);
+        if (index != null) {
+            index.remove(node);
+        }
+        removeIndices(node);
+        invalidateAncestors(parent);
+    }
+
+    private void removeIndices(Node node) {
+        // Small containers have no index, but their descendants still may have one
+        indices.remove(node);
+        for (Node child : node.getChildren()) {
+            removeIndices(child);
+        }
+    }
+
+    @Override
+    public void handleEvent(StateEvent e) {
+        if (e instanceof SelectionChangedEvent) {
+            return;
+        }
+        synchronized (indices) {
+            if (indices.isEmpty()) {
+                return;
+            }
+            Object sender = e.getSender();
+            if ((sender instanceof VisualNode) && (Hierarchy.getTopParent((Node) sender) == getRoot())) {
+                VisualNode node = (VisualNode) sender;
+                invalidateAncestors(node);
+                invalidateConnections(node);
+            } else {
+                for (SpatialIndex index : indices.values()) {
+                    index.invalidateAll();
+                }
+            }
+        }
+    }
+
+    private void invalidateAncestors(Node node) {
+        while ((node != null) && (node.getParent() != null)) {
+            SpatialIndex index = indices.get(node.getParent());
+            if (index != null) {
+                index.invalidate(node);
+            }
+            node = node.getParent();
+        }
+    }
+
+    private void invalidateConnections(Node node) {
+        if (node instanceof VisualNode) {
+            for (VisualConnection connection : model.getConnections((VisualNode) node)) {
+                invalidateAncestors(connection);
+            }
+        }
+        for (Node child : node.getChildren()) {
+            invalidateConnections(child);
+        }
+    }
+
+}
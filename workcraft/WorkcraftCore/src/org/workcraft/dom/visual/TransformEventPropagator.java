@@ -85,7 +85,8 @@ public class TransformEventPropagator extends HierarchySupervisor implements Sta
 
         if (node instanceof TransformObserver) {
             TransformObserver to = (TransformObserver) node;
-            LinkedList<Node> nodes = observerToNodes.get(to);
+            // Observer subscribes again if its node is added back (e.g. on undo)
+            LinkedList<Node> nodes = observerToNodes.remove(to);
             if (nodes != null) {
                 for (Node n : nodes) {
                     removeObserver(n, to);
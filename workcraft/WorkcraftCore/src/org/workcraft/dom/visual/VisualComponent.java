@@ -258,6 +258,7 @@ public class VisualComponent extends VisualTransformableNode implements Dependen
     protected void cacheLabelRenderedText(String text, Font font, Positioning positioning, Point2D offset) {
         if (labelRenderedText.isDifferent(text, font, positioning, offset)) {
             labelRenderedText = new RenderedText(text, font, positioning, offset);
+            boundingBoxChanged();
         }
     }
 
@@ -324,6 +325,7 @@ public class VisualComponent extends VisualTransformableNode implements Dependen
         text = Identifier.truncateNamespaceSeparator(text);
         if (nameRenderedText.isDifferent(text, font, positioning, offset)) {
             nameRenderedText = new RenderedText(text, font, positioning, offset);
+            boundingBoxChanged();
         }
     }
 
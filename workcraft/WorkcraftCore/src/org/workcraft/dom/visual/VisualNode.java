@@ -98,4 +98,12 @@ public abstract class VisualNode implements Properties, Node, Touchable, Stylabl
     public void mixStyle(Stylable... srcs) {
     }
 
+    /**
+     * Notifies the spatial index of the parent container that the bounding box of the node has changed without
+     * a state event, e.g. after its rendered text was recached while drawing.
+     */
+    protected void boundingBoxChanged() {
+        SpatialIndexTracker.invalidateNode(this);
+    }
+
 }
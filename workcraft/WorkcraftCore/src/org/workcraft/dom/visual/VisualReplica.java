@@ -141,6 +141,7 @@ public class VisualReplica extends VisualTransformableNode implements Replica, D
     protected void cacheNameRenderedText(String text, Font font, Positioning positioning, Point2D offset) {
         if (nameRenderedText.isDifferent(text, font, positioning, offset)) {
             nameRenderedText = new RenderedText(text, font, positioning, offset);
+            boundingBoxChanged();
         }
     }
 
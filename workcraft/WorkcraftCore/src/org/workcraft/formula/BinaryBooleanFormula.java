@@ -1,13 +1,22 @@
 package org.workcraft.formula;
 
+import java.util.Objects;
+
 public abstract class BinaryBooleanFormula implements BooleanFormula {
 
     private final BooleanFormula x;
     private final BooleanFormula y;
+    private final int hash;
 
     public BinaryBooleanFormula(BooleanFormula x, BooleanFormula y) {
         this.x = x;
         this.y = y;
+        // Structural hash, so that equal formulas over the same variables get the same hash (see FormulaFactory)
+        hash = getHash(getClass(), x, y);
+    }
+
+    static int getHash(Class<? extends BinaryBooleanFormula> type, BooleanFormula x, BooleanFormula y) {
+        return 31 * (31 * type.getName().hashCode() + Objects.hashCode(x)) + Objects.hashCode(y);
     }
 
     public BooleanFormula getX() {
@@ -18,4 +27,9 @@ public abstract class BinaryBooleanFormula implements BooleanFormula {
         return y;
     }
 
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
 }
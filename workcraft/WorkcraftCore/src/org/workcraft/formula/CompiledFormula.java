@@ -0,0 +1,239 @@
+package org.workcraft.formula;
+
+import org.workcraft.formula.bdd.BddManager;
+import org.workcraft.formula.visitors.BooleanVisitor;
+import org.workcraft.formula.workers.BooleanWorker;
+import org.workcraft.formula.workers.DumbBooleanWorker;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Boolean function compiled for repeated three-valued evaluation under partial assignments of its variables.
+ * The function is evaluated to a constant if it has the same value for all completions of the unassigned
+ * variables, and to null otherwise. Functions of up to {@link #MAX_TABLE_VARIABLE_COUNT} variables are compiled
+ * into a truth table, larger functions are decided on their BDD in the shared {@link BddManager}. Assignments
+ * are passed as bit masks in the order of {@link #getVariables()}, so only the first 64 variables can be assigned.
+ */
+public final class CompiledFormula {
+
+    public static final int MAX_TABLE_VARIABLE_COUNT = 16;
+
+    private static final int WORD_BITS = 64;
+    private static final long[] VARIABLE_WORDS = {
+        0xAAAAAAAAAAAAAAAAL,
+        0xCCCCCCCCCCCCCCCCL,
+        0xF0F0F0F0F0F0F0F0L,
+        0xFF00FF00FF00FF00L,
+        0xFFFF0000FFFF0000L,
+        0xFFFFFFFF00000000L,
+    };
+
+    private static final Map<BooleanFormula, CompiledFormula> cache
+            = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final List<BooleanVariable> variables;
+    private final long[] table;
+    // The formula is the key of the cache, so it is only referenced weakly
+    private final WeakReference<BooleanFormula> formulaReference;
+
+    private CompiledFormula(BooleanFormula formula) {
+        variables = Collections.unmodifiableList(FormulaUtils.extractOrderedVariables(formula));
+        if (variables.size() <= MAX_TABLE_VARIABLE_COUNT) {
+            table = formula.accept(new TableGenerator(variables));
+            formulaReference = null;
+        } else {
+            table = null;
+            formulaReference = new WeakReference<>(formula);
+        }
+    }
+
+    /**
+     * Compiled function of the formula, which is shared for as long as the formula object is reachable.
+     */
+    public static CompiledFormula compile(BooleanFormula formula) {
+        return cache.computeIfAbsent(formula, CompiledFormula::new);
+    }
+
+    public List<BooleanVariable> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Value of the function for all completions of the assignment, or null if it depends on unassigned variables.
+     *
+     * @param assignedMask bits of the assigned variables
+     * @param valueMask values of the assigned variables (bits of unassigned variables are ignored)
+     */
+    public Boolean evaluate(long assignedMask, long valueMask) {
+        return (table != null) ? evaluateTable(assignedMask, valueMask) : evaluateBdd(assignedMask, valueMask);
+    }
+
+    /**
+     * Value of the function for all completions of the assignment given by the value of each variable
+     * at its position in {@link #getVariables()}, where null stands for an unassigned variable.
+     */
+    public Boolean evaluate(IntFunction<Boolean> assignment) {
+        long assignedMask = 0;
+        long valueMask = 0;
+        int count = Math.min(variables.size(), WORD_BITS);
+        for (int i = 0; i < count; i++) {
+            Boolean value = assignment.apply(i);
+            if (value != null) {
+                assignedMask |= 1L << i;
+                if (value) {
+                    valueMask |= 1L << i;
+                }
+            }
+        }
+        return evaluate(assignedMask, valueMask);
+    }
+
+    private Boolean evaluateTable(long assignedMask, long valueMask) {
+        int fullMask = (1 << variables.size()) - 1;
+        int freeMask = fullMask & ~(int) assignedMask;
+        int base = fullMask & (int) assignedMask & (int) valueMask;
+        boolean result = getTableBit(base);
+        // Enumerate all subsets of the unassigned variables, stopping at the first different value
+        for (int subset = freeMask; subset != 0; subset = (subset - 1) & freeMask) {
+            if (getTableBit(base | subset) != result) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    private boolean getTableBit(int index) {
+        return (table[index / WORD_BITS] & (1L << (index % WORD_BITS))) != 0;
+    }
+
+    private Boolean evaluateBdd(long assignedMask, long valueMask) {
+        BooleanFormula formula = formulaReference.get();
+        if (formula == null) {
+            return null;
+        }
+        BooleanWorker worker = DumbBooleanWorker.getInstance();
+        BooleanFormula cube = One.getInstance();
+        int count = Math.min(variables.size(), WORD_BITS);
+        for (int i = 0; i < count; i++) {
+            long bit = 1L << i;
+            if ((assignedMask & bit) != 0) {
+                BooleanVariable variable = variables.get(i);
+                BooleanFormula literal = (valueMask & bit) != 0 ? variable : worker.not(variable);
+                cube = (cube == One.getInstance()) ? literal : worker.and(cube, literal);
+            }
+        }
+        BddManager bddManager = BddManager.getInstance();
+        if (bddManager.implies(cube, formula)) {
+            return true;
+        }
+        if (bddManager.implies(cube, worker.not(formula))) {
+            return false;
+        }
+        return null;
+    }
+
+    /**
+     * Truth table of the formula, where bit i of the entry index is the value of the i-th variable.
+     */
+    private static final class TableGenerator implements BooleanVisitor<long[]> {
+
+        private final Map<BooleanVariable, Integer> variableIndices = new HashMap<>();
+        private final int wordCount;
+
+        TableGenerator(List<BooleanVariable> variables) {
+            for (BooleanVariable variable : variables) {
+                variableIndices.put(variable, variableIndices.size());
+            }
+            int entryCount = 1 << variables.size();
+            wordCount = Math.max(1, entryCount / WORD_BITS);
+        }
+
+        @Override
+        public long[] visit(Zero node) {
+            return new long[wordCount];
+        }
+
+        @Override
+        public long[] visit(One node) {
+            long[] result = new long[wordCount];
+            Arrays.fill(result, -1L);
+            return result;
+        }
+
+        @Override
+        public long[] visit(BooleanVariable variable) {
+            int index = variableIndices.get(variable);
+            long[] result = new long[wordCount];
+            for (int i = 0; i < wordCount; i++) {
+                if (index < VARIABLE_WORDS.length) {
+                    result[i] = VARIABLE_WORDS[index];
+                } else {
+                    result[i] = ((i >> (index - VARIABLE_WORDS.length)) & 1) != 0 ? -1L : 0L;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public long[] visit(Not node) {
+            long[] result = node.getX().accept(this);
+            for (int i = 0; i < wordCount; i++) {
+                result[i] = ~result[i];
+            }
+            return result;
+        }
+
+        @Override
+        public long[] visit(And node) {
+            long[] result = node.getX().accept(this);
+            long[] y = node.getY().accept(this);
+            for (int i = 0; i < wordCount; i++) {
+                result[i] &= y[i];
+            }
+            return result;
+        }
+
+        @Override
+        public long[] visit(Or node) {
+            long[] result = node.getX().accept(this);
+            long[] y = node.getY().accept(this);
+            for (int i = 0; i < wordCount; i++) {
+                result[i] |= y[i];
+            }
+            return result;
+        }
+
+        @Override
+        public long[] visit(Xor node) {
+            long[] result = node.getX().accept(this);
+            long[] y = node.getY().accept(this);
+            for (int i = 0; i < wordCount; i++) {
+                result[i] ^= y[i];
+            }
+            return result;
+        }
+
+        @Override
+        public long[] visit(Iff node) {
+            long[] result = node.getX().accept(this);
+            long[] y = node.getY().accept(this);
+            for (int i = 0; i < wordCount; i++) {
+                result[i] = ~(result[i] ^ y[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public long[] visit(Imply node) {
+            long[] result = node.getX().accept(this);
+            long[] y = node.getY().accept(this);
+            for (int i = 0; i < wordCount; i++) {
+                result[i] = ~result[i] | y[i];
+            }
+            return result;
+        }
+    }
+
+}
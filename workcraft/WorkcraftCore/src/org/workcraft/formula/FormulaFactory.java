@@ -0,0 +1,272 @@
+package org.workcraft.formula;
+
+import org.workcraft.formula.visitors.BooleanVisitor;
+import org.workcraft.formula.visitors.Inverter;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Unique table of Boolean formula nodes (hash-consing). The factory methods return the canonical node for the
+ * given operator and operands, so formulas built bottom-up by the factory (or brought to this form by
+ * {@link #intern(BooleanFormula)}) are structurally equal if and only if they are the same object. Variables
+ * and constants are canonical by themselves. Nodes are found by their structural hash, which is precomputed on
+ * construction, and the table only references them weakly.
+ */
+public final class FormulaFactory {
+
+    private static final FormulaFactory instance = new FormulaFactory();
+
+    private static final class NodeReference extends WeakReference<BooleanFormula> {
+        private final int hash;
+
+        NodeReference(BooleanFormula node, ReferenceQueue<BooleanFormula> queue) {
+            super(node, queue);
+            hash = node.hashCode();
+        }
+    }
+
+    private final Map<Integer, List<NodeReference>> uniqueTable = new HashMap<>();
+    private final ReferenceQueue<BooleanFormula> queue = new ReferenceQueue<>();
+    // Canonical formulas of previously interned formulas (values are weak, as they may be the keys themselves)
+    private final Map<BooleanFormula, WeakReference<BooleanFormula>> internCache = new WeakHashMap<>();
+    // Results of transformations of canonical formulas, indexed by a variable and a transformation tag. Both the
+    // variables and the results are only referenced weakly, as a variable may strongly reference the formula
+    // (e.g. a circuit contact and its set function), which would then never be collected.
+    private final Map<BooleanFormula, Map<BooleanVariable, Map<Object, WeakReference<BooleanFormula>>>> transformCache
+            = new WeakHashMap<>();
+
+    private FormulaFactory() {
+    }
+
+    public static FormulaFactory getInstance() {
+        return instance;
+    }
+
+    public synchronized BooleanFormula not(BooleanFormula x) {
+        return makeNot(intern(x));
+    }
+
+    public synchronized BooleanFormula and(BooleanFormula x, BooleanFormula y) {
+        return makeBinary(And.class, intern(x), intern(y));
+    }
+
+    public synchronized BooleanFormula or(BooleanFormula x, BooleanFormula y) {
+        return makeBinary(Or.class, intern(x), intern(y));
+    }
+
+    public synchronized BooleanFormula xor(BooleanFormula x, BooleanFormula y) {
+        return makeBinary(Xor.class, intern(x), intern(y));
+    }
+
+    public synchronized BooleanFormula imply(BooleanFormula x, BooleanFormula y) {
+        return makeBinary(Imply.class, intern(x), intern(y));
+    }
+
+    public synchronized BooleanFormula iff(BooleanFormula x, BooleanFormula y) {
+        return makeBinary(Iff.class, intern(x), intern(y));
+    }
+
+    /**
+     * Complement of the formula, as in {@link FormulaUtils#invert(BooleanFormula)}, with the negation interned.
+     */
+    public BooleanFormula invert(BooleanFormula formula) {
+        BooleanFormula result = formula.accept(Inverter.getInstance());
+        return result instanceof Not ? not(((Not) result).getX()) : result;
+    }
+
+    public synchronized boolean isCanonical(BooleanFormula formula) {
+        if ((formula instanceof Not) || (formula instanceof BinaryBooleanFormula)) {
+            List<NodeReference> bucket = uniqueTable.get(formula.hashCode());
+            if (bucket != null) {
+                for (NodeReference reference : bucket) {
+                    if (reference.get() == formula) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        return (formula instanceof BooleanVariable) || (formula instanceof Zero) || (formula instanceof One);
+    }
+
+    /**
+     * Canonical formula that is structurally equal to the given one. Normal forms, clauses and literals are
+     * interned as the formulas they represent.
+     */
+    public synchronized BooleanFormula intern(BooleanFormula formula) {
+        if ((formula == null) || isCanonical(formula)) {
+            return formula;
+        }
+        WeakReference<BooleanFormula> reference = internCache.get(formula);
+        BooleanFormula result = reference == null ? null : reference.get();
+        if (result == null) {
+            result = formula.accept(new Interner());
+            internCache.put(formula, new WeakReference<>(result));
+        }
+        return result;
+    }
+
+    /**
+     * Canonical result of a transformation of the formula with respect to a variable, which is computed once for
+     * each canonical formula, variable and transformation tag (e.g. the constant value for cofactoring). The tag
+     * is held strongly and must not reference the formula or the variable.
+     */
+    public synchronized BooleanFormula transform(BooleanFormula formula, BooleanVariable variable, Object tag,
+            Function<BooleanFormula, BooleanFormula> transformation) {
+
+        BooleanFormula canonicalFormula = intern(formula);
+        Map<Object, WeakReference<BooleanFormula>> results = transformCache
+                .computeIfAbsent(canonicalFormula, f -> new WeakHashMap<>())
+                .computeIfAbsent(variable, v -> new HashMap<>());
+        WeakReference<BooleanFormula> reference = results.get(tag);
+        BooleanFormula result = reference == null ? null : reference.get();
+        if (result == null) {
+            result = intern(transformation.apply(canonicalFormula));
+            results.put(tag, new WeakReference<>(result));
+        }
+        return result;
+    }
+
+    private BooleanFormula makeNot(BooleanFormula x) {
+        BooleanFormula result = find(Not.getHash(x), Not.class, x, null);
+        return result == null ? add(new Not(x)) : result;
+    }
+
+    private BooleanFormula makeBinary(Class<? extends BinaryBooleanFormula> type, BooleanFormula x, BooleanFormula y) {
+        BooleanFormula result = find(BinaryBooleanFormula.getHash(type, x, y), type, x, y);
+        if (result == null) {
+            if (type == And.class) {
+                result = new And(x, y);
+            } else if (type == Or.class) {
+                result = new Or(x, y);
+            } else if (type == Xor.class) {
+                result = new Xor(x, y);
+            } else if (type == Imply.class) {
+                result = new Imply(x, y);
+            } else {
+                result = new Iff(x, y);
+            }
+            add(result);
+        }
+        return result;
+    }
+
+    private BooleanFormula find(int hash, Class<? extends BooleanFormula> type, BooleanFormula x, BooleanFormula y) {
+        expungeStaleNodes();
+        List<NodeReference> bucket = uniqueTable.get(hash);
+        if (bucket != null) {
+            for (NodeReference reference : bucket) {
+                BooleanFormula node = reference.get();
+                if ((node != null) && (node.getClass() == type)) {
+                    if (node instanceof Not) {
+                        if (((Not) node).getX() == x) {
+                            return node;
+                        }
+                    } else {
+                        BinaryBooleanFormula binaryNode = (BinaryBooleanFormula) node;
+                        if ((binaryNode.getX() == x) && (binaryNode.getY() == y)) {
+                            return node;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private BooleanFormula add(BooleanFormula node) {
+        NodeReference reference = new NodeReference(node, queue);
+        uniqueTable.computeIfAbsent(reference.hash, key -> new ArrayList<>(1)).add(reference);
+        return node;
+    }
+
+    private void expungeStaleNodes() {
+        Reference<? extends BooleanFormula> reference;
+        while ((reference = queue.poll()) != null) {
+            int hash = ((NodeReference) reference).hash;
+            List<NodeReference> bucket = uniqueTable.get(hash);
+            if (bucket != null) {
+                bucket.remove(reference);
+                if (bucket.isEmpty()) {
+                    uniqueTable.remove(hash);
+                }
+            }
+        }
+    }
+
+    public synchronized int getNodeCount() {
+        expungeStaleNodes();
+        int result = 0;
+        for (List<NodeReference> bucket : uniqueTable.values()) {
+            result += bucket.size();
+        }
+        return result;
+    }
+
+    /**
+     * Bottom-up interning of a formula, visiting each shared subformula once.
+     */
+    private final class Interner implements BooleanVisitor<BooleanFormula> {
+
+        private final Map<BooleanFormula, BooleanFormula> visited = new IdentityHashMap<>();
+
+        private BooleanFormula visitChild(BooleanFormula child) {
+            BooleanFormula result = visited.get(child);
+            if (result == null) {
+                result = isCanonical(child) ? child : child.accept(this);
+                visited.put(child, result);
+            }
+            return result;
+        }
+
+        @Override
+        public BooleanFormula visit(Zero node) {
+            return node;
+        }
+
+        @Override
+        public BooleanFormula visit(One node) {
+            return node;
+        }
+
+        @Override
+        public BooleanFormula visit(BooleanVariable node) {
+            return node;
+        }
+
+        @Override
+        public BooleanFormula visit(Not node) {
+            return makeNot(visitChild(node.getX()));
+        }
+
+        @Override
+        public BooleanFormula visit(And node) {
+            return makeBinary(And.class, visitChild(node.getX()), visitChild(node.getY()));
+        }
+
+        @Override
+        public BooleanFormula visit(Or node) {
+            return makeBinary(Or.class, visitChild(node.getX()), visitChild(node.getY()));
+        }
+
+        @Override
+        public BooleanFormula visit(Iff node) {
+            return makeBinary(Iff.class, visitChild(node.getX()), visitChild(node.getY()));
+        }
+
+        @Override
+        public BooleanFormula visit(Xor node) {
+            return makeBinary(Xor.class, visitChild(node.getX()), visitChild(node.getY()));
+        }
+
+        @Override
+        public BooleanFormula visit(Imply node) {
+            return makeBinary(Imply.class, visitChild(node.getX()), visitChild(node.getY()));
+        }
+    }
+
+}
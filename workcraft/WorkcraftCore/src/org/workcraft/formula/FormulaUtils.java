@@ -10,11 +10,20 @@ import java.util.*;
 public class FormulaUtils {
 
     public static BooleanFormula replaceOne(BooleanFormula formula, BooleanVariable variable) {
-        return replace(formula, variable, One.getInstance(), CleverBooleanWorker.getInstance());
+        return replaceConstant(formula, variable, One.getInstance());
     }
 
     public static BooleanFormula replaceZero(BooleanFormula formula, BooleanVariable variable) {
-        return replace(formula, variable, Zero.getInstance(), CleverBooleanWorker.getInstance());
+        return replaceConstant(formula, variable, Zero.getInstance());
+    }
+
+    private static BooleanFormula replaceConstant(BooleanFormula formula, BooleanVariable variable, BooleanFormula value) {
+        if (formula == null) {
+            return null;
+        }
+        // Cofactors are memoised, as the same gate functions are often simplified in many passes
+        return FormulaFactory.getInstance().transform(formula, variable, value,
+                f -> replace(f, variable, value, CleverBooleanWorker.getInstance()));
     }
 
     public static BooleanFormula replace(BooleanFormula formula, BooleanVariable param, BooleanFormula value) {
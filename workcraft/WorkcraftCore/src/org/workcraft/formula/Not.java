@@ -2,12 +2,22 @@ package org.workcraft.formula;
 
 import org.workcraft.formula.visitors.BooleanVisitor;
 
+import java.util.Objects;
+
 public class Not implements BooleanFormula {
 
+    private static final int HASH_SEED = Not.class.getName().hashCode();
+
     private final BooleanFormula x;
+    private final int hash;
 
     public Not(BooleanFormula x) {
         this.x = x;
+        hash = getHash(x);
+    }
+
+    static int getHash(BooleanFormula x) {
+        return 31 * HASH_SEED + Objects.hashCode(x);
     }
 
     @Override
@@ -19,4 +29,9 @@ public class Not implements BooleanFormula {
         return x;
     }
 
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
 }
@@ -5,13 +5,127 @@ import org.workcraft.formula.*;
 import org.workcraft.formula.visitors.BooleanVisitor;
 import org.workcraft.types.Func2;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
 
+/**
+ * Boolean engine on top of a JDD node table that grows on demand and is meant to be long-lived, see
+ * {@link #getInstance()}. The BDD of every formula (and its sub-formulas) is memoised for as long as the formula
+ * object is reachable, so repeated queries on the same formulas (e.g. driver functions of a circuit) do not
+ * rebuild them. Variables and formulas are held weakly, and BDD nodes of collected formulas are released to JDD
+ * garbage collection. All public methods are synchronised, as JDD is not thread-safe.
+ */
 public class BddManager {
 
-//    private final BDD bdd = new DebugBDD(1000, 100);
-    private final BDD bdd = new BDD(1000, 100);
-    private final Map<BooleanVariable, Integer> varMap = new HashMap<>();
+    public enum Unateness {
+        // Function does not depend on the variable, i.e. it is both positive and negative unate in it
+        INDEPENDENT,
+        POSITIVE,
+        NEGATIVE,
+        BINATE,
+    }
+
+    /**
+     * Notified when nodes are removed from the node table by garbage collection, or when the table grows.
+     */
+    public interface MetricsListener {
+        void nodeTableChanged(BddManager manager);
+    }
+
+    private static final int DEFAULT_NODE_COUNT = 1000;
+    private static final int DEFAULT_CACHE_SIZE = 100;
+
+    private static BddManager instance = null;
+
+    private final Engine bdd;
+    private final Map<FormulaReference, FormulaReference> varMap = new HashMap<>();
+    private final ReferenceQueue<BooleanFormula> varQueue = new ReferenceQueue<>();
+    // Variables of collected BooleanVariable objects, which can be reused for new ones
+    private final Deque<Integer> freeVars = new ArrayDeque<>();
+    private final Map<FormulaReference, FormulaReference> formulaMap = new HashMap<>();
+    private final ReferenceQueue<BooleanFormula> formulaQueue = new ReferenceQueue<>();
+    private final BddGenerator generator = new BddGenerator();
+    private MetricsListener metricsListener = null;
+
+    public BddManager() {
+        this(DEFAULT_NODE_COUNT, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Initial sizes only, as the node table and the operation caches grow when needed.
+     */
+    public BddManager(int nodeCount, int cacheSize) {
+        bdd = new Engine(nodeCount, cacheSize);
+    }
+
+    /**
+     * Shared manager for queries that are not tied to a specific model.
+     */
+    public static synchronized BddManager getInstance() {
+        if (instance == null) {
+            instance = new BddManager();
+        }
+        return instance;
+    }
+
+    private final class Engine extends BDD {
+
+        Engine(int nodeCount, int cacheSize) {
+            super(nodeCount, cacheSize);
+        }
+
+        @Override
+        protected void post_removal_callbak() {
+            super.post_removal_callbak();
+            if (metricsListener != null) {
+                metricsListener.nodeTableChanged(BddManager.this);
+            }
+        }
+
+        int getGcCount() {
+            return stat_gc_count;
+        }
+
+        long getGcFreedNodeCount() {
+            return stat_gc_freed;
+        }
+
+        int getTableSize() {
+            return table_size;
+        }
+    }
+
+    /**
+     * Weak reference with identity semantics, which also holds the referenced BDD of the formula.
+     */
+    private static final class FormulaReference extends WeakReference<BooleanFormula> {
+        private final int hash;
+        private final int node;
+
+        FormulaReference(BooleanFormula formula, int node, ReferenceQueue<BooleanFormula> queue) {
+            super(formula, queue);
+            this.hash = System.identityHashCode(formula);
+            this.node = node;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FormulaReference)) {
+                return false;
+            }
+            BooleanFormula formula = get();
+            return (formula != null) && (formula == ((FormulaReference) obj).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 
     private class BddGenerator implements BooleanVisitor<Integer> {
 
@@ -27,15 +141,12 @@ public class BddManager {
 
         @Override
         public Integer visit(BooleanVariable node) {
-            return addVariable(node);
+            return getVariable(node);
         }
 
         @Override
         public Integer visit(Not node) {
-            int x = node.getX().accept(this);
-            int result = bdd.ref(bdd.not(x));
-            bdd.deref(x);
-            return result;
+            return bdd.ref(bdd.not(getFormula(node.getX())));
         }
 
         @Override
@@ -64,74 +175,186 @@ public class BddManager {
         }
 
         public Integer visitBinaryOperator(BinaryBooleanFormula node, Func2<Integer, Integer, Integer> func) {
-            int x = node.getX().accept(this);
-            int y = node.getY().accept(this);
-            int result = bdd.ref(func.eval(x, y));
-            bdd.deref(x);
-            bdd.deref(y);
-            return result;
+            // Operand BDDs are referenced by the memo, so they survive garbage collection during the operation
+            int x = getFormula(node.getX());
+            int y = getFormula(node.getY());
+            return bdd.ref(func.eval(x, y));
+        }
+    }
+
+    private void releaseCollected() {
+        FormulaReference ref;
+        while ((ref = (FormulaReference) formulaQueue.poll()) != null) {
+            if (formulaMap.remove(ref) != null) {
+                bdd.deref(ref.node);
+            }
+        }
+        while ((ref = (FormulaReference) varQueue.poll()) != null) {
+            if (varMap.remove(ref) != null) {
+                freeVars.push(ref.node);
+            }
         }
     }
 
-    private int addVariable(BooleanVariable var) {
-        return varMap.computeIfAbsent(var, key -> bdd.createVar());
+    private int getVariable(BooleanVariable var) {
+        FormulaReference ref = varMap.get(new FormulaReference(var, 0, null));
+        if (ref != null) {
+            return ref.node;
+        }
+        // Variable nodes are never freed by JDD, so they are recycled for new variables instead
+        int node = freeVars.isEmpty() ? bdd.createVar() : freeVars.pop();
+        ref = new FormulaReference(var, node, varQueue);
+        varMap.put(ref, ref);
+        return node;
     }
 
-    private int addFormula(BooleanFormula formula) {
-        return formula.accept(new BddGenerator());
+    /**
+     * BDD of the formula, which stays referenced by the memo while the formula is reachable.
+     */
+    private int getFormula(BooleanFormula formula) {
+        if ((formula instanceof Zero) || (formula instanceof One) || (formula instanceof BooleanVariable)) {
+            return formula.accept(generator);
+        }
+        FormulaReference ref = formulaMap.get(new FormulaReference(formula, 0, null));
+        if (ref != null) {
+            return ref.node;
+        }
+        int node = formula.accept(generator);
+        ref = new FormulaReference(formula, node, formulaQueue);
+        formulaMap.put(ref, ref);
+        return node;
     }
 
-    public boolean isBinate(BooleanFormula formula, BooleanVariable var) {
-        return !isPositiveUnate(formula, var) && !isNegativeUnate(formula, var);
+    private int getFormulaBdd(BooleanFormula formula) {
+        releaseCollected();
+        return getFormula(formula);
     }
 
-    public boolean isPositiveUnate(BooleanFormula formula, BooleanVariable var) {
-        BooleanFormula var0Formula = FormulaUtils.replaceZero(formula, var);
-        BooleanFormula var1Formula = FormulaUtils.replaceOne(formula, var);
-        return implies(var0Formula, var1Formula);
+    public synchronized boolean isBinate(BooleanFormula formula, BooleanVariable var) {
+        return getUnateness(formula, var) == Unateness.BINATE;
     }
 
-    public boolean isNegativeUnate(BooleanFormula formula, BooleanVariable var) {
-        BooleanFormula var0Formula = FormulaUtils.replaceZero(formula, var);
-        BooleanFormula var1Formula = FormulaUtils.replaceOne(formula, var);
-        return implies(var1Formula, var0Formula);
+    public synchronized boolean isPositiveUnate(BooleanFormula formula, BooleanVariable var) {
+        Unateness unateness = getUnateness(formula, var);
+        return (unateness == Unateness.POSITIVE) || (unateness == Unateness.INDEPENDENT);
     }
 
-    public boolean implies(BooleanFormula leftFormula, BooleanFormula rightFormula) {
-        int leftBdd = addFormula(leftFormula);
-        int rightBdd = addFormula(rightFormula);
-        int notRightBdd = bdd.ref(bdd.not(rightBdd));
+    public synchronized boolean isNegativeUnate(BooleanFormula formula, BooleanVariable var) {
+        Unateness unateness = getUnateness(formula, var);
+        return (unateness == Unateness.NEGATIVE) || (unateness == Unateness.INDEPENDENT);
+    }
 
-        Set<BooleanVariable> vars = new HashSet<>();
-        vars.addAll(FormulaUtils.extractOrderedVariables(leftFormula));
-        vars.addAll(FormulaUtils.extractOrderedVariables(rightFormula));
-        int cube = buildCube(vars);
+    /**
+     * Unateness of the function in the variable, decided on the cofactors of its BDD.
+     */
+    public synchronized Unateness getUnateness(BooleanFormula formula, BooleanVariable var) {
+        int node = getFormulaBdd(formula);
+        return getUnateness(node, getVariable(var));
+    }
 
-        boolean result = bdd.relProd(leftBdd, notRightBdd, cube) == bdd.getZero();
-        bdd.deref(notRightBdd);
-        bdd.deref(rightBdd);
-        bdd.deref(leftBdd);
-        bdd.deref(cube);
+    /**
+     * Unateness of the function in each of its variables, in the order of their appearance in the formula.
+     */
+    public synchronized Map<BooleanVariable, Unateness> classifyVariables(BooleanFormula formula) {
+        Map<BooleanVariable, Unateness> result = new LinkedHashMap<>();
+        int node = getFormulaBdd(formula);
+        for (BooleanVariable var : FormulaUtils.extractOrderedVariables(formula)) {
+            result.put(var, getUnateness(node, getVariable(var)));
+        }
         return result;
     }
 
-    private int buildCube(Collection<BooleanVariable> vars) {
-        int cube = bdd.getOne();
-        for (BooleanVariable var : vars) {
-            int oldCube = cube;
-            cube = bdd.ref(bdd.and(oldCube, addVariable(var)));
-            bdd.deref(oldCube);
+    public synchronized List<BooleanVariable> getBinateVariables(BooleanFormula formula) {
+        List<BooleanVariable> result = new ArrayList<>();
+        for (Map.Entry<BooleanVariable, Unateness> entry : classifyVariables(formula).entrySet()) {
+            if (entry.getValue() == Unateness.BINATE) {
+                result.add(entry.getKey());
+            }
         }
-        return cube;
+        return result;
     }
 
-    public boolean equal(BooleanFormula firstFormula, BooleanFormula secondFormula) {
-        int firstBdd = addFormula(firstFormula);
-        int secondBdd = addFormula(secondFormula);
-        boolean result = firstBdd == secondBdd;
-        bdd.deref(firstBdd);
-        bdd.deref(secondBdd);
+    private Unateness getUnateness(int node, int varNode) {
+        int notVarNode = bdd.ref(bdd.not(varNode));
+        int cofactor1 = bdd.ref(bdd.restrict(node, varNode));
+        int cofactor0 = bdd.ref(bdd.restrict(node, notVarNode));
+        Unateness result;
+        if (cofactor0 == cofactor1) {
+            result = Unateness.INDEPENDENT;
+        } else if (implies(cofactor0, cofactor1)) {
+            result = Unateness.POSITIVE;
+        } else if (implies(cofactor1, cofactor0)) {
+            result = Unateness.NEGATIVE;
+        } else {
+            result = Unateness.BINATE;
+        }
+        bdd.deref(cofactor0);
+        bdd.deref(cofactor1);
+        bdd.deref(notVarNode);
         return result;
     }
 
+    private boolean implies(int leftNode, int rightNode) {
+        return bdd.imp(leftNode, rightNode) == bdd.getOne();
+    }
+
+    public synchronized boolean implies(BooleanFormula leftFormula, BooleanFormula rightFormula) {
+        int leftNode = getFormulaBdd(leftFormula);
+        int rightNode = getFormula(rightFormula);
+        return implies(leftNode, rightNode);
+    }
+
+    public synchronized boolean equal(BooleanFormula firstFormula, BooleanFormula secondFormula) {
+        int firstNode = getFormulaBdd(firstFormula);
+        int secondNode = getFormula(secondFormula);
+        return firstNode == secondNode;
+    }
+
+    /**
+     * Equality of the first formula to each of the given formulas.
+     */
+    public synchronized boolean[] equal(BooleanFormula formula, List<BooleanFormula> formulas) {
+        boolean[] result = new boolean[formulas.size()];
+        int node = getFormulaBdd(formula);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getFormula(formulas.get(i)) == node;
+        }
+        return result;
+    }
+
+    public synchronized void setMetricsListener(MetricsListener value) {
+        metricsListener = value;
+    }
+
+    /**
+     * Number of nodes in use, including the nodes that are no longer referenced but are not collected yet.
+     */
+    public synchronized int getNodeCount() {
+        return bdd.getTableSize() - bdd.debug_free_nodes_count();
+    }
+
+    public synchronized int getTableSize() {
+        return bdd.getTableSize();
+    }
+
+    public synchronized int getVariableCount() {
+        return bdd.numberOfVariables();
+    }
+
+    public synchronized int getCachedFormulaCount() {
+        return formulaMap.size();
+    }
+
+    public synchronized int getGcCount() {
+        return bdd.getGcCount();
+    }
+
+    public synchronized long getGcFreedNodeCount() {
+        return bdd.getGcFreedNodeCount();
+    }
+
+    public synchronized long getMemoryUsage() {
+        return bdd.getMemoryUsage();
+    }
+
 }
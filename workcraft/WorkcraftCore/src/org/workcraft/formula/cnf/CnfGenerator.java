@@ -3,11 +3,27 @@ package org.workcraft.formula.cnf;
 import org.workcraft.formula.*;
 import org.workcraft.formula.visitors.BooleanVisitor;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public class CnfGenerator {
 
     private static class CnfVisitor implements BooleanVisitor<Cnf> {
 
         private boolean negation = false;
+        // Forms of the visited subformulas and of their negations, so that shared subformulas are visited once
+        private final Map<BooleanFormula, Cnf> results = new IdentityHashMap<>();
+        private final Map<BooleanFormula, Cnf> negatedResults = new IdentityHashMap<>();
+
+        private Cnf generate(BooleanFormula node) {
+            Map<BooleanFormula, Cnf> nodeResults = negation ? negatedResults : results;
+            Cnf result = nodeResults.get(node);
+            if (result == null) {
+                result = node.accept(this);
+                nodeResults.put(node, result);
+            }
+            return result;
+        }
 
         @Override
         public Cnf visit(Zero node) {
@@ -31,7 +47,7 @@ public class CnfGenerator {
         public Cnf visit(Not node) {
             negation = !negation;
             try {
-                return node.getX().accept(this);
+                return generate(node.getX());
             } finally {
                 negation = !negation;
             }
@@ -39,21 +55,21 @@ public class CnfGenerator {
 
         @Override
         public Cnf visit(And node) {
-            return and(node.getX().accept(this), node.getY().accept(this));
+            return and(generate(node.getX()), generate(node.getY()));
         }
 
         @Override
         public Cnf visit(Or node) {
-            return or(node.getX().accept(this), node.getY().accept(this));
+            return or(generate(node.getX()), generate(node.getY()));
         }
 
         @Override
         public Cnf visit(Xor node) {
-            Cnf a = node.getX().accept(this);
-            Cnf b = node.getY().accept(this);
+            Cnf a = generate(node.getX());
+            Cnf b = generate(node.getY());
             negation = !negation;
-            Cnf na = node.getX().accept(this);
-            Cnf nb = node.getY().accept(this);
+            Cnf na = generate(node.getX());
+            Cnf nb = generate(node.getY());
             negation = !negation;
             return or(and(a, nb), and(na, b));
         }
@@ -61,19 +77,19 @@ public class CnfGenerator {
         @Override
         public Cnf visit(Imply node) {
             negation = !negation;
-            Cnf x = node.getX().accept(this);
+            Cnf x = generate(node.getX());
             negation = !negation;
-            Cnf y = node.getY().accept(this);
+            Cnf y = generate(node.getY());
             return or(x, y);
         }
 
         @Override
         public Cnf visit(Iff node) {
-            Cnf a = node.getX().accept(this);
-            Cnf b = node.getY().accept(this);
+            Cnf a = generate(node.getX());
+            Cnf b = generate(node.getY());
             negation = !negation;
-            Cnf na = node.getX().accept(this);
-            Cnf nb = node.getY().accept(this);
+            Cnf na = generate(node.getX());
+            Cnf nb = generate(node.getY());
             negation = !negation;
             return or(and(a, b), and(na, nb));
         }
@@ -100,7 +116,8 @@ public class CnfGenerator {
                         foundSameLiteral = false;
                         for (Literal llit : leftClause.getLiterals()) {
                             // TODO: work with 0 and 1 literals
-                            if (rlit.getVariable().getLabel().equals(llit.getVariable().getLabel())) {
+                            if ((rlit.getVariable() == llit.getVariable())
+                                    || rlit.getVariable().getLabel().equals(llit.getVariable().getLabel())) {
                                 foundSameLiteral = true;
                                 sameNegation = llit.getNegation() == rlit.getNegation();
                                 break;
@@ -132,11 +149,16 @@ public class CnfGenerator {
 
     }
 
+    /**
+     * Normal form of the formula. The formula is interned first (see {@link FormulaFactory}), so that its
+     * structurally equal subformulas are converted once per polarity.
+     */
     public static Cnf generate(BooleanFormula formula) {
         if (formula == null) {
             formula = One.getInstance();
         }
-        return formula.accept(new CnfVisitor());
+        BooleanFormula canonicalFormula = FormulaFactory.getInstance().intern(formula);
+        return canonicalFormula.accept(new CnfVisitor());
     }
 
 }
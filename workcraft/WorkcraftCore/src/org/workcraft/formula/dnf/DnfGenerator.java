@@ -3,11 +3,27 @@ package org.workcraft.formula.dnf;
 import org.workcraft.formula.*;
 import org.workcraft.formula.visitors.BooleanVisitor;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public class DnfGenerator {
 
     private static class DnfVisitor implements BooleanVisitor<Dnf> {
 
         private boolean negation = false;
+        // Forms of the visited subformulas and of their negations, so that shared subformulas are visited once
+        private final Map<BooleanFormula, Dnf> results = new IdentityHashMap<>();
+        private final Map<BooleanFormula, Dnf> negatedResults = new IdentityHashMap<>();
+
+        private Dnf generate(BooleanFormula node) {
+            Map<BooleanFormula, Dnf> nodeResults = negation ? negatedResults : results;
+            Dnf result = nodeResults.get(node);
+            if (result == null) {
+                result = node.accept(this);
+                nodeResults.put(node, result);
+            }
+            return result;
+        }
 
         @Override
         public Dnf visit(Zero node) {
@@ -31,7 +47,7 @@ public class DnfGenerator {
         public Dnf visit(Not node) {
             negation = !negation;
             try {
-                return node.getX().accept(this);
+                return generate(node.getX());
             } finally {
                 negation = !negation;
             }
@@ -39,21 +55,21 @@ public class DnfGenerator {
 
         @Override
         public Dnf visit(And node) {
-            return and(node.getX().accept(this), node.getY().accept(this));
+            return and(generate(node.getX()), generate(node.getY()));
         }
 
         @Override
         public Dnf visit(Or node) {
-            return or(node.getX().accept(this), node.getY().accept(this));
+            return or(generate(node.getX()), generate(node.getY()));
         }
 
         @Override
         public Dnf visit(Xor node) {
-            Dnf a = node.getX().accept(this);
-            Dnf b = node.getY().accept(this);
+            Dnf a = generate(node.getX());
+            Dnf b = generate(node.getY());
             negation = !negation;
-            Dnf na = node.getX().accept(this);
-            Dnf nb = node.getY().accept(this);
+            Dnf na = generate(node.getX());
+            Dnf nb = generate(node.getY());
             negation = !negation;
             return or(and(a, nb), and(na, b));
         }
@@ -61,19 +77,19 @@ public class DnfGenerator {
         @Override
         public Dnf visit(Imply node) {
             negation = !negation;
-            Dnf x = node.getX().accept(this);
+            Dnf x = generate(node.getX());
             negation = !negation;
-            Dnf y = node.getY().accept(this);
+            Dnf y = generate(node.getY());
             return or(x, y);
         }
 
         @Override
         public Dnf visit(Iff node) {
-            Dnf a = node.getX().accept(this);
-            Dnf b = node.getY().accept(this);
+            Dnf a = generate(node.getX());
+            Dnf b = generate(node.getY());
             negation = !negation;
-            Dnf na = node.getX().accept(this);
-            Dnf nb = node.getY().accept(this);
+            Dnf na = generate(node.getX());
+            Dnf nb = generate(node.getY());
             negation = !negation;
             return or(and(a, b), and(na, nb));
         }
@@ -107,7 +123,8 @@ public class DnfGenerator {
                         foundSameLiteral = false;
                         for (Literal llit : leftClause.getLiterals()) {
                             // TODO: work with 0 and 1 literals
-                            if (rlit.getVariable().getLabel().equals(llit.getVariable().getLabel())) {
+                            if ((rlit.getVariable() == llit.getVariable())
+                                    || rlit.getVariable().getLabel().equals(llit.getVariable().getLabel())) {
                                 foundSameLiteral = true;
                                 sameNegation = llit.getNegation() == rlit.getNegation();
                                 break;
@@ -132,11 +149,16 @@ public class DnfGenerator {
 
     }
 
+    /**
+     * Normal form of the formula. The formula is interned first (see {@link FormulaFactory}), so that its
+     * structurally equal subformulas are converted once per polarity.
+     */
     public static Dnf generate(BooleanFormula formula) {
         if (formula == null) {
             formula = One.getInstance();
         }
-        return formula.accept(new DnfVisitor());
+        BooleanFormula canonicalFormula = FormulaFactory.getInstance().intern(formula);
+        return canonicalFormula.accept(new DnfVisitor());
     }
 
 }
@@ -1,12 +1,15 @@
 package org.workcraft.formula.workers;
 
 import org.workcraft.formula.*;
-import org.workcraft.formula.visitors.StringGenerator;
+
+import java.util.*;
 
 public final class CleverBooleanWorker implements BooleanWorker {
 
     private static CleverBooleanWorker instance;
 
+    private final FormulaFactory factory = FormulaFactory.getInstance();
+
     private CleverBooleanWorker() {
     }
 
@@ -29,12 +32,14 @@ public final class CleverBooleanWorker implements BooleanWorker {
 
     @Override
     public BooleanFormula not(BooleanFormula x) {
-        return FormulaUtils.invert(x);
+        return factory.invert(x);
     }
 
     @Override
     public BooleanFormula and(BooleanFormula x, BooleanFormula y) {
-        if (StringGenerator.toString(x).equals(StringGenerator.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return x;
         }
         if ((x == Zero.getInstance()) || (y == Zero.getInstance())) {
@@ -46,19 +51,24 @@ public final class CleverBooleanWorker implements BooleanWorker {
         if (y == One.getInstance()) {
             return x;
         }
-        return new And(x, y);
+        return factory.and(x, y);
     }
 
     @Override
     public BooleanFormula or(BooleanFormula x, BooleanFormula y) {
-        if (StringGenerator.toString(x).equals(StringGenerator.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return x;
         }
-        if (checkStrings(StringGenerator.toString(x), StringGenerator.toString(y), " + ")) {
+        Set<BooleanFormula> xDisjuncts = getDisjuncts(x);
+        if (xDisjuncts.containsAll(getDisjuncts(y))) {
             return x;
         }
-        if (checkStrings(StringGenerator.toString(x), invertString(StringGenerator.toString(y)), " + ")) {
-            return One.getInstance();
+        for (BooleanFormula yDisjunct : getDisjuncts(y)) {
+            if (xDisjuncts.containsAll(getDisjuncts(factory.invert(yDisjunct)))) {
+                return One.getInstance();
+            }
         }
         if ((x == One.getInstance()) || (y == One.getInstance())) {
             return One.getInstance();
@@ -69,12 +79,14 @@ public final class CleverBooleanWorker implements BooleanWorker {
         if (y == Zero.getInstance()) {
             return x;
         }
-        return new Or(x, y);
+        return factory.or(x, y);
     }
 
     @Override
     public BooleanFormula xor(BooleanFormula x, BooleanFormula y) {
-        if (StringGenerator.toString(x).equals(StringGenerator.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return Zero.getInstance();
         }
         if (x == One.getInstance()) {
@@ -89,12 +101,14 @@ public final class CleverBooleanWorker implements BooleanWorker {
         if (y == Zero.getInstance()) {
             return x;
         }
-        return new Xor(x, y);
+        return factory.xor(x, y);
     }
 
     @Override
     public BooleanFormula imply(BooleanFormula x, BooleanFormula y) {
-        if (StringGenerator.toString(x).equals(StringGenerator.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return One.getInstance();
         }
         if ((x == Zero.getInstance()) || (y == One.getInstance())) {
@@ -106,12 +120,14 @@ public final class CleverBooleanWorker implements BooleanWorker {
         if (y == Zero.getInstance()) {
             return not(x);
         }
-        return new Imply(x, y);
+        return factory.imply(x, y);
     }
 
     @Override
     public BooleanFormula iff(BooleanFormula x, BooleanFormula y) {
-        if (StringGenerator.toString(x).equals(StringGenerator.toString(y))) {
+        x = factory.intern(x);
+        y = factory.intern(y);
+        if (x == y) {
             return One.getInstance();
         }
         if (x == One.getInstance()) {
@@ -126,49 +142,26 @@ public final class CleverBooleanWorker implements BooleanWorker {
         if (y == Zero.getInstance()) {
             return not(x);
         }
-        return new Iff(x, y);
-    }
-
-    private boolean checkStrings(String x, String y, String op) {
-        if (x.contains(y)) {
-            if (x.startsWith(y + op)) {
-                return true;
-            } else if (x.endsWith(op + y)) {
-                return true;
-            } else if (x.contains(op + y + op)) {
-                return true;
-            }
-        }
-        return false;
+        return factory.iff(x, y);
     }
 
-    private String invertString(String x) {
-        String result = "";
-        //find first operator
-        int op = x.indexOf("*");
-        if ((x.indexOf(" + ") < op) && (x.indexOf(" + ") > 0)) {
-            op = x.indexOf(" + ");
-            if (x.substring(0, op).contains("'")) {
-                result = x.substring(0, op).replace("'", "");
-            } else {
-                result = x.substring(0, op) + "'";
-            }
-            result = result + x.substring(op, op + 2) + invertString(x.substring(op + 2));
-            return result;
-        }
-        if (op == -1) {
-            if (x.contains("'")) {
-                return x.replace("'", "");
+    /**
+     * Operands of the top-level disjunctions of a canonical formula (or the formula itself if it is not a
+     * disjunction). As the operands are canonical too, they can be compared by reference.
+     */
+    private Set<BooleanFormula> getDisjuncts(BooleanFormula formula) {
+        Set<BooleanFormula> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<BooleanFormula> stack = new ArrayDeque<>();
+        stack.push(formula);
+        while (!stack.isEmpty()) {
+            BooleanFormula node = stack.pop();
+            if (node instanceof Or) {
+                stack.push(((Or) node).getY());
+                stack.push(((Or) node).getX());
             } else {
-                return x + "'";
+                result.add(node);
             }
         }
-        if (x.substring(0, op).contains("'")) {
-            result = x.substring(0, op).replace("'", "");
-        } else {
-            result = x.substring(0, op) + "'";
-        }
-        result = result + x.charAt(op) + invertString(x.substring(op + 1));
         return result;
     }
 
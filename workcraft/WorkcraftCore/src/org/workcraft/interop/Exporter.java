@@ -3,6 +3,7 @@ package org.workcraft.interop;
 import org.workcraft.dom.Model;
 import org.workcraft.exceptions.ModelValidationException;
 import org.workcraft.exceptions.SerialisationException;
+import org.workcraft.tasks.ProgressMonitor;
 
 import java.io.OutputStream;
 
@@ -10,4 +11,10 @@ public interface Exporter {
     Format getFormat();
     boolean isCompatible(Model model);
     void export(Model model, OutputStream out) throws ModelValidationException, SerialisationException;
+
+    default void export(Model model, OutputStream out, ProgressMonitor<?> monitor)
+            throws ModelValidationException, SerialisationException {
+
+        export(model, out);
+    }
 }
@@ -11,13 +11,13 @@ import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class ExternalProcess {
 
     abstract static class StreamReaderThread extends Thread {
         private final ReadableByteChannel channel;
-        // Buffer is increased to 1MiB to reduce the number of updates for external processes with heavy output.
-        private final ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
 
         StreamReaderThread(ReadableByteChannel channel) {
             this.channel = channel;
@@ -27,9 +27,11 @@ public class ExternalProcess {
 
         @Override
         public void run() {
-            while (true) {
-                try {
-                    buffer.rewind();
+            ByteBuffer buffer = acquireBuffer();
+            byte[] data = null;
+            try {
+                while (true) {
+                    buffer.clear();
                     int result = channel.read(buffer);
                     if (result == -1) {
                         return;
@@ -37,19 +39,40 @@ public class ExternalProcess {
                     if (result == 0) {
                         continue;
                     }
-                    buffer.rewind();
-                    byte[] data = new byte[result];
+                    buffer.flip();
+                    // Heavy output fills the pipe on every read, so the chunk of the same size is reused
+                    if ((data == null) || (data.length != result)) {
+                        data = new byte[result];
+                    }
                     buffer.get(data);
                     handleData(data);
-                } catch (IOException e) {
-                    // This exception is mostly caused by the process termination and spams the user with
-                    // information about exceptions that should just be ignored, so removed printing. mech.
-                    return;
                 }
+            } catch (IOException e) {
+                // This exception is mostly caused by the process termination and spams the user with
+                // information about exceptions that should just be ignored, so removed printing. mech.
+            } finally {
+                releaseBuffer(buffer);
             }
         }
     }
 
+    // Buffer is increased to 1MiB to reduce the number of updates for external processes with heavy output.
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    // Buffers of finished reader threads are reused, up to two for each of several processes running at once
+    private static final int MAX_POOLED_BUFFER_COUNT = 8;
+    private static final Queue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer == null ? ByteBuffer.allocate(BUFFER_SIZE) : buffer;
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        if (bufferPool.size() < MAX_POOLED_BUFFER_COUNT) {
+            bufferPool.offer(buffer);
+        }
+    }
+
     class InputReaderThread extends StreamReaderThread {
         InputReaderThread() {
             super(inputStream);
@@ -1,5 +1,9 @@
 package org.workcraft.interop;
 
+/**
+ * Data arrays passed to the listener are reused for the subsequent chunks of output,
+ * so they must be copied if the data is kept after the call.
+ */
 public interface ExternalProcessListener {
     void outputData(byte[] data);
     void errorData(byte[] data);
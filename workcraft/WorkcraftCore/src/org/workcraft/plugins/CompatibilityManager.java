@@ -171,28 +171,43 @@ public class CompatibilityManager {
     }
 
     public ByteArrayInputStream process(File file) throws DeserialisationException, OperationCancelledException {
-        ByteArrayInputStream result = null;
-        try {
-            ZipFile zipFile = new ZipFile(file, StandardCharsets.UTF_8);
-            Version workVersion = WorkUtils.extractVersion(zipFile);
-            Version currentVersion = Info.getVersion();
-            if ((workVersion != null) && (currentVersion != null) && (currentVersion.compareTo(workVersion) < 0)) {
-                String msg = "Workcraft v" + currentVersion
-                        + " may incorrectly read a file produced by newer Workcraft v" + workVersion;
-
-                String msgFull = msg + ".\nProceed with loading of work file '" + file.getAbsolutePath() + "' anyway?";
-                boolean proceed = DialogUtils.showConfirmWarning(msgFull, "Open file", true);
-                if (!proceed) {
-                    throw new OperationCancelledException(msg);
-                }
-            }
-            FileInputStream fis = new FileInputStream(file);
-            result = process(fis, workVersion);
-            zipFile.close();
+        Version workVersion = checkVersion(file);
+        try (FileInputStream fis = new FileInputStream(file)) {
+            return process(fis, workVersion);
         } catch (IOException e) {
             throw new DeserialisationException(e);
         }
-        return result;
+    }
+
+    /**
+     * Extracts the version of the work file and asks for confirmation if it was produced by a newer Workcraft.
+     */
+    public Version checkVersion(File file) throws DeserialisationException, OperationCancelledException {
+        Version workVersion;
+        try (ZipFile zipFile = new ZipFile(file, StandardCharsets.UTF_8)) {
+            workVersion = WorkUtils.extractVersion(zipFile);
+        } catch (IOException e) {
+            throw new DeserialisationException(e);
+        }
+        Version currentVersion = Info.getVersion();
+        if ((workVersion != null) && (currentVersion != null) && (currentVersion.compareTo(workVersion) < 0)) {
+            String msg = "Workcraft v" + currentVersion
+                    + " may incorrectly read a file produced by newer Workcraft v" + workVersion;
+
+            String msgFull = msg + ".\nProceed with loading of work file '" + file.getAbsolutePath() + "' anyway?";
+            boolean proceed = DialogUtils.showConfirmWarning(msgFull, "Open file", true);
+            if (!proceed) {
+                throw new OperationCancelledException(msg);
+            }
+        }
+        return workVersion;
+    }
+
+    /**
+     * Checks if a work file of the given version needs any replacements to be read by the current Workcraft.
+     */
+    public boolean isProcessingRequired(Version version) {
+        return !getOrderedApplicableData(version).isEmpty();
     }
 
     public ByteArrayInputStream process(InputStream is, Version version) throws IOException {
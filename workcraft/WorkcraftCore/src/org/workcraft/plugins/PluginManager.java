@@ -9,6 +9,7 @@ import org.workcraft.gui.tools.GraphEditorTool;
 import org.workcraft.interop.Exporter;
 import org.workcraft.interop.Importer;
 import org.workcraft.plugins.builtin.*;
+import org.workcraft.serialisation.CustomCopier;
 import org.workcraft.serialisation.ModelDeserialiser;
 import org.workcraft.serialisation.ModelSerialiser;
 import org.workcraft.serialisation.XMLDeserialiser;
@@ -168,6 +169,10 @@ public class PluginManager implements PluginProvider {
         registerClass(XMLDeserialiser.class, cls, true);
     }
 
+    public void registerCustomCopier(Class<? extends CustomCopier> cls) {
+        registerClass(CustomCopier.class, cls, true);
+    }
+
     public void registerImporter(Class<? extends Importer> cls) {
         registerClass(Importer.class, cls, true);
     }
@@ -5,6 +5,10 @@ import org.workcraft.plugins.Plugin;
 import org.workcraft.plugins.PluginManager;
 import org.workcraft.plugins.builtin.serialisation.XMLModelDeserialiser;
 import org.workcraft.plugins.builtin.serialisation.XMLModelSerialiser;
+import org.workcraft.plugins.builtin.serialisation.copy.BezierCopier;
+import org.workcraft.plugins.builtin.serialisation.copy.ConnectionCopier;
+import org.workcraft.plugins.builtin.serialisation.copy.VisualConnectionCopier;
+import org.workcraft.plugins.builtin.serialisation.copy.VisualReplicaCopier;
 import org.workcraft.plugins.builtin.serialisation.xml.*;
 
 @SuppressWarnings("unused")
@@ -51,6 +55,11 @@ public class BuiltinSerialisers implements Plugin {
         pm.registerXmlDeserialiser(FileDeserialiser.class);
         pm.registerXmlDeserialiser(FileReferenceDeserialiser.class);
         pm.registerXmlDeserialiser(AltFileReferenceDeserialiser.class);
+
+        pm.registerCustomCopier(BezierCopier.class);
+        pm.registerCustomCopier(ConnectionCopier.class);
+        pm.registerCustomCopier(VisualConnectionCopier.class);
+        pm.registerCustomCopier(VisualReplicaCopier.class);
     }
 
 }
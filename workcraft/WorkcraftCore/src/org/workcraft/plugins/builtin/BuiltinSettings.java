@@ -32,6 +32,8 @@ public class BuiltinSettings implements Plugin {
         // Layout settings
         pm.registerSettings(DotLayoutSettings.class);
         pm.registerSettings(RandomLayoutSettings.class);
+        // External tools settings
+        pm.registerSettings(ProcessToolSettings.class);
     }
 
 }
@@ -9,14 +9,21 @@ import org.workcraft.interop.WorkMathFormat;
 import org.workcraft.plugins.PluginProvider;
 import org.workcraft.serialisation.*;
 import org.workcraft.utils.XmlUtils;
-import org.xml.sax.SAXException;
 
-import java.io.IOException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public class XMLModelDeserialiser implements ModelDeserialiser {
 
+    private static final String MODEL_ELEMENT = "model";
+    private static final String ROOT_ELEMENT = "root";
+
     private final PluginProvider plugins;
 
     public XMLModelDeserialiser(PluginProvider plugins) {
@@ -28,16 +35,26 @@ public class XMLModelDeserialiser implements ModelDeserialiser {
         return WorkMathFormat.getInstance().getUuid();
     }
 
+    /**
+     * Reads the model with a pull parser, so that the document is never built in memory as a whole. Instances are
+     * initialised as soon as the elements of their nodes are read, and only the elements of the nodes with custom
+     * deserialisers are kept until the finalisation pass.
+     */
     @Override
     public DeserialisationResult deserialise(InputStream is, ReferenceResolver extRef,
             Model underlyingModel) throws DeserialisationException {
 
+        XMLStreamReader reader = null;
         try {
             XMLDeserialisationManager deserialisation = new XMLDeserialisationManager();
             deserialisation.processPlugins(plugins);
 
-            Document doc = XmlUtils.loadDocument(is);
-            Element modelElement = doc.getDocumentElement();
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            reader = factory.createXMLStreamReader(is);
+            nextTag(reader);
+            Document doc = XmlUtils.createDocument();
+            Element modelElement = readStartElement(reader, doc);
 
             // create model
             String modelClassName = modelElement.getAttribute("class");
@@ -48,8 +65,17 @@ public class XMLModelDeserialiser implements ModelDeserialiser {
             deserialisation.begin(extRef);
 
             // 1st pass -- init instances
-            Element rootElement = XmlUtils.getChildElement("root", modelElement);
-            Node root = (Node) deserialisation.initInstance(rootElement);
+            Node root = null;
+            while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+                if ((root == null) && ROOT_ELEMENT.equals(reader.getLocalName())) {
+                    root = (Node) readNode(reader, doc, deserialisation);
+                } else {
+                    modelElement.appendChild(readElement(reader, doc));
+                }
+            }
+            if (root == null) {
+                throw new DeserialisationException("Root element is missing in " + MODEL_ELEMENT + " element");
+            }
 
             // 2nd pass -- finalise instances
             deserialisation.finaliseInstances();
@@ -60,9 +86,71 @@ public class XMLModelDeserialiser implements ModelDeserialiser {
             deserialisation.deserialiseModelProperties(modelElement, model);
 
             return new DeserialisationResult(model, intRef);
-        } catch (SAXException | IOException | SecurityException | IllegalArgumentException | ClassNotFoundException e) {
+        } catch (XMLStreamException | SecurityException | IllegalArgumentException | ClassNotFoundException e) {
             throw new DeserialisationException(e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // Input stream is closed by the caller anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the node at the current start tag together with its child nodes, which are initialised before
+     * their parent, so that the data of a node may follow its child nodes.
+     */
+    private Object readNode(XMLStreamReader reader, Document doc, XMLDeserialisationManager deserialisation)
+            throws XMLStreamException, DeserialisationException {
+
+        Element element = readStartElement(reader, doc);
+        List<Object> children = new ArrayList<>();
+        while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            if (XMLCommonAttributes.NODE_ATTRIBUTE.equals(reader.getLocalName())) {
+                children.add(readNode(reader, doc, deserialisation));
+            } else {
+                element.appendChild(readElement(reader, doc));
+            }
+        }
+        Object instance = deserialisation.initNodeInstance(element);
+        for (Object child : children) {
+            deserialisation.addChildNode(instance, child);
+        }
+        return instance;
+    }
+
+    /**
+     * Advances to the next start or end tag. Unlike {@link XMLStreamReader#nextTag}, it skips character data,
+     * which is ignored by deserialisers (e.g. stray text left by legacy compatibility replacements).
+     */
+    private int nextTag(XMLStreamReader reader) throws XMLStreamException {
+        int eventType = reader.next();
+        while ((eventType != XMLStreamConstants.START_ELEMENT) && (eventType != XMLStreamConstants.END_ELEMENT)) {
+            if (eventType == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("Unexpected end of document", reader.getLocation());
+            }
+            eventType = reader.next();
+        }
+        return eventType;
+    }
+
+    private Element readElement(XMLStreamReader reader, Document doc) throws XMLStreamException {
+        Element element = readStartElement(reader, doc);
+        while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            element.appendChild(readElement(reader, doc));
+        }
+        return element;
+    }
+
+    private Element readStartElement(XMLStreamReader reader, Document doc) {
+        Element element = doc.createElement(reader.getLocalName());
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
         }
+        return element;
     }
 
 }
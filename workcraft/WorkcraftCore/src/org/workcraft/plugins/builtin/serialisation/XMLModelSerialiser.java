@@ -10,8 +10,10 @@ import org.workcraft.plugins.PluginProvider;
 import org.workcraft.serialisation.ModelSerialiser;
 import org.workcraft.serialisation.ReferenceProducer;
 import org.workcraft.serialisation.XMLSerialisationManager;
+import org.workcraft.utils.IndentedXmlWriter;
 import org.workcraft.utils.XmlUtils;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.util.UUID;
 
@@ -44,20 +46,25 @@ public class XMLModelSerialiser implements ModelSerialiser {
             return null;
         };
 
+        // Nodes are written as soon as they are serialised, so the whole document is never built in memory
         Document doc = XmlUtils.createDocument();
         Element modelElement = doc.createElement("model");
         Element rootElement = doc.createElement("root");
 
         serialisation.begin(internalRefs, refs);
-
-        serialisation.serialise(modelElement, model);
-        serialisation.serialise(rootElement, model.getRoot());
-
-        serialisation.end();
-
-        doc.appendChild(modelElement);
-        modelElement.appendChild(rootElement);
-        XmlUtils.writeDocument(doc, out);
+        try (IndentedXmlWriter writer = new IndentedXmlWriter(out)) {
+            serialisation.serialise(modelElement, model);
+            writer.startElement(modelElement);
+            for (Element propertyElement : XmlUtils.getChildElements(modelElement)) {
+                writer.writeElement(propertyElement);
+            }
+            serialisation.serialise(writer, rootElement, model.getRoot());
+            writer.endElement();
+        } catch (IOException e) {
+            throw new SerialisationException(e);
+        } finally {
+            serialisation.end();
+        }
 
         return internalRefs;
     }
@@ -0,0 +1,44 @@
+package org.workcraft.plugins.builtin.serialisation.copy;
+
+import org.workcraft.dom.visual.connections.Bezier;
+import org.workcraft.dom.visual.connections.BezierControlPoint;
+import org.workcraft.dom.visual.connections.VisualConnection;
+import org.workcraft.exceptions.SerialisationException;
+import org.workcraft.serialisation.CopyContext;
+import org.workcraft.serialisation.CustomCopier;
+
+public class BezierCopier implements CustomCopier<Bezier> {
+
+    @Override
+    public String getClassName() {
+        return Bezier.class.getName();
+    }
+
+    @Override
+    public Bezier createInstance(Bezier srcInstance, CopyContext context, Object... constructorParameters) {
+        return new Bezier((VisualConnection) constructorParameters[0]);
+    }
+
+    @Override
+    public void initInstance(Bezier srcInstance, Bezier dstInstance, CopyContext context)
+            throws SerialisationException {
+
+        BezierControlPoint[] cp = srcInstance.getBezierControlPoints();
+
+        BezierControlPoint cp1 = (BezierControlPoint) context.initCopy(cp[0]);
+        BezierControlPoint cp2 = (BezierControlPoint) context.initCopy(cp[1]);
+
+        dstInstance.initControlPoints(cp1, cp2);
+    }
+
+    @Override
+    public void finaliseInstance(Bezier srcInstance, Bezier dstInstance, CopyContext context)
+            throws SerialisationException {
+
+        for (BezierControlPoint cp : srcInstance.getBezierControlPoints()) {
+            context.finaliseCopy(cp);
+        }
+        dstInstance.finaliseControlPoints();
+    }
+
+}
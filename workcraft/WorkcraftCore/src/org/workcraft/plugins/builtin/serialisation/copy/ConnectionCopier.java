@@ -0,0 +1,30 @@
+package org.workcraft.plugins.builtin.serialisation.copy;
+
+import org.workcraft.dom.math.MathConnection;
+import org.workcraft.serialisation.CopyContext;
+import org.workcraft.serialisation.CustomCopier;
+
+public class ConnectionCopier implements CustomCopier<MathConnection> {
+
+    @Override
+    public String getClassName() {
+        return MathConnection.class.getName();
+    }
+
+    @Override
+    public MathConnection createInstance(MathConnection srcInstance, CopyContext context,
+            Object... constructorParameters) {
+
+        return new MathConnection();
+    }
+
+    @Override
+    public void initInstance(MathConnection srcInstance, MathConnection dstInstance, CopyContext context) {
+    }
+
+    @Override
+    public void finaliseInstance(MathConnection srcInstance, MathConnection dstInstance, CopyContext context) {
+        dstInstance.setDependencies(context.getCopy(srcInstance.getFirst()), context.getCopy(srcInstance.getSecond()));
+    }
+
+}
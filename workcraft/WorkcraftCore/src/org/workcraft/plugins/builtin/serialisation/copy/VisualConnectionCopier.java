@@ -0,0 +1,43 @@
+package org.workcraft.plugins.builtin.serialisation.copy;
+
+import org.workcraft.dom.visual.connections.VisualConnection;
+import org.workcraft.exceptions.SerialisationException;
+import org.workcraft.serialisation.CopyContext;
+import org.workcraft.serialisation.CustomCopier;
+
+public class VisualConnectionCopier implements CustomCopier<VisualConnection> {
+
+    @Override
+    public String getClassName() {
+        return VisualConnection.class.getName();
+    }
+
+    @Override
+    public VisualConnection createInstance(VisualConnection srcInstance, CopyContext context,
+            Object... constructorParameters) {
+
+        return new VisualConnection();
+    }
+
+    @Override
+    public void initInstance(VisualConnection srcInstance, VisualConnection dstInstance, CopyContext context)
+            throws SerialisationException {
+
+        context.initCopy(srcInstance.getGraphic(), dstInstance);
+    }
+
+    @Override
+    public void finaliseInstance(VisualConnection srcInstance, VisualConnection dstInstance, CopyContext context)
+            throws SerialisationException {
+
+        dstInstance.setVisualConnectionDependencies(
+                context.getCopy(srcInstance.getFirst()),
+                context.getCopy(srcInstance.getSecond()),
+                context.getCopy(srcInstance.getGraphic()),
+                context.getCopy(srcInstance.getReferencedConnection())
+        );
+
+        context.finaliseCopy(srcInstance.getGraphic());
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.workcraft.plugins.builtin.serialisation.copy;
+
+import org.workcraft.dom.visual.VisualReplica;
+import org.workcraft.serialisation.CopyContext;
+import org.workcraft.serialisation.CustomCopier;
+
+public class VisualReplicaCopier implements CustomCopier<VisualReplica> {
+
+    @Override
+    public String getClassName() {
+        return VisualReplica.class.getName();
+    }
+
+    @Override
+    public VisualReplica createInstance(VisualReplica srcInstance, CopyContext context,
+            Object... constructorParameters) {
+
+        return new VisualReplica();
+    }
+
+    @Override
+    public void initInstance(VisualReplica srcInstance, VisualReplica dstInstance, CopyContext context) {
+    }
+
+    @Override
+    public void finaliseInstance(VisualReplica srcInstance, VisualReplica dstInstance, CopyContext context) {
+        dstInstance.setMaster(context.getCopy(srcInstance.getMaster()));
+    }
+
+}
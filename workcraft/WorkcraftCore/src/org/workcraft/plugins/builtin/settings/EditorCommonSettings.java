@@ -94,6 +94,8 @@ public class EditorCommonSettings extends AbstractCommonSettings {
     // Layout
     private static final String keyOpenNonvisual = prefix + ".openNonvisual";
     private static final String keyLargeModelSize = prefix + ".largeModelSize";
+    // Undo history
+    private static final String keyUndoMemoryLimit = prefix + ".undoMemoryLimit";
 
     /*
      * Defaults
@@ -122,6 +124,8 @@ public class EditorCommonSettings extends AbstractCommonSettings {
     // Layout
     private static final boolean defaultOpenNonvisual = true;
     private static final int defaultLargeModelSize = 500;
+    // Undo history
+    private static final int defaultUndoMemoryLimit = 100;
 
     /*
      * Variables
@@ -150,6 +154,8 @@ public class EditorCommonSettings extends AbstractCommonSettings {
     // Layout
     private static boolean openNonvisual = defaultOpenNonvisual;
     private static int largeModelSize = defaultLargeModelSize;
+    // Undo history
+    private static int undoMemoryLimit = defaultUndoMemoryLimit;
 
     static {
         properties.add(PropertyHelper.createSeparatorProperty("GUI decoration"));
@@ -261,6 +267,13 @@ public class EditorCommonSettings extends AbstractCommonSettings {
                 PropertyHelper.BULLET_PREFIX + "Model size for layout warning (0-9999 elements)",
                 EditorCommonSettings::setLargeModelSize,
                 EditorCommonSettings::getLargeModelSize));
+
+        properties.add(PropertyHelper.createSeparatorProperty("Undo history"));
+
+        properties.add(new PropertyDeclaration<>(Integer.class,
+                PropertyHelper.BULLET_PREFIX + "Memory limit for undo history per work (1-9999 MB)",
+                EditorCommonSettings::setUndoMemoryLimit,
+                EditorCommonSettings::getUndoMemoryLimit));
     }
 
     @Override
@@ -294,6 +307,8 @@ public class EditorCommonSettings extends AbstractCommonSettings {
         // Layout
         setOpenNonvisual(config.getBoolean(keyOpenNonvisual, defaultOpenNonvisual));
         setLargeModelSize(config.getInt(keyLargeModelSize, defaultLargeModelSize));
+        // Undo history
+        setUndoMemoryLimit(config.getInt(keyUndoMemoryLimit, defaultUndoMemoryLimit));
     }
 
     @Override
@@ -322,6 +337,8 @@ public class EditorCommonSettings extends AbstractCommonSettings {
         // Layout
         config.setBoolean(keyOpenNonvisual, getOpenNonvisual());
         config.setInt(keyLargeModelSize, getLargeModelSize());
+        // Undo history
+        config.setInt(keyUndoMemoryLimit, getUndoMemoryLimit());
     }
 
     @Override
@@ -493,4 +510,18 @@ public class EditorCommonSettings extends AbstractCommonSettings {
         largeModelSize = value;
     }
 
+    public static int getUndoMemoryLimit() {
+        return undoMemoryLimit;
+    }
+
+    public static void setUndoMemoryLimit(int value) {
+        if (value < 1) {
+            value = 1;
+        }
+        if (value > 9999) {
+            value = 9999;
+        }
+        undoMemoryLimit = value;
+    }
+
 }
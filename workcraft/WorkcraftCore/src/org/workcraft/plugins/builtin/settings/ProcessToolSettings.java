@@ -0,0 +1,62 @@
+package org.workcraft.plugins.builtin.settings;
+
+import org.workcraft.Config;
+import org.workcraft.gui.properties.PropertyDeclaration;
+import org.workcraft.gui.properties.PropertyDescriptor;
+
+import java.util.LinkedList;
+import java.util.List;
+
+public class ProcessToolSettings extends AbstractToolSettings {
+
+    private static final LinkedList<PropertyDescriptor> properties = new LinkedList<>();
+    private static final String prefix = "Tools.process";
+
+    private static final String keyMaxProcessCount = prefix + ".maxProcessCount";
+
+    private static final int defaultMaxProcessCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static int maxProcessCount = defaultMaxProcessCount;
+
+    static {
+        properties.add(new PropertyDeclaration<>(Integer.class,
+                "Maximum number of concurrently running backend processes",
+                ProcessToolSettings::setMaxProcessCount,
+                ProcessToolSettings::getMaxProcessCount));
+    }
+
+    @Override
+    public List<PropertyDescriptor> getDescriptors() {
+        return properties;
+    }
+
+    @Override
+    public void load(Config config) {
+        setMaxProcessCount(config.getInt(keyMaxProcessCount, defaultMaxProcessCount));
+    }
+
+    @Override
+    public void save(Config config) {
+        config.setInt(keyMaxProcessCount, getMaxProcessCount());
+    }
+
+    @Override
+    public String getName() {
+        return "Backend processes";
+    }
+
+    public static int getMaxProcessCount() {
+        return maxProcessCount;
+    }
+
+    public static void setMaxProcessCount(int value) {
+        if (value < 1) {
+            value = 1;
+        }
+        if (value > 999) {
+            value = 999;
+        }
+        maxProcessCount = value;
+    }
+
+}
@@ -3,11 +3,20 @@ package org.workcraft.serialisation;
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
-import java.util.HashMap;
+import java.beans.PropertyDescriptor;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Introspection results per class level (excluding the properties of its superclass). The caches are safe to
+ * use from several threads; if two threads introspect the same class at once, then both get the same result.
+ */
 public class BeanInfoCache {
 
-    private static final HashMap<Class<?>, BeanInfo> beanInfo = new HashMap<>();
+    private static final Map<Class<?>, BeanInfo> beanInfo = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Map<String, PropertyAccessor>> propertyAccessors = new ConcurrentHashMap<>();
 
     public static BeanInfo getBeanInfo(Class<?> c) throws IntrospectionException {
         BeanInfo cached = beanInfo.get(c);
@@ -15,8 +24,39 @@ public class BeanInfoCache {
             return cached;
         }
         BeanInfo info = Introspector.getBeanInfo(c, c.getSuperclass());
-        beanInfo.put(c, info);
-        return info;
+        cached = beanInfo.putIfAbsent(c, info);
+        return cached == null ? info : cached;
+    }
+
+    /**
+     * Accessors of the properties that are automatically serialised at the given class level, by property name
+     * in the order of introspection. A property is serialised if it has both a getter and a setter, and neither
+     * they nor the class are annotated with {@link NoAutoSerialisation}.
+     */
+    public static Map<String, PropertyAccessor> getPropertyAccessors(Class<?> c)
+            throws IntrospectionException, IllegalAccessException {
+
+        Map<String, PropertyAccessor> cached = propertyAccessors.get(c);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, PropertyAccessor> accessors = new LinkedHashMap<>();
+        if (c.getAnnotation(NoAutoSerialisation.class) == null) {
+            for (PropertyDescriptor desc : getBeanInfo(c).getPropertyDescriptors()) {
+                if (isAutoSerialisable(desc)) {
+                    accessors.put(desc.getName(), new PropertyAccessor(desc));
+                }
+            }
+        }
+        Map<String, PropertyAccessor> result = Collections.unmodifiableMap(accessors);
+        cached = propertyAccessors.putIfAbsent(c, result);
+        return cached == null ? result : cached;
+    }
+
+    private static boolean isAutoSerialisable(PropertyDescriptor desc) {
+        return (desc.getPropertyType() != null) && (desc.getWriteMethod() != null) && (desc.getReadMethod() != null)
+                && (desc.getReadMethod().getAnnotation(NoAutoSerialisation.class) == null)
+                && (desc.getWriteMethod().getAnnotation(NoAutoSerialisation.class) == null);
     }
 
 }
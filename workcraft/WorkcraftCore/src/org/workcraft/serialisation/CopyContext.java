@@ -0,0 +1,17 @@
+package org.workcraft.serialisation;
+
+import org.workcraft.exceptions.SerialisationException;
+
+public interface CopyContext {
+
+    /**
+     * Returns the copy of an object that has been initialised before (either in the same model or in its
+     * underlying model), or null if the object has not been copied.
+     */
+    <T> T getCopy(T srcObject);
+
+    Object initCopy(Object srcObject, Object... constructorParameters) throws SerialisationException;
+
+    void finaliseCopy(Object srcObject) throws SerialisationException;
+
+}
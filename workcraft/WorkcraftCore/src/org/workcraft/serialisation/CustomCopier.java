@@ -0,0 +1,19 @@
+package org.workcraft.serialisation;
+
+import org.workcraft.exceptions.SerialisationException;
+
+/**
+ * In-memory counterpart of a pair of {@link CustomXMLSerialiser} and {@link CustomXMLDeserialiser}.
+ * Classes with a custom XML serialiser can only be copied structurally if they also have a custom copier.
+ */
+public interface CustomCopier<T> {
+
+    String getClassName();
+
+    T createInstance(T srcInstance, CopyContext context, Object... constructorParameters) throws SerialisationException;
+
+    void initInstance(T srcInstance, T dstInstance, CopyContext context) throws SerialisationException;
+
+    void finaliseInstance(T srcInstance, T dstInstance, CopyContext context) throws SerialisationException;
+
+}
@@ -6,13 +6,11 @@ import org.workcraft.exceptions.DeserialisationException;
 import org.workcraft.serialisation.reflection.ConstructorParametersMatcher;
 import org.workcraft.utils.XmlUtils;
 
-import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Map;
 
 class DefaultNodeDeserialiser {
     private final DeserialiserFactory fac;
@@ -28,34 +26,20 @@ class DefaultNodeDeserialiser {
     private void autoDeserialiseProperties(Element currentLevelElement, Object instance, Class<?> currentLevel)
             throws DeserialisationException {
 
-        if (currentLevel.getAnnotation(NoAutoSerialisation.class) != null) {
-            return;
-        }
-
         try {
-            List<Element> propertyElements = XmlUtils.getChildElements("property", currentLevelElement);
+            Map<String, PropertyAccessor> accessors = BeanInfoCache.getPropertyAccessors(currentLevel);
+            if (accessors.isEmpty()) {
+                return;
+            }
             HashMap<String, Element> nameMap = new HashMap<>();
-
-            for (Element e : propertyElements) {
+            for (Element e : XmlUtils.getChildElements("property", currentLevelElement)) {
                 nameMap.put(e.getAttribute("name"), e);
             }
-
-            BeanInfo info = BeanInfoCache.getBeanInfo(currentLevel);
-
-            for (PropertyDescriptor desc : info.getPropertyDescriptors()) {
-                if (nameMap.containsKey(desc.getName()) && needDeserialisation(desc)) {
-                    // The property is writable and is not of array type, try to get a deserialiser.
-                    XMLDeserialiser deserialiser = fac.getDeserialiserFor(desc.getPropertyType().getName());
-                    if (!(deserialiser instanceof BasicXMLDeserialiser) && desc.getPropertyType().isEnum()) {
-                        // No basic deserialiser, try to use the special case enum deserialiser
-                        deserialiser = fac.getDeserialiserFor(Enum.class.getName());
-                    }
-                    if (deserialiser instanceof BasicXMLDeserialiser) {
-                        BasicXMLDeserialiser basicDeserialiser = (BasicXMLDeserialiser) deserialiser;
-                        Element element = nameMap.get(desc.getName());
-                        Object value = basicDeserialiser.deserialise(element);
-                        desc.getWriteMethod().invoke(instance, value);
-                    }
+            // Properties are set in the order of introspection, regardless of their order in the file
+            for (PropertyAccessor accessor : accessors.values()) {
+                Element element = nameMap.get(accessor.getName());
+                if (element != null) {
+                    autoDeserialiseProperty(element, instance, accessor);
                 }
             }
         } catch (IllegalArgumentException | IllegalAccessException | InstantiationException | IntrospectionException e) {
@@ -65,10 +49,34 @@ class DefaultNodeDeserialiser {
         }
     }
 
-    private boolean needDeserialisation(PropertyDescriptor desc) {
-        return (desc.getPropertyType() != null) && (desc.getWriteMethod() != null) && (desc.getReadMethod() != null)
-                && (desc.getReadMethod().getAnnotation(NoAutoSerialisation.class) == null)
-                && (desc.getWriteMethod().getAnnotation(NoAutoSerialisation.class) == null);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void autoDeserialiseProperty(Element element, Object instance, PropertyAccessor accessor)
+            throws InvocationTargetException, InstantiationException, IllegalAccessException, DeserialisationException {
+
+        // Same format as of the basic deserialisers of these types, without looking them up
+        String value = element.getAttribute("value");
+        switch (accessor.getKind()) {
+        case INT:
+            accessor.setInt(instance, Integer.parseInt(value));
+            break;
+        case DOUBLE:
+            accessor.setDouble(instance, Double.parseDouble(value));
+            break;
+        case BOOLEAN:
+            accessor.setBoolean(instance, Boolean.parseBoolean(value));
+            break;
+        case ENUM:
+            accessor.set(instance, Enum.valueOf((Class<? extends Enum>) accessor.getType(), value));
+            break;
+        case STRING:
+            accessor.set(instance, value);
+            break;
+        default:
+            XMLDeserialiser deserialiser = fac.getDeserialiserFor(accessor.getType().getName());
+            if (deserialiser instanceof BasicXMLDeserialiser) {
+                accessor.set(instance, ((BasicXMLDeserialiser) deserialiser).deserialise(element));
+            }
+        }
     }
 
     public Object initInstance(Element element, ReferenceResolver externalReferenceResolver, Object... constructorParameters)
@@ -7,11 +7,10 @@ import org.workcraft.exceptions.SerialisationException;
 import org.workcraft.utils.XmlUtils;
 
 import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 
-import static org.workcraft.serialisation.BeanInfoCache.getBeanInfo;
+import static org.workcraft.serialisation.BeanInfoCache.getPropertyAccessors;
 
 public class DefaultNodeSerialiser {
 
@@ -30,45 +29,67 @@ public class DefaultNodeSerialiser {
         if (object == null) {
             return;
         }
-        // Type explicitly requested to be excluded from auto serialisation
-        if (currentLevel.getAnnotation(NoAutoSerialisation.class) != null) {
-            return;
+        for (PropertyAccessor accessor : getPropertyAccessors(currentLevel).values()) {
+            autoSerialiseProperty(element, object, accessor);
         }
+    }
+
+    private void autoSerialiseProperty(Element element, Object object, PropertyAccessor accessor)
+            throws IllegalAccessException, InvocationTargetException, InstantiationException, SerialisationException {
 
-        for (PropertyDescriptor desc : getBeanInfo(currentLevel).getPropertyDescriptors()) {
-            if (needSerialisation(desc)) {
-                autoSerialiseProperty(element, object, desc);
+        String value = null;
+        Enum<?> enumValue = null;
+        switch (accessor.getKind()) {
+        case INT:
+            value = Integer.toString(accessor.getInt(object));
+            break;
+        case DOUBLE:
+            value = Double.toHexString(accessor.getDouble(object));
+            break;
+        case BOOLEAN:
+            value = Boolean.toString(accessor.getBoolean(object));
+            break;
+        case ENUM:
+            enumValue = (Enum<?>) accessor.get(object);
+            value = enumValue == null ? null : enumValue.name();
+            break;
+        case STRING:
+            value = (String) accessor.get(object);
+            break;
+        default:
+            autoSerialiseOtherProperty(element, object, accessor);
+            return;
+        }
+        // Same format as of the basic serialisers of these types, without looking them up
+        if (value != null) {
+            Element propertyElement = createPropertyElement(element, accessor);
+            if (enumValue != null) {
+                propertyElement.setAttribute("enum-class", enumValue.getClass().getName());
             }
+            propertyElement.setAttribute("value", value);
         }
     }
 
-    private boolean needSerialisation(PropertyDescriptor desc) {
-        return (desc.getPropertyType() != null) && (desc.getWriteMethod() != null) && (desc.getReadMethod() != null)
-                && (desc.getReadMethod().getAnnotation(NoAutoSerialisation.class) == null)
-                && (desc.getWriteMethod().getAnnotation(NoAutoSerialisation.class) == null);
-    }
-
-    private void autoSerialiseProperty(Element element, Object object, PropertyDescriptor desc)
+    private void autoSerialiseOtherProperty(Element element, Object object, PropertyAccessor accessor)
             throws IllegalAccessException, InvocationTargetException, InstantiationException, SerialisationException {
 
-        Object propertyObject = desc.getReadMethod().invoke(object);
+        Object propertyObject = accessor.get(object);
         if (propertyObject != null) {
-            // The property is writable and is not of array type, try to get a serialiser
-            XMLSerialiser serialiser = fac.getSerialiserFor(desc.getPropertyType());
-            if (!(serialiser instanceof BasicXMLSerialiser) && desc.getPropertyType().isEnum()) {
-                // No basic serialiser, try to use the special case enum serialiser
-                serialiser = fac.getSerialiserFor(Enum.class);
-            }
+            XMLSerialiser serialiser = fac.getSerialiserFor(accessor.getType());
             if (serialiser instanceof BasicXMLSerialiser) {
-                BasicXMLSerialiser basicSerialiser = (BasicXMLSerialiser) serialiser;
-                Element propertyElement = XmlUtils.createChildElement("property", element);
-                propertyElement.setAttribute("class", desc.getPropertyType().getName());
-                propertyElement.setAttribute("name", desc.getName());
-                basicSerialiser.serialise(propertyElement, propertyObject);
+                Element propertyElement = createPropertyElement(element, accessor);
+                ((BasicXMLSerialiser) serialiser).serialise(propertyElement, propertyObject);
             }
         }
     }
 
+    private static Element createPropertyElement(Element element, PropertyAccessor accessor) {
+        Element propertyElement = XmlUtils.createChildElement("property", element);
+        propertyElement.setAttribute("class", accessor.getType().getName());
+        propertyElement.setAttribute("name", accessor.getName());
+        return propertyElement;
+    }
+
     private void doSerialisation(Element parent, Object object, ReferenceProducer internalReferences,
             ReferenceProducer externalReferences, Class<?> currentLevel)
             throws InstantiationException, IllegalAccessException, SerialisationException,
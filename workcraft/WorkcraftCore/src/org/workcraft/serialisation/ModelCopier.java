@@ -0,0 +1,368 @@
+package org.workcraft.serialisation;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.workcraft.dom.Container;
+import org.workcraft.dom.Model;
+import org.workcraft.dom.Node;
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.dom.visual.Dependent;
+import org.workcraft.dom.visual.VisualModel;
+import org.workcraft.dom.visual.VisualNode;
+import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.exceptions.NotSupportedException;
+import org.workcraft.exceptions.SerialisationException;
+import org.workcraft.plugins.PluginInfo;
+import org.workcraft.plugins.PluginProvider;
+import org.workcraft.serialisation.reflection.ConstructorParametersMatcher;
+import org.workcraft.types.GeneralTwoWayMap;
+import org.workcraft.types.TwoWayMap;
+import org.workcraft.utils.XmlUtils;
+
+import java.awt.Color;
+import java.awt.geom.AffineTransform;
+import java.beans.IntrospectionException;
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Deep copy of a model (and its underlying math model in case of a visual model) without the XML round-trip.
+ * It follows the same rules as the XML serialisation: auto-serialisable properties are copied by their accessors,
+ * and classes with a custom XML serialiser are copied by the {@link CustomCopier} registered for them. If some
+ * class has a custom serialiser but no custom copier, then {@link NotSupportedException} is thrown and the model
+ * should be copied via XML instead.
+ */
+public class ModelCopier implements CopyContext {
+
+    private final HashMap<String, XMLSerialiser> serialisers = new HashMap<>();
+    private final HashMap<String, XMLDeserialiser> deserialisers = new HashMap<>();
+    private final HashMap<String, CustomCopier> copiers = new HashMap<>();
+    private final HashMap<Class<?>, Boolean> supportedClasses = new HashMap<>();
+
+    // Copies of all the initialised objects of the model and its underlying model
+    private final HashMap<Object, Object> srcToDst = new HashMap<>();
+    // Objects of the model being copied, in the order of initialisation
+    private final ArrayList<Object> srcObjects = new ArrayList<>();
+    private final HashMap<Container, List<Node>> dstChildren = new HashMap<>();
+    private Document document = null;
+
+    public ModelCopier(PluginProvider pp) {
+        for (PluginInfo<? extends XMLSerialiser> info : pp.getPlugins(XMLSerialiser.class)) {
+            XMLSerialiser serialiser = info.getInstance();
+            serialisers.put(serialiser.getClassName(), serialiser);
+        }
+        for (PluginInfo<? extends XMLDeserialiser> info : pp.getPlugins(XMLDeserialiser.class)) {
+            XMLDeserialiser deserialiser = info.getInstance();
+            deserialisers.put(deserialiser.getClassName(), deserialiser);
+        }
+        for (PluginInfo<? extends CustomCopier> info : pp.getPlugins(CustomCopier.class)) {
+            CustomCopier copier = info.getInstance();
+            copiers.put(copier.getClassName(), copier);
+        }
+    }
+
+    /**
+     * Copies the model. For a visual model its math model is copied first (a math model is copied on its own).
+     * Same as for saving and loading, the beforeSerialisation and afterDeserialisation methods are called for the
+     * source and copied models, and the current level and selection are preserved for visual models.
+     */
+    public Model copy(Model model) throws SerialisationException {
+        if (model instanceof VisualModel) {
+            VisualModel visualModel = (VisualModel) model;
+            Model mathModel = visualModel.getMathModel();
+            mathModel.beforeSerialisation();
+            Model mathModelCopy = copyModel(mathModel, null);
+            mathModelCopy.afterDeserialisation();
+
+            visualModel.beforeSerialisation();
+            VisualModel result = (VisualModel) copyModel(visualModel, mathModelCopy);
+            result.afterDeserialisation();
+            copySelectionState(visualModel, result);
+            return result;
+        }
+        model.beforeSerialisation();
+        Model result = copyModel(model, null);
+        result.afterDeserialisation();
+        return result;
+    }
+
+    private Model copyModel(Model model, Model underlyingModel) throws SerialisationException {
+        srcObjects.clear();
+        dstChildren.clear();
+        Node root = model.getRoot();
+        Node rootCopy = (Node) initCopy(root);
+
+        for (Object srcObject : new ArrayList<>(srcObjects)) {
+            finaliseCopy(srcObject);
+        }
+        for (Object srcObject : srcObjects) {
+            Object dstObject = srcToDst.get(srcObject);
+            List<Node> children = dstChildren.get(dstObject);
+            if (children != null) {
+                ((Container) dstObject).add(children);
+            }
+        }
+
+        // Names of the nodes are passed to the math model the same way as on deserialisation
+        GeneralTwoWayMap<String, Object> refToDst = new TwoWayMap<>();
+        for (Object srcObject : srcObjects) {
+            if ((underlyingModel == null) && (srcObject instanceof Node)) {
+                String ref = model.getNodeReference((Node) srcObject);
+                if (ref != null) {
+                    refToDst.put(ref, srcToDst.get(srcObject));
+                }
+            }
+        }
+        Model result;
+        try {
+            result = XMLDeserialisationManager.createModel(model.getClass(), rootCopy, underlyingModel,
+                    new CopyReferences(refToDst));
+        } catch (DeserialisationException e) {
+            throw new SerialisationException(e);
+        }
+        checkSupported(model.getClass());
+        srcToDst.put(model, result);
+        initLevels(model, result, model.getClass());
+        finaliseLevels(model, result, model.getClass());
+        return result;
+    }
+
+    private void copySelectionState(VisualModel srcModel, VisualModel dstModel) {
+        Container currentLevel = getCopy(srcModel.getCurrentLevel());
+        if (currentLevel != null) {
+            dstModel.setCurrentLevel(currentLevel);
+        }
+        Set<VisualNode> nodes = new HashSet<>();
+        for (VisualNode node : srcModel.getSelection()) {
+            Object nodeCopy = getCopy(node);
+            if (nodeCopy instanceof VisualNode) {
+                nodes.add((VisualNode) nodeCopy);
+            }
+        }
+        dstModel.addToSelection(nodes);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getCopy(T srcObject) {
+        return srcObject == null ? null : (T) srcToDst.get(srcObject);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object initCopy(Object srcObject, Object... constructorParameters) throws SerialisationException {
+        Class<?> cls = srcObject.getClass();
+        checkSupported(cls);
+        Object dstObject;
+        try {
+            CustomCopier copier = copiers.get(cls.getName());
+            if (copier != null) {
+                dstObject = copier.createInstance(srcObject, this, constructorParameters);
+            } else if (constructorParameters.length != 0) {
+                Class<?>[] parameterTypes = new Class<?>[constructorParameters.length];
+                for (int i = 0; i < constructorParameters.length; i++) {
+                    parameterTypes[i] = constructorParameters[i].getClass();
+                }
+                Constructor<?> ctor = new ConstructorParametersMatcher().match(cls, parameterTypes);
+                dstObject = ctor.newInstance(constructorParameters);
+            } else {
+                Object refObject = null;
+                if ((srcObject instanceof Dependent) && (serialisers.get(cls.getName()) == null)) {
+                    Collection<MathNode> refs = ((Dependent) srcObject).getMathReferences();
+                    if (refs.size() == 1) {
+                        refObject = getCopy(refs.iterator().next());
+                    }
+                }
+                if (refObject != null) {
+                    Constructor<?> ctor = new ConstructorParametersMatcher().match(cls, refObject.getClass());
+                    dstObject = ctor.newInstance(refObject);
+                } else {
+                    dstObject = cls.getDeclaredConstructor().newInstance();
+                }
+            }
+        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException
+                | IllegalArgumentException | InvocationTargetException e) {
+            throw new SerialisationException(e);
+        }
+
+        srcToDst.put(srcObject, dstObject);
+        srcObjects.add(srcObject);
+        initLevels(srcObject, dstObject, cls);
+
+        if ((srcObject instanceof Container) && (dstObject instanceof Container)) {
+            List<Node> children = new ArrayList<>();
+            for (Node srcChild : ((Container) srcObject).getChildren()) {
+                Object dstChild = initCopy(srcChild);
+                if (dstChild instanceof Node) {
+                    children.add((Node) dstChild);
+                }
+            }
+            if (!children.isEmpty()) {
+                dstChildren.put((Container) dstObject, children);
+            }
+        }
+        return dstObject;
+    }
+
+    @Override
+    public void finaliseCopy(Object srcObject) throws SerialisationException {
+        Object dstObject = srcToDst.get(srcObject);
+        if (dstObject != null) {
+            finaliseLevels(srcObject, dstObject, srcObject.getClass());
+        }
+    }
+
+    private void checkSupported(Class<?> cls) {
+        Boolean result = supportedClasses.get(cls);
+        if (result == null) {
+            result = true;
+            for (Class<?> level = cls; (level != null) && (level != Object.class); level = level.getSuperclass()) {
+                if ((serialisers.get(level.getName()) != null) && !copiers.containsKey(level.getName())) {
+                    result = false;
+                    break;
+                }
+            }
+            supportedClasses.put(cls, result);
+        }
+        if (!result) {
+            throw new NotSupportedException("Class " + cls.getName() + " cannot be copied structurally.");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initLevels(Object srcObject, Object dstObject, Class<?> cls) throws SerialisationException {
+        for (Class<?> level = cls; (level != null) && (level != Object.class); level = level.getSuperclass()) {
+            copyProperties(srcObject, dstObject, level);
+            CustomCopier copier = copiers.get(level.getName());
+            if (copier != null) {
+                copier.initInstance(srcObject, dstObject, this);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void finaliseLevels(Object srcObject, Object dstObject, Class<?> cls) throws SerialisationException {
+        for (Class<?> level = cls; (level != null) && (level != Object.class); level = level.getSuperclass()) {
+            CustomCopier copier = copiers.get(level.getName());
+            if (copier != null) {
+                copier.finaliseInstance(srcObject, dstObject, this);
+            }
+        }
+    }
+
+    // Values of typed kinds are immutable and copied without serialiser lookup (primitive values without boxing)
+    private static boolean copyTypedProperty(Object srcObject, Object dstObject, PropertyAccessor accessor)
+            throws InvocationTargetException {
+
+        switch (accessor.getKind()) {
+        case INT:
+            accessor.setInt(dstObject, accessor.getInt(srcObject));
+            return true;
+        case DOUBLE:
+            accessor.setDouble(dstObject, accessor.getDouble(srcObject));
+            return true;
+        case BOOLEAN:
+            accessor.setBoolean(dstObject, accessor.getBoolean(srcObject));
+            return true;
+        case ENUM:
+        case STRING:
+            Object value = accessor.get(srcObject);
+            if (value != null) {
+                accessor.set(dstObject, value);
+            }
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private void copyProperties(Object srcObject, Object dstObject, Class<?> level) throws SerialisationException {
+        try {
+            for (PropertyAccessor accessor : BeanInfoCache.getPropertyAccessors(level).values()) {
+                if (copyTypedProperty(srcObject, dstObject, accessor)) {
+                    continue;
+                }
+                Object value = accessor.get(srcObject);
+                if (value != null) {
+                    Class<?> type = accessor.getType();
+                    XMLSerialiser serialiser = serialisers.get(type.getName());
+                    XMLDeserialiser deserialiser = deserialisers.get(type.getName());
+                    if (!(serialiser instanceof BasicXMLSerialiser) && type.isEnum()) {
+                        serialiser = serialisers.get(Enum.class.getName());
+                        deserialiser = deserialisers.get(Enum.class.getName());
+                    }
+                    if ((serialiser instanceof BasicXMLSerialiser) && (deserialiser instanceof BasicXMLDeserialiser)) {
+                        Object valueCopy = copyValue(value, (BasicXMLSerialiser) serialiser,
+                                (BasicXMLDeserialiser) deserialiser, type);
+                        accessor.set(dstObject, valueCopy);
+                    }
+                }
+            }
+        } catch (IllegalAccessException | IntrospectionException | IllegalArgumentException e) {
+            throw new SerialisationException(e);
+        } catch (InvocationTargetException e) {
+            throw new SerialisationException(srcObject.getClass().getName() + " " + level.getName() + " " + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object copyValue(Object value, BasicXMLSerialiser serialiser, BasicXMLDeserialiser deserialiser, Class<?> type)
+            throws SerialisationException {
+
+        // Immutable values are shared
+        if ((value instanceof String) || (value instanceof Number) || (value instanceof Boolean)
+                || (value instanceof Character) || (value instanceof Enum) || (value instanceof Color)
+                || (value instanceof File)) {
+            return value;
+        }
+        if (value instanceof AffineTransform) {
+            return new AffineTransform((AffineTransform) value);
+        }
+        // Other values are copied by their XML serialiser
+        if (document == null) {
+            document = XmlUtils.createDocument();
+        }
+        Element element = document.createElement("property");
+        element.setAttribute("class", type.getName());
+        serialiser.serialise(element, value);
+        try {
+            return deserialiser.deserialise(element);
+        } catch (DeserialisationException e) {
+            throw new SerialisationException(e);
+        }
+    }
+
+    private static final class CopyReferences implements References {
+
+        private final GeneralTwoWayMap<String, Object> refToObject;
+
+        CopyReferences(GeneralTwoWayMap<String, Object> refToObject) {
+            this.refToObject = refToObject;
+        }
+
+        @Override
+        public Object getObject(String reference) {
+            if (reference.isEmpty()) return null;
+            return refToObject.getValue(reference);
+        }
+
+        @Override
+        public String getReference(Object object) {
+            return refToObject.getKey(object);
+        }
+
+        @Override
+        public Set<Object> getObjects() {
+            return refToObject.getValues();
+        }
+
+        @Override
+        public Set<String> getReferences() {
+            return refToObject.getKeys();
+        }
+    }
+
+}
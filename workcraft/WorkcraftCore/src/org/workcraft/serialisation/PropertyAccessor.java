@@ -0,0 +1,189 @@
+package org.workcraft.serialisation;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Getter and setter of an auto-serialisable bean property, compiled to method handles once per class, so that
+ * they are invoked without reflective access checks and argument arrays. Properties of int, double and boolean
+ * types also have typed accessors that do not box the values. Instances are immutable and can be shared between
+ * threads.
+ */
+public final class PropertyAccessor {
+
+    /**
+     * Kind of the property type. Properties of all kinds but {@link #OTHER} are (de)serialised without
+     * looking up the serialiser of their type.
+     */
+    public enum Kind {
+        INT, DOUBLE, BOOLEAN, ENUM, STRING, OTHER;
+
+        private static Kind of(Class<?> type) {
+            if (type == int.class) {
+                return INT;
+            }
+            if (type == double.class) {
+                return DOUBLE;
+            }
+            if (type == boolean.class) {
+                return BOOLEAN;
+            }
+            if (type.isEnum()) {
+                return ENUM;
+            }
+            if (type == String.class) {
+                return STRING;
+            }
+            return OTHER;
+        }
+    }
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String name;
+    private final Class<?> type;
+    private final Kind kind;
+    // Type of values accepted by the setter, with primitive types replaced by their wrappers
+    private final Class<?> valueType;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    // Handles with the primitive property type in their signature, null for other kinds
+    private final MethodHandle primitiveGetter;
+    private final MethodHandle primitiveSetter;
+
+    PropertyAccessor(PropertyDescriptor desc) throws IllegalAccessException {
+        name = desc.getName();
+        type = desc.getPropertyType();
+        kind = Kind.of(type);
+        valueType = MethodType.methodType(type).wrap().returnType();
+        MethodHandle readHandle = unreflect(desc.getReadMethod());
+        MethodHandle writeHandle = unreflect(desc.getWriteMethod());
+        getter = readHandle.asType(GETTER_TYPE);
+        setter = writeHandle.asType(SETTER_TYPE);
+        if (type.isPrimitive()) {
+            primitiveGetter = readHandle.asType(MethodType.methodType(type, Object.class));
+            primitiveSetter = writeHandle.asType(MethodType.methodType(void.class, Object.class, type));
+        } else {
+            primitiveGetter = null;
+            primitiveSetter = null;
+        }
+    }
+
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // Public method of a non-public class, e.g. a package-private node type
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Same as invoking the read method by reflection: exceptions of the method are wrapped into
+     * {@link InvocationTargetException}.
+     */
+    public Object get(Object object) throws InvocationTargetException {
+        try {
+            return getter.invokeExact(object);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Same as invoking the write method by reflection: a value of incompatible type is rejected with
+     * {@link IllegalArgumentException}, and exceptions of the method are wrapped into
+     * {@link InvocationTargetException}.
+     */
+    public void set(Object object, Object value) throws InvocationTargetException {
+        if ((value == null) ? type.isPrimitive() : !valueType.isInstance(value)) {
+            throw new IllegalArgumentException("Value " + value + " cannot be assigned to property '"
+                    + name + "' of type " + type.getName());
+        }
+        try {
+            setter.invokeExact(object, value);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public int getInt(Object object) throws InvocationTargetException {
+        checkKind(Kind.INT);
+        try {
+            return (int) primitiveGetter.invokeExact(object);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void setInt(Object object, int value) throws InvocationTargetException {
+        checkKind(Kind.INT);
+        try {
+            primitiveSetter.invokeExact(object, value);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public double getDouble(Object object) throws InvocationTargetException {
+        checkKind(Kind.DOUBLE);
+        try {
+            return (double) primitiveGetter.invokeExact(object);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void setDouble(Object object, double value) throws InvocationTargetException {
+        checkKind(Kind.DOUBLE);
+        try {
+            primitiveSetter.invokeExact(object, value);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public boolean getBoolean(Object object) throws InvocationTargetException {
+        checkKind(Kind.BOOLEAN);
+        try {
+            return (boolean) primitiveGetter.invokeExact(object);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    public void setBoolean(Object object, boolean value) throws InvocationTargetException {
+        checkKind(Kind.BOOLEAN);
+        try {
+            primitiveSetter.invokeExact(object, value);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private void checkKind(Kind expectedKind) {
+        if (kind != expectedKind) {
+            throw new IllegalArgumentException("Property '" + name + "' of type " + type.getName()
+                    + " has no " + expectedKind.name().toLowerCase() + " accessor");
+        }
+    }
+
+}
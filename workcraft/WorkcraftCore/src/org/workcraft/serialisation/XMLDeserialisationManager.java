@@ -18,6 +18,7 @@ public class XMLDeserialisationManager implements DeserialiserFactory, NodeIniti
 
     private final HashMap<String, XMLDeserialiser> deserialisers = new HashMap<>();
     private final DefaultNodeDeserialiser nodeDeserialiser = new DefaultNodeDeserialiser(this, this, this);
+    private final HashMap<Class<?>, Boolean> finalisationCache = new HashMap<>();
     private XMLDeserialiserState state = null;
 
     private void registerDeserialiser(XMLDeserialiser deserialiser) {
@@ -63,6 +64,36 @@ public class XMLDeserialisationManager implements DeserialiserFactory, NodeIniti
         return instance;
     }
 
+    /**
+     * Initialises an instance from the element of a node that does not contain the elements of its child nodes
+     * (these are initialised separately and then added by {@link #addChildNode}). The element is only kept for
+     * the finalisation pass if some class of the instance has a custom deserialiser.
+     */
+    public Object initNodeInstance(Element element) throws DeserialisationException {
+        Object instance = nodeDeserialiser.initInstance(element, state.getExternalReferences());
+        state.setInstanceElement(instance, needsFinalisation(instance.getClass()) ? element : null);
+        String ref = element.getAttribute(XMLCommonAttributes.REF_ATTRIBUTE);
+        state.setObject(ref, instance);
+        return instance;
+    }
+
+    public void addChildNode(Object parent, Object child) {
+        if ((parent instanceof Container) && (child instanceof Node)) {
+            state.addChildNode((Container) parent, (Node) child);
+        }
+    }
+
+    private boolean needsFinalisation(Class<?> cls) {
+        return finalisationCache.computeIfAbsent(cls, c -> {
+            for (Class<?> level = c; (level != null) && (level != Object.class); level = level.getSuperclass()) {
+                if (getDeserialiserFor(level.getName()) instanceof CustomXMLDeserialiser) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
     public static Model createModel(Class<?> cls, Node root, Object underlyingModel, References rr) throws DeserialisationException {
         Model result;
         try {
@@ -104,8 +135,12 @@ public class XMLDeserialisationManager implements DeserialiserFactory, NodeIniti
 
     @Override
     public void finaliseInstance(Object instance) throws DeserialisationException {
-        nodeDeserialiser.finaliseInstance(state.getInstanceElement(instance), instance,
-                state.getInternalReferences(), state.getExternalReferences());
+        Element element = state.getInstanceElement(instance);
+        // Element is not kept for instances without custom deserialisers, as there is nothing to finalise
+        if (element != null) {
+            nodeDeserialiser.finaliseInstance(element, instance,
+                    state.getInternalReferences(), state.getExternalReferences());
+        }
     }
 
 }
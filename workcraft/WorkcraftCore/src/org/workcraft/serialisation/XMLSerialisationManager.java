@@ -6,8 +6,10 @@ import org.workcraft.dom.Node;
 import org.workcraft.exceptions.SerialisationException;
 import org.workcraft.plugins.PluginInfo;
 import org.workcraft.plugins.PluginProvider;
+import org.workcraft.utils.IndentedXmlWriter;
 import org.workcraft.utils.XmlUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -42,9 +44,7 @@ public class XMLSerialisationManager implements SerialiserFactory, NodeSerialise
 
     @Override
     public void serialise(Element element, Object object) throws SerialisationException {
-        element.setAttribute(XMLCommonAttributes.CLASS_ATTRIBUTE, object.getClass().getName());
-
-        nodeSerialiser.serialise(element, object, state.internalReferences, state.externalReferences);
+        serialiseProperties(element, object);
 
         if (object instanceof Container) {
             Container container = (Container) object;
@@ -56,4 +56,35 @@ public class XMLSerialisationManager implements SerialiserFactory, NodeSerialise
         }
     }
 
+    /**
+     * Serialises the object and its child nodes straight to the writer. The given element is filled in the same
+     * way as by {@link #serialise(Element, Object)}, but the elements of child nodes are not attached to it, so
+     * that only the elements of one node at a time are kept in memory.
+     */
+    public void serialise(IndentedXmlWriter writer, Element element, Object object) throws SerialisationException {
+        serialiseProperties(element, object);
+        try {
+            writer.startElement(element);
+            for (Element propertyElement : XmlUtils.getChildElements(element)) {
+                writer.writeElement(propertyElement);
+            }
+            if (object instanceof Container) {
+                Container container = (Container) object;
+                ArrayList<Node> children = new ArrayList<>(container.getChildren());
+                for (Node child : children) {
+                    Element childElement = element.getOwnerDocument().createElement(XMLCommonAttributes.NODE_ATTRIBUTE);
+                    serialise(writer, childElement, child);
+                }
+            }
+            writer.endElement();
+        } catch (IOException e) {
+            throw new SerialisationException(e);
+        }
+    }
+
+    private void serialiseProperties(Element element, Object object) throws SerialisationException {
+        element.setAttribute(XMLCommonAttributes.CLASS_ATTRIBUTE, object.getClass().getName());
+        nodeSerialiser.serialise(element, object, state.internalReferences, state.externalReferences);
+    }
+
 }
@@ -51,9 +51,8 @@ public class DataAccumulator extends OutputStream {
 
         int cur = 0;
         for (byte[] dataChunk : dataChunks) {
-            for (int i = 0; i < dataChunk.length; i++) {
-                result[cur++] = dataChunk[i];
-            }
+            System.arraycopy(dataChunk, 0, result, cur, dataChunk.length);
+            cur += dataChunk.length;
         }
 
         return result;
@@ -53,7 +53,7 @@ public class ExportTask implements Task<ExportOutput> {
                     return new Result<>(nestedException);
                 }
             }
-            exporter.export(exportModel, fos);
+            exporter.export(exportModel, fos, monitor);
             success = true;
         } catch (Throwable e) {
             return new Result<>(e);
@@ -1,21 +1,35 @@
 package org.workcraft.tasks;
 
+import org.workcraft.utils.LogUtils;
 import org.workcraft.utils.TextUtils;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
 public class ExternalProcessOutput {
 
     private final int returnCode;
     private final byte[] stdout;
     private final byte[] stderr;
+    // Files the output was streamed to instead of being kept in memory (read only on demand)
+    private final File stdoutFile;
+    private final File stderrFile;
 
     public ExternalProcessOutput(int returnCode) {
         this(returnCode, new byte[0], new byte[0]);
     }
 
     public ExternalProcessOutput(int returnCode, byte[] stdout, byte[] stderr) {
+        this(returnCode, stdout, stderr, null, null);
+    }
+
+    public ExternalProcessOutput(int returnCode, byte[] stdout, byte[] stderr, File stdoutFile, File stderrFile) {
         this.returnCode = returnCode;
         this.stdout = stdout;
         this.stderr = stderr;
+        this.stdoutFile = stdoutFile;
+        this.stderrFile = stderrFile;
     }
 
     public int getReturnCode() {
@@ -23,23 +37,40 @@ public class ExternalProcessOutput {
     }
 
     public byte[] getStdout() {
-        return stdout;
+        return stdoutFile == null ? stdout : readFile(stdoutFile);
     }
 
     public String getStdoutString() {
-        return new String(stdout);
+        return new String(getStdout());
+    }
+
+    public File getStdoutFile() {
+        return stdoutFile;
     }
 
     public byte[] getStderr() {
-        return stderr;
+        return stderrFile == null ? stderr : readFile(stderrFile);
     }
 
     public String getStderrString() {
-        return new String(stderr);
+        return new String(getStderr());
+    }
+
+    public File getStderrFile() {
+        return stderrFile;
     }
 
     public String getErrorsHeadAndTail() {
         return TextUtils.getHeadAndTail(getStderrString(), 10, 10);
     }
 
+    private static byte[] readFile(File file) {
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            LogUtils.logError("Cannot read process output from file '" + file.getAbsolutePath() + "'");
+            return new byte[0];
+        }
+    }
+
 }
@@ -2,27 +2,41 @@ package org.workcraft.tasks;
 
 import org.workcraft.interop.ExternalProcess;
 import org.workcraft.interop.ExternalProcessListener;
+import org.workcraft.plugins.builtin.settings.ProcessToolSettings;
 import org.workcraft.shared.DataAccumulator;
 import org.workcraft.utils.LogUtils;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class ExternalProcessTask implements Task<ExternalProcessOutput>, ExternalProcessListener {
 
+    // Completion of the process is signalled immediately, this is only how often cancellation is checked
+    private static final long CANCEL_CHECK_INTERVAL = 50;
+
+    // Number of running processes, which is limited by ProcessToolSettings.getMaxProcessCount()
+    private static final Object processCountLock = new Object();
+    private static int processCount = 0;
+
     private List<String> args;
     private final File directory;
     private boolean printStdout;
     private boolean printStderr;
 
-    private volatile boolean finished;
+    private volatile CountDownLatch finishedLatch;
     private volatile int returnCode;
     private boolean userCancelled = false;
     private ProgressMonitor<? super ExternalProcessOutput> monitor;
 
-    private final DataAccumulator stdoutAccum = new DataAccumulator();
-    private final DataAccumulator stderrAccum = new DataAccumulator();
+    private File stdoutFile = null;
+    private File stderrFile = null;
+    private Consumer<String> stdoutConsumer = null;
+    private Consumer<String> stderrConsumer = null;
+    private OutputCollector stdoutCollector;
+    private OutputCollector stderrCollector;
 
     public ExternalProcessTask(List<String> args, File directory) {
         this(args, directory, false, false);
@@ -35,10 +49,64 @@ public class ExternalProcessTask implements Task<ExternalProcessOutput>, Externa
         this.printStderr = printStderr;
     }
 
+    /**
+     * Streams stdout to the file instead of keeping it in memory. The output is then read from the file only if
+     * requested via {@link ExternalProcessOutput#getStdout()}.
+     */
+    public void setStdoutFile(File value) {
+        stdoutFile = value;
+    }
+
+    public void setStderrFile(File value) {
+        stderrFile = value;
+    }
+
+    /**
+     * Passes stdout to the consumer line by line. Unless it is also streamed to a file, the output is not
+     * kept and {@link ExternalProcessOutput#getStdout()} is empty.
+     */
+    public void setStdoutConsumer(Consumer<String> value) {
+        stdoutConsumer = value;
+    }
+
+    public void setStderrConsumer(Consumer<String> value) {
+        stderrConsumer = value;
+    }
+
     @Override
     public Result<? extends ExternalProcessOutput> run(ProgressMonitor<? super ExternalProcessOutput> monitor) {
         this.monitor = monitor;
 
+        try {
+            if (!acquireProcessSlot(monitor)) {
+                return Result.cancel();
+            }
+        } catch (InterruptedException e) {
+            return Result.cancel();
+        }
+        try {
+            return runProcess(monitor);
+        } finally {
+            releaseProcessSlot();
+        }
+    }
+
+    private Result<? extends ExternalProcessOutput> runProcess(ProgressMonitor<? super ExternalProcessOutput> monitor) {
+        try {
+            stdoutCollector = new OutputCollector(stdoutFile, stdoutConsumer);
+        } catch (IOException e) {
+            LogUtils.logError(e.getMessage());
+            return Result.exception(e);
+        }
+        try {
+            stderrCollector = new OutputCollector(stderrFile, stderrConsumer);
+        } catch (IOException e) {
+            LogUtils.logError(e.getMessage());
+            stdoutCollector.close();
+            return Result.exception(e);
+        }
+
+        finishedLatch = new CountDownLatch(1);
         ExternalProcess process = new ExternalProcess(args.toArray(new String[args.size()]), directory);
 
         process.addListener(this);
@@ -48,43 +116,56 @@ public class ExternalProcessTask implements Task<ExternalProcessOutput>, Externa
             process.start();
         } catch (IOException e) {
             LogUtils.logError(e.getMessage());
+            stdoutCollector.close();
+            stderrCollector.close();
             return Result.exception(e);
         }
 
-        while (true) {
-            if (monitor.isCancelRequested() && process.isRunning()) {
-                process.cancel();
-                userCancelled = true;
-            }
-            if (finished) {
-                break;
-            }
-            try {
-                Thread.sleep(20);
-            } catch (InterruptedException e) {
-                process.cancel();
-                userCancelled = true;
-                break;
+        try {
+            while (!finishedLatch.await(CANCEL_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (!userCancelled && monitor.isCancelRequested() && process.isRunning()) {
+                    process.cancel();
+                    userCancelled = true;
+                }
             }
+        } catch (InterruptedException e) {
+            process.cancel();
+            userCancelled = true;
         }
 
         if (userCancelled) {
             return Result.cancel();
         }
 
-        ExternalProcessOutput output = new ExternalProcessOutput(
-                returnCode, stdoutAccum.getData(), stderrAccum.getData());
+        ExternalProcessOutput output = new ExternalProcessOutput(returnCode,
+                stdoutCollector.getData(), stderrCollector.getData(), stdoutFile, stderrFile);
 
         return Result.success(output);
     }
 
+    private static boolean acquireProcessSlot(ProgressMonitor<?> monitor) throws InterruptedException {
+        synchronized (processCountLock) {
+            while (processCount >= ProcessToolSettings.getMaxProcessCount()) {
+                if (monitor.isCancelRequested()) {
+                    return false;
+                }
+                processCountLock.wait(CANCEL_CHECK_INTERVAL);
+            }
+            processCount++;
+            return true;
+        }
+    }
+
+    private static void releaseProcessSlot() {
+        synchronized (processCountLock) {
+            processCount--;
+            processCountLock.notifyAll();
+        }
+    }
+
     @Override
     public void outputData(byte[] data) {
-        try {
-            stdoutAccum.write(data);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        stdoutCollector.write(data);
         monitor.stdout(data);
         if (printStdout) {
             String text = new String(data);
@@ -94,11 +175,7 @@ public class ExternalProcessTask implements Task<ExternalProcessOutput>, Externa
 
     @Override
     public void errorData(byte[] data) {
-        try {
-            stderrAccum.write(data);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        stderrCollector.write(data);
         monitor.stderr(data);
         if (printStderr) {
             String text = new String(data);
@@ -108,13 +185,76 @@ public class ExternalProcessTask implements Task<ExternalProcessOutput>, Externa
 
     @Override
     public void processFinished(int returnCode) {
-        try {
-            stdoutAccum.flush();
-            stderrAccum.flush();
-        } catch (IOException e) {
-        }
+        stdoutCollector.close();
+        stderrCollector.close();
         this.returnCode = returnCode;
-        this.finished = true;
+        finishedLatch.countDown();
+    }
+
+    /**
+     * Destination of one output stream of the process: memory (by default), a file, and/or a line consumer.
+     */
+    private static final class OutputCollector {
+        private final DataAccumulator accumulator;
+        private final OutputStream fileStream;
+        private final Consumer<String> lineConsumer;
+        private final ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream();
+
+        OutputCollector(File file, Consumer<String> lineConsumer) throws IOException {
+            this.fileStream = file == null ? null : new BufferedOutputStream(new FileOutputStream(file));
+            this.lineConsumer = lineConsumer;
+            this.accumulator = (file == null) && (lineConsumer == null) ? new DataAccumulator() : null;
+        }
+
+        void write(byte[] data) {
+            try {
+                if (accumulator != null) {
+                    accumulator.write(data);
+                }
+                if (fileStream != null) {
+                    fileStream.write(data);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            if (lineConsumer != null) {
+                int lineStart = 0;
+                for (int i = 0; i < data.length; i++) {
+                    if (data[i] == '\n') {
+                        lineBuffer.write(data, lineStart, i - lineStart);
+                        flushLine();
+                        lineStart = i + 1;
+                    }
+                }
+                lineBuffer.write(data, lineStart, data.length - lineStart);
+            }
+        }
+
+        private void flushLine() {
+            String line = new String(lineBuffer.toByteArray());
+            lineBuffer.reset();
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            lineConsumer.accept(line);
+        }
+
+        void close() {
+            if ((lineConsumer != null) && (lineBuffer.size() > 0)) {
+                flushLine();
+            }
+            if (fileStream != null) {
+                try {
+                    fileStream.close();
+                } catch (IOException e) {
+                    LogUtils.logError(e.getMessage());
+                }
+            }
+        }
+
+        byte[] getData() {
+            return accumulator == null ? new byte[0] : accumulator.getData();
+        }
     }
 
 }
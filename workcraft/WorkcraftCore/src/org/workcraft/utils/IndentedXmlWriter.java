@@ -0,0 +1,149 @@
+package org.workcraft.utils;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes an XML document element by element, so that the document does not have to be built in memory first.
+ * Elements may be started and ended one at a time, or written together with their subtree from DOM. The output
+ * is laid out in the same way as by {@link XmlUtils#writeDocument} (UTF-8 with two-space indentation), and the
+ * document may contain only elements and attributes.
+ */
+public class IndentedXmlWriter implements Closeable {
+
+    private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+    private static final String INDENT = "  ";
+
+    private final Writer writer;
+    private final Deque<String> openElements = new ArrayDeque<>();
+    // Start tag is left unclosed until it is known whether the element is empty
+    private boolean pendingStartTag = false;
+
+    public IndentedXmlWriter(OutputStream os) throws IOException {
+        writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+        writer.write(DECLARATION);
+        writer.write('\n');
+    }
+
+    /**
+     * Starts an element with the name and attributes of the given one (its children are ignored).
+     */
+    public void startElement(Element element) throws IOException {
+        closePendingStartTag();
+        writeStartTag(element);
+        openElements.push(element.getTagName());
+        pendingStartTag = true;
+    }
+
+    public void endElement() throws IOException {
+        String name = openElements.pop();
+        if (pendingStartTag) {
+            writer.write("/>\n");
+            pendingStartTag = false;
+        } else {
+            writeIndent(openElements.size());
+            writer.write("</");
+            writer.write(name);
+            writer.write(">\n");
+        }
+    }
+
+    /**
+     * Writes the element together with its child elements.
+     */
+    public void writeElement(Element element) throws IOException {
+        startElement(element);
+        for (Element child : XmlUtils.getChildElements(element)) {
+            writeElement(child);
+        }
+        endElement();
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Flushes the output without closing the underlying stream (e.g. a zip entry).
+     */
+    @Override
+    public void close() throws IOException {
+        while (!openElements.isEmpty()) {
+            endElement();
+        }
+        writer.flush();
+    }
+
+    private void closePendingStartTag() throws IOException {
+        if (pendingStartTag) {
+            writer.write(">\n");
+            pendingStartTag = false;
+        }
+    }
+
+    private void writeStartTag(Element element) throws IOException {
+        writeIndent(openElements.size());
+        writer.write('<');
+        writer.write(element.getTagName());
+        // DOM keeps attributes sorted by name, which is also the order used by the DOM transformer
+        NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attribute = (Attr) attributes.item(i);
+            writer.write(' ');
+            writer.write(attribute.getName());
+            writer.write("=\"");
+            writeEscaped(attribute.getValue());
+            writer.write('"');
+        }
+    }
+
+    private void writeIndent(int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '&':
+                writer.write("&amp;");
+                break;
+            case '<':
+                writer.write("&lt;");
+                break;
+            case '>':
+                writer.write("&gt;");
+                break;
+            case '"':
+                writer.write("&quot;");
+                break;
+            default:
+                if (Character.isHighSurrogate(c) && (i + 1 < length) && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    writeCharacterReference(Character.toCodePoint(c, value.charAt(i + 1)));
+                    i++;
+                } else if (c < 0x20) {
+                    // Line breaks and tabs are escaped, as otherwise they are normalised to spaces when parsed
+                    writeCharacterReference(c);
+                } else {
+                    writer.write(c);
+                }
+            }
+        }
+    }
+
+    private void writeCharacterReference(int codePoint) throws IOException {
+        writer.write("&#");
+        writer.write(Integer.toString(codePoint));
+        writer.write(';');
+    }
+
+}
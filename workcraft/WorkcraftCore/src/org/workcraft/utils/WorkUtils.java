@@ -14,6 +14,7 @@ import org.workcraft.dom.visual.NodeHelper;
 import org.workcraft.dom.visual.VisualModel;
 import org.workcraft.dom.visual.VisualNode;
 import org.workcraft.exceptions.DeserialisationException;
+import org.workcraft.exceptions.NotSupportedException;
 import org.workcraft.exceptions.OperationCancelledException;
 import org.workcraft.exceptions.SerialisationException;
 import org.workcraft.gui.properties.PropertyDescriptor;
@@ -32,6 +33,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -82,7 +84,16 @@ public final class WorkUtils {
 
 
     public static ModelEntry cloneModel(ModelEntry me) {
-        return loadModel(mementoModel(me));
+        // Copy the model structurally, and only fall back to XML round-trip for classes without copiers
+        try {
+            ModelCopier copier = new ModelCopier(Framework.getInstance().getPluginManager());
+            ModelEntry result = new ModelEntry(me.getDescriptor(), copier.copy(me.getModel()));
+            result.setVersion(Info.getVersion());
+            result.setStamp(me.getStamp());
+            return result;
+        } catch (NotSupportedException | SerialisationException e) {
+            return loadModel(mementoModel(me));
+        }
     }
 
     public static Resource mementoModel(ModelEntry me) {
@@ -115,10 +126,20 @@ public final class WorkUtils {
             if (FileFilters.isWorkFile(file)) {
                 try {
                     CompatibilityManager cm = framework.getCompatibilityManager();
-                    InputStream is = cm.process(file);
-                    me = loadModel(is);
+                    Version version = cm.checkVersion(file);
+                    if (cm.isProcessingRequired(version)) {
+                        try (InputStream is = new FileInputStream(file)) {
+                            me = loadModel(cm.process(is, version));
+                        }
+                    } else {
+                        try (ZipFile zipFile = new ZipFile(file, StandardCharsets.UTF_8)) {
+                            me = loadModel(zipFile);
+                        }
+                    }
                     String base = FileUtils.getBasePath(file);
                     adjustPropertyFilePaths(me.getVisualModel(), base, true);
+                } catch (IOException e) {
+                    throw new DeserialisationException(e);
                 } catch (OperationCancelledException e) {
                     // Operation cancelled by the user
                 }
@@ -141,14 +162,31 @@ public final class WorkUtils {
 
     public static ModelEntry loadModel(InputStream is) throws DeserialisationException {
         try {
-            // Buffer the whole stream in a byte array
+            // Buffer the whole stream in a byte array, as the meta entry is usually the last one
             byte[] bytes = DataAccumulator.loadStream(is);
+            return loadModel(name -> getZipEntry(name, bytes));
+        } catch (IOException e) {
+            throw new DeserialisationException(e);
+        }
+    }
 
+    /**
+     * Loads the model reading its entries directly from the zip file, without buffering the whole archive.
+     */
+    public static ModelEntry loadModel(ZipFile zipFile) throws DeserialisationException {
+        return loadModel(name -> {
+            ZipEntry ze = zipFile.getEntry(name);
+            return ze == null ? null : zipFile.getInputStream(ze);
+        });
+    }
+
+    private static ModelEntry loadModel(EntryProvider entries) throws DeserialisationException {
+        try {
             // Load meta data
-            Document metaDocument = loadMetaDoc(bytes);
+            Document metaDocument = loadMetaDoc(entries);
 
             // Load math model
-            DeserialisationResult mathResult = deserialiseMathModel(bytes, metaDocument);
+            DeserialisationResult mathResult = deserialiseMathModel(entries, metaDocument);
             if (mathResult == null) {
                 throw new DeserialisationException("Math model is missing");
             }
@@ -156,14 +194,14 @@ public final class WorkUtils {
             model.afterDeserialisation();
 
             // Load visual model (if present)
-            DeserialisationResult visualResult = deserialiseVisualModel(bytes, metaDocument, mathResult);
+            DeserialisationResult visualResult = deserialiseVisualModel(entries, metaDocument, mathResult);
             if (visualResult != null) {
                 model = visualResult.model;
                 model.afterDeserialisation();
                 // Load current level and selection
                 if (model instanceof VisualModel) {
                     References visualRefs = visualResult.references;
-                    loadSelectionState(bytes, (VisualModel) model, visualRefs);
+                    loadSelectionState(entries, (VisualModel) model, visualRefs);
                 }
             }
             // Create model entry
@@ -204,12 +242,12 @@ public final class WorkUtils {
         return cloneModel(me1);
     }
 
-    private static DeserialisationResult deserialiseMathModel(byte[] bytes, Document document)
+    private static DeserialisationResult deserialiseMathModel(EntryProvider entries, Document document)
             throws IOException, DeserialisationException {
 
         Element element = XmlUtils.getChildElement(META_MATH_MODEL_WORK_ELEMENT, document.getDocumentElement());
         if (element != null) {
-            try (InputStream mathData = getZipEntry(element.getAttribute(META_MODEL_ENTRY_NAME_WORK_ATTRIBUTE), bytes)) {
+            try (InputStream mathData = entries.getEntry(element.getAttribute(META_MODEL_ENTRY_NAME_WORK_ATTRIBUTE))) {
                 PluginManager pm = Framework.getInstance().getPluginManager();
                 XMLModelDeserialiser mathDeserialiser = new XMLModelDeserialiser(pm);
                 return mathDeserialiser.deserialise(mathData, null, null);
@@ -218,12 +256,12 @@ public final class WorkUtils {
         return null;
     }
 
-    private static DeserialisationResult deserialiseVisualModel(byte[] bytes, Document document, DeserialisationResult mathResult)
+    private static DeserialisationResult deserialiseVisualModel(EntryProvider entries, Document document, DeserialisationResult mathResult)
             throws IOException, DeserialisationException {
 
         Element element = XmlUtils.getChildElement(META_VISUAL_MODEL_WORK_ELEMENT, document.getDocumentElement());
         if (element  != null) {
-            try (InputStream visualData = getZipEntry(element.getAttribute(META_MODEL_ENTRY_NAME_WORK_ATTRIBUTE), bytes)) {
+            try (InputStream visualData = entries.getEntry(element.getAttribute(META_MODEL_ENTRY_NAME_WORK_ATTRIBUTE))) {
                 if (visualData != null) {
                     PluginManager pm = Framework.getInstance().getPluginManager();
                     XMLModelDeserialiser visualDeserialiser = new XMLModelDeserialiser(pm);
@@ -268,8 +306,8 @@ public final class WorkUtils {
         return null;
     }
 
-    private static Document loadMetaDoc(byte[] bytes) throws DeserialisationException {
-        try (InputStream metaData = getZipEntry(META_WORK_ENTRY, bytes)) {
+    private static Document loadMetaDoc(EntryProvider entries) throws DeserialisationException {
+        try (InputStream metaData = entries.getEntry(META_WORK_ENTRY)) {
             if (metaData == null) {
                 throw new DeserialisationException("Meta entry is missing");
             }
@@ -279,10 +317,10 @@ public final class WorkUtils {
         }
     }
 
-    private static void loadSelectionState(byte[] bytes, VisualModel model, References references)
+    private static void loadSelectionState(EntryProvider entries, VisualModel model, References references)
             throws DeserialisationException {
 
-        try (InputStream stateData = getZipEntry(STATE_WORK_ENTRY, bytes)) {
+        try (InputStream stateData = entries.getEntry(STATE_WORK_ENTRY)) {
             if (stateData != null) {
                 Document stateDoc = XmlUtils.loadDocument(stateData);
                 Element stateElement = stateDoc.getDocumentElement();
@@ -308,6 +346,10 @@ public final class WorkUtils {
         }
     }
 
+    private interface EntryProvider {
+        InputStream getEntry(String name) throws IOException;
+    }
+
     private static InputStream getZipEntry(String name, byte[] bytes) throws IOException {
         ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
         ZipEntry ze;
@@ -322,8 +364,8 @@ public final class WorkUtils {
     }
 
     public static Collection<Resource> loadResources(File file) throws DeserialisationException {
-        try (InputStream is = new FileInputStream(file)) {
-            Collection<Resource> resources = loadResources(is);
+        try (ZipFile zipFile = new ZipFile(file, StandardCharsets.UTF_8)) {
+            Collection<Resource> resources = loadResources(zipFile);
             String base = FileUtils.getBasePath(file);
             return adjustResourceFilePaths(resources, base, true);
         } catch (IOException e) {
@@ -331,21 +373,19 @@ public final class WorkUtils {
         }
     }
 
-    private static Collection<Resource> loadResources(InputStream is) throws IOException {
-        byte[] bytes = DataAccumulator.loadStream(is);
+    private static Collection<Resource> loadResources(ZipFile zipFile) throws IOException {
         Collection<Resource> result = new ArrayList<>();
-        ByteArrayInputStream zippedData = new ByteArrayInputStream(bytes);
-        ZipInputStream zis = new ZipInputStream(zippedData, StandardCharsets.UTF_8);
-        ZipEntry ze;
-        while ((ze = zis.getNextEntry()) != null) {
+        Enumeration<? extends ZipEntry> zes = zipFile.entries();
+        while (zes.hasMoreElements()) {
+            ZipEntry ze = zes.nextElement();
             String name = ze.getName();
             if (name.startsWith(RESOURCES_WORK_ENTRY) && !RESOURCES_WORK_ENTRY.equals(name)) {
                 String key = name.substring(RESOURCES_WORK_ENTRY.length());
-                result.add(new Resource(key, zis));
+                try (InputStream is = zipFile.getInputStream(ze)) {
+                    result.add(new Resource(key, is));
+                }
             }
-            zis.closeEntry();
         }
-        zis.close();
         return result;
     }
 
@@ -44,6 +44,20 @@ public class XmlUtils {
         return ParseUtils.parseEnum(getAttribute(element, attributeName), enumType, defaultValue);
     }
 
+    public static List<Element> getChildElements(Element parent) {
+        LinkedList<Element> result = new LinkedList<>();
+        if (parent != null) {
+            NodeList nodes = parent.getChildNodes();
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Node node = nodes.item(i);
+                if (node.getNodeType() == Node.ELEMENT_NODE) {
+                    result.add((Element) node);
+                }
+            }
+        }
+        return result;
+    }
+
     public static List<Element> getChildElements(String elementName, Element parent) {
         LinkedList<Element> result = new LinkedList<>();
         if (parent != null) {
@@ -1,55 +1,291 @@
 package org.workcraft.workspace;
 
-import java.util.Stack;
+import java.awt.geom.AffineTransform;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
+/**
+ * Undo and redo stacks of model states. Only the top memento of each stack is kept in full, and every memento
+ * below it is stored as a delta that restores it from its neighbour above. A delta is computed per zip entry
+ * as the bytes between the common prefix and suffix of two consecutive mementos, which is small for a typical
+ * edit. If a delta does not pay off, then the memento is kept in full as a checkpoint. Consecutive states that
+ * only differ in node transforms share their memento, which then takes no space below the top. The oldest
+ * states are dropped when the total size of the history exceeds the memory limit.
+ */
 public class MementoManager {
-    private final Stack<Resource> undoStack = new Stack<>();
-    private final Stack<Resource> redoStack = new Stack<>();
 
-    public void pushUndo(Resource memento) {
-        this.undoStack.push(memento);
+    private static final byte[] EMPTY = new byte[0];
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final LinkedList<Item> undoStack = new LinkedList<>();
+    private final LinkedList<Item> redoStack = new LinkedList<>();
+    private long memoryLimit = Long.MAX_VALUE;
+    private long memorySize = 0;
+
+    public void setMemoryLimit(long value) {
+        memoryLimit = value;
+        enforceMemoryLimit();
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
     }
 
-    public Resource pullUndo() {
-        return undoStack.pop();
+    /**
+     * Number of bytes taken by the stored mementos and deltas.
+     */
+    public long getMemorySize() {
+        return memorySize;
+    }
+
+    public int getUndoCount() {
+        return undoStack.size();
+    }
+
+    public int getRedoCount() {
+        return redoStack.size();
+    }
+
+    public void pushUndo(ModelState state) {
+        push(undoStack, state);
+        enforceMemoryLimit();
+    }
+
+    public ModelState pullUndo() {
+        return pull(undoStack);
     }
 
     public boolean canUndo() {
-        return !undoStack.empty();
+        return !undoStack.isEmpty();
     }
 
-    public void pushRedo(Resource memento) {
-        this.redoStack.push(memento);
+    public void pushRedo(ModelState state) {
+        push(redoStack, state);
+        enforceMemoryLimit();
     }
 
-    public Resource pullRedo() {
-        return redoStack.pop();
+    public ModelState pullRedo() {
+        return pull(redoStack);
     }
 
     public boolean canRedo() {
-        return !redoStack.empty();
+        return !redoStack.isEmpty();
     }
 
-    public Resource undo(Resource memento) {
-        Resource result = null;
+    public ModelState undo(ModelState state) {
+        ModelState result = null;
         if (canUndo()) {
             result = pullUndo();
-            pushRedo(memento);
+            pushRedo(state);
         }
         return result;
     }
 
-    public Resource redo(Resource memento) {
-        Resource result = null;
+    public ModelState redo(ModelState state) {
+        ModelState result = null;
         if (canRedo()) {
             result = pullRedo();
-            pushUndo(memento);
+            pushUndo(state);
         }
         return result;
     }
 
     public void clearRedo() {
+        for (Item item : redoStack) {
+            memorySize -= item.getSize();
+        }
         redoStack.clear();
     }
 
+    private void push(LinkedList<Item> stack, ModelState state) {
+        Resource memento = state.getMemento();
+        Item top = stack.peekLast();
+        if ((top != null) && (top.memento == memento)) {
+            memorySize -= top.getSize();
+            top.setDelta(Delta.SAME);
+            memorySize += top.getSize();
+        } else if (top != null) {
+            try {
+                Map<String, byte[]> topEntries = unzip(top.memento);
+                Delta delta = new Delta(unzip(memento), topEntries);
+                if (delta.getSize() < top.getSize()) {
+                    memorySize -= top.getSize();
+                    top.setDelta(delta);
+                    memorySize += top.getSize();
+                }
+            } catch (IOException e) {
+                // Keep the top memento in full
+            }
+        }
+        Item item = new Item(state);
+        stack.addLast(item);
+        memorySize += item.getSize();
+    }
+
+    private ModelState pull(LinkedList<Item> stack) {
+        Item top = stack.removeLast();
+        memorySize -= top.getSize();
+        Item next = stack.peekLast();
+        if ((next != null) && (next.delta != null)) {
+            memorySize -= next.getSize();
+            try {
+                next.restore(top.memento);
+                memorySize += next.getSize();
+            } catch (IOException e) {
+                // The rest of the stack cannot be restored without this memento
+                for (Item item : stack) {
+                    memorySize -= item.getSize();
+                }
+                stack.clear();
+            }
+        }
+        return new ModelState(top.memento, top.transforms, top.mark, top.order);
+    }
+
+    private void enforceMemoryLimit() {
+        // The most recent undo memento is kept regardless of the limit
+        while ((memorySize > memoryLimit) && (undoStack.size() > 1)) {
+            memorySize -= undoStack.removeFirst().getSize();
+        }
+        while ((memorySize > memoryLimit) && !redoStack.isEmpty()) {
+            memorySize -= redoStack.removeFirst().getSize();
+        }
+    }
+
+    private static Map<String, byte[]> unzip(Resource memento) throws IOException {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(memento.toStream())) {
+            ZipEntry ze;
+            while ((ze = zis.getNextEntry()) != null) {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int count;
+                while ((count = zis.read(buffer)) > 0) {
+                    os.write(buffer, 0, count);
+                }
+                result.put(ze.getName(), os.toByteArray());
+                zis.closeEntry();
+            }
+        }
+        return result;
+    }
+
+    private static Resource zip(String name, Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(os)) {
+            zos.setLevel(Deflater.BEST_SPEED);
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(entry.getValue());
+                zos.closeEntry();
+            }
+        }
+        return new Resource(name, os);
+    }
+
+    private static final class Item {
+        // Memento in full, or null if it is stored as a delta
+        private Resource memento;
+        private Delta delta;
+        private final Map<String, AffineTransform> transforms;
+        private final ModelStateTracker.Mark mark;
+        private final long order;
+        private final long stateSize;
+        // Original memento may still be referenced elsewhere (e.g. as the saved state), and then it is returned
+        // instead of a restored copy to preserve its identity
+        private WeakReference<Resource> original;
+        private String name;
+
+        Item(ModelState state) {
+            memento = state.getMemento();
+            transforms = state.getTransforms();
+            mark = state.getMark();
+            order = state.getOrder();
+            stateSize = state.getSize();
+        }
+
+        void setDelta(Delta value) {
+            original = new WeakReference<>(memento);
+            name = memento.getName();
+            memento = null;
+            delta = value;
+        }
+
+        void restore(Resource neighbour) throws IOException {
+            Resource resource = original.get();
+            if (resource == null) {
+                resource = (delta == Delta.SAME) ? neighbour : zip(name, delta.apply(unzip(neighbour)));
+            }
+            memento = resource;
+            delta = null;
+            original = null;
+        }
+
+        long getSize() {
+            return (memento != null ? memento.getSize() : delta.getSize()) + stateSize;
+        }
+    }
+
+    /**
+     * Zip entries of a target memento given by their differences from the entries of a source memento.
+     */
+    private static final class Delta {
+        // Delta between the states that share their memento
+        private static final Delta SAME = new Delta(Collections.emptyMap(), Collections.emptyMap());
+
+        private final List<String> names = new ArrayList<>();
+        private final List<int[]> bounds = new ArrayList<>();
+        private final List<byte[]> middles = new ArrayList<>();
+        private long size = 0;
+
+        Delta(Map<String, byte[]> srcEntries, Map<String, byte[]> dstEntries) {
+            for (Map.Entry<String, byte[]> entry : dstEntries.entrySet()) {
+                String entryName = entry.getKey();
+                byte[] src = srcEntries.getOrDefault(entryName, EMPTY);
+                byte[] dst = entry.getValue();
+                int maxLength = Math.min(src.length, dst.length);
+                int prefix = 0;
+                while ((prefix < maxLength) && (src[prefix] == dst[prefix])) {
+                    prefix++;
+                }
+                int suffix = 0;
+                while ((suffix < maxLength - prefix) && (src[src.length - 1 - suffix] == dst[dst.length - 1 - suffix])) {
+                    suffix++;
+                }
+                byte[] middle = Arrays.copyOfRange(dst, prefix, dst.length - suffix);
+                names.add(entryName);
+                bounds.add(new int[] {prefix, suffix});
+                middles.add(middle);
+                size += middle.length + entryName.length() + 2 * Integer.BYTES;
+            }
+        }
+
+        Map<String, byte[]> apply(Map<String, byte[]> srcEntries) {
+            Map<String, byte[]> result = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                String entryName = names.get(i);
+                byte[] src = srcEntries.getOrDefault(entryName, EMPTY);
+                int prefix = bounds.get(i)[0];
+                int suffix = bounds.get(i)[1];
+                byte[] middle = middles.get(i);
+                byte[] dst = new byte[prefix + middle.length + suffix];
+                System.arraycopy(src, 0, dst, 0, prefix);
+                System.arraycopy(middle, 0, dst, prefix, middle.length);
+                System.arraycopy(src, src.length - suffix, dst, prefix + middle.length, suffix);
+                result.put(entryName, dst);
+            }
+            return result;
+        }
+
+        long getSize() {
+            return size;
+        }
+    }
+
 }
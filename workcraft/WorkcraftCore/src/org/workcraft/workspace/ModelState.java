@@ -0,0 +1,93 @@
+package org.workcraft.workspace;
+
+import java.awt.geom.AffineTransform;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * State of a model in the undo history given by a model memento and the transforms of the nodes that were moved
+ * after the memento was taken. The moved nodes are identified by the path of their child indices from the root
+ * of the visual model, as the order of children is preserved when the memento is loaded. A state captured by
+ * {@link ModelStateTracker} also refers to its mark in the journal of model edits, so that it can be restored
+ * in place by reverting or replaying the edits.
+ */
+public final class ModelState {
+
+    // Approximate number of bytes taken by a transform entry, excluding its path
+    private static final int TRANSFORM_SIZE = 6 * Double.BYTES + 32;
+
+    private final Resource memento;
+    private final Map<String, AffineTransform> transforms;
+    private final ModelStateTracker.Mark mark;
+    private final long order;
+
+    public ModelState(Resource memento) {
+        this(memento, Collections.emptyMap());
+    }
+
+    public ModelState(Resource memento, Map<String, AffineTransform> transforms) {
+        this(memento, transforms, null, -1);
+    }
+
+    ModelState(Resource memento, Map<String, AffineTransform> transforms, ModelStateTracker.Mark mark, long order) {
+        this.memento = memento;
+        this.mark = mark;
+        this.order = order;
+        Map<String, AffineTransform> copy = new HashMap<>();
+        for (Map.Entry<String, AffineTransform> entry : transforms.entrySet()) {
+            copy.put(entry.getKey(), new AffineTransform(entry.getValue()));
+        }
+        this.transforms = Collections.unmodifiableMap(copy);
+    }
+
+    public Resource getMemento() {
+        return memento;
+    }
+
+    public Map<String, AffineTransform> getTransforms() {
+        return transforms;
+    }
+
+    ModelStateTracker.Mark getMark() {
+        return mark;
+    }
+
+    /**
+     * Order of children in the memento, which the transform paths refer to.
+     */
+    long getOrder() {
+        return order;
+    }
+
+    /**
+     * Number of bytes taken by the transforms and by the journal edits that lead to this state, as the memento
+     * may be shared with other states.
+     */
+    public long getSize() {
+        long result = (mark == null) ? 0 : mark.getSize();
+        for (String path : transforms.keySet()) {
+            result += path.length() + TRANSFORM_SIZE;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ModelState)) {
+            return false;
+        }
+        ModelState other = (ModelState) obj;
+        return (memento == other.memento) && transforms.equals(other.transforms);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(memento), transforms);
+    }
+
+}
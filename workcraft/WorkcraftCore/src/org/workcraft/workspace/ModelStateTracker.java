@@ -0,0 +1,709 @@
+package org.workcraft.workspace;
+
+import org.workcraft.dom.Connection;
+import org.workcraft.dom.Container;
+import org.workcraft.dom.Node;
+import org.workcraft.dom.hierarchy.NamespaceProvider;
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.dom.references.HierarchyReferenceManager;
+import org.workcraft.dom.references.NameManager;
+import org.workcraft.dom.references.ReferenceManager;
+import org.workcraft.dom.visual.Dependent;
+import org.workcraft.dom.visual.VisualNode;
+import org.workcraft.dom.visual.VisualTransformableNode;
+import org.workcraft.exceptions.ArgumentException;
+import org.workcraft.observation.*;
+import org.workcraft.utils.Hierarchy;
+import org.workcraft.utils.WorkUtils;
+
+import java.awt.geom.AffineTransform;
+import java.util.*;
+
+/**
+ * Records the edits of a model in a journal, so that the captured model states are restored in place by reverting
+ * or replaying the edits between them. Structural edits are recorded from the hierarchy events (nodes are added,
+ * deleted and reparented within their namespace) and node moves from the transform events. Other changes cannot be
+ * reverted from their events, as property events do not carry the old value, and neither can renaming of nodes or
+ * retitling of the model. Such a change breaks the journal, and the states captured before it are then restored by
+ * loading their mementos. Hence every state still has a memento as a checkpoint, but it is shared by consecutive
+ * states that only differ in node transforms, and the moved nodes are identified by the path of their child indices.
+ * Nodes that are added back in place go to the end of their parent, so the paths are only valid for the mementos
+ * taken with the current order of children.
+ */
+class ModelStateTracker {
+
+    // Transforms are reapplied several times, as moving a node may adjust the control points of its connections
+    private static final int MAX_RESTORE_PASS_COUNT = 3;
+    // Approximate number of bytes taken by a journal edit, and by a node that is kept for it
+    private static final int EDIT_SIZE = 64;
+    private static final int NODE_SIZE = 256;
+
+    /**
+     * Point in the journal between two consecutive captured states, followed by the edits that lead to the next mark.
+     */
+    static final class Mark {
+        private final long size;
+        private List<Change> changes = null;
+        private List<Move> moves = null;
+        private Mark next = null;
+
+        Mark(long size) {
+            this.size = size;
+        }
+
+        /**
+         * Number of bytes taken by the edits that lead to this mark.
+         */
+        long getSize() {
+            return size;
+        }
+    }
+
+    private static final class Change {
+        private final Node node;
+        private final Node oldParent;
+        private final Node newParent;
+
+        Change(Node node, Node oldParent, Node newParent) {
+            this.node = node;
+            this.oldParent = oldParent;
+            this.newParent = newParent;
+        }
+    }
+
+    private static final class Move {
+        private final VisualTransformableNode node;
+        private final AffineTransform oldTransform;
+        private final AffineTransform newTransform;
+
+        Move(VisualTransformableNode node, AffineTransform oldTransform, AffineTransform newTransform) {
+            this.node = node;
+            this.oldTransform = oldTransform;
+            this.newTransform = newTransform;
+        }
+    }
+
+    private final ModelEntry modelEntry;
+    private final Node mathRoot;
+    private final HierarchyReferenceManager referenceManager;
+
+    private Resource memento = null;
+    // Order of children is changed when nodes are added back in place, and the memento refers to the order it was taken
+    private long order = 0;
+    private long mementoOrder = 0;
+    // Transforms of the moved nodes at the time of the memento, or null if unknown (the node is then always included)
+    private final Map<VisualTransformableNode, AffineTransform> movedNodes = new IdentityHashMap<>();
+    private final Map<VisualTransformableNode, AffineTransform> changingNodes = new IdentityHashMap<>();
+
+    private Mark mark = new Mark(0);
+    private List<Change> changes = new ArrayList<>();
+    private List<Move> moves = new ArrayList<>();
+    private long changesSize = 0;
+    private boolean isBroken = false;
+    // Nodes added and deleted since the last mark, whose properties and names are kept with them
+    private final Set<Node> addedNodes = new HashSet<>();
+    private final Set<Node> deletedNodes = new HashSet<>();
+    private final Set<Node> addingNodes = new HashSet<>();
+    private final Set<Node> deletingNodes = new HashSet<>();
+    private final Set<Node> reparentingNodes = new HashSet<>();
+    // Names of the math nodes, as they are dropped when the nodes are deleted
+    private final Map<Node, String> names = new WeakHashMap<>();
+    private String title;
+    // Nodes of the model as counted from the hierarchy events, which differs from the actual count if nodes
+    // were added or removed without notification
+    private int nodeCount;
+    // Nodes that are being put back in place, while the recording is suspended
+    private Set<Node> replayedNodes = null;
+    private boolean isReplayFailed = false;
+
+    ModelStateTracker(ModelEntry modelEntry) {
+        this.modelEntry = modelEntry;
+        mathRoot = modelEntry.getMathModel().getRoot();
+        ReferenceManager mathReferenceManager = modelEntry.getMathModel().getReferenceManager();
+        if (mathReferenceManager instanceof HierarchyReferenceManager) {
+            referenceManager = (HierarchyReferenceManager) mathReferenceManager;
+            referenceManager.addNameChangeListener(this::handleNameChange);
+        } else {
+            referenceManager = null;
+        }
+        attach(mathRoot);
+        if (modelEntry.isVisual()) {
+            attach(modelEntry.getVisualModel().getRoot());
+        }
+        title = modelEntry.getModel().getTitle();
+        nodeCount = countNodes();
+    }
+
+    private void attach(Node root) {
+        new StateSupervisor() {
+            @Override
+            public void handleEvent(StateEvent e) {
+                handleStateEvent(e);
+            }
+
+            @Override
+            public void handleHierarchyEvent(HierarchyEvent e) {
+                ModelStateTracker.this.handleHierarchyEvent(e);
+            }
+        }.attach(root);
+    }
+
+    private void handleHierarchyEvent(HierarchyEvent e) {
+        // Root of the model is added without a parent when the supervisor is attached
+        if (e.getSender() == null) {
+            return;
+        }
+        if (e instanceof NodesAddedEvent) {
+            nodeCount += countNodes(e.getAffectedNodes());
+        } else if ((e instanceof NodesDeletedEvent) || (e instanceof NodesReparentingEvent)) {
+            // Reparented nodes are counted again when they are added to their new parent
+            nodeCount -= countNodes(e.getAffectedNodes());
+        }
+        if (replayedNodes != null) {
+            if (!replayedNodes.containsAll(e.getAffectedNodes())) {
+                isReplayFailed = true;
+            }
+        } else if (e instanceof NodesAddingEvent) {
+            for (Node node : e.getAffectedNodes()) {
+                // Reparented nodes are added to their new parent with a separate event
+                if (!reparentingNodes.contains(node)) {
+                    addingNodes.add(node);
+                    addedNodes.add(node);
+                    record(new Change(node, null, (Node) e.getSender()), EDIT_SIZE);
+                }
+            }
+        } else if (e instanceof NodesAddedEvent) {
+            for (Node node : e.getAffectedNodes()) {
+                if (!reparentingNodes.contains(node) && !addingNodes.remove(node)) {
+                    breakJournal();
+                }
+            }
+        } else if (e instanceof NodesDeletingEvent) {
+            for (Node node : e.getAffectedNodes()) {
+                deletingNodes.add(node);
+                deletedNodes.add(node);
+                captureNames(node);
+                record(new Change(node, (Node) e.getSender(), null), EDIT_SIZE + NODE_SIZE * countNodes(node));
+            }
+        } else if (e instanceof NodesDeletedEvent) {
+            for (Node node : e.getAffectedNodes()) {
+                if (!deletingNodes.remove(node)) {
+                    breakJournal();
+                }
+            }
+        } else if (e instanceof NodesReparentingEvent) {
+            NodesReparentingEvent reparentingEvent = (NodesReparentingEvent) e;
+            Node oldParent = reparentingEvent.getOldParent();
+            Node newParent = reparentingEvent.getNewParent();
+            reparentingNodes.addAll(e.getAffectedNodes());
+            if (isSameNamespace(oldParent, newParent)) {
+                for (Node node : e.getAffectedNodes()) {
+                    record(new Change(node, oldParent, newParent), EDIT_SIZE);
+                }
+            } else {
+                breakJournal();
+            }
+        } else if (e instanceof NodesReparentedEvent) {
+            reparentingNodes.removeAll(e.getAffectedNodes());
+        }
+    }
+
+    private void handleStateEvent(StateEvent e) {
+        Object sender = e.getSender();
+        if ((e instanceof TransformChangingEvent) && (sender instanceof VisualTransformableNode)) {
+            VisualTransformableNode node = (VisualTransformableNode) sender;
+            changingNodes.put(node, new AffineTransform(node.getTransform()));
+        } else if ((e instanceof TransformChangedEvent) && (sender instanceof VisualTransformableNode)) {
+            VisualTransformableNode node = (VisualTransformableNode) sender;
+            AffineTransform transform = changingNodes.remove(node);
+            if (replayedNodes != null) {
+                // Moves are restored separately after the structure
+            } else if ((transform == null) || transform.equals(node.getTransform())) {
+                breakJournal();
+            } else {
+                beginEdit();
+                moves.add(new Move(node, transform, new AffineTransform(node.getTransform())));
+                if (memento != null) {
+                    movedNodes.putIfAbsent(node, transform);
+                }
+            }
+        } else if (replayedNodes != null) {
+            if (!(sender instanceof Node) || !isDescendantOf((Node) sender, replayedNodes)) {
+                isReplayFailed = true;
+            }
+        } else if (!(e instanceof PropertyChangedEvent) || !(sender instanceof Node)
+                || !isDescendantOf((Node) sender, addedNodes)) {
+            breakJournal();
+        }
+    }
+
+    private void handleNameChange(Node node) {
+        if (replayedNodes != null) {
+            if (!isDescendantOf(node, replayedNodes)) {
+                isReplayFailed = true;
+            }
+        } else if (!isDescendantOf(node, addedNodes) && !isDescendantOf(node, deletedNodes)
+                && !isDescendantOf(node, reparentingNodes)) {
+            breakJournal();
+        }
+    }
+
+    private void record(Change change, long size) {
+        beginEdit();
+        changes.add(change);
+        changesSize += size;
+        invalidateMemento();
+    }
+
+    private void beginEdit() {
+        if (mark.next != null) {
+            // Edits after an undo replace the redo branch of the journal
+            mark.next = null;
+            mark.changes = null;
+            mark.moves = null;
+        }
+        isBroken = false;
+    }
+
+    private void breakJournal() {
+        invalidateMemento();
+        if (!isBroken) {
+            isBroken = true;
+            mark = new Mark(0);
+            changes = new ArrayList<>();
+            moves = new ArrayList<>();
+            changesSize = 0;
+            addedNodes.clear();
+            deletedNodes.clear();
+            // Nodes added or removed without notification are accounted for in the new journal
+            nodeCount = countNodes();
+        }
+    }
+
+    private void seal() {
+        if (!changes.isEmpty() || !moves.isEmpty()) {
+            Mark next = new Mark(changesSize + EDIT_SIZE * moves.size());
+            mark.changes = changes;
+            mark.moves = moves;
+            mark.next = next;
+            mark = next;
+            changes = new ArrayList<>();
+            moves = new ArrayList<>();
+            changesSize = 0;
+            addedNodes.clear();
+            deletedNodes.clear();
+        }
+    }
+
+    private void update() {
+        // Renaming cannot be tracked with a custom name manager, and retitling of the model is not notified
+        String modelTitle = modelEntry.getModel().getTitle();
+        if ((referenceManager == null) || !referenceManager.isNameChangeTracked() || !Objects.equals(title, modelTitle)) {
+            title = modelTitle;
+            breakJournal();
+        }
+    }
+
+    private void invalidateMemento() {
+        memento = null;
+        movedNodes.clear();
+    }
+
+    public ModelState getState() {
+        update();
+        if ((memento != null) && !movedNodes.isEmpty() && (mementoOrder != order)) {
+            invalidateMemento();
+        }
+        if (memento == null) {
+            memento = WorkUtils.mementoModel(modelEntry);
+            mementoOrder = order;
+        }
+        seal();
+        isBroken = false;
+        Map<String, AffineTransform> transforms = new HashMap<>();
+        Map<Node, Map<Node, Integer>> indices = new HashMap<>();
+        for (Map.Entry<VisualTransformableNode, AffineTransform> entry : movedNodes.entrySet()) {
+            VisualTransformableNode node = entry.getKey();
+            AffineTransform transform = node.getTransform();
+            if (!transform.equals(entry.getValue())) {
+                transforms.put(getPath(node, indices), transform);
+            }
+        }
+        return new ModelState(memento, transforms, mark, mementoOrder);
+    }
+
+    /**
+     * Memento of the model in full, taken anew if some nodes were moved since the last one.
+     */
+    public Resource getMemento() {
+        ModelState state = getState();
+        if (!state.getTransforms().isEmpty()) {
+            invalidateMemento();
+            state = getState();
+        }
+        return state.getMemento();
+    }
+
+    /**
+     * Restores the given state by reverting or replaying the journal edits between it and the current state.
+     * Returns false if the state cannot be reached in the journal, and then it has to be loaded from its memento.
+     */
+    public boolean restoreInPlace(ModelState state) {
+        Mark target = state.getMark();
+        if (target == null) {
+            return false;
+        }
+        update();
+        seal();
+        boolean isUndo = true;
+        List<Mark> marks = getMarks(target, mark);
+        if (marks == null) {
+            isUndo = false;
+            marks = getMarks(mark, target);
+        }
+        if ((marks == null) || (nodeCount != countNodes())) {
+            return false;
+        }
+        Map<Node, Node> parents = new LinkedHashMap<>();
+        Map<VisualTransformableNode, AffineTransform> transforms = new LinkedHashMap<>();
+        if (isUndo) {
+            // Nodes go back to where they were before their first edit
+            for (int i = marks.size() - 1; i >= 0; i--) {
+                Mark m = marks.get(i);
+                for (int j = m.changes.size() - 1; j >= 0; j--) {
+                    Change change = m.changes.get(j);
+                    parents.put(change.node, change.oldParent);
+                }
+                for (int j = m.moves.size() - 1; j >= 0; j--) {
+                    Move move = m.moves.get(j);
+                    transforms.put(move.node, move.oldTransform);
+                }
+            }
+        } else {
+            for (Mark m : marks) {
+                for (Change change : m.changes) {
+                    parents.put(change.node, change.newParent);
+                }
+                for (Move move : m.moves) {
+                    transforms.put(move.node, move.newTransform);
+                }
+            }
+        }
+        replay(parents, transforms);
+        if (isReplayFailed) {
+            breakJournal();
+            return false;
+        }
+        mark = target;
+        isBroken = false;
+        if (!parents.isEmpty()) {
+            order++;
+            invalidateMemento();
+            if (state.getTransforms().isEmpty()) {
+                memento = state.getMemento();
+                mementoOrder = state.getOrder();
+            }
+        } else if (memento != state.getMemento()) {
+            invalidateMemento();
+            if (state.getOrder() == order) {
+                memento = state.getMemento();
+                mementoOrder = order;
+                for (VisualTransformableNode node : getTargets(state.getTransforms()).keySet()) {
+                    movedNodes.put(node, null);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restores the transforms of the given state on the model that has just been loaded from its memento.
+     */
+    public void restoreLoaded(ModelState state) {
+        memento = state.getMemento();
+        mementoOrder = order;
+        movedNodes.clear();
+        Map<VisualTransformableNode, AffineTransform> targets = getTargets(state.getTransforms());
+        for (VisualTransformableNode node : targets.keySet()) {
+            movedNodes.put(node, new AffineTransform(node.getTransform()));
+        }
+        replayedNodes = Collections.emptySet();
+        try {
+            applyTransforms(targets);
+        } finally {
+            replayedNodes = null;
+        }
+    }
+
+    private static List<Mark> getMarks(Mark fromMark, Mark toMark) {
+        List<Mark> result = new ArrayList<>();
+        for (Mark m = fromMark; m != toMark; m = m.next) {
+            if (m == null) {
+                return null;
+            }
+            result.add(m);
+        }
+        return result;
+    }
+
+    private void replay(Map<Node, Node> parents, Map<VisualTransformableNode, AffineTransform> transforms) {
+        replayedNodes = new HashSet<>(parents.keySet());
+        isReplayFailed = false;
+        try {
+            for (Node node : parents.keySet()) {
+                if (node.getParent() != null) {
+                    captureNames(node);
+                }
+            }
+            // Connections and visual nodes are removed first, so that their removal does not cascade
+            // to the nodes that are only moved
+            List<Node> removedNodes = new ArrayList<>();
+            Map<Node, Node> placedNodes = new LinkedHashMap<>();
+            for (Map.Entry<Node, Node> entry : parents.entrySet()) {
+                Node node = entry.getKey();
+                Node parent = entry.getValue();
+                if (parent == null) {
+                    removedNodes.add(node);
+                } else if (node.getParent() != parent) {
+                    placedNodes.put(node, parent);
+                }
+            }
+            removedNodes.sort(Comparator.comparingInt(node -> -getPlacementRank(node)));
+            for (Node node : removedNodes) {
+                Node parent = node.getParent();
+                if (parent instanceof Container) {
+                    ((Container) parent).remove(node);
+                }
+            }
+            // Nodes are put in place after their parents, connected nodes and referenced math nodes
+            while (!placedNodes.isEmpty()) {
+                List<Node> readyNodes = new ArrayList<>();
+                for (Map.Entry<Node, Node> entry : placedNodes.entrySet()) {
+                    if (isReady(entry.getKey(), entry.getValue(), placedNodes.keySet())) {
+                        readyNodes.add(entry.getKey());
+                    }
+                }
+                if (readyNodes.isEmpty()) {
+                    readyNodes.addAll(placedNodes.keySet());
+                }
+                readyNodes.sort(Comparator.comparingInt(ModelStateTracker::getPlacementRank));
+                place(readyNodes, placedNodes);
+                placedNodes.keySet().removeAll(readyNodes);
+            }
+            Map<VisualTransformableNode, AffineTransform> targets = new LinkedHashMap<>();
+            for (Map.Entry<VisualTransformableNode, AffineTransform> entry : transforms.entrySet()) {
+                if (entry.getKey().getParent() != null) {
+                    targets.put(entry.getKey(), entry.getValue());
+                }
+            }
+            applyTransforms(targets);
+        } catch (RuntimeException e) {
+            // Model is left inconsistent, and the state is loaded from its memento instead
+            isReplayFailed = true;
+        } finally {
+            replayedNodes = null;
+        }
+    }
+
+    private void place(List<Node> nodes, Map<Node, Node> parents) {
+        Map<Node, List<Node>> addedNodes = new LinkedHashMap<>();
+        Map<Node, Map<Node, List<Node>>> reparentedNodes = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            Node parent = parents.get(node);
+            if (node.getParent() == null) {
+                presetNames(node, parent);
+                addedNodes.computeIfAbsent(parent, key -> new ArrayList<>()).add(node);
+            } else {
+                reparentedNodes.computeIfAbsent(node.getParent(), key -> new LinkedHashMap<>())
+                        .computeIfAbsent(parent, key -> new ArrayList<>()).add(node);
+            }
+        }
+        for (Map.Entry<Node, Map<Node, List<Node>>> oldParentEntry : reparentedNodes.entrySet()) {
+            Container oldParent = (Container) oldParentEntry.getKey();
+            for (Map.Entry<Node, List<Node>> entry : oldParentEntry.getValue().entrySet()) {
+                oldParent.reparent(entry.getValue(), (Container) entry.getKey());
+            }
+        }
+        for (Map.Entry<Node, List<Node>> entry : addedNodes.entrySet()) {
+            ((Container) entry.getKey()).add(entry.getValue());
+        }
+    }
+
+    private static int getPlacementRank(Node node) {
+        int result = (node instanceof VisualNode) ? 2 : 0;
+        return (node instanceof Connection) ? result + 1 : result;
+    }
+
+    private static boolean isReady(Node node, Node parent, Set<Node> pendingNodes) {
+        if (isDescendantOf(parent, pendingNodes)) {
+            return false;
+        }
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(node);
+        nodes.addAll(Hierarchy.getDescendantsOfType(node, Node.class));
+        for (Node n : nodes) {
+            if (n instanceof Connection) {
+                Connection connection = (Connection) n;
+                if (isDescendantOf(connection.getFirst(), pendingNodes)
+                        || isDescendantOf(connection.getSecond(), pendingNodes)) {
+                    return false;
+                }
+            }
+            if (n instanceof Dependent) {
+                for (MathNode mathNode : ((Dependent) n).getMathReferences()) {
+                    if (isDescendantOf(mathNode, pendingNodes)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDescendantOf(Node node, Set<Node> nodes) {
+        if (!nodes.isEmpty()) {
+            for (Node n = node; n != null; n = n.getParent()) {
+                if (nodes.contains(n)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isSameNamespace(Node oldParent, Node newParent) {
+        return Hierarchy.getNearestAncestor(oldParent, NamespaceProvider.class)
+                == Hierarchy.getNearestAncestor(newParent, NamespaceProvider.class);
+    }
+
+    private void captureNames(Node node) {
+        if ((referenceManager != null) && (Hierarchy.getTopParent(node) == mathRoot)) {
+            String name = referenceManager.getName(node);
+            if (name != null) {
+                names.put(node, name);
+            }
+            for (Node childNode : Hierarchy.getDescendantsOfType(node, Node.class)) {
+                String childName = referenceManager.getName(childNode);
+                if (childName != null) {
+                    names.put(childNode, childName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Names the nodes before they are added back, so that they do not get default names.
+     */
+    private void presetNames(Node node, Node parent) {
+        if ((referenceManager != null) && (Hierarchy.getTopParent(parent) == mathRoot)) {
+            presetName(node, Hierarchy.getNearestAncestor(parent, NamespaceProvider.class));
+        }
+    }
+
+    private void presetName(Node node, NamespaceProvider provider) {
+        String name = names.get(node);
+        if (name != null) {
+            NameManager nameManager = referenceManager.getNameManager(provider);
+            if (!nameManager.isNamed(node) && (nameManager.getNode(name) == null)) {
+                try {
+                    nameManager.setName(node, name, true);
+                } catch (ArgumentException e) {
+                    // Default name is given to the node when it is added
+                }
+            }
+        }
+        NamespaceProvider childProvider = (node instanceof NamespaceProvider) ? (NamespaceProvider) node : provider;
+        for (Node childNode : node.getChildren()) {
+            presetName(childNode, childProvider);
+        }
+    }
+
+    private int countNodes() {
+        int result = countNodes(mathRoot);
+        if (modelEntry.isVisual()) {
+            result += countNodes(modelEntry.getVisualModel().getRoot());
+        }
+        return result;
+    }
+
+    private static int countNodes(Collection<Node> nodes) {
+        int result = 0;
+        for (Node node : nodes) {
+            result += countNodes(node);
+        }
+        return result;
+    }
+
+    private static int countNodes(Node node) {
+        int result = 1;
+        for (Node childNode : node.getChildren()) {
+            result += countNodes(childNode);
+        }
+        return result;
+    }
+
+    private Map<VisualTransformableNode, AffineTransform> getTargets(Map<String, AffineTransform> transforms) {
+        Map<VisualTransformableNode, AffineTransform> result = new IdentityHashMap<>();
+        if (modelEntry.isVisual()) {
+            Node root = modelEntry.getVisualModel().getRoot();
+            Map<Node, List<Node>> children = new HashMap<>();
+            for (Map.Entry<String, AffineTransform> entry : transforms.entrySet()) {
+                Node node = getNode(root, entry.getKey(), children);
+                if (node instanceof VisualTransformableNode) {
+                    result.put((VisualTransformableNode) node, entry.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    private void applyTransforms(Map<VisualTransformableNode, AffineTransform> targets) {
+        boolean done = false;
+        for (int pass = 0; !done && (pass < MAX_RESTORE_PASS_COUNT); pass++) {
+            done = true;
+            for (Map.Entry<VisualTransformableNode, AffineTransform> entry : targets.entrySet()) {
+                VisualTransformableNode node = entry.getKey();
+                if (!node.getTransform().equals(entry.getValue())) {
+                    node.setTransform(entry.getValue());
+                    done = false;
+                }
+            }
+        }
+    }
+
+    private static String getPath(Node node, Map<Node, Map<Node, Integer>> indices) {
+        LinkedList<String> result = new LinkedList<>();
+        Node parent = node.getParent();
+        while (parent != null) {
+            Map<Node, Integer> parentIndices = indices.computeIfAbsent(parent, ModelStateTracker::getChildIndices);
+            result.addFirst(String.valueOf(parentIndices.get(node)));
+            node = parent;
+            parent = node.getParent();
+        }
+        return String.join("/", result);
+    }
+
+    private static Map<Node, Integer> getChildIndices(Node parent) {
+        Map<Node, Integer> result = new IdentityHashMap<>();
+        for (Node child : parent.getChildren()) {
+            result.put(child, result.size());
+        }
+        return result;
+    }
+
+    private static Node getNode(Node root, String path, Map<Node, List<Node>> children) {
+        Node result = root;
+        if (!path.isEmpty()) {
+            for (String item : path.split("/")) {
+                List<Node> nodes = children.computeIfAbsent(result, node -> new ArrayList<>(node.getChildren()));
+                int index = Integer.parseInt(item);
+                if (index >= nodes.size()) {
+                    return null;
+                }
+                result = nodes.get(index);
+            }
+        }
+        return result;
+    }
+
+}
@@ -33,6 +33,10 @@ public class Resource {
         return new ByteArrayInputStream(data);
     }
 
+    public int getSize() {
+        return data.length;
+    }
+
     public byte[] toByteArray() {
         return Arrays.copyOf(data, data.length);
     }
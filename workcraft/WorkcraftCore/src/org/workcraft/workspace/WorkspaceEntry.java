@@ -33,8 +33,9 @@ public class WorkspaceEntry implements ObservableState {
     private boolean canCopy = true;
 
     private final MementoManager history = new MementoManager();
-    private Resource capturedMemento = null;
-    private Resource savedMemento = null;
+    private ModelState capturedState = null;
+    private ModelState savedState = null;
+    private ModelStateTracker stateTracker = null;
 
     private VisualNode templateNode = null;
     private VisualNode defaultNode = null;
@@ -46,7 +47,7 @@ public class WorkspaceEntry implements ObservableState {
         if (this.changed != changed) {
             this.changed = changed;
             if (!changed) {
-                savedMemento = null;
+                savedState = null;
             }
             Framework framework = Framework.getInstance();
             Workspace workspace = framework.getWorkspace();
@@ -99,6 +100,7 @@ public class WorkspaceEntry implements ObservableState {
             }
         }
         this.modelEntry = modelEntry;
+        stateTracker = new ModelStateTracker(modelEntry);
 
         observableState.sendNotification(new StateEvent() {
             @Override
@@ -239,50 +241,63 @@ public class WorkspaceEntry implements ObservableState {
         updateActionState();
     }
 
+    private void restoreState(ModelState state) {
+        if (!stateTracker.restoreInPlace(state)) {
+            setModelEntry(WorkUtils.loadModel(state.getMemento()));
+            stateTracker.restoreLoaded(state);
+        }
+        setChanged(!state.equals(savedState));
+    }
+
+    private void updateHistoryLimit() {
+        history.setMemoryLimit(EditorCommonSettings.getUndoMemoryLimit() * 1024L * 1024L);
+    }
+
     public void captureMemento() {
-        capturedMemento = WorkUtils.mementoModel(modelEntry);
+        capturedState = stateTracker.getState();
         if (!changed) {
-            savedMemento = capturedMemento;
+            savedState = capturedState;
         }
     }
 
     public void uncaptureMemento() {
-        capturedMemento = null;
+        capturedState = null;
     }
 
     public void cancelMemento() {
-        if (capturedMemento != null) {
-            setModelEntry(WorkUtils.loadModel(capturedMemento));
-            setChanged(savedMemento != capturedMemento);
-            capturedMemento = null;
+        if (capturedState != null) {
+            ModelState state = capturedState;
+            capturedState = null;
+            restoreState(state);
         }
     }
 
     public void saveMemento() {
-        Resource currentMemento = capturedMemento;
-        capturedMemento = null;
-        if (currentMemento == null) {
-            currentMemento = WorkUtils.mementoModel(modelEntry);
+        ModelState state = capturedState;
+        capturedState = null;
+        if (state == null) {
+            state = stateTracker.getState();
         }
         if (!changed) {
-            savedMemento = currentMemento;
+            savedState = state;
         }
-        history.pushUndo(currentMemento);
+        updateHistoryLimit();
+        history.pushUndo(state);
         history.clearRedo();
         updateActionState();
     }
 
     public void undo() {
         if (history.canUndo()) {
-            Resource undoMemento = history.pullUndo();
-            if (undoMemento != null) {
-                Resource currentMemento = WorkUtils.mementoModel(modelEntry);
+            ModelState undoState = history.pullUndo();
+            if (undoState != null) {
+                ModelState state = stateTracker.getState();
                 if (!changed) {
-                    savedMemento = currentMemento;
+                    savedState = state;
                 }
-                history.pushRedo(currentMemento);
-                setModelEntry(WorkUtils.loadModel(undoMemento));
-                setChanged(undoMemento != savedMemento);
+                updateHistoryLimit();
+                history.pushRedo(state);
+                restoreState(undoState);
             }
         }
         updateActionState();
@@ -290,15 +305,15 @@ public class WorkspaceEntry implements ObservableState {
 
     public void redo() {
         if (history.canRedo()) {
-            Resource redoMemento = history.pullRedo();
-            if (redoMemento != null) {
-                Resource currentMemento = WorkUtils.mementoModel(modelEntry);
+            ModelState redoState = history.pullRedo();
+            if (redoState != null) {
+                ModelState state = stateTracker.getState();
                 if (!changed) {
-                    savedMemento = currentMemento;
+                    savedState = state;
                 }
-                history.pushUndo(currentMemento);
-                setModelEntry(WorkUtils.loadModel(redoMemento));
-                setChanged(redoMemento != savedMemento);
+                updateHistoryLimit();
+                history.pushUndo(state);
+                restoreState(redoState);
             }
         }
         updateActionState();
@@ -306,9 +321,9 @@ public class WorkspaceEntry implements ObservableState {
 
     public void insert(ModelEntry me) {
         try {
-            Resource currentMemento = WorkUtils.mementoModel(modelEntry);
+            Resource memento = stateTracker.getMemento();
             Resource insertMemento = WorkUtils.mementoModel(me);
-            ModelEntry result = WorkUtils.loadModel(currentMemento.toStream(), insertMemento.toStream());
+            ModelEntry result = WorkUtils.loadModel(memento.toStream(), insertMemento.toStream());
             saveMemento();
             setModelEntry(result);
             setChanged(true);
@@ -355,7 +370,7 @@ public class WorkspaceEntry implements ObservableState {
         final Framework framework = Framework.getInstance();
         if (framework.clipboard != null) {
             try {
-                Resource memento = WorkUtils.mementoModel(modelEntry);
+                Resource memento = stateTracker.getMemento();
                 ModelEntry me = WorkUtils.loadModel(memento.toStream(), framework.clipboard.toStream());
 
                 VisualModel model = me.getVisualModel();
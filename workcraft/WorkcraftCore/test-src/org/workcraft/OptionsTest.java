@@ -13,29 +13,33 @@ class OptionsTest {
     @Test
     void testEmptyOptions() {
         testOptions(new Options(Collections.emptyList()), Collections.emptyList(), null, null, null,
-                false, false, false, false);
+                null, null, null, null, false, false, false, false);
     }
 
     @Test
     void testAllOptions() {
         testOptions(new Options(Arrays.asList("aaa", "bbb", "-dir:abc/def", "-exec:script.js", "-port:12345",
+                "-batch:batch.js", "-jobs:4", "-timeout:60", "-results:results.csv",
                 "-nogui", "-noconfig", "-help", "-version")),
                 Arrays.asList("aaa", "bbb"), new File("abc/def"), "script.js", 12345,
-                true, true, true, true);
+                "batch.js", 4, 60, new File("results.csv"), true, true, true, true);
     }
 
     @Test
     void testWrongOptions() {
         testOptions(new Options(new String[] {"-skip", "aaa", "-skip", "bbb", ""}), Arrays.asList("aaa", "bbb"),
-                null, null, null, false, false, false, false);
+                null, null, null, null, null, null, null, false, false, false, false);
     }
 
     @Test
     void testRepeatedOptions() {
+        // Batch mode implies console mode even without -nogui
         testOptions(new Options(Arrays.asList("-dir:123", "-exec:\"oneliner\"", "-port:0",
-                "aaa", "bbb", "-dir:abc/def", "-exec:script.js", "-port:12345")),
+                "-batch:\"oneliner\"", "-jobs:1", "-timeout:0", "-results:abc.csv",
+                "aaa", "bbb", "-dir:abc/def", "-exec:script.js", "-port:12345",
+                "-batch:batch.js", "-jobs:4", "-timeout:60", "-results:results.csv")),
                 Arrays.asList("aaa", "bbb"), new File("abc/def"), "script.js", 12345,
-                false, false, false, false);
+                "batch.js", 4, 60, new File("results.csv"), true, false, false, false);
     }
 
     @Test
@@ -46,12 +50,17 @@ class OptionsTest {
     }
 
     private void testOptions(Options options, Collection<String> paths, File directory, String script, Integer port,
+            String batch, Integer jobs, Integer timeout, File results,
             boolean noGuiFlag, boolean noConfigFlag, boolean helpFlag, boolean versionFlag) {
 
         Assertions.assertArrayEquals(paths.toArray(), options.getPaths().toArray());
         Assertions.assertEquals(directory, options.getDirectory());
         Assertions.assertEquals(script, options.getScript());
         Assertions.assertEquals(port, options.getPort());
+        Assertions.assertEquals(batch, options.getBatch());
+        Assertions.assertEquals(jobs, options.getJobs());
+        Assertions.assertEquals(timeout, options.getTimeout());
+        Assertions.assertEquals(results, options.getResults());
         Assertions.assertEquals(noGuiFlag, options.hasNoGuiFlag());
         Assertions.assertEquals(noConfigFlag, options.hasNoConfigFlag());
         Assertions.assertEquals(helpFlag, options.hasHelpFlag());
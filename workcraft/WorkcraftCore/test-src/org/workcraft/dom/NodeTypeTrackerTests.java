@@ -0,0 +1,164 @@
+package org.workcraft.dom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.dom.math.MathConnection;
+import org.workcraft.dom.math.MathGroup;
+import org.workcraft.dom.math.MathNode;
+import org.workcraft.dom.math.PageNode;
+import org.workcraft.utils.Hierarchy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+class NodeTypeTrackerTests {
+
+    class MockNode extends MathNode {
+
+    }
+
+    @Test
+    void testInit() {
+        MathGroup group = new MathGroup();
+        MockNode n1 = new MockNode();
+        MockNode n2 = new MockNode();
+        MathConnection con = new MathConnection(n1, n2);
+        group.add(n1);
+        group.add(n2);
+        group.add(con);
+
+        NodeTypeTracker ntt = new NodeTypeTracker();
+        ntt.attach(group);
+
+        Assertions.assertEquals(Arrays.asList(n1, n2), new ArrayList<>(ntt.getDescendantsOfType(MockNode.class)));
+        Assertions.assertEquals(Arrays.asList(con), new ArrayList<>(ntt.getDescendantsOfType(MathConnection.class)));
+        Assertions.assertEquals(3, ntt.getDescendantsOfType(MathNode.class).size());
+    }
+
+    @Test
+    void testAddRemove() {
+        MathGroup group = new MathGroup();
+        NodeTypeTracker ntt = new NodeTypeTracker();
+        ntt.attach(group);
+
+        Collection<MockNode> mockNodes = ntt.getDescendantsOfType(MockNode.class);
+        Assertions.assertTrue(mockNodes.isEmpty());
+
+        MockNode n1 = new MockNode();
+        MockNode n2 = new MockNode();
+        group.add(n1);
+        group.add(n2);
+        Assertions.assertEquals(Arrays.asList(n1, n2), new ArrayList<>(mockNodes));
+
+        group.remove(n1);
+        Assertions.assertEquals(Arrays.asList(n2), new ArrayList<>(mockNodes));
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> mockNodes.add(n1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> mockNodes.remove(n2));
+    }
+
+    @Test
+    void testModifyWhileIterating() {
+        MathGroup group = new MathGroup();
+        NodeTypeTracker ntt = new NodeTypeTracker();
+        ntt.attach(group);
+        for (int i = 0; i < 5; i++) {
+            group.add(new MockNode());
+        }
+        Collection<MockNode> mockNodes = ntt.getDescendantsOfType(MockNode.class);
+        int count = 0;
+        for (MockNode node : mockNodes) {
+            group.remove(node);
+            group.add(new MathGroup());
+            count++;
+        }
+        Assertions.assertEquals(5, count);
+        Assertions.assertTrue(mockNodes.isEmpty());
+    }
+
+    @Test
+    void testHierarchy() {
+        MathGroup group = new MathGroup();
+        NodeTypeTracker ntt = new NodeTypeTracker();
+        ntt.attach(group);
+        Collection<MockNode> mockNodes = ntt.getDescendantsOfType(MockNode.class);
+
+        PageNode page = new PageNode();
+        MockNode n1 = new MockNode();
+        MockNode n2 = new MockNode();
+        page.add(n1);
+        group.add(page);
+        group.add(n2);
+        Assertions.assertEquals(2, mockNodes.size());
+        Assertions.assertTrue(mockNodes.containsAll(Hierarchy.getDescendantsOfType(group, MockNode.class)));
+
+        MockNode n3 = new MockNode();
+        page.add(n3);
+        Assertions.assertTrue(mockNodes.contains(n3));
+
+        group.reparent(Arrays.asList(n2), page);
+        Assertions.assertEquals(3, mockNodes.size());
+
+        group.remove(page);
+        Assertions.assertTrue(mockNodes.isEmpty());
+        Assertions.assertTrue(ntt.getDescendantsOfType(PageNode.class).isEmpty());
+    }
+
+    @Test
+    void testOrder() {
+        MathGroup group = new MathGroup();
+        NodeTypeTracker ntt = new NodeTypeTracker();
+        ntt.attach(group);
+        Collection<MockNode> mockNodes = ntt.getDescendantsOfType(MockNode.class);
+        Collection<MathNode> mathNodes = ntt.getDescendantsOfType(MathNode.class);
+
+        PageNode page = new PageNode();
+        page.add(new MockNode());
+        group.add(new MockNode());
+        group.add(page);
+        group.add(new MockNode());
+        assertHierarchyOrder(group, mockNodes, mathNodes);
+
+        // Nodes added to a page go before the root children in the hierarchy order
+        page.add(new MockNode());
+        group.add(new MockNode());
+        assertHierarchyOrder(group, mockNodes, mathNodes);
+
+        PageNode otherPage = new PageNode();
+        otherPage.add(new MockNode());
+        group.add(otherPage);
+        group.reparent(new ArrayList<>(Hierarchy.getChildrenOfType(group, MockNode.class)), otherPage);
+        assertHierarchyOrder(group, mockNodes, mathNodes);
+    }
+
+    private static void assertHierarchyOrder(Node root, Collection<MockNode> mockNodes, Collection<MathNode> mathNodes) {
+        Assertions.assertEquals(new ArrayList<>(Hierarchy.getDescendantsOfType(root, MockNode.class)),
+                new ArrayList<>(mockNodes));
+        Assertions.assertEquals(new ArrayList<>(Hierarchy.getDescendantsOfType(root, MathNode.class)),
+                new ArrayList<>(mathNodes));
+    }
+
+    @Test
+    void testReparentToOtherHierarchy() {
+        MathGroup group = new MathGroup();
+        NodeTypeTracker ntt = new NodeTypeTracker();
+        ntt.attach(group);
+
+        MathGroup otherGroup = new MathGroup();
+        NodeTypeTracker otherNtt = new NodeTypeTracker();
+        otherNtt.attach(otherGroup);
+
+        MockNode n1 = new MockNode();
+        group.add(n1);
+        Collection<MockNode> mockNodes = ntt.getDescendantsOfType(MockNode.class);
+        Collection<MockNode> otherMockNodes = otherNtt.getDescendantsOfType(MockNode.class);
+        Assertions.assertEquals(1, mockNodes.size());
+        Assertions.assertTrue(otherMockNodes.isEmpty());
+
+        group.reparent(Arrays.asList(n1), otherGroup);
+        Assertions.assertTrue(mockNodes.isEmpty());
+        Assertions.assertEquals(Arrays.asList(n1), new ArrayList<>(otherMockNodes));
+    }
+
+}
@@ -0,0 +1,166 @@
+package org.workcraft.dom.visual;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.dom.Container;
+import org.workcraft.dom.Node;
+import org.workcraft.dom.math.CommentNode;
+import org.workcraft.gui.tools.Decorator;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class SpatialIndexTests {
+
+    private static final int COUNT = 2 * SpatialIndex.MIN_CHILD_COUNT;
+
+    private static List<SquareNode> addNodes(Container container) {
+        List<SquareNode> result = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            SquareNode node = new SquareNode(new Rectangle2D.Double(-0.5, -0.5, 1.0, 1.0));
+            node.setPosition(new Point2D.Double(3.0 * i, 0.0));
+            container.add(node);
+            result.add(node);
+        }
+        return result;
+    }
+
+    @Test
+    void testHitTracking() {
+        VisualModel model = new MockVisualModel();
+        Container root = model.getRoot();
+        List<SquareNode> nodes = addNodes(root);
+        Assertions.assertNotNull(SpatialIndexTracker.getIndex(root));
+
+        SquareNode node = nodes.get(10);
+        Assertions.assertSame(node, HitMan.hitFirstChild(new Point2D.Double(30.2, 0.2), root));
+        Assertions.assertNull(HitMan.hitFirstChild(new Point2D.Double(31.5, 0.0), root));
+
+        node.setPosition(new Point2D.Double(500.0, 500.0));
+        Assertions.assertNull(HitMan.hitFirstChild(new Point2D.Double(30.0, 0.0), root));
+        Assertions.assertSame(node, HitMan.hitFirstChild(new Point2D.Double(500.0, 500.0), root));
+
+        root.remove(node);
+        Assertions.assertNull(HitMan.hitFirstChild(new Point2D.Double(500.0, 500.0), root));
+
+        SquareNode newNode = new SquareNode(new Rectangle2D.Double(-0.5, -0.5, 1.0, 1.0));
+        newNode.setPosition(new Point2D.Double(-100.0, -100.0));
+        root.add(newNode);
+        Assertions.assertSame(newNode, HitMan.hitFirstChild(new Point2D.Double(-100.0, -100.0), root));
+    }
+
+    @Test
+    void testGroupTracking() {
+        VisualModel model = new MockVisualModel();
+        Container root = model.getRoot();
+        VisualGroup group = new VisualGroup();
+        root.add(group);
+        List<SquareNode> nodes = addNodes(group);
+        addNodes(root);
+
+        SquareNode node = nodes.get(20);
+        Assertions.assertSame(node, HitMan.hitDeepest(new Point2D.Double(60.0, 0.0), root, SquareNode.class));
+        // Moving the group changes the position of its children in the parent space
+        group.setPosition(new Point2D.Double(0.0, 100.0));
+        Assertions.assertSame(node, HitMan.hitDeepest(new Point2D.Double(60.0, 100.0), root, SquareNode.class));
+        Assertions.assertNotSame(node, HitMan.hitDeepest(new Point2D.Double(60.0, 0.0), root, SquareNode.class));
+    }
+
+    @Test
+    void testNestedGroupRemoval() {
+        VisualModel model = new MockVisualModel();
+        Container root = model.getRoot();
+        VisualGroup outerGroup = new VisualGroup();
+        root.add(outerGroup);
+        VisualGroup innerGroup = new VisualGroup();
+        outerGroup.add(innerGroup);
+        List<SquareNode> nodes = addNodes(innerGroup);
+
+        SquareNode node = nodes.get(10);
+        Assertions.assertSame(node, HitMan.hitDeepest(new Point2D.Double(30.0, 0.0), root, SquareNode.class));
+        // Index of the inner group is dropped with the small outer group, so it is not stale when re-added
+        root.remove(outerGroup);
+        node.setPosition(new Point2D.Double(500.0, 500.0));
+        root.add(outerGroup);
+        Assertions.assertSame(node, HitMan.hitDeepest(new Point2D.Double(500.0, 500.0), root, SquareNode.class));
+    }
+
+    @Test
+    void testQueryOrder() {
+        VisualModel model = new MockVisualModel();
+        Container root = model.getRoot();
+        List<SquareNode> nodes = addNodes(root);
+        SpatialIndex index = SpatialIndexTracker.getIndex(root);
+        List<Node> expected = Arrays.asList(nodes.get(2), nodes.get(3), nodes.get(4));
+        List<Node> candidates = index.query(new Rectangle2D.Double(6.0, -1.0, 6.0, 2.0));
+        Assertions.assertTrue(candidates.containsAll(expected));
+        Assertions.assertEquals(expected, new ArrayList<>(HitMan.hitBox(root,
+                new Point2D.Double(5.0, -1.0), new Point2D.Double(13.0, 1.0))));
+        for (int i = 1; i < candidates.size(); i++) {
+            Assertions.assertTrue(nodes.indexOf(candidates.get(i - 1)) < nodes.indexOf(candidates.get(i)));
+        }
+    }
+
+    @Test
+    void testLabelCulling() {
+        VisualModel model = new MockVisualModel();
+        Container root = model.getRoot();
+        List<LabelledComponent> components = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            CommentNode mathNode = new CommentNode();
+            model.getMathModel().getRoot().add(mathNode);
+            LabelledComponent component = new LabelledComponent(mathNode);
+            component.setPosition(new Point2D.Double(3.0 * i, 0.0));
+            components.add(component);
+        }
+        // Long label that reaches far beyond the body of the last component
+        LabelledComponent component = components.get(COUNT - 1);
+        component.setLabel(String.join("", Collections.nCopies(400, "x")));
+        for (LabelledComponent c : components) {
+            root.add(c);
+        }
+        // Extents are calculated by hit-testing before the label text is rendered for the first time
+        Assertions.assertNull(HitMan.hitFirstChild(new Point2D.Double(-100.0, -100.0), root));
+
+        draw(model, new Rectangle2D.Double(-100.0, -100.0, 1000.0, 200.0));
+        Rectangle2D labelBox = component.getLabelBoundingBox();
+        Assertions.assertTrue(labelBox.getWidth() > 10.0);
+
+        // Clip area that only covers the label, away from the component body
+        Point2D position = component.getPosition();
+        Rectangle2D clip = new Rectangle2D.Double(position.getX() + labelBox.getCenterX() - 0.4 * labelBox.getWidth(),
+                position.getY() + labelBox.getCenterY(), 1.0, 0.1);
+        component.drawn = false;
+        draw(model, clip);
+        Assertions.assertTrue(component.drawn);
+    }
+
+    private static void draw(VisualModel model, Rectangle2D clip) {
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setClip(clip);
+        DrawMan.draw(model, graphics, Decorator.Empty.INSTANCE, model.getRoot());
+        graphics.dispose();
+    }
+
+    private static final class LabelledComponent extends VisualComponent {
+        private boolean drawn = false;
+
+        LabelledComponent(CommentNode refNode) {
+            super(refNode);
+        }
+
+        @Override
+        public void draw(DrawRequest r) {
+            drawn = true;
+            super.draw(r);
+        }
+    }
+
+}
@@ -4,6 +4,12 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.workcraft.formula.bdd.BddManager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 class BddTests {
 
     private static final BddManager BDD_MANAGER = new BddManager();
@@ -60,4 +66,67 @@ class BddTests {
                 new And(new Or(aVar, new Not(bVar)), new Or(new Not(aVar), bVar))));
     }
 
+    @Test
+    void testClassification() {
+        BooleanVariable aVar = new FreeVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        BooleanVariable cVar = new FreeVariable("c");
+        BooleanVariable dVar = new FreeVariable("d");
+
+        // Variable d is redundant as d | !d = 1
+        BooleanFormula formula = new And(new Or(new And(aVar, new Not(bVar)), new Xor(aVar, cVar)),
+                new Or(dVar, new Not(dVar)));
+
+        Map<BooleanVariable, BddManager.Unateness> classification = BDD_MANAGER.classifyVariables(formula);
+        Assertions.assertEquals(Arrays.asList(aVar, bVar, cVar, dVar), new ArrayList<>(classification.keySet()));
+        Assertions.assertEquals(BddManager.Unateness.BINATE, classification.get(aVar));
+        Assertions.assertEquals(BddManager.Unateness.NEGATIVE, classification.get(bVar));
+        Assertions.assertEquals(BddManager.Unateness.BINATE, classification.get(cVar));
+        Assertions.assertEquals(BddManager.Unateness.INDEPENDENT, classification.get(dVar));
+        Assertions.assertEquals(Arrays.asList(aVar, cVar), BDD_MANAGER.getBinateVariables(formula));
+
+        // Redundant variable is both positive and negative unate
+        Assertions.assertTrue(BDD_MANAGER.isPositiveUnate(formula, dVar));
+        Assertions.assertTrue(BDD_MANAGER.isNegativeUnate(formula, dVar));
+        Assertions.assertFalse(BDD_MANAGER.isBinate(formula, dVar));
+    }
+
+    @Test
+    void testBatchEquality() {
+        BooleanVariable aVar = new FreeVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        BooleanFormula formula = new Or(aVar, bVar);
+        boolean[] result = BDD_MANAGER.equal(formula, Arrays.asList(
+                new Or(bVar, aVar), new And(aVar, bVar), new Not(new And(new Not(aVar), new Not(bVar)))));
+
+        Assertions.assertArrayEquals(new boolean[] {true, false, true}, result);
+    }
+
+    @Test
+    void testMetrics() {
+        BddManager bddManager = new BddManager(100, 10);
+        AtomicInteger changeCount = new AtomicInteger();
+        bddManager.setMetricsListener(manager -> changeCount.incrementAndGet());
+
+        List<BooleanVariable> vars = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            vars.add(new FreeVariable("x" + i));
+        }
+        // Comparison of two 8-bit numbers is a function with a large BDD for this variable order
+        BooleanFormula formula = One.getInstance();
+        for (int i = 0; i < 8; i++) {
+            formula = new And(formula, new Iff(vars.get(i), vars.get(i + 8)));
+        }
+        BooleanFormula sameFormula = One.getInstance();
+        for (int i = 7; i >= 0; i--) {
+            sameFormula = new And(new Iff(vars.get(i + 8), vars.get(i)), sameFormula);
+        }
+        Assertions.assertTrue(bddManager.equal(formula, sameFormula));
+        Assertions.assertEquals(16, bddManager.getVariableCount());
+        Assertions.assertTrue(bddManager.getCachedFormulaCount() > 0);
+        Assertions.assertTrue(bddManager.getNodeCount() > 100);
+        Assertions.assertTrue(bddManager.getTableSize() >= bddManager.getNodeCount());
+        Assertions.assertTrue(changeCount.get() > 0);
+    }
+
 }
@@ -0,0 +1,81 @@
+package org.workcraft.formula;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class CompiledFormulaTests {
+
+    @Test
+    void testMuxEvaluation() {
+        BooleanVariable aVar = new FreeVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        BooleanVariable sVar = new FreeVariable("s");
+        BooleanFormula formula = new Or(new And(aVar, sVar), new And(bVar, new Not(sVar)));
+        CompiledFormula function = CompiledFormula.compile(formula);
+        Assertions.assertSame(function, CompiledFormula.compile(formula));
+        Assertions.assertEquals(Arrays.asList(aVar, sVar, bVar), function.getVariables());
+
+        Assertions.assertNull(function.evaluate(0b000, 0b000));
+        // Select is unassigned, but both data inputs agree
+        Assertions.assertEquals(true, function.evaluate(0b101, 0b101));
+        Assertions.assertEquals(false, function.evaluate(0b101, 0b000));
+        Assertions.assertNull(function.evaluate(0b101, 0b001));
+        Assertions.assertEquals(true, function.evaluate(0b011, 0b011));
+        Assertions.assertEquals(false, function.evaluate(0b011, 0b010));
+        Assertions.assertEquals(true, function.evaluate(0b110, 0b100));
+        Assertions.assertNull(function.evaluate(0b010, 0b010));
+
+        // Assignment by variable position, where null is an unassigned variable
+        Boolean[] values = {true, null, true};
+        Assertions.assertEquals(true, function.evaluate(i -> values[i]));
+        values[2] = false;
+        Assertions.assertNull(function.evaluate(i -> values[i]));
+        values[1] = false;
+        Assertions.assertEquals(false, function.evaluate(i -> values[i]));
+    }
+
+    @Test
+    void testConstantEvaluation() {
+        Assertions.assertEquals(true, CompiledFormula.compile(One.getInstance()).evaluate(0, 0));
+        Assertions.assertEquals(false, CompiledFormula.compile(Zero.getInstance()).evaluate(0, 0));
+
+        BooleanVariable aVar = new FreeVariable("a");
+        Assertions.assertEquals(true, CompiledFormula.compile(new Or(aVar, new Not(aVar))).evaluate(0, 0));
+        Assertions.assertEquals(false, CompiledFormula.compile(new Xor(aVar, aVar)).evaluate(0, 0));
+    }
+
+    @Test
+    void testTableEvaluation() {
+        checkAndEvaluation(10);
+    }
+
+    @Test
+    void testBddEvaluation() {
+        checkAndEvaluation(CompiledFormula.MAX_TABLE_VARIABLE_COUNT + 4);
+    }
+
+    private void checkAndEvaluation(int count) {
+        List<BooleanVariable> vars = new ArrayList<>();
+        BooleanFormula formula = One.getInstance();
+        for (int i = 0; i < count; i++) {
+            BooleanVariable var = new FreeVariable("x" + i);
+            vars.add(var);
+            formula = (i == 0) ? var : new And(formula, var);
+        }
+        CompiledFormula function = CompiledFormula.compile(formula);
+        Assertions.assertEquals(vars, function.getVariables());
+
+        long allMask = (1L << count) - 1;
+        long lastMask = 1L << (count - 1);
+        Assertions.assertNull(function.evaluate(0, 0));
+        Assertions.assertEquals(true, function.evaluate(allMask, allMask));
+        Assertions.assertNull(function.evaluate(allMask & ~lastMask, allMask));
+        Assertions.assertEquals(false, function.evaluate(lastMask, 0));
+        Assertions.assertEquals(false, function.evaluate(allMask, allMask & ~lastMask));
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.workcraft.formula;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.formula.dnf.DnfGenerator;
+import org.workcraft.formula.workers.BooleanWorker;
+import org.workcraft.formula.workers.CleverBooleanWorker;
+import org.workcraft.utils.SetUtils;
+
+import java.lang.ref.WeakReference;
+
+class FormulaFactoryTests {
+
+    private final FormulaFactory factory = FormulaFactory.getInstance();
+
+    @Test
+    void testIntern() {
+        BooleanVariable aVar = new FreeVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        BooleanFormula f1 = new Or(new And(aVar, bVar), new Not(aVar));
+        BooleanFormula f2 = new Or(new And(aVar, bVar), new Not(aVar));
+        Assertions.assertNotSame(f1, f2);
+        Assertions.assertEquals(f1.hashCode(), f2.hashCode());
+        Assertions.assertFalse(factory.isCanonical(f1));
+
+        BooleanFormula canonical = factory.intern(f1);
+        Assertions.assertTrue(factory.isCanonical(canonical));
+        Assertions.assertSame(canonical, factory.intern(f2));
+        Assertions.assertSame(canonical, factory.or(factory.and(aVar, bVar), factory.not(aVar)));
+        Assertions.assertNotSame(canonical, factory.or(factory.and(bVar, aVar), factory.not(aVar)));
+        Assertions.assertSame(aVar, factory.invert(factory.not(aVar)));
+
+        // Variables are distinct even if they have the same name
+        BooleanVariable otherVar = new FreeVariable("a");
+        Assertions.assertNotSame(factory.not(aVar), factory.not(otherVar));
+    }
+
+    @Test
+    void testCleverWorker() {
+        BooleanWorker worker = CleverBooleanWorker.getInstance();
+        BooleanVariable aVar = new FreeVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        BooleanVariable cVar = new FreeVariable("c");
+        BooleanFormula ab = new And(aVar, bVar);
+        Assertions.assertSame(factory.intern(ab), worker.and(ab, new And(aVar, bVar)));
+        Assertions.assertSame(Zero.getInstance(), worker.xor(ab, new And(aVar, bVar)));
+
+        BooleanFormula sum = worker.or(worker.or(aVar, ab), cVar);
+        Assertions.assertSame(sum, worker.or(sum, new Or(cVar, aVar)));
+        Assertions.assertSame(One.getInstance(), worker.or(sum, new Or(bVar, new Not(cVar))));
+        Assertions.assertNotSame(One.getInstance(), worker.or(sum, new And(new Not(aVar), new Not(cVar))));
+    }
+
+    @Test
+    void testMemoisedTransforms() {
+        BooleanVariable aVar = new FreeVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        BooleanFormula formula = new Or(new And(aVar, bVar), new And(new Not(aVar), new Not(bVar)));
+        BooleanFormula cofactor = FormulaUtils.replaceOne(formula, aVar);
+        Assertions.assertSame(bVar, cofactor);
+        Assertions.assertSame(cofactor, FormulaUtils.replaceOne(factory.intern(formula), aVar));
+        Assertions.assertSame(factory.not(bVar), FormulaUtils.replaceZero(formula, aVar));
+
+        // Shared subformulas of XOR chains are converted once
+        BooleanFormula xor = aVar;
+        for (int i = 0; i < 8; i++) {
+            xor = new Xor(xor, new FreeVariable("x" + i));
+        }
+        Assertions.assertEquals(256, DnfGenerator.generate(xor).getClauses().size());
+        Assertions.assertEquals(SetUtils.convertArraysToSets(new String[][]{{"a", "b"}, {"a'", "b'"}}),
+                ClauseUtils.getLiteralSets(DnfGenerator.generate(new Iff(aVar, bVar))));
+    }
+
+    @Test
+    void testCachesDoNotRetainVariables() throws InterruptedException {
+        WeakReference<BooleanVariable> reference = createVariableWithFunction();
+        for (int i = 0; (i < 50) && (reference.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertNull(reference.get());
+    }
+
+    private WeakReference<BooleanVariable> createVariableWithFunction() {
+        FunctionVariable aVar = new FunctionVariable("a");
+        BooleanVariable bVar = new FreeVariable("b");
+        aVar.function = factory.or(factory.and(aVar, bVar), factory.not(aVar));
+        FormulaUtils.replaceZero(aVar.function, aVar);
+        FormulaUtils.replaceOne(aVar.function, aVar);
+        DnfGenerator.generate(aVar.function);
+        return new WeakReference<>(aVar);
+    }
+
+    // Variable that references a formula over itself, like a circuit contact and its set function
+    private static final class FunctionVariable extends FreeVariable {
+        private BooleanFormula function;
+
+        FunctionVariable(String label) {
+            super(label);
+        }
+    }
+
+}
@@ -124,6 +124,10 @@ class CommonSettingsTest {
 
         Assertions.assertEquals(Config.toString(EditorCommonSettings.getLargeModelSize()),
                 framework.getConfigVar(prefix + ".largeModelSize", false));
+
+        // Undo history
+        Assertions.assertEquals(Config.toString(EditorCommonSettings.getUndoMemoryLimit()),
+                framework.getConfigVar(prefix + ".undoMemoryLimit", false));
     }
 
     @Test
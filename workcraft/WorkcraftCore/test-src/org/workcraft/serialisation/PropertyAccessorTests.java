@@ -0,0 +1,166 @@
+package org.workcraft.serialisation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.exceptions.ArgumentException;
+
+import java.awt.Color;
+import java.beans.IntrospectionException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+class PropertyAccessorTests {
+
+    public enum Mode { FIRST, SECOND }
+
+    static class Base {
+        private double size;
+
+        public double getSize() {
+            return size;
+        }
+
+        public void setSize(double value) {
+            size = value;
+        }
+    }
+
+    static class Bean extends Base {
+        private int count;
+        private Mode mode;
+        private String label;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int value) {
+            if (value < 0) {
+                throw new ArgumentException("Negative count");
+            }
+            count = value;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode value) {
+            mode = value;
+        }
+
+        @NoAutoSerialisation
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String value) {
+            label = value;
+        }
+
+        public boolean isReadOnly() {
+            return true;
+        }
+    }
+
+    static class TypedBean {
+        private boolean flag;
+        private String text;
+        private Color color;
+
+        public boolean getFlag() {
+            return flag;
+        }
+
+        public void setFlag(boolean value) {
+            flag = value;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String value) {
+            text = value;
+        }
+
+        public Color getColor() {
+            return color;
+        }
+
+        public void setColor(Color value) {
+            color = value;
+        }
+    }
+
+    @Test
+    void testAccessors() throws IntrospectionException, IllegalAccessException, InvocationTargetException {
+        Map<String, PropertyAccessor> accessors = BeanInfoCache.getPropertyAccessors(Bean.class);
+        Assertions.assertEquals(Arrays.asList("count", "mode"), new ArrayList<>(accessors.keySet()));
+        Assertions.assertSame(accessors, BeanInfoCache.getPropertyAccessors(Bean.class));
+
+        Bean bean = new Bean();
+        PropertyAccessor count = accessors.get("count");
+        Assertions.assertEquals(int.class, count.getType());
+        count.set(bean, 5);
+        Assertions.assertEquals(5, count.get(bean));
+
+        PropertyAccessor mode = accessors.get("mode");
+        mode.set(bean, Mode.SECOND);
+        Assertions.assertEquals(Mode.SECOND, mode.get(bean));
+        mode.set(bean, null);
+        Assertions.assertNull(bean.getMode());
+
+        PropertyAccessor size = BeanInfoCache.getPropertyAccessors(Base.class).get("size");
+        size.set(bean, 1.5);
+        Assertions.assertEquals(1.5, bean.getSize());
+    }
+
+    @Test
+    void testTypedAccessors() throws IntrospectionException, IllegalAccessException, InvocationTargetException {
+        Bean bean = new Bean();
+        PropertyAccessor count = BeanInfoCache.getPropertyAccessors(Bean.class).get("count");
+        Assertions.assertEquals(PropertyAccessor.Kind.INT, count.getKind());
+        count.setInt(bean, 7);
+        Assertions.assertEquals(7, count.getInt(bean));
+        Assertions.assertEquals(PropertyAccessor.Kind.ENUM,
+                BeanInfoCache.getPropertyAccessors(Bean.class).get("mode").getKind());
+
+        PropertyAccessor size = BeanInfoCache.getPropertyAccessors(Base.class).get("size");
+        Assertions.assertEquals(PropertyAccessor.Kind.DOUBLE, size.getKind());
+        size.setDouble(bean, 2.5);
+        Assertions.assertEquals(2.5, size.getDouble(bean));
+
+        TypedBean typedBean = new TypedBean();
+        Map<String, PropertyAccessor> accessors = BeanInfoCache.getPropertyAccessors(TypedBean.class);
+        PropertyAccessor flag = accessors.get("flag");
+        Assertions.assertEquals(PropertyAccessor.Kind.BOOLEAN, flag.getKind());
+        flag.setBoolean(typedBean, true);
+        Assertions.assertTrue(flag.getBoolean(typedBean));
+        Assertions.assertEquals(PropertyAccessor.Kind.STRING, accessors.get("text").getKind());
+        Assertions.assertEquals(PropertyAccessor.Kind.OTHER, accessors.get("color").getKind());
+
+        // Typed accessors of another kind are rejected
+        Assertions.assertThrows(IllegalArgumentException.class, () -> count.getDouble(bean));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> flag.setInt(typedBean, 1));
+        InvocationTargetException e = Assertions.assertThrows(InvocationTargetException.class,
+                () -> count.setInt(bean, -1));
+        Assertions.assertTrue(e.getCause() instanceof ArgumentException);
+    }
+
+    @Test
+    void testErrors() throws IntrospectionException, IllegalAccessException {
+        Bean bean = new Bean();
+        PropertyAccessor count = BeanInfoCache.getPropertyAccessors(Bean.class).get("count");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> count.set(bean, "5"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> count.set(bean, null));
+
+        InvocationTargetException e = Assertions.assertThrows(InvocationTargetException.class,
+                () -> count.set(bean, -1));
+        Assertions.assertTrue(e.getCause() instanceof ArgumentException);
+        Assertions.assertEquals(0, bean.getCount());
+    }
+
+}
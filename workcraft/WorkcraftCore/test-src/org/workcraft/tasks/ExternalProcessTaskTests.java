@@ -0,0 +1,105 @@
+package org.workcraft.tasks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.plugins.builtin.settings.ProcessToolSettings;
+import org.workcraft.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+class ExternalProcessTaskTests {
+
+    // Java runtime is the only external tool that is certainly available, and it reports its version to stderr
+    private static List<String> getJavaVersionCommand() {
+        String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getAbsolutePath();
+        return Arrays.asList(java, "-version");
+    }
+
+    private static ExternalProcessOutput run(ExternalProcessTask task) {
+        Result<? extends ExternalProcessOutput> result = task.run(new BasicProgressMonitor<>());
+        Assertions.assertEquals(Result.Outcome.SUCCESS, result.getOutcome());
+        return result.getPayload();
+    }
+
+    @Test
+    void testOutputStreaming() throws IOException {
+        ExternalProcessOutput memoryOutput = run(new ExternalProcessTask(getJavaVersionCommand(), null));
+        Assertions.assertEquals(0, memoryOutput.getReturnCode());
+        String stderr = memoryOutput.getStderrString();
+        Assertions.assertFalse(stderr.isEmpty());
+
+        File directory = FileUtils.createTempDirectory();
+        File stderrFile = new File(directory, "stderr.txt");
+        List<String> lines = new ArrayList<>();
+        ExternalProcessTask task = new ExternalProcessTask(getJavaVersionCommand(), null);
+        task.setStderrFile(stderrFile);
+        task.setStderrConsumer(lines::add);
+        ExternalProcessOutput fileOutput = run(task);
+        Assertions.assertEquals(stderrFile, fileOutput.getStderrFile());
+        Assertions.assertEquals(stderr, FileUtils.readAllText(stderrFile));
+        Assertions.assertEquals(stderr, fileOutput.getStderrString());
+        Assertions.assertEquals(Arrays.asList(stderr.split("\\r?\\n")), lines);
+
+        ExternalProcessTask lineTask = new ExternalProcessTask(getJavaVersionCommand(), null);
+        List<String> consumedLines = new ArrayList<>();
+        lineTask.setStderrConsumer(consumedLines::add);
+        ExternalProcessOutput lineOutput = run(lineTask);
+        Assertions.assertEquals(lines, consumedLines);
+        Assertions.assertEquals(0, lineOutput.getStderr().length);
+
+        FileUtils.deleteOnExitRecursively(directory);
+    }
+
+    // Process that reports the time interval during which it was certainly running
+    static final class IntervalProcess {
+        public static void main(String[] args) throws InterruptedException {
+            System.out.println(System.currentTimeMillis());
+            Thread.sleep(300);
+            System.out.println(System.currentTimeMillis());
+        }
+    }
+
+    private static List<String> getIntervalCommand() {
+        List<String> result = new ArrayList<>(getJavaVersionCommand());
+        result.set(1, "-cp");
+        result.add(System.getProperty("java.class.path"));
+        result.add(IntervalProcess.class.getName());
+        return result;
+    }
+
+    @Test
+    void testProcessLimit() throws InterruptedException, ExecutionException {
+        int maxProcessCount = ProcessToolSettings.getMaxProcessCount();
+        ProcessToolSettings.setMaxProcessCount(2);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<ExternalProcessOutput>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> run(new ExternalProcessTask(getIntervalCommand(), null))));
+            }
+            List<long[]> intervals = new ArrayList<>();
+            for (Future<ExternalProcessOutput> future : futures) {
+                ExternalProcessOutput output = future.get();
+                Assertions.assertEquals(0, output.getReturnCode());
+                String[] lines = output.getStdoutString().trim().split("\\r?\\n");
+                intervals.add(new long[] {Long.parseLong(lines[0]), Long.parseLong(lines[1])});
+            }
+            // Start of any process is overlapped by the intervals of at most one other process
+            for (long[] interval : intervals) {
+                long overlapCount = intervals.stream()
+                        .filter(other -> (other[0] <= interval[0]) && (interval[0] < other[1]))
+                        .count();
+                Assertions.assertTrue(overlapCount <= 2);
+            }
+        } finally {
+            executor.shutdown();
+            ProcessToolSettings.setMaxProcessCount(maxProcessCount);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.workcraft.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+class IndentedXmlWriterTests {
+
+    @Test
+    void sameAsDocumentTest() throws IOException {
+        Document doc = XmlUtils.createDocument();
+        Element model = XmlUtils.createChildElement("model", doc);
+        model.setAttribute("class", "org.workcraft.Model");
+        model.setAttribute("ref", "");
+        Element property = XmlUtils.createChildElement("property", model);
+        property.setAttribute("name", "text");
+        property.setAttribute("value", "a & b < c > d \"e\" 'f'\nline\ttab é 😀");
+        Element root = XmlUtils.createChildElement("root", model);
+        Element node = XmlUtils.createChildElement("node", root);
+        XmlUtils.createChildElement("empty", node);
+        XmlUtils.createChildElement("node", node).setAttribute("ref", "n1");
+        XmlUtils.createChildElement("node", root).setAttribute("ref", "n2");
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        XmlUtils.writeDocument(doc, expected);
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        try (IndentedXmlWriter writer = new IndentedXmlWriter(actual)) {
+            writer.startElement(model);
+            writer.writeElement(property);
+            writer.writeElement(root);
+        }
+
+        Assertions.assertEquals(expected.toString(StandardCharsets.UTF_8.name()),
+                actual.toString(StandardCharsets.UTF_8.name()));
+    }
+
+}
@@ -0,0 +1,162 @@
+package org.workcraft.workspace;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.AffineTransform;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+class MementoManagerTests {
+
+    @Test
+    void testUndoRedo() throws IOException {
+        MementoManager history = new MementoManager();
+        List<Map<String, String>> states = new ArrayList<>();
+        long fullSize = 0;
+        for (int i = 0; i < 20; i++) {
+            Map<String, String> state = createState(i);
+            states.add(state);
+            Resource memento = createMemento(state);
+            fullSize += memento.getSize();
+            history.pushUndo(new ModelState(memento));
+        }
+        // Only the top memento is kept in full
+        Assertions.assertTrue(history.getMemorySize() < fullSize / 4);
+
+        Map<String, String> current = createState(20);
+        for (int i = 19; i >= 10; i--) {
+            Resource memento = history.undo(new ModelState(createMemento(current))).getMemento();
+            current = readMemento(memento);
+            Assertions.assertEquals(states.get(i), current);
+        }
+        Assertions.assertEquals(10, history.getUndoCount());
+        Assertions.assertEquals(10, history.getRedoCount());
+
+        for (int i = 11; i <= 20; i++) {
+            Resource memento = history.redo(new ModelState(createMemento(current))).getMemento();
+            current = readMemento(memento);
+            Assertions.assertEquals(i < 20 ? states.get(i) : createState(20), current);
+        }
+        Assertions.assertFalse(history.canRedo());
+
+        history.clearRedo();
+        while (history.canUndo()) {
+            history.pullUndo();
+        }
+        Assertions.assertEquals(0, history.getMemorySize());
+    }
+
+    @Test
+    void testIdentity() throws IOException {
+        MementoManager history = new MementoManager();
+        Resource saved = createMemento(createState(0));
+        history.pushUndo(new ModelState(saved));
+        history.pushUndo(new ModelState(createMemento(createState(1))));
+        history.pullUndo();
+        // Memento still referenced outside the history is returned as is
+        Assertions.assertSame(saved, history.pullUndo().getMemento());
+    }
+
+    @Test
+    void testSharedMemento() throws IOException {
+        MementoManager history = new MementoManager();
+        Resource memento = createMemento(createState(0));
+        history.pushUndo(new ModelState(memento));
+        long size = history.getMemorySize();
+        // States that only differ in node transforms share the memento
+        for (int i = 1; i <= 10; i++) {
+            history.pushUndo(new ModelState(memento, createTransforms(i)));
+        }
+        Assertions.assertTrue(history.getMemorySize() < size + 10 * 1024);
+
+        for (int i = 10; i >= 1; i--) {
+            ModelState state = history.pullUndo();
+            Assertions.assertSame(memento, state.getMemento());
+            Assertions.assertEquals(createTransforms(i), state.getTransforms());
+        }
+        ModelState state = history.pullUndo();
+        Assertions.assertEquals(new ModelState(memento), state);
+        Assertions.assertEquals(0, history.getMemorySize());
+    }
+
+    @Test
+    void testMemoryLimit() throws IOException {
+        MementoManager history = new MementoManager();
+        for (int i = 0; i < 10; i++) {
+            history.pushUndo(new ModelState(createMemento(createState(i))));
+        }
+        Assertions.assertEquals(10, history.getUndoCount());
+
+        // The oldest mementos are dropped first
+        history.setMemoryLimit(history.getMemorySize() - 1);
+        Assertions.assertEquals(9, history.getUndoCount());
+        Assertions.assertTrue(history.getMemorySize() <= history.getMemoryLimit());
+
+        // The most recent memento is kept even if it does not fit
+        history.setMemoryLimit(0);
+        Assertions.assertEquals(1, history.getUndoCount());
+        Assertions.assertEquals(createState(9), readMemento(history.pullUndo().getMemento()));
+    }
+
+    private Map<String, AffineTransform> createTransforms(int index) {
+        Map<String, AffineTransform> result = new HashMap<>();
+        for (int i = 0; i < index; i++) {
+            result.put("0/" + i, AffineTransform.getTranslateInstance(i, index));
+        }
+        return result;
+    }
+
+    private Map<String, String> createState(int index) {
+        StringBuilder model = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            model.append("<node ref=\"n").append(i).append("\" x=\"").append(i == index ? -1 : i).append("\"/>\n");
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("model.xml", model.toString());
+        result.put("state.xml", "<selection ref=\"n" + index + "\"/>");
+        if ((index % 2) == 0) {
+            result.put("extra.xml", "<extra/>");
+        }
+        return result;
+    }
+
+    private Resource createMemento(Map<String, String> state) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(os)) {
+            for (Map.Entry<String, String> entry : state.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return new Resource("memento", os);
+    }
+
+    private Map<String, String> readMemento(Resource memento) throws IOException {
+        Map<String, String> result = new LinkedHashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(memento.toStream())) {
+            ZipEntry ze;
+            while ((ze = zis.getNextEntry()) != null) {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int count;
+                while ((count = zis.read(buffer)) > 0) {
+                    os.write(buffer, 0, count);
+                }
+                result.put(ze.getName(), new String(os.toByteArray(), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.workcraft.plugins.xmas.tasks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outputs of VXM runs by the SHA-256 hash of the model and the run arguments. The least recently used output
+ * is evicted when the capacity is exceeded. The cache is safe to use from several threads.
+ */
+class VxmCache {
+
+    private final Map<String, VxmOutput> outputs;
+
+    VxmCache(int capacity) {
+        outputs = Collections.synchronizedMap(new LinkedHashMap<String, VxmOutput>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VxmOutput> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Key of the model content and the arguments of a run. The content is hashed, so that the key of
+     * a large model is small.
+     */
+    static String getKey(byte[] content, List<String> items) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest(content)) {
+            result.append(String.format("%02x", b));
+        }
+        for (String item : items) {
+            result.append('\n').append(item);
+        }
+        return result.toString();
+    }
+
+    VxmOutput get(String key) {
+        return outputs.get(key);
+    }
+
+    void put(String key, VxmOutput output) {
+        outputs.put(key, output);
+    }
+
+    int size() {
+        return outputs.size();
+    }
+
+}
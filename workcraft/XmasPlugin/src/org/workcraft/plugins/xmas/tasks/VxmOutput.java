@@ -0,0 +1,86 @@
+package org.workcraft.plugins.xmas.tasks;
+
+import org.workcraft.types.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class VxmOutput {
+
+    public static final int UNKNOWN = -1;
+    public static final int DEADLOCK_FREE = 0;
+    public static final int TRACE_FOUND = 1;
+    public static final int LOCAL_DEADLOCK = 2;
+
+    private final int verdict;
+    private final String message;
+    private final List<Pair<String, Integer>> queueStates;
+    private final String equations;
+    private final String queries;
+    private final String localDeadlock;
+
+    public VxmOutput(int verdict, String message, List<Pair<String, Integer>> queueStates,
+            String equations, String queries, String localDeadlock) {
+
+        this.verdict = verdict;
+        this.message = message;
+        this.queueStates = queueStates == null ? Collections.emptyList() : new ArrayList<>(queueStates);
+        this.equations = equations;
+        this.queries = queries;
+        this.localDeadlock = localDeadlock;
+    }
+
+    // Lines by which VXM reports its verdict
+    public static final String DEADLOCK_FREE_LINE = "DEADLOCK FREE";
+    public static final String TRACE_FOUND_LINE = "TRACE FOUND";
+    public static final String LOCAL_DEADLOCK_LINE = "Local deadlock";
+
+    /**
+     * Verdict of the line if it is one of the VXM verdict lines (surrounding whitespace is ignored),
+     * or UNKNOWN for any other line.
+     */
+    public static int getVerdict(String line) {
+        switch (line.trim()) {
+        case DEADLOCK_FREE_LINE:
+            return DEADLOCK_FREE;
+        case TRACE_FOUND_LINE:
+            return TRACE_FOUND;
+        case LOCAL_DEADLOCK_LINE:
+            return LOCAL_DEADLOCK;
+        default:
+            return UNKNOWN;
+        }
+    }
+
+    public int getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * VXM stdout without its first (verdict) line.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Component names and status flags from the qsl file, or an empty list if it was not requested.
+     */
+    public List<Pair<String, Integer>> getQueueStates() {
+        return Collections.unmodifiableList(queueStates);
+    }
+
+    public String getEquations() {
+        return equations;
+    }
+
+    public String getQueries() {
+        return queries;
+    }
+
+    public String getLocalDeadlock() {
+        return localDeadlock;
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.workcraft.plugins.xmas.tasks;
+
+import org.workcraft.tasks.AbstractResultHandler;
+import org.workcraft.tasks.Result;
+import org.workcraft.utils.DialogUtils;
+
+import javax.swing.*;
+import java.util.function.Consumer;
+
+/**
+ * Passes a successful VXM output to the consumer on the event dispatch thread, as it is typically shown in
+ * dialogs and highlighted in the editor.
+ */
+public class VxmResultHandler extends AbstractResultHandler<VxmOutput> {
+
+    private final Consumer<VxmOutput> consumer;
+
+    public VxmResultHandler(Consumer<VxmOutput> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void handleResult(Result<? extends VxmOutput> result) {
+        if (result.isSuccess()) {
+            VxmOutput output = result.getPayload();
+            SwingUtilities.invokeLater(() -> consumer.accept(output));
+        } else if (result.isFailure()) {
+            Throwable cause = result.getCause();
+            String message = "VXM analysis failed" + (cause == null ? "." : ":\n" + cause.getMessage());
+            SwingUtilities.invokeLater(() -> DialogUtils.showError(message));
+        }
+    }
+
+}
@@ -0,0 +1,221 @@
+package org.workcraft.plugins.xmas.tasks;
+
+import org.workcraft.plugins.xmas.XmasSettings;
+import org.workcraft.tasks.*;
+import org.workcraft.types.Pair;
+import org.workcraft.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Runs VXM on the current CPN model. The verdict and message are taken from stdout as it is produced, and the
+ * requested report files are parsed after VXM finishes. Outputs are cached by the content of the model and the
+ * arguments, so repeating a query on an unchanged network does not run VXM again. VXM reads and writes fixed
+ * files in the shared temporary directory, so the tasks run it one at a time.
+ */
+public class VxmTask implements Task<VxmOutput> {
+
+    public enum Report {
+        QUEUE_STATES,
+        EQUATIONS,
+        QUERIES,
+        LOCAL_DEADLOCK,
+    }
+
+    private static final int CACHE_CAPACITY = 32;
+    private static final long LOCK_POLL_INTERVAL = 100;
+
+    private static final ReentrantLock lock = new ReentrantLock();
+
+    private static final VxmCache cache = new VxmCache(CACHE_CAPACITY);
+
+    private final List<String> args;
+    private final Set<Report> reports;
+    private final File commandFile;
+    private final File directory;
+    private final File cpnFile;
+    private final File inFile;
+    private final File qslFile;
+    private final File equFile;
+    private final File queFile;
+    private final File locFile;
+
+    public VxmTask(List<String> args, Set<Report> reports) {
+        this.args = new ArrayList<>(args);
+        this.reports = reports.isEmpty() ? EnumSet.noneOf(Report.class) : EnumSet.copyOf(reports);
+        // Temporary files are resolved here as the settings are not meant to be accessed from the task thread
+        commandFile = XmasSettings.getTempVxmCommandFile();
+        directory = XmasSettings.getTempVxmDirectory();
+        cpnFile = XmasSettings.getTempVxmCpnFile();
+        inFile = XmasSettings.getTempVxmInFile();
+        qslFile = XmasSettings.getTempVxmQslFile();
+        equFile = XmasSettings.getTempVxmEquFile();
+        queFile = XmasSettings.getTempVxmQueFile();
+        locFile = XmasSettings.getTempVxmLocFile();
+    }
+
+    @Override
+    public Result<? extends VxmOutput> run(ProgressMonitor<? super VxmOutput> monitor) {
+        try {
+            while (!lock.tryLock(LOCK_POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (monitor.isCancelRequested()) {
+                    return Result.cancel();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.cancel();
+        }
+        try {
+            return runLocked(monitor);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Result<? extends VxmOutput> runLocked(ProgressMonitor<? super VxmOutput> monitor) {
+        String key;
+        try {
+            key = getCacheKey();
+        } catch (IOException e) {
+            return Result.exception(e);
+        }
+        VxmOutput cachedOutput = cache.get(key);
+        if (cachedOutput != null) {
+            return Result.success(cachedOutput);
+        }
+
+        try {
+            // Reports of previous runs must not be mistaken for the reports of this one
+            for (File reportFile : Arrays.asList(qslFile, equFile, queFile, locFile)) {
+                Files.deleteIfExists(reportFile.toPath());
+            }
+            FileUtils.copyFile(cpnFile, inFile);
+        } catch (IOException e) {
+            return Result.exception(e);
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(commandFile.getAbsolutePath());
+        command.addAll(args);
+
+        StdoutParser parser = new StdoutParser();
+        ExternalProcessTask task = new ExternalProcessTask(command, directory, true, true);
+        task.setStdoutConsumer(parser);
+        SubtaskMonitor<? super ExternalProcessOutput> subtaskMonitor = new SubtaskMonitor<>(monitor);
+        Result<? extends ExternalProcessOutput> result = task.run(subtaskMonitor);
+
+        if (result.isCancel()) {
+            return Result.cancel();
+        }
+        if (!result.isSuccess()) {
+            return Result.exception(result.getCause());
+        }
+        ExternalProcessOutput processOutput = result.getPayload();
+        if (processOutput.getReturnCode() != 0) {
+            return Result.exception("VXM exited with code " + processOutput.getReturnCode()
+                    + getErrorsMessage(processOutput));
+        }
+        if (parser.getVerdict() == VxmOutput.UNKNOWN) {
+            return Result.exception("VXM did not report a verdict" + getErrorsMessage(processOutput));
+        }
+
+        VxmOutput output;
+        try {
+            output = readReports(parser);
+        } catch (IOException | RuntimeException e) {
+            return Result.exception(e);
+        }
+        cache.put(key, output);
+        return Result.success(output);
+    }
+
+    private static String getErrorsMessage(ExternalProcessOutput processOutput) {
+        String errors = processOutput.getErrorsHeadAndTail();
+        return (errors == null) || errors.isEmpty() ? "." : ":\n" + errors;
+    }
+
+    private String getCacheKey() throws IOException {
+        List<String> items = new ArrayList<>();
+        items.add(commandFile.getAbsolutePath());
+        items.addAll(args);
+        items.add(reports.toString());
+        return VxmCache.getKey(Files.readAllBytes(cpnFile.toPath()), items);
+    }
+
+    private VxmOutput readReports(StdoutParser parser) throws IOException {
+        int verdict = parser.getVerdict();
+        List<Pair<String, Integer>> queueStates = null;
+        if (reports.contains(Report.QUEUE_STATES)) {
+            queueStates = readQueueStates(qslFile);
+        }
+        String equations = null;
+        if (reports.contains(Report.EQUATIONS)) {
+            equations = readLines(equFile);
+        }
+        String queries = null;
+        if (reports.contains(Report.QUERIES)) {
+            queries = readLines(queFile);
+        }
+        String localDeadlock = null;
+        if (reports.contains(Report.LOCAL_DEADLOCK) && (verdict == VxmOutput.LOCAL_DEADLOCK)) {
+            localDeadlock = readLines(locFile);
+        }
+        return new VxmOutput(verdict, parser.getMessage(), queueStates, equations, queries, localDeadlock);
+    }
+
+    private static String readLines(File file) throws IOException {
+        StringBuilder result = new StringBuilder();
+        for (String line : Files.readAllLines(file.toPath())) {
+            result.append(line).append('\n');
+        }
+        return result.toString();
+    }
+
+    static List<Pair<String, Integer>> readQueueStates(File file) throws IOException {
+        List<Pair<String, Integer>> result = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath())) {
+            String[] words = line.trim().split("\\s+");
+            if (words.length >= 2) {
+                result.add(Pair.of(words[0], Integer.parseInt(words[1])));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Takes the verdict from the first line that has one and keeps all lines but the first as the message.
+     */
+    static final class StdoutParser implements Consumer<String> {
+        private final StringBuilder message = new StringBuilder();
+        private int verdict = VxmOutput.UNKNOWN;
+        private boolean firstLine = true;
+
+        int getVerdict() {
+            return verdict;
+        }
+
+        String getMessage() {
+            return message.toString();
+        }
+
+        @Override
+        public void accept(String line) {
+            if (verdict == VxmOutput.UNKNOWN) {
+                verdict = VxmOutput.getVerdict(line);
+            }
+            if (firstLine) {
+                firstLine = false;
+            } else {
+                message.append(line).append('\n');
+            }
+        }
+    }
+
+}
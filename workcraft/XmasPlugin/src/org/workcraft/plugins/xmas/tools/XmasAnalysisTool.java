@@ -1,11 +1,11 @@
 package org.workcraft.plugins.xmas.tools;
 
+import org.workcraft.Framework;
 import org.workcraft.commands.Command;
 import org.workcraft.dom.Node;
 import org.workcraft.gui.tools.AbstractGraphEditorTool;
 import org.workcraft.gui.tools.Decorator;
 import org.workcraft.gui.tools.GraphEditor;
-import org.workcraft.interop.ExternalProcess;
 import org.workcraft.plugins.xmas.VisualXmas;
 import org.workcraft.plugins.xmas.Xmas;
 import org.workcraft.plugins.xmas.XmasSettings;
@@ -15,6 +15,10 @@ import org.workcraft.plugins.xmas.components.VisualQueueComponent;
 import org.workcraft.plugins.xmas.components.VisualSyncComponent;
 import org.workcraft.plugins.xmas.gui.SolutionsDialog1;
 import org.workcraft.plugins.xmas.gui.SolutionsDialog2;
+import org.workcraft.plugins.xmas.tasks.VxmOutput;
+import org.workcraft.plugins.xmas.tasks.VxmResultHandler;
+import org.workcraft.plugins.xmas.tasks.VxmTask;
+import org.workcraft.types.Pair;
 import org.workcraft.utils.*;
 import org.workcraft.workspace.WorkspaceEntry;
 
@@ -22,13 +26,13 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 public class XmasAnalysisTool extends AbstractGraphEditorTool implements Command {
 
@@ -123,70 +127,13 @@ public class XmasAnalysisTool extends AbstractGraphEditorTool implements Command
         return args;
     }
 
-    private static String processLoc(String file) {
-        Scanner sc = null;
-        try {
-            sc = new Scanner(new File(file));
-        } catch (FileNotFoundException e) {
-            LogUtils.logError(e.getMessage());
-        }
-        String str = "";
-        while (sc.hasNextLine()) {
-            String line = sc.nextLine();
-            //System.out.println(sc.next());
-            str = str + line + '\n';
-        }
-        return str;
-    }
-
-    private static void processQsl(String file) {
+    private static void setQueueStates(VxmOutput output) {
         qslist.clear();
-        Scanner sc = null;
-        try {
-            sc = new Scanner(new File(file));
-        } catch (FileNotFoundException e) {
-            LogUtils.logError(e.getMessage());
-        }
-        while (sc.hasNextLine()) {
-            Scanner line = new Scanner(sc.nextLine());
-            Scanner nxt = new Scanner(line.next());
-            String check = nxt.next();
-            nxt = new Scanner(line.next());
-            String str = nxt.next();
-            int num = Integer.parseInt(str);
-            //System.out.println("qsl " + check + " " + str + " " + num);
-            qslist.add(new Qslist(check, num));
+        for (Pair<String, Integer> queueState : output.getQueueStates()) {
+            qslist.add(new Qslist(queueState.getFirst(), queueState.getSecond()));
         }
     }
 
-    private static String processEq(String file) {
-        Scanner sc = null;
-        try {
-            sc = new Scanner(new File(file));
-        } catch (FileNotFoundException e) {
-            LogUtils.logError(e.getMessage());
-        }
-        String str = "";
-        while (sc.hasNextLine()) {
-            String line = sc.nextLine();
-            //System.out.println(sc.next());
-            str = str + line + '\n';
-        }
-        return str;
-    }
-
-    public int checkType(String s) {
-
-        if (s.contains("DEADLOCK FREE")) {
-            return 0;
-        } else if (s.contains("TRACE FOUND")) {
-            return 1;
-        } else if (s.contains("Local")) {
-            return 2;
-        }
-        return -1;
-    }
-
     public void initHighlight(Xmas xnet, VisualXmas vnet) {
         VisualQueueComponent vqc;
         VisualSyncComponent vsc;
@@ -458,72 +405,61 @@ public class XmasAnalysisTool extends AbstractGraphEditorTool implements Command
         okButton.addActionListener(event -> {
             dispose();
             if (index != 0) {
-                try {
-                    File cpnFile = XmasSettings.getTempVxmCpnFile();
-                    File inFile = XmasSettings.getTempVxmInFile();
-                    FileUtils.copyFile(cpnFile, inFile);
-
-                    ArrayList<String> vxmCommand = new ArrayList<>();
-                    vxmCommand.add(XmasSettings.getTempVxmCommandFile().getAbsolutePath());
-                    vxmCommand.addAll(processArg(XmasSettings.getTempVxmVsettingsFile().getAbsolutePath(), index));
-                    ExternalProcess.printCommandLine(vxmCommand);
-                    String[] cmdArray = vxmCommand.toArray(new String[vxmCommand.size()]);
-                    Process vxmProcess = Runtime.getRuntime().exec(cmdArray, null, XmasSettings.getTempVxmDirectory());
-
-                    String s;
-                    String str = "";
-                    InputStreamReader inputStreamReader = new InputStreamReader(vxmProcess.getInputStream());
-                    BufferedReader stdInput = new BufferedReader(inputStreamReader);
-                    int n = 0;
-                    int test = -1;
-                    initHighlight(xnet, vnet);
-                    while ((s = stdInput.readLine()) != null) {
-                        //if (n == 1) test = checkType(s);
-                        if (test == -1) test = checkType(s);
-                        if (n > 0) str = str + s + '\n';
-                        n++;
-                        System.out.println(s);
-                    }
-                    if ("advanced".equals(level)) {
-                        System.out.println("LEVEL IS ADVANCED ");
-                        File qslFile = XmasSettings.getTempVxmQslFile();
-                        processQsl(qslFile.getAbsolutePath());
-
-                        File equFile = XmasSettings.getTempVxmEquFile();
-                        str = processEq(equFile.getAbsolutePath()); //testing str assignment - fpb
-                    } else if ("normal".equals(level) && (test == 2)) {
-                        System.out.println("LEVEL IS NORMAL ");
-                        File locFile = XmasSettings.getTempVxmLocFile();
-                        str = processLoc(locFile.getAbsolutePath());
-                    }
-                    if (test > 0) {
-                        if ("popup".equals(display)) {
-                            if (!"advanced".equals(level)) {
-                                new SolutionsDialog1(test, str);
-                            } else {
-                                new SolutionsDialog2(test, str);
-                            }
-                        }
-                        if (test == 2) {
-                            if ("local".equals(highlight)) {
-                                localHighlight(str, xnet, vnet);
-                            } else if ("rel".equals(highlight)) {
-                                relHighlight(str, xnet, vnet);
-                                activeHighlight(xnet, vnet);
-                            }
-                        }
-                    } else if (test == 0) {
-                        if ("popup".equals(display)) {
-                            DialogUtils.showInfo("The system is deadlock-free.");
-                        }
-                    }
-                } catch (Exception e1) {
-                    e1.printStackTrace();
+                List<String> args = processArg(XmasSettings.getTempVxmVsettingsFile().getAbsolutePath(), index);
+                Set<VxmTask.Report> reports = EnumSet.noneOf(VxmTask.Report.class);
+                if ("advanced".equals(level)) {
+                    reports.add(VxmTask.Report.QUEUE_STATES);
+                    reports.add(VxmTask.Report.EQUATIONS);
+                } else if ("normal".equals(level)) {
+                    reports.add(VxmTask.Report.LOCAL_DEADLOCK);
                 }
+                // Settings are captured now, as they may be changed by another run before the result arrives
+                String vxmLevel = level;
+                String vxmDisplay = display;
+                String vxmHighlight = highlight;
+                VxmTask task = new VxmTask(args, reports);
+                VxmResultHandler resultHandler = new VxmResultHandler(
+                        output -> showResult(output, xnet, vnet, vxmLevel, vxmDisplay, vxmHighlight));
+                Framework.getInstance().getTaskManager().queue(task, "VXM analysis", resultHandler);
             }
         });
     }
 
+    private void showResult(VxmOutput output, Xmas xnet, VisualXmas vnet,
+            String level, String display, String highlight) {
+
+        initHighlight(xnet, vnet);
+        int test = output.getVerdict();
+        String str = output.getMessage();
+        if ("advanced".equals(level)) {
+            setQueueStates(output);
+            str = output.getEquations();
+        } else if ("normal".equals(level) && (test == 2)) {
+            str = output.getLocalDeadlock();
+        }
+        if (test > 0) {
+            if ("popup".equals(display)) {
+                if (!"advanced".equals(level)) {
+                    new SolutionsDialog1(test, str);
+                } else {
+                    new SolutionsDialog2(test, str);
+                }
+            }
+            if (test == 2) {
+                if ("local".equals(highlight)) {
+                    localHighlight(str, xnet, vnet);
+                } else if ("rel".equals(highlight)) {
+                    relHighlight(str, xnet, vnet);
+                    activeHighlight(xnet, vnet);
+                }
+            }
+        } else if (test == 0) {
+            if ("popup".equals(display)) {
+                DialogUtils.showInfo("The system is deadlock-free.");
+            }
+        }
+    }
+
     @Override
     public String getLabel() {
         return null;
@@ -0,0 +1,88 @@
+package org.workcraft.plugins.xmas.tasks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.workcraft.types.Pair;
+import org.workcraft.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class VxmTaskTests {
+
+    private static VxmOutput createOutput(String message) {
+        return new VxmOutput(VxmOutput.DEADLOCK_FREE, message, null, null, null, null);
+    }
+
+    @Test
+    void testVerdict() {
+        Assertions.assertEquals(VxmOutput.DEADLOCK_FREE, VxmOutput.getVerdict("DEADLOCK FREE"));
+        Assertions.assertEquals(VxmOutput.TRACE_FOUND, VxmOutput.getVerdict("  TRACE FOUND\r"));
+        Assertions.assertEquals(VxmOutput.LOCAL_DEADLOCK, VxmOutput.getVerdict("Local deadlock"));
+        // Only the verdict lines themselves are recognised, not other lines mentioning them
+        Assertions.assertEquals(VxmOutput.UNKNOWN, VxmOutput.getVerdict("Local queue q1 is full"));
+        Assertions.assertEquals(VxmOutput.UNKNOWN, VxmOutput.getVerdict("NO TRACE FOUND FOR q1"));
+        Assertions.assertEquals(VxmOutput.UNKNOWN, VxmOutput.getVerdict(""));
+    }
+
+    @Test
+    void testStdoutParser() {
+        VxmTask.StdoutParser parser = new VxmTask.StdoutParser();
+        Assertions.assertEquals(VxmOutput.UNKNOWN, parser.getVerdict());
+        for (String line : Arrays.asList("Reading model", "TRACE FOUND", "q1 -> q2", "DEADLOCK FREE")) {
+            parser.accept(line);
+        }
+        // The first verdict line is taken, and all lines but the first are kept as the message
+        Assertions.assertEquals(VxmOutput.TRACE_FOUND, parser.getVerdict());
+        Assertions.assertEquals("TRACE FOUND\nq1 -> q2\nDEADLOCK FREE\n", parser.getMessage());
+    }
+
+    @Test
+    void testReadQueueStates() throws IOException {
+        File directory = FileUtils.createTempDirectory();
+        File qslFile = new File(directory, "qsl");
+        FileUtils.writeAllText(qslFile, "q1 0\n  q2\t1  \n\nsync1 2 extra\nmalformed\n");
+        List<Pair<String, Integer>> queueStates = VxmTask.readQueueStates(qslFile);
+        Assertions.assertEquals(Arrays.asList(Pair.of("q1", 0), Pair.of("q2", 1), Pair.of("sync1", 2)), queueStates);
+
+        FileUtils.writeAllText(qslFile, "q1 full\n");
+        Assertions.assertThrows(NumberFormatException.class, () -> VxmTask.readQueueStates(qslFile));
+        FileUtils.deleteOnExitRecursively(directory);
+    }
+
+    @Test
+    void testCacheKey() {
+        byte[] content = "cpn".getBytes(StandardCharsets.UTF_8);
+        List<String> items = Arrays.asList("vxm", "-qs", "[QUEUE_STATES]");
+        String key = VxmCache.getKey(content, items);
+        // SHA-256 of the content in hex, followed by the items
+        Assertions.assertTrue(key.matches("[0-9a-f]{64}\\nvxm\\n-qs\\n\\[QUEUE_STATES\\]"));
+        Assertions.assertEquals(key, VxmCache.getKey("cpn".getBytes(StandardCharsets.UTF_8), items));
+        Assertions.assertNotEquals(key, VxmCache.getKey("cpn ".getBytes(StandardCharsets.UTF_8), items));
+        Assertions.assertNotEquals(key, VxmCache.getKey(content, Collections.singletonList("vxm")));
+    }
+
+    @Test
+    void testCacheEviction() {
+        VxmCache cache = new VxmCache(2);
+        VxmOutput output1 = createOutput("1");
+        VxmOutput output2 = createOutput("2");
+        VxmOutput output3 = createOutput("3");
+        Assertions.assertNull(cache.get("key1"));
+        cache.put("key1", output1);
+        cache.put("key2", output2);
+        Assertions.assertSame(output1, cache.get("key1"));
+
+        // Least recently used output is evicted, which is the second one after the first one was used
+        cache.put("key3", output3);
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertSame(output1, cache.get("key1"));
+        Assertions.assertNull(cache.get("key2"));
+        Assertions.assertSame(output3, cache.get("key3"));
+    }
+
+}